@@ -0,0 +1,58 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.automation.DynamicPricingService;
+import com.example.stayops.entity.Room;
+import com.example.stayops.repository.PricingRuleRepository;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.repository.RoomRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * DynamicPricingService.calculateDynamicPrice: occupancy over the hotel plus rule evaluation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicPricingBenchmark {
+
+    private DynamicPricingService pricingService;
+    private List<Room> rooms;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        SyntheticHotel hotel = state.hotel;
+        rooms = hotel.rooms();
+        checkIn = hotel.today().plusDays(10);
+        checkOut = checkIn.plusDays(2);
+
+        PricingRuleRepository ruleRepository = mock(PricingRuleRepository.class, withSettings().stubOnly());
+        when(ruleRepository.findActiveRulesInOrder()).thenReturn(hotel.pricingRules());
+        RoomRepository roomRepository = mock(RoomRepository.class, withSettings().stubOnly());
+        when(roomRepository.findAll()).thenReturn(rooms);
+        ReservationRepository reservationRepository = mock(ReservationRepository.class, withSettings().stubOnly());
+        when(reservationRepository.findReservationsOverlapping(any(), any()))
+                .thenReturn(hotel.overlapping(checkIn, checkOut));
+
+        pricingService = new DynamicPricingService(ruleRepository, reservationRepository, roomRepository);
+    }
+
+    @Benchmark
+    public BigDecimal calculateDynamicPrice() {
+        Room room = rooms.get(next++ % rooms.size());
+        return pricingService.calculateDynamicPrice(room, checkIn, checkOut);
+    }
+}
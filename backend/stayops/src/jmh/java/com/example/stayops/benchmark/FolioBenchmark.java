@@ -0,0 +1,36 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.entity.GuestFolio;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GuestFolio.recalculateBalance, which runs on every posted line item
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FolioBenchmark {
+
+    // A weekend stay, a long stay with extras, and a long-running group master folio
+    @Param({"10", "100", "1000"})
+    public int lineItems;
+
+    private GuestFolio folio;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        folio = SyntheticHotel.folio(lineItems);
+    }
+
+    @Benchmark
+    public BigDecimal recalculateBalance() {
+        folio.recalculateBalance();
+        return folio.getBalance();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.stayops.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Hotel size shared by the scale-dependent benchmarks
+ */
+@State(Scope.Benchmark)
+public class HotelState {
+
+    @Param({"50", "500", "5000"})
+    public int rooms;
+
+    public SyntheticHotel hotel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hotel = SyntheticHotel.of(rooms);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil token parsing as done by the request filter on every authenticated call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret",
+                "myVerySecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmSecureKey2024");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        token = jwtUtil.generateToken("frontdesk@stayops.bench");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "frontdesk@stayops.bench");
+    }
+}
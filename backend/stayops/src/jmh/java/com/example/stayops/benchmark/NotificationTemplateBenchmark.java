@@ -0,0 +1,48 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.automation.NotificationTemplateEngine;
+import com.example.stayops.automation.NotificationTemplateEngine.NotificationContent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationTemplateEngine.generate over the reservation lifecycle events
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationTemplateBenchmark {
+
+    private static final List<String> EVENTS = List.of(
+            "RESERVATION_CREATED", "RESERVATION_CONFIRMED", "RESERVATION_CHECKED_IN",
+            "RESERVATION_CHECKED_OUT", "RESERVATION_CANCELLED");
+
+    private NotificationTemplateEngine engine;
+    private Map<String, Object> data;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new NotificationTemplateEngine();
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        data = Map.of(
+                "reservationId", 12345L,
+                "guestName", "Nimal Perera",
+                "checkInDate", checkIn,
+                "checkOutDate", checkIn.plusDays(3),
+                "roomNumber", "304",
+                "reason", "Guest request");
+    }
+
+    @Benchmark
+    public NotificationContent generate() {
+        return engine.generate(EVENTS.get(next++ % EVENTS.size()), data);
+    }
+}
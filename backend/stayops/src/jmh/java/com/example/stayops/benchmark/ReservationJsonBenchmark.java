@@ -0,0 +1,66 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.dto.ReservationResponseDTO;
+import com.example.stayops.entity.Reservation;
+import com.example.stayops.entity.Room;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JSON serialization of ReservationResponseDTO lists, configured like the application's ObjectMapper
+ *
+ * The payload is the current-month window of the hotel, i.e. what the list endpoints return.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<ReservationResponseDTO> payload;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        // Mirrors spring.jackson.* in application.properties
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        SyntheticHotel hotel = state.hotel;
+        Instant now = Instant.now();
+        payload = hotel.overlapping(hotel.today().withDayOfMonth(1), hotel.today().withDayOfMonth(1).plusMonths(1))
+                .stream()
+                .map(reservation -> toDto(reservation, now))
+                .collect(Collectors.toList());
+    }
+
+    private static ReservationResponseDTO toDto(Reservation reservation, Instant now) {
+        return ReservationResponseDTO.builder()
+                .reservationId(reservation.getReservationId())
+                .guestId(reservation.getGuest().getGuestId())
+                .roomIds(reservation.getRooms().stream().map(Room::getId).collect(Collectors.toSet()))
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .status(reservation.getStatus())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+}
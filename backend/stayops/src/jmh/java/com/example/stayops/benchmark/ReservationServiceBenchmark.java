@@ -0,0 +1,106 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.automation.FraudVelocityTracker;
+import com.example.stayops.dto.ReservationSummaryDTO;
+import com.example.stayops.entity.Reservation;
+import com.example.stayops.entity.Room;
+import com.example.stayops.exception.ValidationException;
+import com.example.stayops.repository.*;
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
+import com.example.stayops.service.impl.ReservationServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReservationServiceImpl's in-memory work over repository results
+ *
+ * Repositories are stub-only mocks answering from precomputed SyntheticHotel data, so the numbers
+ * cover the service logic (overlap filtering, per-day summary loops) and not the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationServiceBenchmark {
+
+    private ReservationServiceImpl service;
+    private MethodHandle checkRoomAvailability;
+    private List<Room> rooms;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private int year;
+    private int month;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) throws Exception {
+        SyntheticHotel hotel = state.hotel;
+        rooms = hotel.rooms();
+        checkIn = hotel.today().plusDays(14);
+        checkOut = checkIn.plusDays(3);
+        year = hotel.today().getYear();
+        month = hotel.today().getMonthValue();
+
+        Map<Long, List<Reservation>> overlapsByRoom = new HashMap<>();
+        for (Room room : rooms) {
+            overlapsByRoom.put(room.getId(), hotel.overlappingForRoom(room.getId(), checkIn, checkOut));
+        }
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        List<Reservation> monthOverlap = hotel.overlapping(monthStart, monthStart.plusMonths(1).minusDays(1));
+
+        ReservationRepository reservationRepository = mock(ReservationRepository.class, withSettings().stubOnly());
+        when(reservationRepository.findOverlappingReservationsForRoom(anyLong(), any(), any()))
+                .thenAnswer(invocation -> overlapsByRoom.get(invocation.<Long>getArgument(0)));
+        when(reservationRepository.findReservationsOverlapping(any(), any())).thenReturn(monthOverlap);
+
+        service = new ReservationServiceImpl(
+                reservationRepository,
+                mock(GuestRepository.class, withSettings().stubOnly()),
+                mock(RoomRepository.class, withSettings().stubOnly()),
+                mock(ReservationDetailsRepository.class, withSettings().stubOnly()),
+                mock(ReservationHistoryRepository.class, withSettings().stubOnly()),
+                mock(FraudVelocityTracker.class, withSettings().stubOnly()),
+                mock(DailyOccupancyService.class, withSettings().stubOnly()),
+                mock(RoomBoardService.class, withSettings().stubOnly()));
+
+        checkRoomAvailability = MethodHandles.privateLookupIn(ReservationServiceImpl.class, MethodHandles.lookup())
+                .findVirtual(ReservationServiceImpl.class, "checkRoomAvailability",
+                        MethodType.methodType(void.class, List.class, LocalDate.class, LocalDate.class, Long.class));
+    }
+
+    /**
+     * Availability of every room for a three-night stay, one checkRoomAvailability call per room
+     */
+    @Benchmark
+    public int availabilitySweep() throws Throwable {
+        int available = 0;
+        for (Room room : rooms) {
+            try {
+                checkRoomAvailability.invoke(service, List.of(room), checkIn, checkOut, (Long) null);
+                available++;
+            } catch (ValidationException unavailable) {
+                // expected for booked rooms
+            }
+        }
+        return available;
+    }
+
+    @Benchmark
+    public void monthlySummary(Blackhole blackhole) {
+        List<ReservationSummaryDTO> summary = service.getMonthlySummary(year, month);
+        blackhole.consume(summary);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.entity.*;
+import com.example.stayops.enums.ReservationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Deterministic in-memory hotel for the benchmarks
+ *
+ * Rooms on 20-room floors with the usual type mix, a guest per four rooms and a booking calendar
+ * from 60 days back to 120 days ahead at roughly 70% occupancy, so 50, 500 and 5,000-room hotels
+ * differ only in size. The same seed always produces the same hotel.
+ */
+public final class SyntheticHotel {
+
+    public static final int DAYS_BACK = 60;
+    public static final int DAYS_AHEAD = 120;
+
+    private static final String[] ROOM_TYPES = {"STANDARD", "STANDARD", "DOUBLE", "DELUXE", "SUITE"};
+    private static final double[] PRICES = {15000, 15000, 18000, 25000, 40000};
+    private static final ReservationStatus[] STATUSES = {
+            ReservationStatus.CONFIRMED, ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN,
+            ReservationStatus.CHECKED_OUT, ReservationStatus.PENDING, ReservationStatus.CANCELLED};
+
+    private final LocalDate today;
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Guest> guests = new ArrayList<>();
+    private final List<Reservation> reservations = new ArrayList<>();
+    private final Map<Long, List<Reservation>> reservationsByRoom = new HashMap<>();
+
+    private SyntheticHotel(int roomCount, long seed) {
+        this.today = LocalDate.now();
+        Random random = new Random(seed);
+
+        Hotel hotel = Hotel.builder().id(1L).name("Synthetic " + roomCount).build();
+
+        for (int i = 0; i < roomCount; i++) {
+            int kind = i % ROOM_TYPES.length;
+            Room room = Room.builder()
+                    .id((long) i + 1)
+                    .roomNumber(String.valueOf(100 * (i / 20 + 1) + i % 20))
+                    .type(ROOM_TYPES[kind])
+                    .capacity(kind >= 3 ? 4 : 2)
+                    .pricePerNight(PRICES[kind])
+                    .availabilityStatus("AVAILABLE")
+                    .floorNumber(String.valueOf(i / 20 + 1))
+                    .hotel(hotel)
+                    .build();
+            rooms.add(room);
+            reservationsByRoom.put(room.getId(), new ArrayList<>());
+        }
+
+        for (int i = 0; i < Math.max(1, roomCount / 4); i++) {
+            guests.add(Guest.builder()
+                    .guestId(String.format("G%06d", i))
+                    .firstName("Guest" + i)
+                    .lastName("Synthetic")
+                    .email("guest" + i + "@stayops.bench")
+                    .phone(String.format("+9477%07d", i))
+                    .build());
+        }
+
+        // Fill each room's calendar with back-to-back stays and the odd gap
+        long reservationId = 1;
+        for (Room room : rooms) {
+            LocalDate cursor = today.minusDays(DAYS_BACK).plusDays(random.nextInt(4));
+            LocalDate horizon = today.plusDays(DAYS_AHEAD);
+            while (cursor.isBefore(horizon)) {
+                int nights = 1 + random.nextInt(5);
+                Reservation reservation = Reservation.builder()
+                        .reservationId(reservationId++)
+                        .guest(guests.get(random.nextInt(guests.size())))
+                        .checkInDate(cursor)
+                        .checkOutDate(cursor.plusDays(nights))
+                        .status(STATUSES[random.nextInt(STATUSES.length)])
+                        .build();
+                reservation.getRooms().add(room);
+                reservations.add(reservation);
+                reservationsByRoom.get(room.getId()).add(reservation);
+                cursor = cursor.plusDays(nights + (random.nextInt(10) < 3 ? 1 + random.nextInt(3) : 0));
+            }
+        }
+    }
+
+    public static SyntheticHotel of(int roomCount) {
+        return new SyntheticHotel(roomCount, 42L);
+    }
+
+    public LocalDate today() {
+        return today;
+    }
+
+    public List<Room> rooms() {
+        return rooms;
+    }
+
+    public List<Guest> guests() {
+        return guests;
+    }
+
+    public List<Reservation> reservations() {
+        return reservations;
+    }
+
+    /**
+     * Same predicate as ReservationRepository.findReservationsOverlapping
+     */
+    public List<Reservation> overlapping(LocalDate start, LocalDate end) {
+        List<Reservation> result = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            if (!reservation.getCheckInDate().isAfter(end) && !reservation.getCheckOutDate().isBefore(start)) {
+                result.add(reservation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same predicate as ReservationRepository.findOverlappingReservationsForRoom
+     */
+    public List<Reservation> overlappingForRoom(Long roomId, LocalDate start, LocalDate end) {
+        List<Reservation> result = new ArrayList<>();
+        for (Reservation reservation : reservationsByRoom.getOrDefault(roomId, List.of())) {
+            if (!reservation.getCheckInDate().isAfter(end) && !reservation.getCheckOutDate().isBefore(start)) {
+                result.add(reservation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A rule set shaped like a production one: early-bird, last-minute, occupancy bands,
+     * weekend uplifts and a couple of seasons, with floors and ceilings
+     */
+    public List<PricingRule> pricingRules() {
+        List<PricingRule> rules = new ArrayList<>();
+        rules.add(rule(1, "EARLY_BIRD").minDaysToArrival(60).priceMultiplier(new BigDecimal("0.85")).build());
+        rules.add(rule(2, "LAST_MINUTE").maxDaysToArrival(2).priceReduction(new BigDecimal("1500")).build());
+        rules.add(rule(3, "OCCUPANCY_BASED").minOccupancyPercent(new BigDecimal("50"))
+                .maxOccupancyPercent(new BigDecimal("75")).priceMultiplier(new BigDecimal("1.10")).build());
+        rules.add(rule(4, "OCCUPANCY_BASED").minOccupancyPercent(new BigDecimal("75"))
+                .maxOccupancyPercent(new BigDecimal("90")).priceMultiplier(new BigDecimal("1.20")).build());
+        rules.add(rule(5, "OCCUPANCY_BASED").minOccupancyPercent(new BigDecimal("90"))
+                .priceMultiplier(new BigDecimal("1.35")).build());
+        rules.add(rule(6, "DEMAND_BASED").dayOfWeek("FRIDAY").priceAddition(new BigDecimal("2500")).build());
+        rules.add(rule(7, "DEMAND_BASED").dayOfWeek("SATURDAY").priceAddition(new BigDecimal("3500")).build());
+        rules.add(rule(8, "SEASONAL").seasonStartDate(today.withDayOfYear(1).plusDays(334))
+                .seasonEndDate(today.withDayOfYear(1).plusYears(1).plusDays(5))
+                .priceMultiplier(new BigDecimal("1.50")).build());
+        rules.add(rule(9, "SEASONAL").seasonStartDate(today.withDayOfYear(1).plusDays(120))
+                .seasonEndDate(today.withDayOfYear(1).plusDays(180))
+                .priceMultiplier(new BigDecimal("0.90")).build());
+        rules.add(rule(10, "FLOOR").minPrice(new BigDecimal("10000")).build());
+        rules.add(rule(11, "CEILING").maxPrice(new BigDecimal("100000")).build());
+        return rules;
+    }
+
+    private static PricingRule.PricingRuleBuilder rule(int priority, String type) {
+        return PricingRule.builder()
+                .id((long) priority)
+                .ruleName(type + " #" + priority)
+                .ruleType(type)
+                .isActive(true)
+                .priority(priority)
+                .dayOfWeek("ALL");
+    }
+
+    /**
+     * An open folio with the given number of line items; every tenth is a payment, every 25th voided
+     */
+    public static GuestFolio folio(int lineItems) {
+        GuestFolio folio = GuestFolio.builder()
+                .id(1L)
+                .folioNumber("F-BENCH-1")
+                .currency("LKR")
+                .build();
+        LocalDate start = LocalDate.now().minusDays(lineItems);
+        for (int i = 0; i < lineItems; i++) {
+            boolean payment = i % 10 == 9;
+            FolioLineItem item = FolioLineItem.builder()
+                    .id((long) i + 1)
+                    .folio(folio)
+                    .transactionDate(start.plusDays(i))
+                    .itemType(payment ? "PAYMENT" : "ROOM_CHARGE")
+                    .description(payment ? "Card payment" : "Room charge")
+                    .amount(payment ? new BigDecimal("-45000.00") : new BigDecimal("12500.00"))
+                    .quantity(1)
+                    .isVoided(i % 25 == 24)
+                    .build();
+            folio.getLineItems().add(item);
+        }
+        return folio;
+    }
+}
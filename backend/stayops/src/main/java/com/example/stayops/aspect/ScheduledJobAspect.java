@@ -0,0 +1,83 @@
+package com.example.stayops.aspect;
+
+import com.example.stayops.automation.JobLeaseService;
+import com.example.stayops.automation.PartitionedJob;
+import com.example.stayops.automation.ScheduledJobMonitor;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * AOP Aspect that times every @Scheduled method through ScheduledJobMonitor
+ *
+ * Runs outermost so the measured time includes the job's own transaction commit,
+ * and the history row is written after that transaction has finished.
+ *
+ * Before that it claims the tick through JobLeaseService, so with several app nodes a tick runs
+ * on one of them only; nodes that lose the claim skip it without recording a run.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ScheduledJobAspect {
+
+    private final ScheduledJobMonitor jobMonitor;
+    private final JobLeaseService leaseService;
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object monitorScheduledJob(ProceedingJoinPoint joinPoint) throws Throwable {
+        String jobName = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+
+        if (!leaseService.isEnabled()) {
+            return monitored(joinPoint, jobName);
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Instant tick = leaseService.tickFor(method.getAnnotation(Scheduled.class), Instant.now());
+
+        if (method.isAnnotationPresent(PartitionedJob.class)) {
+            // Every node runs the method; partitions are claimed one by one inside it
+            leaseService.beginPartitioned(jobName, tick);
+            try {
+                return monitored(joinPoint, jobName);
+            } finally {
+                leaseService.endPartitioned();
+            }
+        }
+
+        Optional<JobLeaseService.Lease> lease = leaseService.tryAcquire(jobName, tick);
+        if (lease.isEmpty()) {
+            return null;
+        }
+        try {
+            return monitored(joinPoint, jobName);
+        } finally {
+            leaseService.release(lease.get());
+        }
+    }
+
+    private Object monitored(ProceedingJoinPoint joinPoint, String jobName) throws Throwable {
+        ScheduledJobMonitor.JobRun run = jobMonitor.begin(jobName);
+        Throwable thrown = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            thrown = t;
+            throw t;
+        } finally {
+            jobMonitor.finish(run, thrown);
+        }
+    }
+}
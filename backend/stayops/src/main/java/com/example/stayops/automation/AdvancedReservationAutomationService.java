@@ -3,6 +3,8 @@ package com.example.stayops.automation;
 import com.example.stayops.entity.*;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.repository.*;
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,6 +30,8 @@ public class AdvancedReservationAutomationService {
     private final RoomRepository roomRepository;
     private final PaymentTransactionRepository paymentRepository;
     private final AuditLogRepository auditLogRepository;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
 
     /**
      * SCENARIO 1: Auto-handle deposit deadlines
@@ -126,6 +130,9 @@ public class AdvancedReservationAutomationService {
                     reservation.getRooms().clear();
                     reservation.getRooms().add(upgradeRoom);
                     reservationRepository.save(reservation);
+                    // Rooms-only change: no entity callback fires, so update the read models here
+                    dailyOccupancyService.markDirty(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                    roomBoardService.reservationChanged(reservation.getReservationId());
 
                     logAudit("RESERVATION", reservation.getReservationId().toString(),
                             "AUTO_UPGRADE", "SYSTEM", "AUTOMATION",
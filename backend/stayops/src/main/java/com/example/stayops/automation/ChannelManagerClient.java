@@ -0,0 +1,17 @@
+package com.example.stayops.automation;
+
+/**
+ * Transport to the external channel manager API
+ *
+ * ChannelManagerService only builds payloads; every network call goes through this
+ * interface so it can be swapped for a stub (or pointed at a local stub server via ota.api.url).
+ */
+public interface ChannelManagerClient {
+
+    /**
+     * POST a JSON payload to the given API path and return the response body
+     *
+     * @throws RuntimeException when the call fails or returns a non-2xx status
+     */
+    String post(String path, Object payload);
+}
@@ -1,86 +1,158 @@
 package com.example.stayops.automation;
 
 import com.example.stayops.entity.ChannelMapping;
+import com.example.stayops.entity.Guest;
+import com.example.stayops.entity.OtaInboxMessage;
 import com.example.stayops.entity.Reservation;
-import com.example.stayops.entity.Room;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.repository.ChannelMappingRepository;
+import com.example.stayops.repository.GuestRepository;
+import com.example.stayops.repository.OtaInboxMessageRepository;
 import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.repository.RoomRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * OTA channel manager integration
+ *
+ * Availability sync is delta-based: availability per room type per date is computed from
+ * one query plus an in-memory sweep, compared to the last snapshot successfully pushed,
+ * and only the changed date ranges are sent, in batches. All network calls go through
+ * ChannelManagerClient.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChannelManagerService {
 
+    // Statuses that do not hold a room (same rule the per-room availability check used)
+    private static final List<ReservationStatus> NON_BLOCKING_STATUSES =
+            List.of(ReservationStatus.CANCELLED, ReservationStatus.CHECKED_OUT);
+
     private final ChannelMappingRepository channelMappingRepository;
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
+    private final GuestRepository guestRepository;
+    private final OtaInboxMessageRepository otaInboxMessageRepository;
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ChannelManagerClient channelManagerClient;
+    private final FraudVelocityTracker fraudVelocityTracker;
+
+    // Last availability successfully pushed: roomType -> date -> rooms available
+    private final Map<String, Map<LocalDate, Integer>> pushedAvailability = new ConcurrentHashMap<>();
+    private final ReentrantLock availabilitySyncLock = new ReentrantLock();
 
-    // Channel Manager API Configuration
-    private static final String CHANNEL_MANAGER_API_URL = "https://api.channelmanager.example.com";
-    private static final String API_KEY = "your-api-key"; // Move to config
+    @Value("${ota.hotel.id:YOUR_HOTEL_ID}")
+    private String hotelId;
+
+    @Value("${ota.sync.batch-size:200}")
+    private int syncBatchSize;
 
     /**
-     * Sync room availability to channel manager
+     * Sync room availability to channel manager (changed dates only)
      */
-    @Transactional
     public void syncAvailabilityToOTA(LocalDate startDate, LocalDate endDate) {
-        log.info("Syncing availability to OTA for dates {} to {}", startDate, endDate);
+        syncAvailabilityToOTA(startDate, endDate, false);
+    }
+
+    /**
+     * Sync room availability to channel manager
+     *
+     * @param fullRefresh ignore the pushed snapshot and resend every date in range
+     * @return number of date ranges sent
+     */
+    public int syncAvailabilityToOTA(LocalDate startDate, LocalDate endDate, boolean fullRefresh) {
+        log.info("Syncing availability to OTA for dates {} to {} (full refresh: {})",
+                startDate, endDate, fullRefresh);
 
+        if (endDate.isBefore(startDate)) {
+            log.warn("Invalid availability sync range {} to {}", startDate, endDate);
+            return 0;
+        }
+
+        // Syncs are serialized so each one diffs against a consistent snapshot
+        availabilitySyncLock.lock();
         try {
-            List<Room> allRooms = roomRepository.findAll();
-            Map<LocalDate, Map<String, Integer>> availability = new HashMap<>();
-
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
-                Map<String, Integer> roomTypeAvailability = calculateAvailabilityForDate(current, allRooms);
-                availability.put(current, roomTypeAvailability);
-                current = current.plusDays(1);
+            Map<String, int[]> availability = calculateAvailability(startDate, endDate);
+            List<Map<String, Object>> changedRanges =
+                    buildChangedRanges(availability, startDate, fullRefresh);
+
+            if (changedRanges.isEmpty()) {
+                log.info("Availability unchanged since last push, nothing sent");
+                return 0;
             }
 
-            // Send to channel manager API
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("hotel_id", "YOUR_HOTEL_ID");
-            payload.put("availability", availability);
+            int batchCount = (changedRanges.size() + syncBatchSize - 1) / syncBatchSize;
+            int sent = 0;
+
+            for (int batch = 0; batch < batchCount; batch++) {
+                List<Map<String, Object>> ranges = changedRanges.subList(
+                        batch * syncBatchSize,
+                        Math.min(changedRanges.size(), (batch + 1) * syncBatchSize));
+
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("hotel_id", hotelId);
+                payload.put("sync_type", fullRefresh ? "FULL" : "DELTA");
+                payload.put("batch", batch + 1);
+                payload.put("batch_count", batchCount);
+                payload.put("availability", ranges);
+
+                String response = channelManagerClient.post("/availability/update", payload);
+                log.debug("Availability batch {}/{} response: {}", batch + 1, batchCount, response);
 
-            String response = sendToChannelManager("/availability/update", payload);
-            log.info("Availability sync response: {}", response);
+                // Only remember what the channel manager accepted, failed batches are resent next time
+                rememberPushed(ranges);
+                sent += ranges.size();
+            }
+
+            log.info("Availability sync complete: {} changed ranges in {} batches", sent, batchCount);
+            return sent;
 
         } catch (Exception e) {
             log.error("Error syncing availability to OTA: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            pruneSnapshotBefore(LocalDate.now());
+            availabilitySyncLock.unlock();
         }
     }
 
+    /**
+     * Forget the pushed snapshot so the next sync sends the full calendar
+     */
+    public void resetAvailabilitySnapshot() {
+        pushedAvailability.clear();
+        log.info("OTA availability snapshot cleared");
+    }
+
     /**
      * Sync rates to channel manager
      */
-    @Transactional
     public void syncRatesToOTA(Map<String, Double> roomTypeRates) {
         log.info("Syncing rates to OTA: {}", roomTypeRates);
 
         try {
             Map<String, Object> payload = new HashMap<>();
-            payload.put("hotel_id", "YOUR_HOTEL_ID");
+            payload.put("hotel_id", hotelId);
             payload.put("rates", roomTypeRates);
             payload.put("currency", "LKR");
 
-            String response = sendToChannelManager("/rates/update", payload);
+            String response = channelManagerClient.post("/rates/update", payload);
             log.info("Rate sync response: {}", response);
 
         } catch (Exception e) {
@@ -89,54 +161,33 @@ public class ChannelManagerService {
     }
 
     /**
-     * Process incoming OTA booking
+     * Process incoming OTA booking synchronously
+     * The webhook uses OtaBookingIngestionService instead; this stays for single manual imports.
      */
     @Transactional
     public Reservation processOTABooking(String otaPayload) {
         log.info("Processing OTA booking");
 
         try {
-            JsonNode bookingData = objectMapper.readTree(otaPayload);
-
-            String externalBookingId = bookingData.path("booking_id").asText();
-            String channelCode = bookingData.path("channel").asText();
+            ParsedOtaBooking booking = parseOTABooking(otaPayload);
 
             // Check for duplicate
-            if (channelMappingRepository.findByExternalBookingId(externalBookingId).isPresent()) {
-                log.warn("Duplicate OTA booking received: {}", externalBookingId);
-                return channelMappingRepository.findByExternalBookingId(externalBookingId)
-                        .get().getReservation();
+            Optional<ChannelMapping> existing =
+                    channelMappingRepository.findByExternalBookingId(booking.getExternalBookingId());
+            if (existing.isPresent()) {
+                log.warn("Duplicate OTA booking received: {}", booking.getExternalBookingId());
+                return existing.get().getReservation();
             }
 
-            // Parse booking details
-            LocalDate checkIn = LocalDate.parse(bookingData.path("check_in").asText());
-            LocalDate checkOut = LocalDate.parse(bookingData.path("check_out").asText());
-            String guestEmail = bookingData.path("guest_email").asText();
-
-            // Create reservation (simplified - in reality, create guest first)
-            Reservation reservation = Reservation.builder()
-                    .checkInDate(checkIn)
-                    .checkOutDate(checkOut)
-                    .status(ReservationStatus.CONFIRMED)
-                    .build();
-
-            reservation = reservationRepository.save(reservation);
-
-            // Create channel mapping
-            ChannelMapping mapping = ChannelMapping.builder()
-                    .reservation(reservation)
-                    .channelCode(channelCode)
-                    .externalBookingId(externalBookingId)
-                    .channelData(otaPayload)
-                    .guestEmailFromChannel(guestEmail)
-                    .isChannelCollectedPayment(true)
-                    .lastSyncedAt(Instant.now())
-                    .build();
-
-            channelMappingRepository.save(mapping);
+            Guest guest = guestRepository.findByEmail(booking.getGuestEmail()).orElse(null);
+
+            Reservation reservation = reservationRepository.save(buildReservation(booking, guest));
+            channelMappingRepository.save(buildChannelMapping(booking, reservation));
+            fraudVelocityTracker.recordBooking(reservation.getReservationId(), booking.getGuestEmail(),
+                    reservation.getCreatedAt());
 
             log.info("Created reservation {} from OTA booking {}",
-                    reservation.getReservationId(), externalBookingId);
+                    reservation.getReservationId(), booking.getExternalBookingId());
 
             return reservation;
 
@@ -146,58 +197,224 @@ public class ChannelManagerService {
         }
     }
 
-    private Map<String, Integer> calculateAvailabilityForDate(LocalDate date, List<Room> allRooms) {
-        Map<String, Integer> availability = new HashMap<>();
+    /**
+     * Parse the fields of an OTA booking payload that StayOps uses
+     */
+    public ParsedOtaBooking parseOTABooking(String otaPayload) throws IOException {
+        JsonNode bookingData = objectMapper.readTree(otaPayload);
 
-        // Group rooms by type
-        Map<String, List<Room>> roomsByType = allRooms.stream()
-                .collect(java.util.stream.Collectors.groupingBy(Room::getType));
+        String externalBookingId = bookingData.path("booking_id").asText();
+        if (externalBookingId.isBlank()) {
+            throw new IllegalArgumentException("OTA payload has no booking_id");
+        }
 
-        for (Map.Entry<String, List<Room>> entry : roomsByType.entrySet()) {
-            String roomType = entry.getKey();
-            List<Room> rooms = entry.getValue();
+        return ParsedOtaBooking.builder()
+                .externalBookingId(externalBookingId)
+                .channelCode(bookingData.path("channel").asText())
+                .checkInDate(LocalDate.parse(bookingData.path("check_in").asText()))
+                .checkOutDate(LocalDate.parse(bookingData.path("check_out").asText()))
+                .guestEmail(bookingData.path("guest_email").asText())
+                .payload(otaPayload)
+                .build();
+    }
 
-            int availableCount = 0;
-            for (Room room : rooms) {
-                if (isRoomAvailable(room, date)) {
-                    availableCount++;
-                }
+    /**
+     * Create reservations and channel mappings for a batch of already-deduplicated bookings
+     * from one channel, in order, and mark their inbox messages in the same transaction.
+     *
+     * @return number of reservations created
+     */
+    @Transactional
+    public int createOTABookings(List<ParsedOtaBooking> bookings) {
+        Set<String> emails = bookings.stream()
+                .map(ParsedOtaBooking::getGuestEmail)
+                .filter(email -> email != null && !email.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, Guest> guestsByEmail = emails.isEmpty() ? Map.of() :
+                guestRepository.findByEmailIn(emails).stream()
+                        .collect(Collectors.toMap(Guest::getEmail, g -> g, (a, b) -> a));
+
+        List<ParsedOtaBooking> accepted = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        List<OtaInboxMessage> inboxUpdates = new ArrayList<>();
+
+        for (ParsedOtaBooking booking : bookings) {
+            Guest guest = guestsByEmail.get(booking.getGuestEmail());
+            if (guest == null) {
+                // reservations.guest_id is mandatory; leave the message for manual handling
+                markInbox(booking, "FAILED", null,
+                        "No guest found for email " + booking.getGuestEmail());
+                inboxUpdates.add(booking.getInboxMessage());
+                continue;
             }
+            accepted.add(booking);
+            reservations.add(buildReservation(booking, guest));
+        }
 
-            availability.put(roomType, availableCount);
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+
+        List<ChannelMapping> mappings = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            ParsedOtaBooking booking = accepted.get(i);
+            Reservation reservation = saved.get(i);
+            mappings.add(buildChannelMapping(booking, reservation));
+
+            markInbox(booking, "PROCESSED", reservation.getReservationId(), null);
+            inboxUpdates.add(booking.getInboxMessage());
+            fraudVelocityTracker.recordBooking(reservation.getReservationId(), booking.getGuestEmail(),
+                    reservation.getCreatedAt());
         }
+        channelMappingRepository.saveAll(mappings);
 
-        return availability;
+        inboxUpdates.removeIf(Objects::isNull);
+        otaInboxMessageRepository.saveAll(inboxUpdates);
+
+        log.info("Created {} reservations from {} OTA bookings", saved.size(), bookings.size());
+        return saved.size();
     }
 
-    private boolean isRoomAvailable(Room room, LocalDate date) {
-        List<Reservation> conflicts = reservationRepository
-                .findOverlappingReservationsForRoom(room.getId(), date, date);
+    private Reservation buildReservation(ParsedOtaBooking booking, Guest guest) {
+        return Reservation.builder()
+                .checkInDate(booking.getCheckInDate())
+                .checkOutDate(booking.getCheckOutDate())
+                .guest(guest)
+                .status(ReservationStatus.CONFIRMED)
+                .build();
+    }
 
-        return conflicts.stream()
-                .noneMatch(r -> r.getStatus() != ReservationStatus.CANCELLED &&
-                        r.getStatus() != ReservationStatus.CHECKED_OUT);
+    private ChannelMapping buildChannelMapping(ParsedOtaBooking booking, Reservation reservation) {
+        return ChannelMapping.builder()
+                .reservation(reservation)
+                .channelCode(booking.getChannelCode())
+                .externalBookingId(booking.getExternalBookingId())
+                .channelData(booking.getPayload())
+                .guestEmailFromChannel(booking.getGuestEmail())
+                .isChannelCollectedPayment(true)
+                .lastSyncedAt(Instant.now())
+                .build();
     }
 
-    private String sendToChannelManager(String endpoint, Map<String, Object> payload) {
-        try {
-            String url = CHANNEL_MANAGER_API_URL + endpoint;
+    private void markInbox(ParsedOtaBooking booking, String status, Long reservationId, String error) {
+        OtaInboxMessage message = booking.getInboxMessage();
+        if (message == null) {
+            return;
+        }
+        message.setStatus(status);
+        message.setReservationId(reservationId);
+        message.setErrorMessage(error);
+        message.setProcessedAt(Instant.now());
+    }
+
+    /**
+     * Rooms available per room type for each date in [startDate, endDate]
+     * One query returns the inventory and every blocking stay; a per-room bitmap
+     * keeps a room that appears in two overlapping stays from being counted twice.
+     */
+    private Map<String, int[]> calculateAvailability(LocalDate startDate, LocalDate endDate) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
 
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Bearer " + API_KEY);
-            headers.set("Content-Type", "application/json");
+        Map<Long, String> roomTypes = new HashMap<>();
+        Map<Long, BitSet> occupiedDays = new HashMap<>();
 
-            org.springframework.http.HttpEntity<Map<String, Object>> request =
-                    new org.springframework.http.HttpEntity<>(payload, headers);
+        for (Object[] row : roomRepository.findRoomOccupancySpans(startDate, endDate, NON_BLOCKING_STATUSES)) {
+            Long roomId = (Long) row[0];
+            roomTypes.put(roomId, (String) row[1]);
 
-            org.springframework.http.ResponseEntity<String> response =
-                    restTemplate.postForEntity(url, request, String.class);
+            LocalDate checkIn = (LocalDate) row[2];
+            LocalDate checkOut = (LocalDate) row[3];
+            if (checkIn == null || checkOut == null) {
+                continue;
+            }
 
-            return response.getBody();
+            // A stay blocks its check-in through check-out dates inclusive
+            int from = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, checkIn));
+            int to = (int) Math.min(days - 1, ChronoUnit.DAYS.between(startDate, checkOut));
+            if (from <= to) {
+                occupiedDays.computeIfAbsent(roomId, id -> new BitSet(days)).set(from, to + 1);
+            }
+        }
 
-        } catch (Exception e) {
-            log.error("Error sending to channel manager: {}", e.getMessage(), e);
-            throw new RuntimeException("Channel manager sync failed", e);
+        Map<String, int[]> availability = new HashMap<>();
+        roomTypes.forEach((roomId, type) -> {
+            int[] available = availability.computeIfAbsent(type, t -> new int[days]);
+            BitSet occupied = occupiedDays.get(roomId);
+            for (int day = 0; day < days; day++) {
+                if (occupied == null || !occupied.get(day)) {
+                    available[day]++;
+                }
+            }
+        });
+
+        return availability;
+    }
+
+    /**
+     * Collapse dates whose availability differs from the pushed snapshot into
+     * [room_type, from, to, available] ranges of consecutive dates with the same count
+     */
+    private List<Map<String, Object>> buildChangedRanges(Map<String, int[]> availability,
+                                                         LocalDate startDate, boolean fullRefresh) {
+        List<Map<String, Object>> ranges = new ArrayList<>();
+
+        availability.forEach((roomType, available) -> {
+            Map<LocalDate, Integer> pushed = pushedAvailability.getOrDefault(roomType, Map.of());
+
+            int rangeStart = -1;
+            for (int day = 0; day <= available.length; day++) {
+                boolean changed = day < available.length && (fullRefresh
+                        || !Integer.valueOf(available[day]).equals(pushed.get(startDate.plusDays(day))));
+                boolean continuesRange = changed && rangeStart >= 0 && available[day] == available[rangeStart];
+
+                if (rangeStart >= 0 && !continuesRange) {
+                    ranges.add(availabilityRange(roomType, startDate.plusDays(rangeStart),
+                            startDate.plusDays(day - 1), available[rangeStart]));
+                    rangeStart = -1;
+                }
+                if (changed && rangeStart < 0) {
+                    rangeStart = day;
+                }
+            }
+        });
+
+        return ranges;
+    }
+
+    private Map<String, Object> availabilityRange(String roomType, LocalDate from, LocalDate to, int available) {
+        Map<String, Object> range = new LinkedHashMap<>();
+        range.put("room_type", roomType);
+        range.put("from", from);
+        range.put("to", to);
+        range.put("available", available);
+        return range;
+    }
+
+    private void rememberPushed(List<Map<String, Object>> ranges) {
+        for (Map<String, Object> range : ranges) {
+            Map<LocalDate, Integer> pushed = pushedAvailability.computeIfAbsent(
+                    (String) range.get("room_type"), type -> new ConcurrentHashMap<>());
+            LocalDate to = (LocalDate) range.get("to");
+            Integer available = (Integer) range.get("available");
+            for (LocalDate date = (LocalDate) range.get("from"); !date.isAfter(to); date = date.plusDays(1)) {
+                pushed.put(date, available);
+            }
         }
     }
-}
\ No newline at end of file
+
+    private void pruneSnapshotBefore(LocalDate date) {
+        pushedAvailability.values().forEach(pushed -> pushed.keySet().removeIf(d -> d.isBefore(date)));
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParsedOtaBooking {
+        private String externalBookingId;
+        private String channelCode;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+        private String guestEmail;
+        private String payload;
+        private OtaInboxMessage inboxMessage; // null for synchronous imports
+    }
+}
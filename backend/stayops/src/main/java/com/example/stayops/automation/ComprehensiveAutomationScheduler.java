@@ -20,6 +20,7 @@ import org.springframework.stereotype.Component;
 public class ComprehensiveAutomationScheduler {
 
     private final AdvancedReservationAutomationService advancedService;
+    private final ScheduledJobMonitor jobMonitor;
 
     // ========================================================================
     // PAYMENT & FINANCIAL AUTOMATIONS
@@ -33,8 +34,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== PAYMENT: Checking deposit deadlines =====");
         try {
             int cancelled = advancedService.handleDepositDeadlines();
+            jobMonitor.recordProcessed(cancelled);
             log.info("Deposit deadline check complete. Cancelled: {}", cancelled);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in deposit deadline handling", e);
         }
     }
@@ -47,8 +50,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== PAYMENT: Applying late checkout fees =====");
         try {
             int feesApplied = advancedService.applyLateCheckoutFees();
+            jobMonitor.recordProcessed(feesApplied);
             log.info("Late checkout fees applied: {}", feesApplied);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error applying late checkout fees", e);
         }
     }
@@ -65,8 +70,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== REPUTATION: Detecting repeat no-shows =====");
         try {
             int flagged = advancedService.detectRepeatNoShows();
+            jobMonitor.recordProcessed(flagged);
             log.info("Repeat no-show detection complete. Flagged: {}", flagged);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error detecting repeat no-shows", e);
         }
     }
@@ -79,8 +86,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== LOYALTY: Updating loyalty points =====");
         try {
             int updated = advancedService.updateLoyaltyPoints();
+            jobMonitor.recordProcessed(updated);
             log.info("Loyalty points updated for {} guests", updated);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error updating loyalty points", e);
         }
     }
@@ -97,8 +106,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== INVENTORY: Processing auto-upgrades =====");
         try {
             int upgraded = advancedService.autoUpgradeReservations();
+            jobMonitor.recordProcessed(upgraded);
             log.info("Auto-upgrade complete. Upgraded: {}", upgraded);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in auto-upgrade process", e);
         }
     }
@@ -111,8 +122,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== MAINTENANCE: Scheduling maintenance windows =====");
         try {
             int scheduled = advancedService.scheduleMaintenanceWindows();
+            jobMonitor.recordProcessed(scheduled);
             log.info("Maintenance scheduled for {} rooms", scheduled);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error scheduling maintenance", e);
         }
     }
@@ -125,10 +138,12 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== INVENTORY: Checking for overbooking =====");
         try {
             int alerts = advancedService.preventOverbooking();
+            jobMonitor.recordProcessed(alerts);
             if (alerts > 0) {
                 log.error("CRITICAL: {} overbooking situations detected!", alerts);
             }
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in overbooking detection", e);
         }
     }
@@ -141,8 +156,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== INVENTORY: Releasing expired group blocks =====");
         try {
             int released = advancedService.releaseExpiredGroupBlocks();
+            jobMonitor.recordProcessed(released);
             log.info("Released {} expired group block rooms", released);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error releasing group blocks", e);
         }
     }
@@ -159,8 +176,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== REVENUE: Applying last-minute discounts =====");
         try {
             int discounts = advancedService.applyLastMinuteDiscounts();
+            jobMonitor.recordProcessed(discounts);
             log.info("Last-minute discounts applied to {} rooms", discounts);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error applying last-minute discounts", e);
         }
     }
@@ -177,8 +196,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== COMMUNICATION: Sending pre-arrival information =====");
         try {
             int sent = advancedService.sendPreArrivalInformation();
+            jobMonitor.recordProcessed(sent);
             log.info("Pre-arrival info sent to {} guests", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error sending pre-arrival information", e);
         }
     }
@@ -191,8 +212,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== COMMUNICATION: Sending mid-stay surveys =====");
         try {
             int sent = advancedService.sendMidStaySatisfactionChecks();
+            jobMonitor.recordProcessed(sent);
             log.info("Mid-stay surveys sent to {} guests", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error sending mid-stay surveys", e);
         }
     }
@@ -205,8 +228,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== COMMUNICATION: Sending review requests =====");
         try {
             int sent = advancedService.sendReviewRequests();
+            jobMonitor.recordProcessed(sent);
             log.info("Review requests sent to {} guests", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error sending review requests", e);
         }
     }
@@ -219,8 +244,10 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== COMMUNICATION: Checking for birthdays =====");
         try {
             int sent = advancedService.sendBirthdayGreetings();
+            jobMonitor.recordProcessed(sent);
             log.info("Birthday greetings sent to {} guests", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error sending birthday greetings", e);
         }
     }
@@ -233,10 +260,12 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== COMMUNICATION: Checking weather conditions =====");
         try {
             int sent = advancedService.sendWeatherAlerts();
+            jobMonitor.recordProcessed(sent);
             if (sent > 0) {
                 log.info("Weather alerts sent to {} arriving guests", sent);
             }
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error sending weather alerts", e);
         }
     }
@@ -253,10 +282,12 @@ public class ComprehensiveAutomationScheduler {
         log.info("===== WAITLIST: Processing waitlist notifications =====");
         try {
             int notified = advancedService.processWaitlist();
+            jobMonitor.recordProcessed(notified);
             if (notified > 0) {
                 log.info("Waitlist processed. Notified: {}", notified);
             }
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error processing waitlist", e);
         }
     }
@@ -0,0 +1,32 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.enums.StaffRole;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chooses who a queued service request goes to
+ *
+ * ServiceRequestDispatcher uses the strategy named by stayops.dispatch.routing and only offers
+ * active staff below stayops.dispatch.max-open-per-staff. Returning empty leaves the request
+ * queued until someone frees up.
+ */
+public interface DispatchRoutingStrategy {
+
+    String name();
+
+    Optional<Candidate> choose(Ticket ticket, List<Candidate> available);
+
+    /**
+     * A queued request as the router sees it; skill is the staff role its service type needs
+     */
+    record Ticket(Long requestId, String serviceType, String priority, StaffRole skill, String floor) {
+    }
+
+    /**
+     * A staff member with room for more work; floor is where their latest request was
+     */
+    record Candidate(String staffId, StaffRole role, int openRequests, String floor) {
+    }
+}
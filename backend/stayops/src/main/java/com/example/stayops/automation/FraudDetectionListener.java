@@ -1,12 +1,12 @@
 package com.example.stayops.automation;
 
 import com.example.stayops.entity.PaymentTransaction;
+import com.example.stayops.event.PaymentBatchEvent;
 import com.example.stayops.event.PaymentEvent;
 import com.example.stayops.repository.PaymentTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +18,6 @@ public class FraudDetectionListener {
     private final FraudDetectionService fraudDetectionService;
     private final PaymentTransactionRepository paymentRepository;
 
-    @Async
     @EventListener
     @Transactional
     public void handlePaymentEvent(PaymentEvent event) {
@@ -35,4 +34,23 @@ public class FraudDetectionListener {
                     event.getPaymentId(), e.getMessage(), e);
         }
     }
+
+    /**
+     * Bulk status changes: the payments are loaded in one query instead of one lookup each
+     */
+    @EventListener
+    @Transactional
+    public void handlePaymentBatch(PaymentBatchEvent event) {
+        log.info("Fraud detection triggered for {} payments of batch event: {}",
+                event.getChanges().size(), event.getEventType());
+
+        for (PaymentTransaction payment : paymentRepository.findWithReservationAndGuestByIdIn(event.getPaymentIds())) {
+            try {
+                fraudDetectionService.checkPaymentFraud(payment);
+            } catch (Exception e) {
+                log.error("Error in fraud detection for payment {}: {}",
+                        payment.getId(), e.getMessage(), e);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,19 +1,21 @@
 package com.example.stayops.automation;
 
 import com.example.stayops.entity.FraudAlert;
+import com.example.stayops.entity.Guest;
 import com.example.stayops.entity.PaymentTransaction;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.PaymentStatus;
 import com.example.stayops.repository.FraudAlertRepository;
-import com.example.stayops.repository.PaymentTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,26 +23,38 @@ import java.util.List;
 public class FraudDetectionService {
 
     private final FraudAlertRepository fraudAlertRepository;
-    private final PaymentTransactionRepository paymentRepository;
+    private final FraudVelocityTracker velocityTracker;
 
     // Thresholds
-    private static final int FAILED_PAYMENT_THRESHOLD = 3;
-    private static final int VELOCITY_CHECK_HOURS = 24;
-    private static final int MAX_BOOKINGS_PER_DAY = 5;
+    @Value("${fraud.detection.failed.payment.threshold:3}")
+    private int failedPaymentThreshold;
+
+    @Value("${fraud.detection.max.bookings.per.day:5}")
+    private int maxBookingsPerWindow;
+
+    @Value("${fraud.detection.max.names.per.card:2}")
+    private int maxNamesPerCard;
 
     @Transactional
     public void checkPaymentFraud(PaymentTransaction payment) {
         log.info("Running fraud detection for payment: {}", payment.getId());
 
         Reservation reservation = payment.getReservation();
-        String guestEmail = reservation.getGuest() != null ?
-                reservation.getGuest().getEmail() : null;
+        Guest guest = reservation.getGuest();
+        String guestEmail = guest != null ? guest.getEmail() : null;
 
         if (guestEmail == null) {
             log.warn("Cannot perform fraud check - no guest email");
             return;
         }
 
+        // Feed the velocity counters before scoring so this payment counts
+        if (payment.getStatus() == PaymentStatus.FAILED) {
+            velocityTracker.recordFailedPayment(payment.getId(), guestEmail, payment.getCardToken(), payment.getCreatedAt());
+        }
+        velocityTracker.recordCardHolder(payment.getCardToken(), guest.getFirstName(),
+                guest.getLastName(), payment.getCreatedAt());
+
         // Check 1: Multiple failed payments
         checkMultipleFailedPayments(payment, reservation, guestEmail);
 
@@ -59,18 +73,12 @@ public class FraudDetectionService {
             return;
         }
 
-        Instant last24Hours = Instant.now().minus(Duration.ofHours(24));
-
-        List<PaymentTransaction> recentPayments = paymentRepository
-                .findByReservationReservationId(reservation.getReservationId());
-
-        long failedCount = recentPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.FAILED &&
-                        p.getCreatedAt().isAfter(last24Hours))
-                .count();
+        long failedCount = Math.max(
+                velocityTracker.failedPaymentsForEmail(guestEmail),
+                velocityTracker.failedPaymentsForCard(payment.getCardToken()));
 
-        if (failedCount >= FAILED_PAYMENT_THRESHOLD) {
-            int riskScore = calculateRiskScore((int) failedCount, FAILED_PAYMENT_THRESHOLD);
+        if (failedCount >= failedPaymentThreshold) {
+            int riskScore = calculateRiskScore((int) failedCount, failedPaymentThreshold);
 
             FraudAlert alert = FraudAlert.builder()
                     .reservation(reservation)
@@ -79,8 +87,8 @@ public class FraudDetectionService {
                     .severity(riskScore > 70 ? "HIGH" : "MEDIUM")
                     .status("PENDING")
                     .riskScore(riskScore)
-                    .details(String.format("Guest has %d failed payment attempts in last 24 hours",
-                            failedCount))
+                    .details(String.format("Guest has %d failed payment attempts in last %d hours",
+                            failedCount, velocityTracker.getWindowHours()))
                     .build();
 
             fraudAlertRepository.save(alert);
@@ -91,13 +99,10 @@ public class FraudDetectionService {
     }
 
     private void checkVelocity(Reservation reservation, String guestEmail) {
-        Instant last24Hours = Instant.now().minus(Duration.ofHours(VELOCITY_CHECK_HOURS));
+        long recentBookings = velocityTracker.bookingsForEmail(guestEmail);
 
-        long recentAlerts = fraudAlertRepository.countRecentAlertsByEmail(guestEmail, last24Hours);
-
-        // Simple velocity check - in real implementation, check actual reservation count
-        if (recentAlerts >= MAX_BOOKINGS_PER_DAY) {
-            int riskScore = calculateRiskScore((int) recentAlerts, MAX_BOOKINGS_PER_DAY);
+        if (recentBookings >= maxBookingsPerWindow) {
+            int riskScore = calculateRiskScore((int) recentBookings, maxBookingsPerWindow);
 
             FraudAlert alert = FraudAlert.builder()
                     .reservation(reservation)
@@ -106,14 +111,14 @@ public class FraudDetectionService {
                     .severity(riskScore > 80 ? "CRITICAL" : "HIGH")
                     .status("PENDING")
                     .riskScore(riskScore)
-                    .details(String.format("Suspicious velocity: %d bookings/alerts in %d hours",
-                            recentAlerts, VELOCITY_CHECK_HOURS))
+                    .details(String.format("Suspicious velocity: %d bookings in %d hours",
+                            recentBookings, velocityTracker.getWindowHours()))
                     .build();
 
             fraudAlertRepository.save(alert);
 
-            log.warn("FRAUD ALERT: Velocity check failed for guest {} - {} attempts in {}h",
-                    guestEmail, recentAlerts, VELOCITY_CHECK_HOURS);
+            log.warn("FRAUD ALERT: Velocity check failed for guest {} - {} bookings in {}h",
+                    guestEmail, recentBookings, velocityTracker.getWindowHours());
         }
     }
 
@@ -121,12 +126,30 @@ public class FraudDetectionService {
                                          Reservation reservation,
                                          String guestEmail) {
 
-        // Check if same card used with multiple different emails
-        if (payment.getCardToken() != null) {
-            // This would require tracking card tokens across reservations
-            // Simplified version here
-            log.debug("Checking suspicious patterns for card token: {}",
-                    payment.getCardToken());
+        // Same card used under several different cardholder names
+        if (payment.getCardToken() == null) {
+            return;
+        }
+
+        int distinctNames = velocityTracker.distinctNamesForCard(payment.getCardToken());
+
+        if (distinctNames > maxNamesPerCard) {
+            int riskScore = calculateRiskScore(distinctNames, maxNamesPerCard + 1);
+
+            FraudAlert alert = FraudAlert.builder()
+                    .reservation(reservation)
+                    .guestEmail(guestEmail)
+                    .alertType("SUSPICIOUS_PATTERN")
+                    .severity(riskScore > 80 ? "CRITICAL" : "HIGH")
+                    .status("PENDING")
+                    .riskScore(riskScore)
+                    .details(String.format("Card ending %s used by %d different names in %d hours",
+                            payment.getCardLast4(), distinctNames, velocityTracker.getWindowHours()))
+                    .build();
+
+            fraudAlertRepository.save(alert);
+
+            log.warn("FRAUD ALERT: Card {} used by {} different names", payment.getCardLast4(), distinctNames);
         }
     }
 
@@ -172,4 +195,8 @@ public class FraudDetectionService {
     public List<FraudAlert> getHighRiskAlerts() {
         return fraudAlertRepository.findBySeverityAndStatus("HIGH", "PENDING");
     }
-}
\ No newline at end of file
+
+    public Map<String, Object> getVelocityStats() {
+        return velocityTracker.getStats();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.enums.PaymentStatus;
+import com.example.stayops.repository.PaymentTransactionRepository;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.util.SlidingWindowCounter;
+import com.example.stayops.util.SlidingWindowDistinctCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory velocity counters for fraud scoring
+ *
+ * Keeps failed payments (by email and card), bookings (by email) and distinct
+ * cardholder names per card over the fraud.detection.velocity.check.hours window, so
+ * FraudDetectionService can score a payment without querying the database.
+ * Counters are warmed from payments and reservations created inside the window at startup.
+ * There is no IP counter: no booking path carries the client IP down to the service layer.
+ *
+ * Signals are counted once per payment or reservation id: events are delivered at least once, and
+ * a booking is only counted after its transaction commits, so a rolled-back batch that is retried
+ * booking by booking is not counted twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudVelocityTracker {
+
+    private final PaymentTransactionRepository paymentRepository;
+    private final ReservationRepository reservationRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fraud.detection.velocity.check.hours:24}")
+    private int windowHours;
+
+    @Value("${fraud.velocity.buckets:48}")
+    private int bucketCount;
+
+    @Value("${fraud.velocity.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${fraud.velocity.max-names-per-card:16}")
+    private int maxNamesPerCard;
+
+    private SlidingWindowCounter failedPaymentsByEmail;
+    private SlidingWindowCounter failedPaymentsByCard;
+    private SlidingWindowCounter bookingsByEmail;
+    private SlidingWindowDistinctCounter namesByCard;
+
+    // Ids already counted, with the time they were seen; entries older than the window are dropped
+    private final Map<Long, Long> countedFailedPayments = new ConcurrentHashMap<>();
+    private final Map<Long, Long> countedBookings = new ConcurrentHashMap<>();
+
+    private volatile boolean warmedUp = false;
+
+    @PostConstruct
+    void init() {
+        Duration window = Duration.ofHours(windowHours);
+        failedPaymentsByEmail = new SlidingWindowCounter(window, bucketCount, maxKeys);
+        failedPaymentsByCard = new SlidingWindowCounter(window, bucketCount, maxKeys);
+        bookingsByEmail = new SlidingWindowCounter(window, bucketCount, maxKeys);
+        namesByCard = new SlidingWindowDistinctCounter(window, maxNamesPerCard, maxKeys);
+
+        Gauge.builder("stayops.fraud.velocity.keys", this, t -> t.getTrackedKeys())
+                .description("Keys currently held by the fraud velocity counters")
+                .register(meterRegistry);
+    }
+
+    // ========== RECORDING ==========
+
+    /**
+     * Count a failed payment once per payment id; the payment is already committed when its event
+     * is delivered, so it is counted immediately and the current scoring sees it
+     */
+    public void recordFailedPayment(Long paymentId, String email, String cardToken, Instant at) {
+        long ts = toMillis(at);
+        if (!firstSighting(countedFailedPayments, paymentId, ts)) {
+            return;
+        }
+        failedPaymentsByEmail.increment(normalize(email), ts);
+        failedPaymentsByCard.increment(cardToken, ts);
+    }
+
+    /**
+     * Count a booking once per reservation id, after the surrounding transaction commits
+     */
+    public void recordBooking(Long reservationId, String email, Instant at) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    countBooking(reservationId, email, at);
+                }
+            });
+        } else {
+            countBooking(reservationId, email, at);
+        }
+    }
+
+    private void countBooking(Long reservationId, String email, Instant at) {
+        long ts = toMillis(at);
+        if (!firstSighting(countedBookings, reservationId, ts)) {
+            return;
+        }
+        bookingsByEmail.increment(normalize(email), ts);
+    }
+
+    private boolean firstSighting(Map<Long, Long> counted, Long id, long ts) {
+        if (id == null) {
+            return true;
+        }
+        if (counted.size() >= maxKeys) {
+            long cutoff = System.currentTimeMillis() - Duration.ofHours(windowHours).toMillis();
+            counted.values().removeIf(seenAt -> seenAt < cutoff);
+        }
+        return counted.putIfAbsent(id, ts) == null;
+    }
+
+    public void recordCardHolder(String cardToken, String firstName, String lastName, Instant at) {
+        if (cardToken == null || (firstName == null && lastName == null)) {
+            return;
+        }
+        String name = normalize((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""));
+        namesByCard.add(cardToken, name, toMillis(at));
+    }
+
+    // ========== QUERIES ==========
+
+    public long failedPaymentsForEmail(String email) {
+        return failedPaymentsByEmail.count(normalize(email), System.currentTimeMillis());
+    }
+
+    public long failedPaymentsForCard(String cardToken) {
+        return failedPaymentsByCard.count(cardToken, System.currentTimeMillis());
+    }
+
+    public long bookingsForEmail(String email) {
+        return bookingsByEmail.count(normalize(email), System.currentTimeMillis());
+    }
+
+    public int distinctNamesForCard(String cardToken) {
+        return namesByCard.countDistinct(cardToken, System.currentTimeMillis());
+    }
+
+    public int getWindowHours() {
+        return windowHours;
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    public int getTrackedKeys() {
+        return failedPaymentsByEmail.size() + failedPaymentsByCard.size()
+                + bookingsByEmail.size() + namesByCard.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("warmedUp", warmedUp);
+        stats.put("windowHours", windowHours);
+        stats.put("failedPaymentsByEmailKeys", failedPaymentsByEmail.size());
+        stats.put("failedPaymentsByCardKeys", failedPaymentsByCard.size());
+        stats.put("bookingsByEmailKeys", bookingsByEmail.size());
+        stats.put("namesByCardKeys", namesByCard.size());
+        return stats;
+    }
+
+    // ========== WARM-UP ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant since = Instant.now().minus(Duration.ofHours(windowHours));
+        try {
+            List<Object[]> payments = paymentRepository.findFraudSignalsSince(since);
+            for (Object[] row : payments) {
+                Instant createdAt = (Instant) row[0];
+                String email = (String) row[1];
+                String cardToken = (String) row[2];
+                if (row[3] == PaymentStatus.FAILED) {
+                    recordFailedPayment((Long) row[6], email, cardToken, createdAt);
+                }
+                recordCardHolder(cardToken, (String) row[4], (String) row[5], createdAt);
+            }
+
+            List<Object[]> bookings = reservationRepository.findBookingSignalsSince(since);
+            for (Object[] row : bookings) {
+                countBooking((Long) row[2], (String) row[1], (Instant) row[0]);
+            }
+
+            warmedUp = true;
+            log.info("Fraud velocity counters warmed from {} payments and {} bookings of the last {}h",
+                    payments.size(), bookings.size(), windowHours);
+        } catch (Exception e) {
+            // Counters still fill up from live traffic
+            log.error("Failed to warm fraud velocity counters", e);
+        }
+    }
+
+    private static long toMillis(Instant at) {
+        return at != null ? at.toEpochMilli() : System.currentTimeMillis();
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
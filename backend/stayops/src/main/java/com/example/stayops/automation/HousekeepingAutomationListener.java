@@ -3,14 +3,15 @@ package com.example.stayops.automation;
 import com.example.stayops.config.AutomationConfig;
 import com.example.stayops.entity.HousekeepingTask;
 import com.example.stayops.entity.Reservation;
-import com.example.stayops.entity.Room;
 import com.example.stayops.event.ReservationEvent;
+import com.example.stayops.event.ReservationSnapshot;
+import com.example.stayops.event.ReservationSnapshotLoader;
 import com.example.stayops.repository.HousekeepingTaskRepository;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +19,10 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Creates housekeeping tasks from the reservation snapshot carried by the event; rooms and the
+ * reservation are attached as references, so no reservation, guest or room rows are loaded
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -25,9 +30,10 @@ public class HousekeepingAutomationListener {
 
     private final HousekeepingTaskRepository taskRepository;
     private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationSnapshotLoader snapshotLoader;
     private final AutomationConfig config;
 
-    @Async
     @EventListener
     @Transactional
     public void handleReservationConfirmed(ReservationEvent event) {
@@ -39,12 +45,12 @@ public class HousekeepingAutomationListener {
                 event.getReservationId());
 
         try {
-            Reservation reservation = reservationRepository
-                    .findById(event.getReservationId())
+            ReservationSnapshot reservation = snapshotLoader.resolve(event)
                     .orElseThrow(() -> new RuntimeException(
                             "Reservation not found: " + event.getReservationId()));
+            Reservation reservationRef = reservationRepository.getReferenceById(reservation.getReservationId());
 
-            if (reservation.getRooms() == null || reservation.getRooms().isEmpty()) {
+            if (!reservation.hasRooms()) {
                 log.warn("No rooms assigned for reservation {}, skipping housekeeping task creation",
                         event.getReservationId());
                 return;
@@ -52,18 +58,16 @@ public class HousekeepingAutomationListener {
 
             // Create pre-arrival cleaning tasks
             List<HousekeepingTask> tasks = new ArrayList<>();
-            for (Room room : reservation.getRooms()) {
+            for (ReservationSnapshot.RoomRef room : reservation.getRooms()) {
                 HousekeepingTask task = HousekeepingTask.builder()
-                        .room(room)
-                        .reservation(reservation)
+                        .room(roomRepository.getReferenceById(room.getRoomId()))
+                        .reservation(reservationRef)
                         .taskType("PRE_ARRIVAL")
                         .status("PENDING")
                         .scheduledDate(reservation.getCheckInDate().minusDays(1))
                         .priority("MEDIUM")
                         .notes("Prepare room for guest arrival - " +
-                                (reservation.getGuest() != null ?
-                                        reservation.getGuest().getFirstName() + " " +
-                                                reservation.getGuest().getLastName() : "Guest"))
+                                (reservation.getGuestName() != null ? reservation.getGuestName() : "Guest"))
                         .build();
                 tasks.add(task);
             }
@@ -78,7 +82,6 @@ public class HousekeepingAutomationListener {
         }
     }
 
-    @Async
     @EventListener
     @Transactional
     public void handleCheckout(ReservationEvent event) {
@@ -90,12 +93,12 @@ public class HousekeepingAutomationListener {
                 event.getReservationId());
 
         try {
-            Reservation reservation = reservationRepository
-                    .findById(event.getReservationId())
+            ReservationSnapshot reservation = snapshotLoader.resolve(event)
                     .orElseThrow(() -> new RuntimeException(
                             "Reservation not found: " + event.getReservationId()));
+            Reservation reservationRef = reservationRepository.getReferenceById(reservation.getReservationId());
 
-            if (reservation.getRooms() == null || reservation.getRooms().isEmpty()) {
+            if (!reservation.hasRooms()) {
                 log.warn("No rooms for reservation {}, skipping checkout task creation",
                         event.getReservationId());
                 return;
@@ -103,10 +106,10 @@ public class HousekeepingAutomationListener {
 
             // Create checkout cleaning tasks
             List<HousekeepingTask> tasks = new ArrayList<>();
-            for (Room room : reservation.getRooms()) {
+            for (ReservationSnapshot.RoomRef room : reservation.getRooms()) {
                 HousekeepingTask task = HousekeepingTask.builder()
-                        .room(room)
-                        .reservation(reservation)
+                        .room(roomRepository.getReferenceById(room.getRoomId()))
+                        .reservation(reservationRef)
                         .taskType("CHECKOUT_CLEAN")
                         .status("PENDING")
                         .scheduledDate(LocalDate.now())
@@ -127,7 +130,6 @@ public class HousekeepingAutomationListener {
         }
     }
 
-    @Async
     @EventListener
     @Transactional
     public void handleCheckIn(ReservationEvent event) {
@@ -139,12 +141,12 @@ public class HousekeepingAutomationListener {
                 event.getReservationId());
 
         try {
-            Reservation reservation = reservationRepository
-                    .findById(event.getReservationId())
+            ReservationSnapshot reservation = snapshotLoader.resolve(event)
                     .orElseThrow(() -> new RuntimeException(
                             "Reservation not found: " + event.getReservationId()));
+            Reservation reservationRef = reservationRepository.getReferenceById(reservation.getReservationId());
 
-            if (reservation.getRooms() == null || reservation.getRooms().isEmpty()) {
+            if (!reservation.hasRooms()) {
                 return;
             }
 
@@ -154,10 +156,10 @@ public class HousekeepingAutomationListener {
             LocalDate checkOutDate = reservation.getCheckOutDate();
 
             while (currentDate.isBefore(checkOutDate)) {
-                for (Room room : reservation.getRooms()) {
+                for (ReservationSnapshot.RoomRef room : reservation.getRooms()) {
                     HousekeepingTask task = HousekeepingTask.builder()
-                            .room(room)
-                            .reservation(reservation)
+                            .room(roomRepository.getReferenceById(room.getRoomId()))
+                            .reservation(reservationRef)
                             .taskType("TURNDOWN")
                             .status("PENDING")
                             .scheduledDate(currentDate)
@@ -0,0 +1,89 @@
+package com.example.stayops.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Default ChannelManagerClient: JSON over HTTP with optional gzip request bodies
+ * Register a @Primary ChannelManagerClient bean to replace it (e.g. in tests).
+ */
+@Component
+@Slf4j
+public class HttpChannelManagerClient implements ChannelManagerClient {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final Duration timeout;
+    private final boolean compress;
+
+    public HttpChannelManagerClient(ObjectMapper objectMapper,
+                                    @Value("${ota.api.url:https://api.channelmanager.example.com}") String baseUrl,
+                                    @Value("${ota.api.key:}") String apiKey,
+                                    @Value("${external.ota.timeout:15000}") long timeoutMs,
+                                    @Value("${ota.sync.compress:true}") boolean compress) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.apiKey = apiKey;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.compress = compress;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.timeout)
+                .build();
+    }
+
+    @Override
+    public String post(String path, Object payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            byte[] body = compress ? gzip(json) : json;
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Authorization", "Bearer " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+            if (compress) {
+                request.header("Content-Encoding", "gzip");
+            }
+
+            HttpResponse<String> response = httpClient.send(request.build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            log.debug("Channel manager {} -> {} ({} bytes sent, {} raw)",
+                    path, response.statusCode(), body.length, json.length);
+
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Channel manager returned HTTP "
+                        + response.statusCode() + " for " + path);
+            }
+            return response.body();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Channel manager call interrupted", e);
+        } catch (IOException e) {
+            throw new RuntimeException("Channel manager call failed: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -31,6 +31,7 @@ public class IntelligentReservationAutomationService {
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
     private final AuditLogRepository auditLogRepository;
+    private final RoomAssignmentService roomAssignmentService;
 
     /**
      * SCENARIO 16: Intelligent cancellation prediction
@@ -74,35 +75,22 @@ public class IntelligentReservationAutomationService {
     public int optimizeRoomAssignments() {
         log.info("Optimizing room assignments for tomorrow's arrivals...");
 
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<Reservation> tomorrowArrivals = reservationRepository.findAll().stream()
-                .filter(r -> r.getCheckInDate().equals(tomorrow))
-                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMED)
-                .toList();
-
-        int optimizedCount = 0;
-        for (Reservation reservation : tomorrowArrivals) {
-            // Smart assignment considering:
-            // - Guest preferences (floor, view, proximity)
-            // - Housekeeping efficiency (group nearby rooms)
-            // - Noise considerations (families away from business travelers)
-            // - Length of stay (longer stays get better rooms)
-
-            Room optimalRoom = findOptimalRoom(reservation);
-            if (optimalRoom != null) {
-                reservation.getRooms().clear();
-                reservation.getRooms().add(optimalRoom);
-                reservationRepository.save(reservation);
+        // All of tomorrow's unassigned arrivals are matched to rooms together, considering
+        // capacity fit, housekeeping readiness, keeping group rooms on one floor and
+        // longer stays getting better rooms
+        RoomAssignmentService.BatchAssignmentResult result =
+                roomAssignmentService.assignArrivals(LocalDate.now().plusDays(1));
 
-                logAudit("RESERVATION", reservation.getReservationId().toString(),
+        result.getRoomNumbersByReservation().forEach((reservationId, roomNumbers) ->
+                logAudit("RESERVATION", reservationId.toString(),
                         "OPTIMIZED_ROOM_ASSIGNMENT", "SYSTEM", "AI_OPTIMIZATION",
-                        "Assigned optimal room: " + optimalRoom.getRoomNumber());
+                        "Assigned optimal room: " + String.join(", ", roomNumbers)));
 
-                optimizedCount++;
-            }
+        if (!result.getUnassignedReservationIds().isEmpty()) {
+            log.warn("No suitable rooms for reservations {}", result.getUnassignedReservationIds());
         }
 
-        return optimizedCount;
+        return result.getAssigned();
     }
 
     /**
@@ -548,40 +536,6 @@ public class IntelligentReservationAutomationService {
         return Math.min(100, riskScore);
     }
 
-    private Room findOptimalRoom(Reservation reservation) {
-        // Smart room selection algorithm
-        List<Room> availableRooms = roomRepository.findAll().stream()
-                .filter(room -> isRoomAvailable(room, reservation.getCheckInDate()))
-                .toList();
-
-        if (availableRooms.isEmpty()) return null;
-
-        // Score each room based on multiple factors
-        return availableRooms.stream()
-                .max(Comparator.comparingInt(room -> calculateRoomScore(room, reservation)))
-                .orElse(null);
-    }
-
-    private int calculateRoomScore(Room room, Reservation reservation) {
-        int score = 0;
-
-        // Longer stays get better rooms
-        long nights = ChronoUnit.DAYS.between(
-                reservation.getCheckInDate(), reservation.getCheckOutDate());
-        if (nights >= 5) score += 20;
-
-        // VIP guests get premium rooms
-        // score += guestIsVIP(reservation.getGuest()) ? 30 : 0;
-
-        // Families get rooms away from business area
-        if (reservation.getReservationDetails() != null &&
-                reservation.getReservationDetails().getKids() > 0) {
-            score += 10;
-        }
-
-        return score;
-    }
-
     private boolean isRoomReadyEarly(Reservation reservation) {
         // Check housekeeping status
         return true; // Placeholder
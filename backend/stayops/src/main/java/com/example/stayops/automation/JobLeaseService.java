@@ -0,0 +1,299 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.entity.JobLease;
+import com.example.stayops.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Database leases that make @Scheduled jobs run once per tick across all app nodes
+ *
+ * Every node fires every job; ScheduledJobAspect works out the tick (the cron fire time, or the
+ * fixed-rate bucket) and claims it in scheduled_job_leases. Only the node whose conditional UPDATE
+ * wins runs the job. While it runs, a heartbeat keeps lockedUntil ahead of the clock, so a crashed
+ * node stops blocking the job after ttl-seconds, and a long run is never overlapped by the next tick.
+ *
+ * Jobs marked @PartitionedJob skip the job-wide lease; the work is split into partitions, each
+ * claimed separately for the tick, so every node that fires picks up partitions nobody has yet
+ * and more nodes finish the batch sooner. Ticks are derived from each node's own clock, so nodes
+ * are assumed to be NTP-synchronised to well within a tick.
+ */
+@Service
+@Slf4j
+public class JobLeaseService {
+
+    private static final ThreadLocal<PartitionContext> CURRENT_PARTITIONED = new ThreadLocal<>();
+
+    // Cron fire times are looked up in widening windows, so frequent jobs do not walk a year of ticks
+    private static final Duration[] CRON_LOOKBACK = {
+            Duration.ofMinutes(2), Duration.ofHours(2), Duration.ofDays(2), Duration.ofDays(32), Duration.ofDays(400)};
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int partitions;
+    private final String nodeId;
+
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeat;
+
+    public JobLeaseService(JobLeaseRepository leaseRepository,
+                           PlatformTransactionManager transactionManager,
+                           Environment environment,
+                           MeterRegistry meterRegistry,
+                           @Value("${stayops.jobs.lease.enabled:true}") boolean enabled,
+                           @Value("${stayops.jobs.lease.ttl-seconds:120}") long ttlSeconds,
+                           @Value("${stayops.jobs.partitions:8}") int partitions,
+                           @Value("${stayops.cluster.node-id:}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(Math.max(10, ttlSeconds));
+        this.partitions = Math.max(1, partitions);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : defaultNodeId();
+
+        // Lease changes commit on their own, whatever transaction the job is in
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long renewEveryMs = this.ttl.toMillis() / 3;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("job-lease-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::renewHeldLeases, renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+
+        log.info("Job leases {} for node {} (ttl {}s, {} partitions)",
+                enabled ? "enabled" : "disabled", this.nodeId, this.ttl.toSeconds(), this.partitions);
+    }
+
+    /**
+     * A claimed lease; pass it back to release()
+     */
+    public record Lease(String lockName, Instant tick, Instant acquiredAt) {
+    }
+
+    /**
+     * One slice of a partitioned job: reservations with id % count == index
+     */
+    public record JobPartition(int index, int count) {
+        public static final JobPartition ALL = new JobPartition(0, 1);
+    }
+
+    private record PartitionContext(String jobName, Instant tick) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ========== TICKS & LEASES ==========
+
+    /**
+     * The fire time this execution belongs to: the latest cron time at or before now, or the
+     * fixed-rate/fixed-delay bucket containing now
+     */
+    public Instant tickFor(Scheduled scheduled, Instant now) {
+        String cron = environment.resolvePlaceholders(scheduled.cron());
+        if (StringUtils.hasText(cron) && !Scheduled.CRON_DISABLED.equals(cron)) {
+            ZoneId zone = StringUtils.hasText(scheduled.zone()) ? ZoneId.of(scheduled.zone()) : ZoneId.systemDefault();
+            Instant tick = latestCronFire(CronExpression.parse(cron), now.plusSeconds(1).atZone(zone));
+            if (tick != null) {
+                return tick;
+            }
+        }
+
+        long periodMs = periodMillis(scheduled);
+        if (periodMs > 0) {
+            long epochMs = now.toEpochMilli();
+            return Instant.ofEpochMilli(epochMs - Math.floorMod(epochMs, periodMs));
+        }
+        return now;
+    }
+
+    /**
+     * Claim the named lease for the tick; empty when another node already has this tick or is still running
+     */
+    public Optional<Lease> tryAcquire(String lockName, Instant tick) {
+        Instant now = Instant.now();
+        Instant until = now.plus(ttl);
+
+        Boolean claimed = leaseTransaction.execute(status ->
+                leaseRepository.claim(lockName, nodeId, tick, now, until) == 1);
+        if (!Boolean.TRUE.equals(claimed) && !leaseRepository.existsById(lockName)) {
+            try {
+                claimed = leaseTransaction.execute(status ->
+                        leaseRepository.insert(lockName, nodeId, tick, now, until) == 1);
+            } catch (DataIntegrityViolationException e) {
+                claimed = false; // another node created the row first, and with it the tick
+            }
+        }
+
+        if (!Boolean.TRUE.equals(claimed)) {
+            meterRegistry.counter("stayops.jobs.lease.skipped", "job", lockName).increment();
+            log.debug("Lease {} for tick {} held elsewhere; skipping on node {}", lockName, tick, nodeId);
+            return Optional.empty();
+        }
+
+        Lease lease = new Lease(lockName, tick, now);
+        heldLeases.put(lockName, lease);
+        return Optional.of(lease);
+    }
+
+    /**
+     * Done with the tick: other nodes may take the next one straight away
+     */
+    public void release(Lease lease) {
+        heldLeases.remove(lease.lockName());
+        try {
+            leaseTransaction.executeWithoutResult(status ->
+                    leaseRepository.extend(lease.lockName(), nodeId, Instant.now()));
+        } catch (Exception e) {
+            log.warn("Could not release lease {}; it expires in at most {}s: {}",
+                    lease.lockName(), ttl.toSeconds(), e.getMessage());
+        }
+    }
+
+    private void renewHeldLeases() {
+        for (Lease lease : heldLeases.values()) {
+            try {
+                Integer renewed = leaseTransaction.execute(status ->
+                        leaseRepository.extend(lease.lockName(), nodeId, Instant.now().plus(ttl)));
+                if (renewed == null || renewed == 0) {
+                    log.warn("Lease {} was taken over by another node while {} still ran it", lease.lockName(), nodeId);
+                    heldLeases.remove(lease.lockName());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew lease {}: {}", lease.lockName(), e.getMessage());
+            }
+        }
+    }
+
+    // ========== PARTITIONED JOBS ==========
+
+    /**
+     * Called by ScheduledJobAspect around a @PartitionedJob method
+     */
+    public void beginPartitioned(String jobName, Instant tick) {
+        CURRENT_PARTITIONED.set(new PartitionContext(jobName, tick));
+    }
+
+    public void endPartitioned() {
+        CURRENT_PARTITIONED.remove();
+    }
+
+    /**
+     * Run work for every partition of the current tick that no other node has claimed; returns the
+     * summed result. Outside a scheduled tick (manual runs, leases disabled) the whole job runs here.
+     */
+    public int runPartitioned(Function<JobPartition, Integer> work) {
+        PartitionContext context = CURRENT_PARTITIONED.get();
+        if (context == null || !enabled) {
+            return work.apply(JobPartition.ALL);
+        }
+
+        // Start at a node-specific partition so nodes firing together do not all contend for #0
+        int start = Math.floorMod(nodeId.hashCode(), partitions);
+        int total = 0;
+        int ran = 0;
+        for (int i = 0; i < partitions; i++) {
+            int index = (start + i) % partitions;
+            Optional<Lease> lease = tryAcquire(context.jobName() + "#p" + index, context.tick());
+            if (lease.isEmpty()) {
+                continue;
+            }
+            try {
+                Integer processed = work.apply(new JobPartition(index, partitions));
+                total += processed != null ? processed : 0;
+                ran++;
+            } finally {
+                release(lease.get());
+            }
+        }
+
+        log.info("{}: node {} ran {} of {} partitions for tick {}", context.jobName(), nodeId, ran, partitions, context.tick());
+        return total;
+    }
+
+    public List<JobLease> getLeases() {
+        return leaseRepository.findAll();
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+    }
+
+    // ========== HELPERS ==========
+
+    private static Instant latestCronFire(CronExpression cron, ZonedDateTime upTo) {
+        for (Duration lookback : CRON_LOOKBACK) {
+            ZonedDateTime next = cron.next(upTo.minus(lookback));
+            if (next == null || next.isAfter(upTo)) {
+                continue;
+            }
+            ZonedDateTime latest = next;
+            while ((next = cron.next(latest)) != null && !next.isAfter(upTo)) {
+                latest = next;
+            }
+            return latest.toInstant();
+        }
+        return null;
+    }
+
+    private long periodMillis(Scheduled scheduled) {
+        TimeUnit unit = scheduled.timeUnit();
+        if (scheduled.fixedRate() > 0) {
+            return unit.toMillis(scheduled.fixedRate());
+        }
+        if (scheduled.fixedDelay() > 0) {
+            return unit.toMillis(scheduled.fixedDelay());
+        }
+        for (String value : new String[]{scheduled.fixedRateString(), scheduled.fixedDelayString()}) {
+            String resolved = environment.resolvePlaceholders(value);
+            if (StringUtils.hasText(resolved)) {
+                return resolved.startsWith("P") || resolved.startsWith("p")
+                        ? Duration.parse(resolved).toMillis()
+                        : unit.toMillis(Long.parseLong(resolved.trim()));
+            }
+        }
+        return 0;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.stayops.automation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs JobPipelines: each stage starts once its dependencies have succeeded, on a small stage pool,
+ * so independent stages overlap. A stage whose dependency failed is skipped rather than run on
+ * incomplete data.
+ *
+ * Every stage is tracked by ScheduledJobMonitor as "Pipeline.stage", which gives it run history,
+ * the stayops.jobs.duration timer and recordProcessed()/recordFailure() on the stage thread.
+ * The last run of each pipeline is kept with per-stage timings and its critical path: the chain
+ * of dependent stages whose durations add up to the longest, i.e. the stages worth making faster.
+ */
+@Service
+@Slf4j
+public class JobOrchestrator {
+
+    private final ScheduledJobMonitor jobMonitor;
+    private final ExecutorService stageExecutor;
+
+    private final Map<String, JobPipeline> pipelines = new ConcurrentHashMap<>();
+    private final Map<String, PipelineRun> lastRuns = new ConcurrentHashMap<>();
+
+    public JobOrchestrator(ScheduledJobMonitor jobMonitor,
+                           @Value("${stayops.jobs.orchestrator.parallelism:3}") int parallelism) {
+        this.jobMonitor = jobMonitor;
+        this.stageExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                new CustomizableThreadFactory("job-stage-"));
+    }
+
+    public record StageResult(String stage, List<String> dependsOn, String status, Instant startedAt,
+                              long startOffsetMs, long durationMs, long rowsProcessed, String error) {
+    }
+
+    public record PipelineRun(String pipeline, LocalDate runDate, Instant startedAt, long durationMs,
+                              String status, List<StageResult> stages,
+                              List<String> criticalPath, long criticalPathMs) {
+    }
+
+    /**
+     * Make a pipeline's plan visible before its first run
+     */
+    public void register(JobPipeline pipeline) {
+        pipelines.put(pipeline.getName(), pipeline);
+    }
+
+    // ========== EXECUTION ==========
+
+    public PipelineRun run(JobPipeline pipeline, LocalDate runDate) {
+        register(pipeline);
+        JobRunContext context = new JobRunContext(pipeline.getName(), runDate);
+        long startNanos = System.nanoTime();
+        log.info("PIPELINE: {} starting for {} with plan {}", pipeline.getName(), runDate, pipeline.getLevels());
+
+        // Stages are in topological order, so every dependency's future exists before it is needed
+        Map<String, CompletableFuture<StageResult>> futures = new LinkedHashMap<>();
+        for (JobPipeline.Stage stage : pipeline.getStages()) {
+            CompletableFuture<?>[] deps = stage.dependsOn().stream().map(futures::get).toArray(CompletableFuture[]::new);
+            futures.put(stage.name(), CompletableFuture.allOf(deps).thenApplyAsync(ignored -> {
+                List<String> blockedBy = stage.dependsOn().stream()
+                        .filter(dep -> !"SUCCESS".equals(futures.get(dep).join().status()))
+                        .toList();
+                return blockedBy.isEmpty()
+                        ? runStage(pipeline, stage, context, startNanos)
+                        : new StageResult(stage.name(), stage.dependsOn(), "SKIPPED", null, 0, 0, 0,
+                        "Dependency did not succeed: " + blockedBy);
+            }, stageExecutor));
+        }
+
+        List<StageResult> results = futures.values().stream().map(CompletableFuture::join).toList();
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        boolean allSucceeded = results.stream().allMatch(result -> "SUCCESS".equals(result.status()));
+
+        Map<String, StageResult> byName = new LinkedHashMap<>();
+        results.forEach(result -> byName.put(result.stage(), result));
+        List<String> criticalPath = criticalPath(pipeline, byName);
+        long criticalPathMs = criticalPath.stream().mapToLong(stage -> byName.get(stage).durationMs()).sum();
+
+        PipelineRun run = new PipelineRun(pipeline.getName(), runDate, context.getStartedAt(), durationMs,
+                allSucceeded ? "SUCCESS" : "FAILED", results, criticalPath, criticalPathMs);
+        lastRuns.put(pipeline.getName(), run);
+
+        log.info("PIPELINE: {} finished {} in {} ms; critical path {} ({} ms)",
+                pipeline.getName(), run.status(), durationMs, criticalPath, criticalPathMs);
+        return run;
+    }
+
+    private StageResult runStage(JobPipeline pipeline, JobPipeline.Stage stage, JobRunContext context, long pipelineStartNanos) {
+        ScheduledJobMonitor.JobRun run = jobMonitor.begin(pipeline.getName() + "." + stage.name());
+        long startNanos = System.nanoTime();
+        Throwable thrown = null;
+        try {
+            jobMonitor.recordProcessed(stage.work().applyAsInt(context));
+        } catch (Throwable t) {
+            thrown = t;
+            log.error("PIPELINE: {} stage {} failed: {}", pipeline.getName(), stage.name(), t.getMessage(), t);
+        } finally {
+            jobMonitor.finish(run, thrown);
+        }
+
+        // Stages that catch their own errors still report them through recordFailure()
+        return new StageResult(stage.name(), stage.dependsOn(), run.isFailed() ? "FAILED" : "SUCCESS",
+                run.getStartedAt(),
+                TimeUnit.NANOSECONDS.toMillis(startNanos - pipelineStartNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                run.getRowsProcessed(), run.getErrorMessage());
+    }
+
+    /**
+     * Longest chain of dependent stages by measured duration
+     */
+    private static List<String> criticalPath(JobPipeline pipeline, Map<String, StageResult> results) {
+        Map<String, Long> pathMs = new HashMap<>();
+        Map<String, String> previous = new HashMap<>();
+        String last = null;
+
+        for (JobPipeline.Stage stage : pipeline.getStages()) {
+            String slowestDep = null;
+            long depMs = 0;
+            for (String dep : stage.dependsOn()) {
+                if (slowestDep == null || pathMs.get(dep) > depMs) {
+                    slowestDep = dep;
+                    depMs = pathMs.get(dep);
+                }
+            }
+            pathMs.put(stage.name(), depMs + results.get(stage.name()).durationMs());
+            previous.put(stage.name(), slowestDep);
+            if (last == null || pathMs.get(stage.name()) > pathMs.get(last)) {
+                last = stage.name();
+            }
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+        for (String stage = last; stage != null; stage = previous.get(stage)) {
+            path.addFirst(stage);
+        }
+        return path;
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * Every known pipeline with its plan (stages by level, with dependencies) and its last run
+     */
+    public List<Map<String, Object>> getPipelines() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        pipelines.values().stream()
+                .sorted(Comparator.comparing(JobPipeline::getName))
+                .forEach(pipeline -> {
+                    Map<String, List<String>> dependencies = new LinkedHashMap<>();
+                    pipeline.getStages().forEach(stage -> dependencies.put(stage.name(), stage.dependsOn()));
+
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("pipeline", pipeline.getName());
+                    entry.put("levels", pipeline.getLevels());
+                    entry.put("dependencies", dependencies);
+                    entry.put("lastRun", lastRuns.get(pipeline.getName()));
+                    result.add(entry);
+                });
+        return result;
+    }
+
+    public Optional<PipelineRun> getLastRun(String pipeline) {
+        return Optional.ofNullable(lastRuns.get(pipeline));
+    }
+
+    @PreDestroy
+    public void stop() {
+        stageExecutor.shutdownNow();
+    }
+}
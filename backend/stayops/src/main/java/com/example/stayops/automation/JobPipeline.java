@@ -0,0 +1,111 @@
+package com.example.stayops.automation;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * A scheduled run made of stages that declare what they depend on
+ *
+ * Stages are validated when the pipeline is built (unknown dependencies and cycles are rejected)
+ * and kept in topological order. JobOrchestrator runs every stage as soon as its dependencies
+ * have succeeded, so stages without a path between them execute in parallel. Each stage returns
+ * the number of rows it processed.
+ */
+public final class JobPipeline {
+
+    private final String name;
+    private final List<Stage> stages;
+
+    private JobPipeline(String name, List<Stage> stages) {
+        this.name = name;
+        this.stages = List.copyOf(stages);
+    }
+
+    public record Stage(String name, List<String> dependsOn, ToIntFunction<JobRunContext> work) {
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Stages in topological order: every stage comes after all of its dependencies
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * The execution plan: stages grouped by depth, where a level only depends on earlier levels
+     */
+    public List<List<String>> getLevels() {
+        Map<String, Integer> depth = new HashMap<>();
+        List<List<String>> levels = new ArrayList<>();
+        for (Stage stage : stages) {
+            int level = stage.dependsOn().stream().mapToInt(dep -> depth.get(dep) + 1).max().orElse(0);
+            depth.put(stage.name(), level);
+            if (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(stage.name());
+        }
+        return levels;
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder stage(String stageName, ToIntFunction<JobRunContext> work, String... dependsOn) {
+            if (stages.containsKey(stageName)) {
+                throw new IllegalArgumentException("Pipeline " + name + " already has a stage " + stageName);
+            }
+            stages.put(stageName, new Stage(stageName, List.of(dependsOn), work));
+            return this;
+        }
+
+        public JobPipeline build() {
+            for (Stage stage : stages.values()) {
+                for (String dep : stage.dependsOn()) {
+                    if (!stages.containsKey(dep)) {
+                        throw new IllegalStateException("Stage " + stage.name() + " of pipeline " + name
+                                + " depends on unknown stage " + dep);
+                    }
+                }
+            }
+
+            // Kahn's algorithm, keeping declaration order among stages that are ready together
+            Map<String, Integer> waitingOn = new HashMap<>();
+            stages.values().forEach(stage -> waitingOn.put(stage.name(), stage.dependsOn().size()));
+
+            List<Stage> ordered = new ArrayList<>();
+            Set<String> placed = new HashSet<>();
+            while (ordered.size() < stages.size()) {
+                List<Stage> ready = stages.values().stream()
+                        .filter(stage -> !placed.contains(stage.name()) && waitingOn.get(stage.name()) == 0)
+                        .toList();
+                if (ready.isEmpty()) {
+                    throw new IllegalStateException("Pipeline " + name + " has a dependency cycle among "
+                            + stages.keySet().stream().filter(stage -> !placed.contains(stage)).toList());
+                }
+                for (Stage stage : ready) {
+                    ordered.add(stage);
+                    placed.add(stage.name());
+                    stages.values().stream()
+                            .filter(other -> other.dependsOn().contains(stage.name()))
+                            .forEach(other -> waitingOn.merge(other.name(), -1, Integer::sum));
+                }
+            }
+            return new JobPipeline(name, ordered);
+        }
+    }
+}
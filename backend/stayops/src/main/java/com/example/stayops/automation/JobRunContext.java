@@ -0,0 +1,61 @@
+package com.example.stayops.automation;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * State shared by the stages of one pipeline run
+ *
+ * shared() loads a working set once per run: the first stage to ask runs the loader, stages asking
+ * concurrently wait for that same load, and later stages get the loaded value. Nothing outlives the run.
+ */
+public final class JobRunContext {
+
+    private final String pipeline;
+    private final LocalDate runDate;
+    private final Instant startedAt = Instant.now();
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> shared = new ConcurrentHashMap<>();
+
+    JobRunContext(String pipeline, LocalDate runDate) {
+        this.pipeline = pipeline;
+        this.runDate = runDate;
+    }
+
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T shared(String key, Supplier<T> loader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = shared.putIfAbsent(key, loading);
+        if (existing == null) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException e) {
+                // Let a later stage retry the load instead of every stage inheriting the failure
+                shared.remove(key, loading);
+                loading.completeExceptionally(e);
+                throw e;
+            }
+            existing = loading;
+        }
+        try {
+            return (T) existing.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.stayops.automation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Whoever has the fewest open requests, whatever their role (small teams where everyone covers everything)
+ */
+@Component
+public class LeastLoadedRouting implements DispatchRoutingStrategy {
+
+    @Override
+    public String name() {
+        return "least-loaded";
+    }
+
+    @Override
+    public Optional<Candidate> choose(Ticket ticket, List<Candidate> available) {
+        return available.stream()
+                .min(Comparator.comparingInt(Candidate::openRequests).thenComparing(Candidate::staffId));
+    }
+}
@@ -4,60 +4,107 @@ import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.repository.HousekeepingTaskRepository;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.DailyOccupancyService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
+/**
+ * The night run: one pipeline for the 2 AM work that used to be separate crons
+ *
+ * Plan (JobOrchestrator runs stages of the same level in parallel):
+ *   working-set ──> daily-lists, occupancy-report
+ *   overdue-housekeeping, occupancy-backfill, dynamic-pricing, daily-cleanup
+ *
+ * The reservations staying on the audit date are loaded once, with guest, rooms and details, and
+ * shared by the stages that report on them instead of each one querying again.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NightlyAuditJob {
 
+    public static final String PIPELINE = "NightRun";
+
+    private static final String WORKING_SET = "reservations";
+
     private final ReservationRepository reservationRepository;
     private final HousekeepingTaskRepository housekeepingTaskRepository;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final DynamicPricingService dynamicPricingService;
+    private final ReservationCleanupJobs reservationCleanupJobs;
+    private final JobOrchestrator orchestrator;
+    private final ScheduledJobMonitor jobMonitor;
+
+    private JobPipeline pipeline;
+
+    @PostConstruct
+    void definePipeline() {
+        pipeline = JobPipeline.builder(PIPELINE)
+                .stage("working-set", context -> reservationsStaying(context).size())
+                .stage("daily-lists", this::generateDailyLists, "working-set")
+                .stage("occupancy-report", this::generateOccupancyReport, "working-set")
+                .stage("overdue-housekeeping", this::checkOverdueTasks)
+                .stage("occupancy-backfill", context -> dailyOccupancyService.backfill())
+                .stage("dynamic-pricing", context -> {
+                    dynamicPricingService.updateRoomPrices();
+                    return 0;
+                })
+                .stage("daily-cleanup", context -> reservationCleanupJobs.performDailyCleanup())
+                .build();
+        orchestrator.register(pipeline);
+    }
 
     /**
      * Night audit job - runs at 2 AM daily
      * Finalizes day revenue, generates reports
      */
-    @Scheduled(cron = "0 0 2 * * *") // 2 AM daily
-    @Transactional
+    @Scheduled(cron = "${jobs.cron.nightly-audit:0 0 2 * * *}") // 2 AM daily
     public void runNightAudit() {
         log.info("===== STARTING NIGHTLY AUDIT =====");
 
-        try {
-            LocalDate auditDate = LocalDate.now().minusDays(1);
-
-            // 1. Generate arrival/departure lists for today
-            generateDailyLists(LocalDate.now());
+        JobOrchestrator.PipelineRun run = runNow();
 
-            // 2. Check for overdue housekeeping tasks
-            checkOverdueTasks(LocalDate.now());
+        // TODO: Close folios for checked-out guests
+        // TODO: Generate revenue report
+        // TODO: Sync with accounting system
 
-            // 3. Generate occupancy report
-            generateOccupancyReport(LocalDate.now());
+        if ("SUCCESS".equals(run.status())) {
+            log.info("===== NIGHTLY AUDIT COMPLETED SUCCESSFULLY =====");
+        } else {
+            jobMonitor.recordFailure(new IllegalStateException("Night run stages failed: " + run.stages().stream()
+                    .filter(stage -> !"SUCCESS".equals(stage.status()))
+                    .map(JobOrchestrator.StageResult::stage)
+                    .toList()));
+            log.error("===== NIGHTLY AUDIT FAILED =====");
+        }
+    }
 
-            // 4. TODO: Close folios for checked-out guests
-            // 5. TODO: Generate revenue report
-            // 6. TODO: Sync with accounting system
+    /**
+     * Run the pipeline for today outside the schedule (manual trigger)
+     */
+    public JobOrchestrator.PipelineRun runNow() {
+        return orchestrator.run(pipeline, LocalDate.now());
+    }
 
-            log.info("===== NIGHTLY AUDIT COMPLETED SUCCESSFULLY =====");
+    // ========== STAGES ==========
 
-        } catch (Exception e) {
-            log.error("===== NIGHTLY AUDIT FAILED =====", e);
-        }
+    private List<Reservation> reservationsStaying(JobRunContext context) {
+        return context.shared(WORKING_SET, () -> reservationRepository.findStayingOn(context.getRunDate()));
     }
 
-    private void generateDailyLists(LocalDate date) {
+    private int generateDailyLists(JobRunContext context) {
+        LocalDate date = context.getRunDate();
         log.info("Generating daily lists for: {}", date);
 
-        List<Reservation> arrivals = reservationRepository.findByCheckInDate(date);
-        List<Reservation> departures = reservationRepository.findByCheckOutDate(date);
+        List<Reservation> staying = reservationsStaying(context);
+        List<Reservation> arrivals = staying.stream().filter(r -> date.equals(r.getCheckInDate())).toList();
+        List<Reservation> departures = staying.stream().filter(r -> date.equals(r.getCheckOutDate())).toList();
 
         log.info("Expected Arrivals: {}", arrivals.size());
         log.info("Expected Departures: {}", departures.size());
@@ -70,23 +117,25 @@ public class NightlyAuditJob {
                 .forEach(r -> log.info("VIP Arrival: Guest {}, Rooms: {}",
                         r.getGuest() != null ? r.getGuest().getGuestId() : "Unknown",
                         r.getRooms() != null ? r.getRooms().size() : 0));
+
+        return arrivals.size() + departures.size();
     }
 
-    private void checkOverdueTasks(LocalDate date) {
-        var overdueTasks = housekeepingTaskRepository.findOverdueTasks(date.minusDays(1));
+    private int checkOverdueTasks(JobRunContext context) {
+        var overdueTasks = housekeepingTaskRepository.findOverdueTasks(context.getRunDate().minusDays(1));
 
         if (!overdueTasks.isEmpty()) {
             log.warn("Found {} overdue housekeeping tasks", overdueTasks.size());
             // TODO: Send alert to housekeeping manager
         }
+        return overdueTasks.size();
     }
 
-    private void generateOccupancyReport(LocalDate date) {
-        List<Reservation> occupiedReservations = reservationRepository.findAll().stream()
-                .filter(r -> (r.getStatus() == ReservationStatus.CHECKED_IN ||
-                        r.getStatus() == ReservationStatus.OCCUPIED) &&
-                        !r.getCheckInDate().isAfter(date) &&
-                        !r.getCheckOutDate().isBefore(date))
+    private int generateOccupancyReport(JobRunContext context) {
+        LocalDate date = context.getRunDate();
+        List<Reservation> occupiedReservations = reservationsStaying(context).stream()
+                .filter(r -> r.getStatus() == ReservationStatus.CHECKED_IN ||
+                        r.getStatus() == ReservationStatus.OCCUPIED)
                 .toList();
 
         int occupiedRooms = (int) occupiedReservations.stream()
@@ -96,5 +145,6 @@ public class NightlyAuditJob {
 
         log.info("Occupancy Report for {}: {} occupied rooms from {} reservations",
                 date, occupiedRooms, occupiedReservations.size());
+        return occupiedReservations.size();
     }
-}
\ No newline at end of file
+}
@@ -3,9 +3,13 @@ package com.example.stayops.automation;
 import com.example.stayops.dto.NotificationRequestDTO;
 import com.example.stayops.entity.*;
 import com.example.stayops.enums.NotificationType;
+import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.enums.UserType;
 import com.example.stayops.event.NotificationEvent;
+import com.example.stayops.event.ReservationBatchEvent;
 import com.example.stayops.event.ReservationEvent;
+import com.example.stayops.event.ReservationSnapshot;
+import com.example.stayops.event.ReservationSnapshotLoader;
 import com.example.stayops.repository.*;
 import com.example.stayops.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -39,7 +43,7 @@ public class NotificationEventListener {
     private final OperationalManagerRepository operationalManagerRepository;
     private final ReceptionistRepository receptionistRepository;
     private final GuestRepository guestRepository;
-    private final ReservationRepository reservationRepository;
+    private final ReservationSnapshotLoader snapshotLoader;
 
     /**
      * Listen to generic notification events
@@ -85,60 +89,95 @@ public class NotificationEventListener {
     }
 
     /**
-     * Listen to reservation events
+     * Listen to reservation events (delivered by the outbox dispatcher once the change committed)
      */
-    @Async
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @EventListener
     public void handleReservationEvent(ReservationEvent event) {
         log.info("Processing reservation event: {} for reservation {}",
                 event.getEventType(), event.getReservationId());
 
         try {
-            // Fetch reservation details
-            Reservation reservation = reservationRepository.findById(event.getReservationId())
-                    .orElse(null);
+            // Reservation details as of the event
+            ReservationSnapshot reservation = snapshotLoader.resolve(event).orElse(null);
 
             if (reservation == null) {
                 log.warn("Reservation {} not found for notification", event.getReservationId());
                 return;
             }
 
-            // Build additional data
-            Map<String, Object> data = new HashMap<>();
-            data.put("reservationId", reservation.getReservationId());
-            data.put("guestName", getGuestName(reservation.getGuest()));
-            data.put("checkInDate", reservation.getCheckInDate());
-            data.put("checkOutDate", reservation.getCheckOutDate());
-            data.put("roomCount", reservation.getRooms() != null ? reservation.getRooms().size() : 0);
-            data.put("status", event.getNewStatus() != null ? event.getNewStatus().name() : "");
-
-            // Get notification targets based on event type
-            List<NotificationEvent.NotificationTarget> targets = getTargetsForReservationEvent(
-                    event.getEventType(), reservation);
-
-            if (!targets.isEmpty()) {
-                // Create notification event
-                NotificationEvent notificationEvent = NotificationEvent.builder()
-                        .eventType(event.getEventType())
-                        .entityType("RESERVATION")
-                        .entityId(event.getReservationId())
-                        .additionalData(data)
-                        .targets(targets)
-                        .build();
-
-                handleNotificationEvent(notificationEvent);
-            }
+            notifyReservationEvent(event.getEventType(), event.getReservationId(), event.getNewStatus(),
+                    reservation, new HashMap<>());
 
         } catch (Exception e) {
             log.error("Failed to process reservation event: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Listen to bulk transitions: reservations are loaded in one query and the staff
+     * targets once for the whole batch
+     */
+    @EventListener
+    public void handleReservationBatch(ReservationBatchEvent event) {
+        log.info("Processing reservation batch event: {} for {} reservations",
+                event.getEventType(), event.getChanges().size());
+
+        Map<Long, ReservationSnapshot> reservations = snapshotLoader.resolveAll(event.getReservationIds());
+        // Staff lookups by role, shared by every reservation in the batch
+        Map<String, List<NotificationEvent.NotificationTarget>> staffTargets = new HashMap<>();
+
+        for (Long reservationId : event.getReservationIds()) {
+            try {
+                ReservationSnapshot reservation = reservations.get(reservationId);
+                if (reservation == null) {
+                    log.warn("Reservation {} not found for notification", reservationId);
+                    continue;
+                }
+                notifyReservationEvent(event.getEventType(), reservationId, event.getNewStatus(),
+                        reservation, staffTargets);
+            } catch (Exception e) {
+                log.error("Failed to process reservation {} of batch event {}: {}",
+                        reservationId, event.getEventType(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void notifyReservationEvent(String eventType, Long reservationId, ReservationStatus newStatus,
+                                        ReservationSnapshot reservation,
+                                        Map<String, List<NotificationEvent.NotificationTarget>> staffTargets) {
+        // Build additional data
+        Map<String, Object> data = new HashMap<>();
+        data.put("reservationId", reservation.getReservationId());
+        data.put("guestName", reservation.getGuestName() != null ? reservation.getGuestName() : "Guest");
+        data.put("checkInDate", reservation.getCheckInDate());
+        data.put("checkOutDate", reservation.getCheckOutDate());
+        data.put("roomCount", reservation.getRooms() != null ? reservation.getRooms().size() : 0);
+        data.put("status", newStatus != null ? newStatus.name() : "");
+
+        // Get notification targets based on event type
+        List<NotificationEvent.NotificationTarget> targets = getTargetsForReservationEvent(
+                eventType, reservation, staffTargets);
+
+        if (!targets.isEmpty()) {
+            // Create notification event
+            NotificationEvent notificationEvent = NotificationEvent.builder()
+                    .eventType(eventType)
+                    .entityType("RESERVATION")
+                    .entityId(reservationId)
+                    .additionalData(data)
+                    .targets(targets)
+                    .build();
+
+            handleNotificationEvent(notificationEvent);
+        }
+    }
+
     /**
      * Determine notification targets based on reservation event type
      */
     private List<NotificationEvent.NotificationTarget> getTargetsForReservationEvent(
-            String eventType, Reservation reservation) {
+            String eventType, ReservationSnapshot reservation,
+            Map<String, List<NotificationEvent.NotificationTarget>> staffTargets) {
 
         List<NotificationEvent.NotificationTarget> targets = new ArrayList<>();
 
@@ -146,71 +185,71 @@ public class NotificationEventListener {
             case "CREATED":
             case "RESERVATION_CREATED":
                 // Notify guest, receptionists, and managers
-                if (reservation.getGuest() != null) {
+                if (reservation.getGuestId() != null) {
                     targets.add(createTarget(
-                            Long.parseLong(reservation.getGuest().getGuestId()),
+                            Long.parseLong(reservation.getGuestId()),
                             UserType.GUEST
                     ));
                 }
-                targets.addAll(getReceptionistTargets());
-                targets.addAll(getManagerTargets());
+                targets.addAll(receptionists(staffTargets));
+                targets.addAll(managers(staffTargets));
                 break;
 
             case "CONFIRMED":
             case "RESERVATION_CONFIRMED":
                 // Notify guest and receptionists
-                if (reservation.getGuest() != null) {
+                if (reservation.getGuestId() != null) {
                     targets.add(createTarget(
-                            Long.parseLong(reservation.getGuest().getGuestId()),
+                            Long.parseLong(reservation.getGuestId()),
                             UserType.GUEST
                     ));
                 }
-                targets.addAll(getReceptionistTargets());
+                targets.addAll(receptionists(staffTargets));
                 break;
 
             case "CANCELLED":
             case "AUTO_CANCELLED_UNCONFIRMED":
             case "STALE_CANCELLED":
                 // Notify guest, receptionists, and managers
-                if (reservation.getGuest() != null) {
+                if (reservation.getGuestId() != null) {
                     targets.add(createTarget(
-                            Long.parseLong(reservation.getGuest().getGuestId()),
+                            Long.parseLong(reservation.getGuestId()),
                             UserType.GUEST
                     ));
                 }
-                targets.addAll(getReceptionistTargets());
-                targets.addAll(getManagerTargets());
+                targets.addAll(receptionists(staffTargets));
+                targets.addAll(managers(staffTargets));
                 break;
 
             case "CHECKED_IN":
             case "AUTO_CHECKED_IN":
                 // Notify guest, receptionists, and managers
-                if (reservation.getGuest() != null) {
+                if (reservation.getGuestId() != null) {
                     targets.add(createTarget(
-                            Long.parseLong(reservation.getGuest().getGuestId()),
+                            Long.parseLong(reservation.getGuestId()),
                             UserType.GUEST
                     ));
                 }
-                targets.addAll(getReceptionistTargets());
-                targets.addAll(getManagerTargets());
+                targets.addAll(receptionists(staffTargets));
+                targets.addAll(managers(staffTargets));
                 break;
 
             case "CHECKED_OUT":
             case "AUTO_CHECKED_OUT":
                 // Notify guest and receptionists
-                if (reservation.getGuest() != null) {
+                if (reservation.getGuestId() != null) {
                     targets.add(createTarget(
-                            Long.parseLong(reservation.getGuest().getGuestId()),
+                            Long.parseLong(reservation.getGuestId()),
                             UserType.GUEST
                     ));
                 }
-                targets.addAll(getReceptionistTargets());
+                targets.addAll(receptionists(staffTargets));
                 break;
 
             case "NO_SHOW":
                 // Notify managers and receptionists only
-                targets.addAll(getReceptionistTargets());
-                targets.addAll(getManagerTargets());
+                targets.addAll(receptionists(staffTargets));
+                targets.addAll(managers(staffTargets));
                 break;
 
             default:
@@ -222,6 +261,16 @@ public class NotificationEventListener {
 
     // Helper methods to get staff targets
 
+    private List<NotificationEvent.NotificationTarget> receptionists(
+            Map<String, List<NotificationEvent.NotificationTarget>> staffTargets) {
+        return staffTargets.computeIfAbsent("receptionists", key -> getReceptionistTargets());
+    }
+
+    private List<NotificationEvent.NotificationTarget> managers(
+            Map<String, List<NotificationEvent.NotificationTarget>> staffTargets) {
+        return staffTargets.computeIfAbsent("managers", key -> getManagerTargets());
+    }
+
     private List<NotificationEvent.NotificationTarget> getReceptionistTargets() {
         return receptionistRepository.findAll().stream()
                 .filter(r -> r.getUser() != null && r.getUser().isActive())
@@ -267,9 +316,4 @@ public class NotificationEventListener {
                 .userType(userType)
                 .build();
     }
-
-    private String getGuestName(Guest guest) {
-        if (guest == null) return "Guest";
-        return guest.getFirstName() + " " + guest.getLastName();
-    }
 }
\ No newline at end of file
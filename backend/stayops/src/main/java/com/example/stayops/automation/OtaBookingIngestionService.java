@@ -0,0 +1,396 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.automation.ChannelManagerService.ParsedOtaBooking;
+import com.example.stayops.entity.OtaInboxMessage;
+import com.example.stayops.repository.ChannelMappingRepository;
+import com.example.stayops.repository.OtaInboxMessageRepository;
+import com.example.stayops.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OTA booking ingestion pipeline
+ *
+ * 1. The webhook calls enqueue(), which only INSERTs the raw payload into ota_booking_inbox.
+ * 2. A dispatcher thread drains PENDING messages oldest-first in batches.
+ * 3. Worker lanes parse the batch in parallel, then each channel's bookings go to the
+ *    lane owning that channel, so bookings from one channel are applied in arrival order.
+ * 4. Duplicates are dropped in-batch, then via a bloom filter of known external ids
+ *    (only "maybe seen" ids hit the database), with the unique index on
+ *    channel_mappings.external_booking_id as the final guard.
+ * 5. Each channel batch is written by ChannelManagerService.createOTABookings in one transaction.
+ *    If it fails, the bookings are written one by one in order; the first booking that fails
+ *    transiently stops the channel for this drain, so it is retried before anything newer from
+ *    that channel is applied.
+ */
+@Service
+@Slf4j
+public class OtaBookingIngestionService {
+
+    private final ChannelManagerService channelManagerService;
+    private final OtaInboxMessageRepository inboxRepository;
+    private final ChannelMappingRepository channelMappingRepository;
+
+    private final int laneCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollIntervalMs;
+    private final long pendingRefreshMs;
+    private final boolean enabled;
+
+    private final BloomFilter knownBookingIds;
+    private final ExecutorService[] lanes;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong lastDrainedAt = new AtomicLong();
+    // Refreshed by the dispatcher thread so metric scrapes never hit the database
+    private final AtomicLong pendingCount = new AtomicLong();
+    private volatile long pendingCountedAt;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    private final Counter receivedCounter;
+    private final Counter processedCounter;
+    private final Counter duplicateCounter;
+    private final Counter failedCounter;
+
+    public OtaBookingIngestionService(ChannelManagerService channelManagerService,
+                                      OtaInboxMessageRepository inboxRepository,
+                                      ChannelMappingRepository channelMappingRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${ota.ingest.enabled:true}") boolean enabled,
+                                      @Value("${ota.ingest.workers:4}") int laneCount,
+                                      @Value("${ota.ingest.batch-size:200}") int batchSize,
+                                      @Value("${ota.ingest.max-attempts:5}") int maxAttempts,
+                                      @Value("${ota.ingest.poll-interval-ms:1000}") long pollIntervalMs,
+                                      @Value("${ota.ingest.pending-refresh-ms:15000}") long pendingRefreshMs,
+                                      @Value("${ota.ingest.bloom.expected-bookings:1000000}") long expectedBookings) {
+        this.channelManagerService = channelManagerService;
+        this.inboxRepository = inboxRepository;
+        this.channelMappingRepository = channelMappingRepository;
+        this.enabled = enabled;
+        this.laneCount = Math.max(1, laneCount);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.pollIntervalMs = Math.max(50, pollIntervalMs);
+        this.pendingRefreshMs = Math.max(this.pollIntervalMs, pendingRefreshMs);
+        this.knownBookingIds = new BloomFilter(expectedBookings, 0.01);
+
+        this.lanes = new ExecutorService[this.laneCount];
+        for (int i = 0; i < this.laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("ota-ingest-" + i + "-"));
+        }
+
+        this.receivedCounter = Counter.builder("stayops.ota.ingest.received").register(meterRegistry);
+        this.processedCounter = Counter.builder("stayops.ota.ingest.processed").register(meterRegistry);
+        this.duplicateCounter = Counter.builder("stayops.ota.ingest.duplicates").register(meterRegistry);
+        this.failedCounter = Counter.builder("stayops.ota.ingest.failed").register(meterRegistry);
+        Gauge.builder("stayops.ota.ingest.pending", pendingCount, AtomicLong::get)
+                .description("OTA bookings waiting in the inbox")
+                .register(meterRegistry);
+    }
+
+    // ========== WEBHOOK SIDE ==========
+
+    /**
+     * Durably accept a booking payload; processing happens asynchronously
+     */
+    public OtaInboxMessage enqueue(String otaPayload) {
+        OtaInboxMessage message = inboxRepository.save(OtaInboxMessage.builder()
+                .payload(otaPayload)
+                .build());
+        receivedCounter.increment();
+        wakeUp.release();
+        return message;
+    }
+
+    /**
+     * Put a FAILED message back in the queue (e.g. after the guest profile was created)
+     */
+    public OtaInboxMessage retry(Long messageId) {
+        OtaInboxMessage message = inboxRepository.findById(messageId)
+                .orElseThrow(() -> new RuntimeException("Inbox message not found: " + messageId));
+        message.setStatus("PENDING");
+        message.setAttempts(0);
+        message.setErrorMessage(null);
+        OtaInboxMessage saved = inboxRepository.save(message);
+        wakeUp.release();
+        return saved;
+    }
+
+    public Map<String, Object> getInboxStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Object[] row : inboxRepository.countGroupedByStatus()) {
+            stats.put(String.valueOf(row[0]), row[1]);
+        }
+        stats.put("workers", laneCount);
+        stats.put("batchSize", batchSize);
+        stats.put("lastDrainedAt", lastDrainedAt.get() > 0 ? Instant.ofEpochMilli(lastDrainedAt.get()) : null);
+        return stats;
+    }
+
+    // ========== DISPATCHER ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("OTA booking ingestion is disabled");
+            return;
+        }
+
+        List<String> existingIds = channelMappingRepository.findAllExternalBookingIds();
+        existingIds.forEach(knownBookingIds::put);
+        log.info("OTA ingestion started with {} workers, bloom filter warmed with {} bookings",
+                laneCount, existingIds.size());
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "ota-ingest-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                int drained = drainOnce();
+                refreshPendingCount();
+                if (drained < batchSize) {
+                    // Caught up: sleep until a webhook arrives or the poll interval passes
+                    wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("OTA ingestion dispatcher error: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Process one batch of pending messages; returns the number of messages taken
+     */
+    int drainOnce() throws InterruptedException {
+        List<OtaInboxMessage> pending = inboxRepository.findByStatusOrderByIdAsc(
+                "PENDING", PageRequest.of(0, batchSize));
+        lastDrainedAt.set(System.currentTimeMillis());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // Parse in parallel across the worker lanes
+        List<Future<ParsedOtaBooking>> parsing = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            OtaInboxMessage message = pending.get(i);
+            parsing.add(lanes[i % laneCount].submit(() -> parse(message)));
+        }
+
+        // Group by channel, keeping arrival order inside each channel
+        Map<String, List<ParsedOtaBooking>> byChannel = new LinkedHashMap<>();
+        List<OtaInboxMessage> failed = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            OtaInboxMessage message = pending.get(i);
+            try {
+                ParsedOtaBooking booking = parsing.get(i).get();
+                message.setChannelCode(booking.getChannelCode());
+                message.setExternalBookingId(booking.getExternalBookingId());
+                byChannel.computeIfAbsent(booking.getChannelCode(), c -> new ArrayList<>()).add(booking);
+            } catch (ExecutionException e) {
+                markFailed(message, "Unparseable payload: " + e.getCause().getMessage(), true);
+                failed.add(message);
+            }
+        }
+        if (!failed.isEmpty()) {
+            inboxRepository.saveAll(failed);
+        }
+
+        // One lane per channel => per-channel ordering; different channels run in parallel
+        List<Future<?>> writes = new ArrayList<>(byChannel.size());
+        byChannel.forEach((channel, bookings) ->
+                writes.add(laneFor(channel).submit(() -> processChannelBatch(channel, bookings))));
+        for (Future<?> write : writes) {
+            try {
+                write.get();
+            } catch (ExecutionException e) {
+                log.error("OTA channel batch failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        return pending.size();
+    }
+
+    private void refreshPendingCount() {
+        long now = System.currentTimeMillis();
+        if (now - pendingCountedAt >= pendingRefreshMs) {
+            pendingCount.set(inboxRepository.countByStatus("PENDING"));
+            pendingCountedAt = now;
+        }
+    }
+
+    private ParsedOtaBooking parse(OtaInboxMessage message) throws Exception {
+        ParsedOtaBooking booking = channelManagerService.parseOTABooking(message.getPayload());
+        booking.setInboxMessage(message);
+        return booking;
+    }
+
+    private void processChannelBatch(String channel, List<ParsedOtaBooking> bookings) {
+        List<OtaInboxMessage> duplicates = new ArrayList<>();
+
+        // 1. Duplicates within this batch: first occurrence wins
+        Set<String> seenInBatch = new HashSet<>();
+        List<ParsedOtaBooking> unique = new ArrayList<>(bookings.size());
+        for (ParsedOtaBooking booking : bookings) {
+            if (seenInBatch.add(booking.getExternalBookingId())) {
+                unique.add(booking);
+            } else {
+                duplicates.add(markDuplicate(booking));
+            }
+        }
+
+        // 2. Only ids the bloom filter may have seen need a database check
+        List<String> maybeSeen = unique.stream()
+                .map(ParsedOtaBooking::getExternalBookingId)
+                .filter(knownBookingIds::mightContain)
+                .toList();
+        Set<String> existing = maybeSeen.isEmpty() ? Set.of()
+                : new HashSet<>(channelMappingRepository.findExistingExternalBookingIds(maybeSeen));
+
+        List<ParsedOtaBooking> fresh = new ArrayList<>(unique.size());
+        for (ParsedOtaBooking booking : unique) {
+            if (existing.contains(booking.getExternalBookingId())) {
+                duplicates.add(markDuplicate(booking));
+            } else {
+                fresh.add(booking);
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            inboxRepository.saveAll(duplicates);
+            duplicateCounter.increment(duplicates.size());
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // 3. Batch insert; fall back to one-by-one, in order, to isolate the booking that failed
+        try {
+            writeBatch(fresh);
+        } catch (Exception e) {
+            log.warn("Batch of {} {} bookings failed ({}), retrying individually",
+                    fresh.size(), channel, e.getMessage());
+            for (int i = 0; i < fresh.size(); i++) {
+                ParsedOtaBooking booking = fresh.get(i);
+                try {
+                    writeBatch(List.of(booking));
+                } catch (DataIntegrityViolationException conflict) {
+                    inboxRepository.save(resolveConflict(booking, conflict));
+                } catch (Exception single) {
+                    OtaInboxMessage message = booking.getInboxMessage();
+                    markFailed(message, single.getMessage(), false);
+                    inboxRepository.save(message);
+                    if ("PENDING".equals(message.getStatus())) {
+                        // The rest of the channel stays PENDING behind it and is read again next drain
+                        log.warn("Stopping {} for this drain at inbox message {}; {} later bookings deferred",
+                                channel, message.getId(), fresh.size() - i - 1);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A constraint violation is not transient: either the external id was ingested meanwhile
+     * (another node, or a retry of a message whose first run committed), or the booking is invalid
+     */
+    private OtaInboxMessage resolveConflict(ParsedOtaBooking booking, DataIntegrityViolationException conflict) {
+        String externalId = booking.getExternalBookingId();
+        if (!channelMappingRepository.findExistingExternalBookingIds(List.of(externalId)).isEmpty()) {
+            knownBookingIds.put(externalId);
+            duplicateCounter.increment();
+            return markDuplicate(booking);
+        }
+        OtaInboxMessage message = booking.getInboxMessage();
+        markFailed(message, conflict.getMostSpecificCause().getMessage(), true);
+        return message;
+    }
+
+    private void writeBatch(List<ParsedOtaBooking> bookings) {
+        channelManagerService.createOTABookings(bookings);
+        for (ParsedOtaBooking booking : bookings) {
+            if ("PROCESSED".equals(booking.getInboxMessage().getStatus())) {
+                knownBookingIds.put(booking.getExternalBookingId());
+                processedCounter.increment();
+            } else {
+                failedCounter.increment();
+            }
+        }
+    }
+
+    private OtaInboxMessage markDuplicate(ParsedOtaBooking booking) {
+        OtaInboxMessage message = booking.getInboxMessage();
+        message.setStatus("DUPLICATE");
+        message.setReservationId(null);
+        message.setProcessedAt(Instant.now());
+        return message;
+    }
+
+    private void markFailed(OtaInboxMessage message, String error, boolean permanent) {
+        int attempts = message.getAttempts() == null ? 1 : message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setErrorMessage(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        message.setReservationId(null);
+        if (permanent || attempts >= maxAttempts) {
+            message.setStatus("FAILED");
+            message.setProcessedAt(Instant.now());
+            failedCounter.increment();
+        } else {
+            // Picked up again by a later drain
+            message.setStatus("PENDING");
+            message.setProcessedAt(null);
+        }
+    }
+
+    private ExecutorService laneFor(String channel) {
+        return lanes[Math.floorMod(Objects.hashCode(channel), laneCount)];
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
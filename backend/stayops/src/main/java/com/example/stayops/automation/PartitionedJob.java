@@ -0,0 +1,15 @@
+package com.example.stayops.automation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a @Scheduled method that splits its work with JobLeaseService.runPartitioned, so every
+ * node runs it and takes its share of partitions instead of one node taking the whole tick
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PartitionedJob {
+}
@@ -4,13 +4,14 @@ import com.example.stayops.config.AutomationConfig;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.event.EventPublisher;
+import com.example.stayops.event.PaymentBatchEvent;
 import com.example.stayops.event.PaymentEvent;
 import com.example.stayops.event.ReservationEvent;
+import com.example.stayops.event.ReservationSnapshot;
 import com.example.stayops.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +26,6 @@ public class PaymentAutomationListener {
     private final EventPublisher eventPublisher;
     private final AutomationConfig config;
 
-    @Async
     @EventListener
     @Transactional
     public void handlePaymentSuccess(PaymentEvent event) {
@@ -60,6 +60,7 @@ public class PaymentAutomationListener {
                         .eventType("CONFIRMED")
                         .eventTime(Instant.now())
                         .triggeredBy("SYSTEM_PAYMENT_AUTO")
+                        .snapshot(ReservationSnapshot.of(reservation))
                         .build());
             } else {
                 log.info("Reservation {} status is {}, no auto-confirmation needed",
@@ -71,7 +72,6 @@ public class PaymentAutomationListener {
         }
     }
 
-    @Async
     @EventListener
     @Transactional
     public void handlePaymentFailure(PaymentEvent event) {
@@ -84,4 +84,14 @@ public class PaymentAutomationListener {
         // TODO: Implement notification to guest and operations team
         // TODO: Optionally cancel reservation or mark for follow-up
     }
+
+    @EventListener
+    public void handlePaymentFailureBatch(PaymentBatchEvent event) {
+        if (!"FAILED".equals(event.getEventType())) {
+            return;
+        }
+
+        log.warn("{} payments failed ({}) for reservations: {}", event.getChanges().size(), event.getStatus(),
+                event.getChanges().stream().map(PaymentBatchEvent.Change::getReservationId).distinct().toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.entity.PaymentWebhookMessage;
+import com.example.stayops.event.PaymentWebhookReceivedEvent;
+import com.example.stayops.repository.PaymentWebhookMessageRepository;
+import com.example.stayops.service.PaymentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies payment webhooks recorded by PaymentServiceImpl.processWebhook
+ *
+ * A dispatcher thread drains PENDING rows of payment_webhook_inbox oldest-first. Each
+ * providerTransactionId is pinned to one single-threaded lane, so events for a payment are
+ * applied in arrival order while different payments run in parallel. When an event fails,
+ * later events for the same transaction in that batch are held back until it succeeds
+ * or runs out of attempts.
+ *
+ * A failed event is retried after an exponential backoff (retry-backoff-ms, doubling per attempt,
+ * capped at max-backoff-ms), so a webhook that arrives before its payment row commits gets time
+ * for the payment to appear instead of using up its attempts within seconds.
+ */
+@Service
+@Slf4j
+public class PaymentWebhookProcessor {
+
+    private final PaymentService paymentService;
+    private final PaymentWebhookMessageRepository webhookRepository;
+
+    private final int laneCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollIntervalMs;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+    private final long pendingRefreshMs;
+    private final boolean enabled;
+
+    private final ExecutorService[] lanes;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong lastDrainedAt = new AtomicLong();
+    // Kept current on record/apply and re-counted by the dispatcher, so scrapes never hit the inbox table
+    private final AtomicLong pendingCount = new AtomicLong();
+    private volatile long pendingCountedAt;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    public PaymentWebhookProcessor(PaymentService paymentService,
+                                   PaymentWebhookMessageRepository webhookRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${webhook.payment.processing.enabled:true}") boolean enabled,
+                                   @Value("${webhook.payment.processing.workers:4}") int laneCount,
+                                   @Value("${webhook.payment.processing.batch-size:100}") int batchSize,
+                                   @Value("${webhook.payment.processing.max-attempts:5}") int maxAttempts,
+                                   @Value("${webhook.payment.processing.poll-interval-ms:1000}") long pollIntervalMs,
+                                   @Value("${webhook.payment.processing.retry-backoff-ms:5000}") long retryBackoffMs,
+                                   @Value("${webhook.payment.processing.max-backoff-ms:300000}") long maxBackoffMs,
+                                   @Value("${webhook.payment.processing.pending-refresh-ms:15000}") long pendingRefreshMs) {
+        this.paymentService = paymentService;
+        this.webhookRepository = webhookRepository;
+        this.enabled = enabled;
+        this.laneCount = Math.max(1, laneCount);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.pollIntervalMs = Math.max(50, pollIntervalMs);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+        this.maxBackoffMs = Math.max(this.retryBackoffMs, maxBackoffMs);
+        this.pendingRefreshMs = Math.max(0, pendingRefreshMs);
+
+        this.lanes = new ExecutorService[this.laneCount];
+        for (int i = 0; i < this.laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("payment-webhook-" + i + "-"));
+        }
+
+        this.processedCounter = Counter.builder("stayops.payment.webhook.processed").register(meterRegistry);
+        this.failedCounter = Counter.builder("stayops.payment.webhook.failed").register(meterRegistry);
+        this.retriedCounter = Counter.builder("stayops.payment.webhook.retried").register(meterRegistry);
+        Gauge.builder("stayops.payment.webhook.pending", pendingCount, AtomicLong::get)
+                .description("Payment webhooks waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onWebhookReceived(PaymentWebhookReceivedEvent event) {
+        pendingCount.incrementAndGet();
+        wakeUp.release();
+    }
+
+    /**
+     * Put a FAILED webhook back in the queue (e.g. once the payment row exists)
+     */
+    public PaymentWebhookMessage retry(Long messageId) {
+        PaymentWebhookMessage message = webhookRepository.findById(messageId)
+                .orElseThrow(() -> new RuntimeException("Webhook message not found: " + messageId));
+        message.setStatus("PENDING");
+        message.setAttempts(0);
+        message.setNextAttemptAt(null);
+        message.setErrorMessage(null);
+        PaymentWebhookMessage saved = webhookRepository.save(message);
+        pendingCount.incrementAndGet();
+        wakeUp.release();
+        return saved;
+    }
+
+    public Map<String, Object> getInboxStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Object[] row : webhookRepository.countGroupedByStatus()) {
+            stats.put(String.valueOf(row[0]), row[1]);
+        }
+        stats.put("workers", laneCount);
+        stats.put("batchSize", batchSize);
+        stats.put("lastDrainedAt", lastDrainedAt.get() > 0 ? Instant.ofEpochMilli(lastDrainedAt.get()) : null);
+        return stats;
+    }
+
+    // ========== DISPATCHER ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshPendingCount();
+        if (!enabled) {
+            log.info("Payment webhook processing is disabled");
+            return;
+        }
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "payment-webhook-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Payment webhook processor started with {} workers", laneCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                int drained = drainOnce();
+                refreshPendingCount();
+                if (drained < batchSize) {
+                    // Caught up: sleep until a webhook arrives or the poll interval passes
+                    wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Payment webhook dispatcher error: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Apply one batch of pending webhooks; returns the number of messages taken
+     */
+    int drainOnce() throws InterruptedException {
+        List<PaymentWebhookMessage> pending = webhookRepository.findDue(
+                Instant.now(), PageRequest.of(0, batchSize));
+        lastDrainedAt.set(System.currentTimeMillis());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // Group by lane, keeping arrival order inside each lane
+        Map<Integer, List<PaymentWebhookMessage>> byLane = new LinkedHashMap<>();
+        for (PaymentWebhookMessage message : pending) {
+            byLane.computeIfAbsent(laneIndex(message.getProviderTransactionId()), i -> new ArrayList<>())
+                    .add(message);
+        }
+
+        List<Future<?>> work = new ArrayList<>(byLane.size());
+        byLane.forEach((lane, messages) -> work.add(lanes[lane].submit(() -> applyInOrder(messages))));
+        for (Future<?> future : work) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Payment webhook lane failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        return pending.size();
+    }
+
+    private void applyInOrder(List<PaymentWebhookMessage> messages) {
+        Set<String> blockedTransactions = new HashSet<>();
+        for (PaymentWebhookMessage message : messages) {
+            String transactionId = String.valueOf(message.getProviderTransactionId());
+            if (blockedTransactions.contains(transactionId)) {
+                continue; // an earlier event for this payment has not been applied yet
+            }
+            try {
+                paymentService.applyWebhookEvent(message.getId());
+                processedCounter.increment();
+                pendingApplied();
+            } catch (Exception e) {
+                log.warn("Payment webhook {} failed: {}", message.getProviderEventId(), e.getMessage());
+                markFailed(message, e.getMessage());
+                if ("PENDING".equals(message.getStatus())) {
+                    blockedTransactions.add(transactionId);
+                }
+            }
+        }
+    }
+
+    private void markFailed(PaymentWebhookMessage message, String error) {
+        int attempts = message.getAttempts() == null ? 1 : message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setErrorMessage(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            message.setStatus("FAILED");
+            message.setProcessedAt(Instant.now());
+            failedCounter.increment();
+            pendingApplied();
+        } else {
+            // Picked up again by the first drain after the backoff
+            long backoff = Math.min(maxBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+            message.setNextAttemptAt(Instant.now().plusMillis(backoff));
+            retriedCounter.increment();
+        }
+        webhookRepository.save(message);
+    }
+
+    private void pendingApplied() {
+        pendingCount.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    /**
+     * Re-count from the table at most every pending-refresh-ms, correcting any drift in the running count
+     */
+    private void refreshPendingCount() {
+        long now = System.currentTimeMillis();
+        if (now - pendingCountedAt >= pendingRefreshMs) {
+            pendingCount.set(webhookRepository.countByStatus("PENDING"));
+            pendingCountedAt = now;
+        }
+    }
+
+    private int laneIndex(String providerTransactionId) {
+        return Math.floorMod(Objects.hashCode(providerTransactionId), laneCount);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Component;
 public class ReservationAutomationJob {
 
     private final ReservationAutomationService reservationAutomationService;
+    private final ScheduledJobMonitor jobMonitor;
 
     /**
      * CRITICAL JOB: Check for unconfirmed reservations every 30 minutes
@@ -31,8 +32,10 @@ public class ReservationAutomationJob {
         log.info("===== STARTING: Auto-release unconfirmed reservations =====");
         try {
             int cancelled = reservationAutomationService.autoReleaseUnconfirmedReservations();
+            jobMonitor.recordProcessed(cancelled);
             log.info("Auto-release job completed successfully. Cancelled: {}", cancelled);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in auto-release unconfirmed reservations job", e);
         }
         log.info("===== COMPLETED: Auto-release unconfirmed reservations =====");
@@ -46,8 +49,10 @@ public class ReservationAutomationJob {
         log.info("===== STARTING: Auto-checkout overdue reservations =====");
         try {
             int checkedOut = reservationAutomationService.autoCheckoutOverdueReservations();
+            jobMonitor.recordProcessed(checkedOut);
             log.info("Auto-checkout job completed successfully. Checked out: {}", checkedOut);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in auto-checkout overdue reservations job", e);
         }
         log.info("===== COMPLETED: Auto-checkout overdue reservations =====");
@@ -62,8 +67,10 @@ public class ReservationAutomationJob {
         log.info("===== STARTING: Auto-update arriving guests =====");
         try {
             int updated = reservationAutomationService.autoUpdateArrivingGuests();
+            jobMonitor.recordProcessed(updated);
             log.info("Auto-update arriving guests completed successfully. Updated: {}", updated);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in auto-update arriving guests job", e);
         }
         log.info("===== COMPLETED: Auto-update arriving guests =====");
@@ -77,8 +84,10 @@ public class ReservationAutomationJob {
         log.info("===== STARTING: Send arrival reminders =====");
         try {
             int sent = reservationAutomationService.sendArrivalReminders();
+            jobMonitor.recordProcessed(sent);
             log.info("Arrival reminders job completed successfully. Reminders sent: {}", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in send arrival reminders job", e);
         }
         log.info("===== COMPLETED: Send arrival reminders =====");
@@ -92,8 +101,10 @@ public class ReservationAutomationJob {
         log.info("===== STARTING: Archive old reservations =====");
         try {
             int archived = reservationAutomationService.archiveOldReservations();
+            jobMonitor.recordProcessed(archived);
             log.info("Archive old reservations job completed successfully. Archived: {}", archived);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in archive old reservations job", e);
         }
         log.info("===== COMPLETED: Archive old reservations =====");
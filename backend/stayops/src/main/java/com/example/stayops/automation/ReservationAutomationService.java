@@ -1,14 +1,19 @@
 package com.example.stayops.automation;
 
+import com.example.stayops.dto.ReservationTransitionRow;
 import com.example.stayops.entity.AuditLog;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.event.EventPublisher;
 import com.example.stayops.event.ReservationEvent;
+import com.example.stayops.event.ReservationSnapshot;
 import com.example.stayops.repository.AuditLogRepository;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.BulkStatusTransitionService;
+import com.example.stayops.service.ReservationArchiveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +32,11 @@ public class ReservationAutomationService {
     private final ReservationRepository reservationRepository;
     private final EventPublisher eventPublisher;
     private final AuditLogRepository auditLogRepository;
+    private final ReservationArchiveService reservationArchiveService;
+    private final BulkStatusTransitionService bulkTransitions;
+
+    @Value("${stayops.automation.archive-after-days:30}")
+    private int archiveAfterDays;
 
     // FIXED: Added configurable time zone support
     private static final ZoneId SYSTEM_ZONE = ZoneId.systemDefault();
@@ -122,6 +132,7 @@ public class ReservationAutomationService {
      * FIXES:
      * - Use efficient database query
      * - Corrected date comparison logic
+     * - Set-based transition through BulkStatusTransitionService
      */
     @Transactional
     public int autoCheckoutOverdueReservations() {
@@ -129,30 +140,22 @@ public class ReservationAutomationService {
 
         LocalDate today = LocalDate.now(SYSTEM_ZONE);
 
-        // FIXED: Use efficient query
-        List<Reservation> overdueReservations = reservationRepository
-                .findByStatusInAndCheckOutDateBefore(
+        // Set-based: one UPDATE per chunk of ids and one batched AUTO_CHECKED_OUT event
+        List<ReservationTransitionRow> overdueReservations = reservationRepository
+                .findTransitionRowsByStatusInAndCheckOutDateBefore(
                         List.of(ReservationStatus.CHECKED_IN, ReservationStatus.OCCUPIED),
                         today
                 );
 
-        int checkedOutCount = 0;
-        for (Reservation reservation : overdueReservations) {
-            ReservationStatus oldStatus = reservation.getStatus();
-            reservation.setStatus(ReservationStatus.CHECKED_OUT);
-            reservationRepository.save(reservation);
-
-            logAudit("RESERVATION", reservation.getReservationId().toString(),
-                    "AUTO_CHECKOUT", "SYSTEM", "AUTOMATION",
-                    "Auto-checked out: Past checkout date");
-
-            publishReservationEvent(reservation, oldStatus, ReservationStatus.CHECKED_OUT,
-                    "AUTO_CHECKED_OUT", "SYSTEM_AUTO_CHECKOUT");
-
-            checkedOutCount++;
-            log.info("Auto-checked out reservation {} - past checkout date (due: {})",
-                    reservation.getReservationId(), reservation.getCheckOutDate());
-        }
+        int checkedOutCount = bulkTransitions.transitionReservations(overdueReservations,
+                BulkStatusTransitionService.ReservationTransition.builder()
+                        .toStatus(ReservationStatus.CHECKED_OUT)
+                        .releaseRooms(false)
+                        .eventType("AUTO_CHECKED_OUT")
+                        .triggeredBy("SYSTEM_AUTO_CHECKOUT")
+                        .auditAction("AUTO_CHECKOUT")
+                        .auditDescription("Auto-checked out: Past checkout date")
+                        .build());
 
         log.info("Auto-checkout completed: {} reservations checked out", checkedOutCount);
         return checkedOutCount;
@@ -247,42 +250,20 @@ public class ReservationAutomationService {
     }
 
     /**
-     * ADDITIONAL AUTOMATION: Clean up old cancelled/checked-out reservations
-     * FIXES:
-     * - Use efficient database query
-     * - Configurable archive period
+     * ADDITIONAL AUTOMATION: Archive old cancelled/checked-out reservations
+     * Moves them and their dependent rows into the archive tables (see ReservationArchiveService)
      */
-    @Transactional
     public int archiveOldReservations() {
-        return archiveOldReservations(30); // Default 30 days
+        return archiveOldReservations(archiveAfterDays);
     }
 
-    @Transactional
     public int archiveOldReservations(int daysOld) {
         log.info("Archiving old reservations ({}+ days)...", daysOld);
 
-        LocalDate cutoffDate = LocalDate.now(SYSTEM_ZONE).minusDays(daysOld);
-
-        // FIXED: Use efficient query
-        List<Reservation> oldReservations = reservationRepository
-                .findByStatusInAndCheckOutDateBefore(
-                        List.of(ReservationStatus.CANCELLED, ReservationStatus.CHECKED_OUT),
-                        cutoffDate
-                );
-
-        int archivedCount = 0;
-        for (Reservation reservation : oldReservations) {
-            try {
-                // In a real system, you might move to archive table or mark as archived
-                logAudit("RESERVATION", reservation.getReservationId().toString(),
-                        "ARCHIVED", "SYSTEM", "AUTOMATION",
-                        String.format("Archived old reservation (%d+ days past checkout)", daysOld));
-
-                archivedCount++;
-            } catch (Exception e) {
-                log.error("Failed to archive reservation {}: {}",
-                        reservation.getReservationId(), e.getMessage());
-            }
+        int archivedCount = reservationArchiveService.archiveClosedReservations(daysOld);
+        if (archivedCount > 0) {
+            logAudit("RESERVATION", "BATCH", "ARCHIVED", "SYSTEM", "AUTOMATION",
+                    String.format("Archived %d old reservations (%d+ days past checkout)", archivedCount, daysOld));
         }
 
         log.info("Archived {} old reservations", archivedCount);
@@ -310,6 +291,7 @@ public class ReservationAutomationService {
                     .eventType(eventType)
                     .eventTime(Instant.now())
                     .triggeredBy(triggeredBy)
+                    .snapshot(ReservationSnapshot.of(reservation))
                     .build());
         } catch (Exception e) {
             log.error("Failed to publish reservation event for {}: {}",
@@ -1,11 +1,10 @@
 package com.example.stayops.automation;
 
 import com.example.stayops.config.AutomationConfig;
-import com.example.stayops.entity.Reservation;
+import com.example.stayops.dto.ReservationTransitionRow;
 import com.example.stayops.enums.ReservationStatus;
-import com.example.stayops.event.EventPublisher;
-import com.example.stayops.event.ReservationEvent;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.BulkStatusTransitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -25,11 +25,13 @@ import java.util.List;
 public class ReservationCleanupJobs {
 
     private final ReservationRepository reservationRepository;
-    private final EventPublisher eventPublisher;
+    private final BulkStatusTransitionService bulkTransitions;
     private final AutomationConfig config;
+    private final ScheduledJobMonitor jobMonitor;
 
     // FIXED: Added time zone support
     private static final ZoneId SYSTEM_ZONE = ZoneId.systemDefault();
+    private static final int STANDARD_CHECK_IN_HOUR = 14; // 2 PM
 
     /**
      * Auto-mark no-shows - Runs every hour
@@ -38,6 +40,7 @@ public class ReservationCleanupJobs {
      * - Corrected grace period calculation (hours instead of days)
      * - Better null safety
      * - Improved logging
+     * - Set-based: one UPDATE and one room-link DELETE per chunk, one batched NO_SHOW event
      */
     @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
     @Transactional
@@ -50,62 +53,34 @@ public class ReservationCleanupJobs {
         log.info("Running no-show automation job");
 
         try {
-            LocalDateTime now = LocalDateTime.now(SYSTEM_ZONE);
-
-            // FIXED: Calculate grace period cutoff properly in hours
-            LocalDateTime gracePeriodCutoff = now.minusHours(config.getNoShowGracePeriodHours());
-            LocalDate checkInCutoffDate = gracePeriodCutoff.toLocalDate();
-
-            // FIXED: Use efficient query instead of findAll()
-            // Find CONFIRMED reservations with check-in date before the grace period cutoff
-            List<Reservation> potentialNoShows = reservationRepository
-                    .findByStatusAndCheckInDateBefore(
-                            ReservationStatus.CONFIRMED,
-                            checkInCutoffDate.plusDays(1) // Include today if applicable
-                    );
-
-            int markedCount = 0;
-            for (Reservation reservation : potentialNoShows) {
-                // FIXED: Properly calculate if grace period has passed
-                // Assume standard check-in time of 2 PM if not specified
-                LocalDateTime checkInDateTime = reservation.getCheckInDate().atTime(14, 0);
-                LocalDateTime graceEndTime = checkInDateTime
-                        .plusHours(config.getNoShowGracePeriodHours());
-
-                // Only mark as no-show if we're past the grace period
-                if (now.isAfter(graceEndTime)) {
-                    ReservationStatus oldStatus = reservation.getStatus();
-                    reservation.setStatus(ReservationStatus.CANCELLED);
-
-                    // FIXED: Consistent room clearing
-                    clearRoomAssociations(reservation);
-
-                    reservationRepository.save(reservation);
-
-                    log.info("Marked reservation {} as NO-SHOW (check-in: {}, grace period: {} hours)",
-                            reservation.getReservationId(),
-                            reservation.getCheckInDate(),
-                            config.getNoShowGracePeriodHours());
-
-                    // Publish event with proper null safety
-                    publishReservationEvent(
-                            reservation,
-                            oldStatus,
-                            ReservationStatus.CANCELLED,
-                            "NO_SHOW",
-                            "SYSTEM_AUTO_NO_SHOW"
-                    );
-
-                    markedCount++;
-
-                    // TODO: Apply no-show charges per policy
-                    // TODO: Send notification to guest
-                }
-            }
-
-            log.info("No-show automation completed. Marked {} reservations as no-show", markedCount);
+            // A reservation is a no-show once its grace period has passed, counted from the
+            // standard 2 PM check-in: checkInDate 00:00 + 14h + grace < now
+            LocalDateTime graceStartCutoff = LocalDateTime.now(SYSTEM_ZONE)
+                    .minusHours(STANDARD_CHECK_IN_HOUR + config.getNoShowGracePeriodHours());
+            LocalDate checkInBefore = graceStartCutoff.toLocalTime().equals(LocalTime.MIDNIGHT)
+                    ? graceStartCutoff.toLocalDate()
+                    : graceStartCutoff.toLocalDate().plusDays(1);
+
+            List<ReservationTransitionRow> noShows = reservationRepository
+                    .findTransitionRowsByStatusAndCheckInDateBefore(ReservationStatus.CONFIRMED, checkInBefore);
+
+            int markedCount = bulkTransitions.transitionReservations(noShows,
+                    BulkStatusTransitionService.ReservationTransition.builder()
+                            .toStatus(ReservationStatus.CANCELLED)
+                            .releaseRooms(true)
+                            .eventType("NO_SHOW")
+                            .triggeredBy("SYSTEM_AUTO_NO_SHOW")
+                            .build());
+
+            // TODO: Apply no-show charges per policy
+            // TODO: Send notification to guest
+
+            jobMonitor.recordProcessed(markedCount);
+            log.info("No-show automation completed. Marked {} reservations as no-show (grace period: {} hours)",
+                    markedCount, config.getNoShowGracePeriodHours());
 
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in no-show automation: {}", e.getMessage(), e);
             // FIXED: Don't rethrow to prevent job scheduler from stopping
         }
@@ -118,6 +93,7 @@ public class ReservationCleanupJobs {
      * - Proper timestamp comparison
      * - Consistent room clearing
      * - Better error handling
+     * - Set-based: one UPDATE and one room-link DELETE per chunk, one batched STALE_CANCELLED event
      */
     @Scheduled(cron = "0 0 */6 * * *") // Every 6 hours
     @Transactional
@@ -133,105 +109,53 @@ public class ReservationCleanupJobs {
             Instant staleCutoff = Instant.now()
                     .minus(config.getStalePendingHours(), ChronoUnit.HOURS);
 
-            // FIXED: Use efficient query instead of findAll()
-            List<Reservation> staleReservations = reservationRepository
-                    .findByStatusAndCreatedAtBefore(
-                            ReservationStatus.PENDING,
-                            staleCutoff
-                    );
-
-            int cancelledCount = 0;
-            for (Reservation reservation : staleReservations) {
-                try {
-                    ReservationStatus oldStatus = reservation.getStatus();
-                    reservation.setStatus(ReservationStatus.CANCELLED);
-
-                    // FIXED: Consistent and safe room clearing
-                    clearRoomAssociations(reservation);
-
-                    reservationRepository.save(reservation);
-
-                    long hoursStale = ChronoUnit.HOURS.between(reservation.getCreatedAt(), Instant.now());
-                    log.info("Cancelled stale PENDING reservation {} (pending for {} hours)",
-                            reservation.getReservationId(), hoursStale);
-
-                    // Publish event with proper null safety
-                    publishReservationEvent(
-                            reservation,
-                            oldStatus,
-                            ReservationStatus.CANCELLED,
-                            "STALE_CANCELLED",
-                            "SYSTEM_AUTO_STALE_CLEANUP"
-                    );
-
-                    cancelledCount++;
-
-                    // TODO: Send notification to guest about cancellation
-                } catch (Exception e) {
-                    log.error("Failed to cancel stale reservation {}: {}",
-                            reservation.getReservationId(), e.getMessage());
-                }
-            }
-
-            log.info("Stale reservation cleanup completed. Cancelled {} reservations",
-                    cancelledCount);
+            List<ReservationTransitionRow> staleReservations = reservationRepository
+                    .findTransitionRowsByStatusAndCreatedAtBefore(ReservationStatus.PENDING, staleCutoff);
+
+            int cancelledCount = bulkTransitions.transitionReservations(staleReservations,
+                    BulkStatusTransitionService.ReservationTransition.builder()
+                            .toStatus(ReservationStatus.CANCELLED)
+                            .releaseRooms(true)
+                            .eventType("STALE_CANCELLED")
+                            .triggeredBy("SYSTEM_AUTO_STALE_CLEANUP")
+                            .build());
+
+            // TODO: Send notification to guest about cancellation
+
+            jobMonitor.recordProcessed(cancelledCount);
+            log.info("Stale reservation cleanup completed. Cancelled {} reservations pending for over {} hours",
+                    cancelledCount, config.getStalePendingHours());
 
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in stale reservation cleanup: {}", e.getMessage(), e);
             // FIXED: Don't rethrow to prevent job scheduler from stopping
         }
     }
 
     /**
-     * ADDED: Comprehensive cleanup job that runs daily
-     * Performs multiple cleanup operations in sequence
+     * ADDED: Comprehensive cleanup that runs daily as a stage of the night run (NightlyAuditJob)
+     * Performs multiple cleanup operations in sequence; returns the number of rows removed
      */
-    @Scheduled(cron = "0 0 2 * * *") // Daily at 2 AM
     @Transactional
-    public void performDailyCleanup() {
+    public int performDailyCleanup() {
         log.info("Starting daily comprehensive cleanup");
 
         try {
             // Clean up old audit logs if needed
             cleanupOldAuditLogs();
 
+            // Trim scheduled job run history to the metrics retention window
+            int purged = jobMonitor.purgeHistory();
+
             // Other cleanup tasks can be added here
 
             log.info("Daily comprehensive cleanup completed successfully");
+            return purged;
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error in daily cleanup: {}", e.getMessage(), e);
-        }
-    }
-
-    // FIXED: Added helper method for consistent room clearing
-    private void clearRoomAssociations(Reservation reservation) {
-        if (reservation.getRooms() != null && !reservation.getRooms().isEmpty()) {
-            reservation.getRooms().clear();
-        }
-    }
-
-    // FIXED: Added helper method to reduce duplication and ensure null safety
-    private void publishReservationEvent(Reservation reservation, ReservationStatus oldStatus,
-                                         ReservationStatus newStatus, String eventType,
-                                         String triggeredBy) {
-        try {
-            String guestId = (reservation.getGuest() != null)
-                    ? reservation.getGuest().getGuestId()
-                    : null;
-
-            eventPublisher.publishReservationEvent(ReservationEvent.builder()
-                    .reservationId(reservation.getReservationId())
-                    .guestId(guestId)
-                    .previousStatus(oldStatus)
-                    .newStatus(newStatus)
-                    .eventType(eventType)
-                    .eventTime(Instant.now())
-                    .triggeredBy(triggeredBy)
-                    .build());
-        } catch (Exception e) {
-            log.error("Failed to publish reservation event for {}: {}",
-                    reservation.getReservationId(), e.getMessage());
-            // Don't rethrow - event publishing failure shouldn't stop the cleanup
+            return 0;
         }
     }
 
@@ -3,11 +3,11 @@ package com.example.stayops.automation;
 import com.example.stayops.config.AutomationConfig;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.event.ReservationEvent;
+import com.example.stayops.event.ReservationSnapshot;
 import com.example.stayops.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +20,6 @@ public class RoomAssignmentListener {
     private final RoomAssignmentService roomAssignmentService;
     private final AutomationConfig config;
 
-    @Async
     @EventListener
     @Transactional
     public void handleReservationConfirmed(ReservationEvent event) {
@@ -32,6 +31,13 @@ public class RoomAssignmentListener {
                 event.getReservationId());
 
         try {
+            // Most confirmations already have rooms; only load the reservation when there is work to do
+            ReservationSnapshot snapshot = event.getSnapshot();
+            if (snapshot != null && snapshot.isCurrent() && snapshot.hasRooms()) {
+                log.info("Rooms already assigned for reservation: {}", event.getReservationId());
+                return;
+            }
+
             Reservation reservation = reservationRepository
                     .findById(event.getReservationId())
                     .orElseThrow(() -> new RuntimeException(
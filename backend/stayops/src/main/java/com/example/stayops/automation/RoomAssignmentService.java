@@ -3,14 +3,23 @@ package com.example.stayops.automation;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.entity.Room;
 import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.repository.HousekeepingTaskRepository;
 import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
+import com.example.stayops.util.HungarianAlgorithm;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,6 +30,18 @@ public class RoomAssignmentService {
 
     private final RoomRepository roomRepository;
     private final ReservationRepository reservationRepository;
+    private final HousekeepingTaskRepository housekeepingTaskRepository;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
+
+    // Stays in these statuses no longer hold their room
+    private static final List<ReservationStatus> NON_BLOCKING_STATUSES =
+            List.of(ReservationStatus.CANCELLED, ReservationStatus.CHECKED_OUT);
+    private static final Set<String> OUT_OF_ORDER_STATUSES = Set.of("MAINTENANCE", "OUT_OF_SERVICE", "OUT_OF_ORDER");
+
+    // Solver costs: a real room always beats leaving a slot empty, which beats an impossible room
+    private static final double FORBIDDEN = 1e9;
+    private static final double UNASSIGNED = 1e6;
 
     @Transactional
     public boolean autoAssignRooms(Reservation reservation) {
@@ -53,6 +74,7 @@ public class RoomAssignmentService {
         // Assign best-fit rooms (smart assignment logic)
         Set<Room> assignedRooms = selectBestRooms(availableRooms, roomsNeeded, reservation);
         reservation.setRoomsCollection(assignedRooms);
+        roomsChanged(List.of(reservation));
 
         log.info("Successfully auto-assigned {} rooms to reservation: {}",
                 assignedRooms.size(), reservation.getReservationId());
@@ -71,10 +93,11 @@ public class RoomAssignmentService {
     }
 
     private List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, int count) {
-        List<Room> allRooms = roomRepository.findAll();
+        // One query for every room's overlapping stays instead of one query per room
+        Set<Long> busyRoomIds = loadBusySpans(checkIn, checkOut).keySet();
 
-        return allRooms.stream()
-                .filter(room -> isRoomAvailable(room, checkIn, checkOut))
+        return roomRepository.findAll().stream()
+                .filter(room -> !busyRoomIds.contains(room.getId()))
                 .limit(count * 3) // Get more than needed for better selection
                 .collect(Collectors.toList());
     }
@@ -135,9 +158,245 @@ public class RoomAssignmentService {
 
         reservation.removeRoom(oldRoom);
         reservation.addRoom(newRoom);
+        roomsChanged(List.of(reservation));
 
         log.info("Successfully reassigned room for reservation: {}",
                 reservation.getReservationId());
         return true;
     }
-}
\ No newline at end of file
+
+    // ========== BATCH ASSIGNMENT ==========
+
+    /**
+     * Assign rooms to all of a date's unassigned CONFIRMED arrivals together
+     *
+     * Rooms, overlapping stays and open housekeeping tasks are loaded once. Each arrival is split
+     * into one slot per room it needs, and slots are matched to rooms by minimum-cost assignment
+     * (HungarianAlgorithm). Scores reward capacity fit, readiness and, for multi-room bookings,
+     * keeping rooms on one floor and of one type. Multi-room bookings are all-or-nothing.
+     * The result is saved in this one transaction.
+     */
+    @Transactional
+    public BatchAssignmentResult assignArrivals(LocalDate date) {
+        long started = System.currentTimeMillis();
+        List<Reservation> arrivals = reservationRepository.findUnassignedArrivals(
+                date, List.of(ReservationStatus.CONFIRMED));
+
+        BatchAssignmentResult result = BatchAssignmentResult.builder()
+                .date(date)
+                .arrivals(arrivals.size())
+                .unassignedReservationIds(new ArrayList<>())
+                .roomNumbersByReservation(new LinkedHashMap<>())
+                .build();
+        if (arrivals.isEmpty()) {
+            result.setDurationMs(System.currentTimeMillis() - started);
+            return result;
+        }
+
+        // 1. Occupancy matrix and readiness, loaded once
+        LocalDate horizonEnd = arrivals.stream()
+                .map(Reservation::getCheckOutDate)
+                .max(Comparator.naturalOrder())
+                .orElse(date);
+        Map<Long, List<LocalDate[]>> busy = loadBusySpans(date, horizonEnd);
+        Map<Long, Set<String>> openTasks = new HashMap<>();
+        for (Object[] row : housekeepingTaskRepository.findOpenTaskTypesByRoom(date)) {
+            openTasks.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+
+        List<Room> rooms = roomRepository.findAll().stream()
+                .filter(room -> room.getAvailabilityStatus() == null
+                        || !OUT_OF_ORDER_STATUSES.contains(room.getAvailabilityStatus()))
+                .filter(room -> !openTasks.getOrDefault(room.getId(), Set.of()).contains("MAINTENANCE"))
+                .toList();
+        double maxPrice = rooms.stream()
+                .map(Room::getPricePerNight)
+                .filter(Objects::nonNull)
+                .max(Double::compare)
+                .orElse(0.0);
+
+        // 2. One slot per room needed
+        List<Slot> slots = new ArrayList<>();
+        for (Reservation reservation : arrivals) {
+            int needed = calculateRoomsNeeded(reservation);
+            int guests = reservation.getReservationDetails() != null
+                    ? reservation.getReservationDetails().getAdults() + reservation.getReservationDetails().getKids()
+                    : 1;
+            int guestsPerRoom = Math.max(1, (int) Math.ceil(guests / (double) needed));
+            long nights = ChronoUnit.DAYS.between(reservation.getCheckInDate(), reservation.getCheckOutDate());
+
+            String targetFloor = null;
+            String targetType = null;
+            if (needed > 1) {
+                // Aim multi-room bookings at the floor with the most fitting free rooms
+                Map<String, List<Room>> byFloor = rooms.stream()
+                        .filter(room -> room.getFloorNumber() != null && room.getCapacity() >= guestsPerRoom)
+                        .filter(room -> isFree(busy, room.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate()))
+                        .collect(Collectors.groupingBy(Room::getFloorNumber, TreeMap::new, Collectors.toList()));
+                Map.Entry<String, List<Room>> bestFloor = byFloor.entrySet().stream()
+                        .max(Comparator.comparingInt(e -> e.getValue().size()))
+                        .orElse(null);
+                if (bestFloor != null) {
+                    targetFloor = bestFloor.getKey();
+                    targetType = bestFloor.getValue().stream()
+                            .collect(Collectors.groupingBy(Room::getType, Collectors.counting()))
+                            .entrySet().stream()
+                            .max(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .orElse(null);
+                }
+            }
+
+            for (int i = 0; i < needed; i++) {
+                slots.add(new Slot(reservation, guestsPerRoom, nights, targetFloor, targetType));
+            }
+        }
+
+        // 3. Cost matrix: real rooms, then one "unassigned" column per slot. Rooms that are taken
+        //    or too small for the slot are FORBIDDEN; such a slot is left unassigned instead
+        int roomCount = rooms.size();
+        double[][] cost = new double[slots.size()][roomCount + slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            for (int j = 0; j < roomCount; j++) {
+                Room room = rooms.get(j);
+                boolean fits = room.getCapacity() >= slot.guestsPerRoom && isFree(busy, room.getId(),
+                        slot.reservation.getCheckInDate(), slot.reservation.getCheckOutDate());
+                cost[i][j] = fits
+                        ? -score(room, slot, openTasks.getOrDefault(room.getId(), Set.of()), maxPrice)
+                        : FORBIDDEN;
+            }
+            Arrays.fill(cost[i], roomCount, roomCount + slots.size(), UNASSIGNED);
+        }
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        // 4. Collect per reservation; a booking only gets rooms if every slot was filled
+        Map<Reservation, List<Room>> chosen = new LinkedHashMap<>();
+        Set<Reservation> incomplete = new HashSet<>();
+        double totalScore = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Reservation reservation = slots.get(i).reservation;
+            int column = assignment[i];
+            if (column >= roomCount || cost[i][column] >= FORBIDDEN) {
+                incomplete.add(reservation);
+                continue;
+            }
+            chosen.computeIfAbsent(reservation, r -> new ArrayList<>()).add(rooms.get(column));
+            totalScore -= cost[i][column];
+        }
+
+        List<Reservation> toSave = new ArrayList<>();
+        for (Reservation reservation : arrivals) {
+            List<Room> assignedRooms = chosen.get(reservation);
+            if (assignedRooms == null || incomplete.contains(reservation)) {
+                result.getUnassignedReservationIds().add(reservation.getReservationId());
+                continue;
+            }
+            // Reservation owns the join table; no need to initialise each room's reservations
+            reservation.getRooms().addAll(assignedRooms);
+            toSave.add(reservation);
+            result.getRoomNumbersByReservation().put(reservation.getReservationId(),
+                    assignedRooms.stream().map(Room::getRoomNumber).toList());
+        }
+        reservationRepository.saveAll(toSave);
+        roomsChanged(toSave);
+
+        result.setAssigned(toSave.size());
+        result.setTotalScore(totalScore);
+        result.setDurationMs(System.currentTimeMillis() - started);
+        log.info("Batch room assignment for {}: {} of {} arrivals assigned ({} slots x {} rooms) in {} ms",
+                date, toSave.size(), arrivals.size(), slots.size(), roomCount, result.getDurationMs());
+        return result;
+    }
+
+    /**
+     * A change to Reservation.rooms alone fires no entity callback (the reservation row is not
+     * updated), so the occupancy and room board read models are told directly; both apply it
+     * after commit
+     */
+    private void roomsChanged(List<Reservation> reservations) {
+        List<Long> ids = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            dailyOccupancyService.markDirty(reservation.getCheckInDate(), reservation.getCheckOutDate());
+            if (reservation.getReservationId() != null) {
+                ids.add(reservation.getReservationId());
+            }
+        }
+        roomBoardService.reservationsChanged(ids);
+    }
+
+    private double score(Room room, Slot slot, Set<String> openTasks, double maxPrice) {
+        double score = 100;
+
+        // Room type fit: don't burn large rooms on small parties (undersized rooms are never offered)
+        score -= (room.getCapacity() - slot.guestsPerRoom) * 8;
+
+        // Keep multi-room bookings together
+        if (slot.targetFloor != null && slot.targetFloor.equals(room.getFloorNumber())) {
+            score += 30;
+        }
+        if (slot.targetType != null && slot.targetType.equals(room.getType())) {
+            score += 15;
+        }
+
+        // Housekeeping readiness
+        if (openTasks.isEmpty()) {
+            score += "AVAILABLE".equals(room.getAvailabilityStatus()) ? 20 : 10;
+        }
+
+        // Longer stays get better rooms
+        if (slot.nights >= 5 && room.getPricePerNight() != null && maxPrice > 0) {
+            score += 20 * room.getPricePerNight() / maxPrice;
+        }
+
+        return score;
+    }
+
+    /**
+     * Overlapping stays per room: roomId -> [checkIn, checkOut] spans
+     */
+    private Map<Long, List<LocalDate[]>> loadBusySpans(LocalDate start, LocalDate end) {
+        Map<Long, List<LocalDate[]>> busy = new HashMap<>();
+        for (Object[] row : roomRepository.findRoomOccupancySpans(start, end, NON_BLOCKING_STATUSES)) {
+            if (row[2] != null) {
+                busy.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(new LocalDate[]{(LocalDate) row[2], (LocalDate) row[3]});
+            }
+        }
+        return busy;
+    }
+
+    // Same inclusive overlap rule as findOverlappingReservationsForRoom
+    private boolean isFree(Map<Long, List<LocalDate[]>> busy, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        for (LocalDate[] span : busy.getOrDefault(roomId, List.of())) {
+            if (!span[0].isAfter(checkOut) && !span[1].isBefore(checkIn)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @AllArgsConstructor
+    private static class Slot {
+        private final Reservation reservation;
+        private final int guestsPerRoom;
+        private final long nights;
+        private final String targetFloor;
+        private final String targetType;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchAssignmentResult {
+        private LocalDate date;
+        private int arrivals;
+        private int assigned;
+        private List<Long> unassignedReservationIds;
+        private Map<Long, List<String>> roomNumbersByReservation;
+        private double totalScore;
+        private long durationMs;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.stayops.automation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Skill-matched staff already working on the request's floor first, then the least busy
+ */
+@Component
+public class SameFloorRouting implements DispatchRoutingStrategy {
+
+    @Override
+    public String name() {
+        return "same-floor";
+    }
+
+    @Override
+    public Optional<Candidate> choose(Ticket ticket, List<Candidate> available) {
+        return available.stream()
+                .filter(candidate -> candidate.role() == ticket.skill())
+                .min(Comparator.comparing((Candidate candidate) ->
+                                ticket.floor() == null || !Objects.equals(ticket.floor(), candidate.floor()))
+                        .thenComparingInt(Candidate::openRequests)
+                        .thenComparing(Candidate::staffId));
+    }
+}
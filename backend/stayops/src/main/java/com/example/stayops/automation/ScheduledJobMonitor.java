@@ -0,0 +1,351 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.dto.ScheduledJobStatsDTO;
+import com.example.stayops.entity.ScheduledJobRun;
+import com.example.stayops.repository.ScheduledJobRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution tracking for all @Scheduled jobs
+ *
+ * ScheduledJobAspect wraps every scheduled method with begin()/finish().
+ * Jobs that swallow their own exceptions report through recordFailure(),
+ * and jobs that know how much work they did report through recordProcessed().
+ *
+ * Metrics (tag "job" = SimpleClassName.methodName):
+ * - stayops.jobs.duration        timer, tagged outcome=success|failure
+ * - stayops.jobs.rows.processed  counter
+ * - stayops.jobs.failures        counter
+ * - stayops.jobs.overlaps        counter, job started while a previous run was still active
+ * - stayops.jobs.active          gauge, jobs currently running across the scheduler
+ * - stayops.jobs.pool.saturated  counter, job started with every scheduler thread busy
+ */
+@Service
+@Slf4j
+public class ScheduledJobMonitor {
+
+    private static final ThreadLocal<JobRun> CURRENT_RUN = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ScheduledJobRunRepository jobRunRepository;
+
+    private final Map<String, JobStats> statsByJob = new ConcurrentHashMap<>();
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final AtomicLong totalBusyMs = new AtomicLong();
+    private final Counter poolSaturatedCounter;
+
+    @Value("${spring.task.scheduling.pool.size:1}")
+    private int schedulerPoolSize;
+
+    @Value("${stayops.jobs.history.enabled:true}")
+    private boolean historyEnabled;
+
+    @Value("${stayops.automation.metrics-retention-days:90}")
+    private int historyRetentionDays;
+
+    public ScheduledJobMonitor(MeterRegistry meterRegistry,
+                               ScheduledJobRunRepository jobRunRepository) {
+        this.meterRegistry = meterRegistry;
+        this.jobRunRepository = jobRunRepository;
+
+        Gauge.builder("stayops.jobs.active", activeJobs, AtomicInteger::get)
+                .description("Scheduled jobs currently running")
+                .register(meterRegistry);
+        this.poolSaturatedCounter = Counter.builder("stayops.jobs.pool.saturated")
+                .description("Job starts that found every scheduler thread busy")
+                .register(meterRegistry);
+    }
+
+    // ========== RUN LIFECYCLE ==========
+
+    public JobRun begin(String jobName) {
+        JobStats stats = statsFor(jobName);
+
+        boolean overlapped = stats.running.getAndIncrement() > 0;
+        int concurrent = activeJobs.incrementAndGet();
+
+        if (overlapped) {
+            stats.overlaps.incrementAndGet();
+            stats.overlapCounter.increment();
+            log.warn("JOB: {} started while a previous run is still active", jobName);
+        }
+        if (concurrent >= schedulerPoolSize) {
+            poolSaturatedCounter.increment();
+            log.warn("JOB: {} started with {} jobs running on a scheduler pool of {}",
+                    jobName, concurrent, schedulerPoolSize);
+        }
+
+        JobRun run = new JobRun(jobName, CURRENT_RUN.get(), overlapped, concurrent);
+        CURRENT_RUN.set(run);
+        return run;
+    }
+
+    public void finish(JobRun run, Throwable thrown) {
+        long durationNanos = System.nanoTime() - run.startNanos;
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+
+        if (run.parent != null) {
+            CURRENT_RUN.set(run.parent);
+        } else {
+            CURRENT_RUN.remove();
+        }
+
+        if (thrown != null) {
+            run.markFailed(thrown);
+        }
+
+        JobStats stats = statsFor(run.jobName);
+        stats.running.decrementAndGet();
+        activeJobs.decrementAndGet();
+        totalBusyMs.addAndGet(durationMs);
+
+        stats.totalRuns.incrementAndGet();
+        stats.totalDurationMs.addAndGet(durationMs);
+        stats.maxDurationMs.accumulateAndGet(durationMs, Math::max);
+        stats.rowsProcessed.addAndGet(run.rowsProcessed);
+        stats.lastStartedAt = run.startedAt;
+        stats.lastDurationMs = durationMs;
+        stats.lastStatus = run.failed ? "FAILED" : "SUCCESS";
+        stats.lastError = run.errorMessage;
+
+        Timer.builder("stayops.jobs.duration")
+                .description("Scheduled job execution time")
+                .tag("job", run.jobName)
+                .tag("outcome", run.failed ? "failure" : "success")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        if (run.rowsProcessed > 0) {
+            stats.rowsCounter.increment(run.rowsProcessed);
+        }
+        if (run.failed) {
+            stats.failedRuns.incrementAndGet();
+            stats.failureCounter.increment();
+        }
+
+        if (historyEnabled) {
+            saveHistory(run, durationMs);
+        }
+    }
+
+    /**
+     * Attribute processed rows to the job running on this thread
+     */
+    public void recordProcessed(long rows) {
+        JobRun run = CURRENT_RUN.get();
+        if (run != null && rows > 0) {
+            run.rowsProcessed += rows;
+        }
+    }
+
+    /**
+     * Mark the job running on this thread as failed without rethrowing
+     */
+    public void recordFailure(Throwable error) {
+        JobRun run = CURRENT_RUN.get();
+        if (run != null) {
+            run.markFailed(error);
+        }
+    }
+
+    // ========== QUERIES ==========
+
+    public List<ScheduledJobStatsDTO> getJobStats() {
+        long busy = Math.max(1, totalBusyMs.get());
+
+        return statsByJob.entrySet().stream()
+                .map(entry -> {
+                    JobStats s = entry.getValue();
+                    long runs = s.totalRuns.get();
+                    long total = s.totalDurationMs.get();
+                    return ScheduledJobStatsDTO.builder()
+                            .jobName(entry.getKey())
+                            .running(s.running.get())
+                            .lastStartedAt(s.lastStartedAt)
+                            .lastStatus(s.lastStatus)
+                            .lastDurationMs(s.lastDurationMs)
+                            .lastError(s.lastError)
+                            .totalRuns(runs)
+                            .failedRuns(s.failedRuns.get())
+                            .overlaps(s.overlaps.get())
+                            .rowsProcessed(s.rowsProcessed.get())
+                            .totalDurationMs(total)
+                            .maxDurationMs(s.maxDurationMs.get())
+                            .avgDurationMs(runs > 0 ? total / runs : 0L)
+                            .schedulerBusyPercent(Math.round(total * 1000.0 / busy) / 10.0)
+                            .build();
+                })
+                .sorted(Comparator.comparing(ScheduledJobStatsDTO::getTotalDurationMs).reversed())
+                .toList();
+    }
+
+    public Map<String, Object> getSchedulerSummary() {
+        List<ScheduledJobStatsDTO> jobs = getJobStats();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("poolSize", schedulerPoolSize);
+        summary.put("activeJobs", activeJobs.get());
+        summary.put("poolSaturatedStarts", (long) poolSaturatedCounter.count());
+        summary.put("trackedJobs", jobs.size());
+        summary.put("failedRuns", jobs.stream().mapToLong(ScheduledJobStatsDTO::getFailedRuns).sum());
+        summary.put("overlaps", jobs.stream().mapToLong(ScheduledJobStatsDTO::getOverlaps).sum());
+        summary.put("busiestJobs", jobs.stream().limit(5)
+                .map(j -> Map.of(
+                        "jobName", j.getJobName(),
+                        "totalDurationMs", j.getTotalDurationMs(),
+                        "schedulerBusyPercent", j.getSchedulerBusyPercent()))
+                .toList());
+        summary.put("runningJobs", jobs.stream()
+                .filter(j -> j.getRunning() > 0)
+                .map(ScheduledJobStatsDTO::getJobName)
+                .toList());
+        return summary;
+    }
+
+    public List<ScheduledJobRun> getRecentRuns(String jobName) {
+        if (jobName == null || jobName.isBlank()) {
+            return jobRunRepository.findTop50ByOrderByStartedAtDesc();
+        }
+        return jobRunRepository.findTop50ByJobNameOrderByStartedAtDesc(jobName);
+    }
+
+    public List<ScheduledJobRun> getRecentFailures() {
+        return jobRunRepository.findTop50ByStatusOrderByStartedAtDesc("FAILED");
+    }
+
+    /**
+     * Persisted per-job totals over the last N hours (survives restarts)
+     */
+    public List<Map<String, Object>> getHistorySummary(int hours) {
+        Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object[] row : jobRunRepository.summarizeSince(since)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("jobName", row[0]);
+            entry.put("runs", row[1]);
+            entry.put("failures", row[2]);
+            entry.put("totalDurationMs", row[3]);
+            entry.put("maxDurationMs", row[4]);
+            entry.put("rowsProcessed", row[5]);
+            entry.put("overlaps", row[6]);
+            rows.add(entry);
+        }
+        return rows;
+    }
+
+    /**
+     * Delete run history older than the metrics retention window
+     */
+    public int purgeHistory() {
+        Instant cutoff = Instant.now().minus(historyRetentionDays, ChronoUnit.DAYS);
+        int deleted = jobRunRepository.deleteByStartedAtBefore(cutoff);
+        log.info("Purged {} scheduled job runs older than {} days", deleted, historyRetentionDays);
+        return deleted;
+    }
+
+    // ========== HELPERS ==========
+
+    private void saveHistory(JobRun run, long durationMs) {
+        try {
+            jobRunRepository.save(ScheduledJobRun.builder()
+                    .jobName(run.jobName)
+                    .status(run.failed ? "FAILED" : "SUCCESS")
+                    .startedAt(run.startedAt)
+                    .finishedAt(Instant.now())
+                    .durationMs(durationMs)
+                    .rowsProcessed(run.rowsProcessed)
+                    .overlapped(run.overlapped)
+                    .concurrentJobs(run.concurrentJobs)
+                    .threadName(run.threadName)
+                    .errorMessage(run.errorMessage)
+                    .build());
+        } catch (Exception e) {
+            // History is best-effort, never fail the job because of it
+            log.error("Failed to record run history for job {}: {}", run.jobName, e.getMessage());
+        }
+    }
+
+    private JobStats statsFor(String jobName) {
+        return statsByJob.computeIfAbsent(jobName, name -> new JobStats(name, meterRegistry));
+    }
+
+    /**
+     * State of one in-flight execution, bound to the executing thread
+     */
+    @Getter
+    public static final class JobRun {
+        private final String jobName;
+        private final JobRun parent;
+        private final boolean overlapped;
+        private final int concurrentJobs;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final String threadName = Thread.currentThread().getName();
+        private long rowsProcessed;
+        private boolean failed;
+        private String errorMessage;
+
+        private JobRun(String jobName, JobRun parent, boolean overlapped, int concurrentJobs) {
+            this.jobName = jobName;
+            this.parent = parent;
+            this.overlapped = overlapped;
+            this.concurrentJobs = concurrentJobs;
+        }
+
+        private void markFailed(Throwable error) {
+            this.failed = true;
+            if (error != null) {
+                String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+                this.errorMessage = message.length() > 1000 ? message.substring(0, 1000) : message;
+            }
+        }
+    }
+
+    private static final class JobStats {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicLong totalRuns = new AtomicLong();
+        private final AtomicLong failedRuns = new AtomicLong();
+        private final AtomicLong overlaps = new AtomicLong();
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private final AtomicLong totalDurationMs = new AtomicLong();
+        private final AtomicLong maxDurationMs = new AtomicLong();
+        private final Counter rowsCounter;
+        private final Counter failureCounter;
+        private final Counter overlapCounter;
+        private volatile Instant lastStartedAt;
+        private volatile Long lastDurationMs;
+        private volatile String lastStatus;
+        private volatile String lastError;
+
+        private JobStats(String jobName, MeterRegistry registry) {
+            this.rowsCounter = Counter.builder("stayops.jobs.rows.processed")
+                    .description("Rows processed by scheduled jobs")
+                    .tag("job", jobName)
+                    .register(registry);
+            this.failureCounter = Counter.builder("stayops.jobs.failures")
+                    .description("Failed scheduled job runs")
+                    .tag("job", jobName)
+                    .register(registry);
+            this.overlapCounter = Counter.builder("stayops.jobs.overlaps")
+                    .description("Job starts while a previous run was still active")
+                    .tag("job", jobName)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.entity.ScheduledJobRun;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint: /actuator/scheduledjobs and /actuator/scheduledjobs/{jobName}
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+@RequiredArgsConstructor
+public class ScheduledJobsEndpoint {
+
+    private final ScheduledJobMonitor jobMonitor;
+    private final JobLeaseService leaseService;
+    private final JobOrchestrator orchestrator;
+
+    @ReadOperation
+    public Map<String, Object> scheduledJobs() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("scheduler", jobMonitor.getSchedulerSummary());
+        body.put("jobs", jobMonitor.getJobStats());
+        body.put("node", leaseService.getNodeId());
+        body.put("leases", leaseService.getLeases());
+        body.put("pipelines", orchestrator.getPipelines());
+        return body;
+    }
+
+    @ReadOperation
+    public List<ScheduledJobRun> jobHistory(@Selector String jobName) {
+        return jobMonitor.getRecentRuns(jobName);
+    }
+}
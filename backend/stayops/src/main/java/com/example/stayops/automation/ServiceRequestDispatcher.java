@@ -0,0 +1,526 @@
+package com.example.stayops.automation;
+
+import com.example.stayops.entity.ServiceRequest;
+import com.example.stayops.enums.StaffRole;
+import com.example.stayops.repository.ServiceRequestRepository;
+import com.example.stayops.repository.StaffRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service request dispatch
+ *
+ * 1. Open requests wait in in-memory priority queues, one per (skill, service type), where the
+ *    skill is the staff role the service type needs: URGENT first, then HIGH, MEDIUM, LOW, and
+ *    oldest first within a priority.
+ * 2. A single dispatcher thread owns the queues and the staff loads, so routing takes no locks.
+ *    Request changes are posted to it after their transaction commits and wake it up at once.
+ * 3. The DispatchRoutingStrategy named by stayops.dispatch.routing picks among active staff with
+ *    fewer than stayops.dispatch.max-open-per-staff open requests.
+ * 4. An assignment is one guarded UPDATE (still PENDING and unassigned), so a request assigned by
+ *    hand or by another node in the meantime is just dropped from the queue.
+ * 5. A request still waiting past its SLA (stayops.dispatch.sla.*, by priority) is escalated once:
+ *    it becomes URGENT and SERVICE_REQUEST_URGENT goes out.
+ * 6. Queues and loads are rebuilt from the incomplete-requests query at startup and every
+ *    stayops.dispatch.resync-ms, which also picks up changes made on other nodes.
+ */
+@Service
+@Slf4j
+public class ServiceRequestDispatcher {
+
+    private static final Set<String> CLOSED_STATUSES = Set.of("COMPLETED", "CANCELLED");
+
+    private static final Comparator<Waiting> WAITING_ORDER = Comparator
+            .comparingInt((Waiting waiting) -> rank(waiting.priority))
+            .thenComparing(waiting -> waiting.createdAt)
+            .thenComparing(waiting -> waiting.requestId);
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final StaffRepository staffRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DispatchRoutingStrategy routing;
+
+    private final boolean enabled;
+    private final int maxOpenPerStaff;
+    private final long pollIntervalMs;
+    private final long resyncMs;
+    private final Map<String, Duration> slaByPriority;
+
+    // Posted by request threads, applied on the dispatcher thread
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    // Dispatcher thread only
+    private final Map<QueueKey, PriorityQueue<Waiting>> queues = new HashMap<>();
+    private final Map<Long, Waiting> waiting = new HashMap<>();
+    private final PriorityQueue<Waiting> slaTimers = new PriorityQueue<>(Comparator.comparing(w -> w.slaDeadline));
+    private final Map<Long, String> assignedTo = new HashMap<>();
+    private final Map<String, StaffRole> activeStaff = new HashMap<>();
+    private final Map<String, Integer> openByStaff = new HashMap<>();
+    private final Map<String, String> floorByStaff = new HashMap<>();
+    private long lastResyncAt;
+
+    private volatile Map<String, Object> stats = Map.of();
+    private volatile int waitingCount;
+
+    private final Counter assignedCounter;
+    private final Counter escalatedCounter;
+    private final Timer waitTimer;
+
+    public ServiceRequestDispatcher(ServiceRequestRepository serviceRequestRepository,
+                                    StaffRepository staffRepository,
+                                    NotificationPublisher notificationPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    List<DispatchRoutingStrategy> strategies,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${stayops.dispatch.enabled:true}") boolean enabled,
+                                    @Value("${stayops.dispatch.routing:skill-match}") String routingName,
+                                    @Value("${stayops.dispatch.max-open-per-staff:3}") int maxOpenPerStaff,
+                                    @Value("${stayops.dispatch.poll-interval-ms:1000}") long pollIntervalMs,
+                                    @Value("${stayops.dispatch.resync-ms:300000}") long resyncMs,
+                                    @Value("${stayops.dispatch.sla.high-minutes:10}") long highSlaMinutes,
+                                    @Value("${stayops.dispatch.sla.medium-minutes:20}") long mediumSlaMinutes,
+                                    @Value("${stayops.dispatch.sla.low-minutes:45}") long lowSlaMinutes) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.staffRepository = staffRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.routing = strategies.stream()
+                .filter(strategy -> strategy.name().equals(routingName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown stayops.dispatch.routing '" + routingName
+                        + "', expected one of " + strategies.stream().map(DispatchRoutingStrategy::name).toList()));
+        this.enabled = enabled;
+        this.maxOpenPerStaff = Math.max(1, maxOpenPerStaff);
+        this.pollIntervalMs = Math.max(50, pollIntervalMs);
+        this.resyncMs = Math.max(this.pollIntervalMs, resyncMs);
+        this.slaByPriority = Map.of(
+                "HIGH", Duration.ofMinutes(highSlaMinutes),
+                "MEDIUM", Duration.ofMinutes(mediumSlaMinutes),
+                "LOW", Duration.ofMinutes(lowSlaMinutes));
+
+        this.assignedCounter = Counter.builder("stayops.dispatch.assigned").register(meterRegistry);
+        this.escalatedCounter = Counter.builder("stayops.dispatch.escalated").register(meterRegistry);
+        this.waitTimer = Timer.builder("stayops.dispatch.wait")
+                .description("Time from a service request being created to being assigned by the dispatcher")
+                .register(meterRegistry);
+        Gauge.builder("stayops.dispatch.waiting", this, dispatcher -> dispatcher.waitingCount)
+                .description("Service requests queued for assignment")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A service request as the dispatcher tracks it, captured on the thread that changed it
+     */
+    private record RequestState(Long requestId, String serviceType, String priority, String status,
+                                String assignedTo, String floor, Instant createdAt) {
+
+        static RequestState of(ServiceRequest request) {
+            return new RequestState(request.getId(), request.getServiceType(), request.getPriority(),
+                    request.getStatus(), request.getAssignedTo(),
+                    request.getRoom() != null ? request.getRoom().getFloorNumber() : null,
+                    request.getCreatedAt() != null ? request.getCreatedAt() : Instant.now());
+        }
+    }
+
+    private record QueueKey(StaffRole skill, String serviceType) {
+    }
+
+    private static final class Waiting {
+        private final Long requestId;
+        private final String serviceType;
+        private final StaffRole skill;
+        private final String floor;
+        private final Instant createdAt;
+        private String priority;
+        private Instant slaDeadline;
+
+        private Waiting(RequestState state, Instant slaDeadline) {
+            this.requestId = state.requestId();
+            this.serviceType = state.serviceType();
+            this.skill = skillFor(state.serviceType());
+            this.floor = state.floor();
+            this.createdAt = state.createdAt();
+            this.priority = state.priority();
+            this.slaDeadline = slaDeadline;
+        }
+
+        private QueueKey key() {
+            return new QueueKey(skill, serviceType);
+        }
+
+        private DispatchRoutingStrategy.Ticket ticket() {
+            return new DispatchRoutingStrategy.Ticket(requestId, serviceType, priority, skill, floor);
+        }
+    }
+
+    // ========== REQUEST SIDE ==========
+
+    /**
+     * Queue, re-route or release a request after it was created or changed; applied once the
+     * caller's transaction commits
+     */
+    public void track(ServiceRequest request) {
+        RequestState state = RequestState.of(request);
+        post(() -> apply(state));
+    }
+
+    /**
+     * Drop a deleted request
+     */
+    public void forget(Long requestId) {
+        post(() -> release(requestId));
+    }
+
+    /**
+     * Rebuild queues and loads from the database now instead of at the next resync
+     */
+    public void resync() {
+        post(() -> lastResyncAt = 0);
+    }
+
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+
+    private void post(Runnable command) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inbox.add(command);
+                    wakeUp.release();
+                }
+            });
+        } else {
+            inbox.add(command);
+            wakeUp.release();
+        }
+    }
+
+    // ========== DISPATCHER ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Service request dispatch is disabled");
+            return;
+        }
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "service-request-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Service request dispatch started with {} routing, at most {} open requests per staff member",
+                routing.name(), maxOpenPerStaff);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                if (System.currentTimeMillis() - lastResyncAt >= resyncMs) {
+                    rebuild();
+                }
+                Runnable command;
+                while ((command = inbox.poll()) != null) {
+                    command.run();
+                }
+                escalateOverdue();
+                dispatchWaiting();
+                publishStats();
+
+                wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Service request dispatcher error: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Replace all state with what the database says: active staff, and every incomplete request
+     * either queued (unassigned) or counted against its assignee
+     */
+    private void rebuild() {
+        List<Object[]> staff = staffRepository.findActiveStaffRoles();
+        List<ServiceRequest> incomplete = serviceRequestRepository.findIncompleteRequests();
+
+        queues.clear();
+        waiting.clear();
+        slaTimers.clear();
+        assignedTo.clear();
+        openByStaff.clear();
+        floorByStaff.clear();
+        activeStaff.clear();
+        for (Object[] row : staff) {
+            activeStaff.put((String) row[0], (StaffRole) row[1]);
+        }
+        incomplete.forEach(request -> apply(RequestState.of(request)));
+
+        lastResyncAt = System.currentTimeMillis();
+        log.debug("Dispatch state rebuilt: {} active staff, {} waiting, {} assigned",
+                activeStaff.size(), waiting.size(), assignedTo.size());
+    }
+
+    private void apply(RequestState state) {
+        release(state.requestId());
+        if (state.status() == null || CLOSED_STATUSES.contains(state.status())) {
+            return;
+        }
+
+        if (state.assignedTo() != null) {
+            assignedTo.put(state.requestId(), state.assignedTo());
+            openByStaff.merge(state.assignedTo(), 1, Integer::sum);
+            if (state.floor() != null) {
+                floorByStaff.put(state.assignedTo(), state.floor());
+            }
+        } else if ("PENDING".equals(state.status())) {
+            Duration sla = slaFor(state.priority());
+            Waiting entry = new Waiting(state, sla != null ? state.createdAt().plus(sla) : null);
+            queues.computeIfAbsent(entry.key(), key -> new PriorityQueue<>(WAITING_ORDER)).add(entry);
+            waiting.put(entry.requestId, entry);
+            if (entry.slaDeadline != null) {
+                slaTimers.add(entry);
+            }
+        }
+    }
+
+    private void release(Long requestId) {
+        Waiting entry = waiting.remove(requestId);
+        if (entry != null) {
+            PriorityQueue<Waiting> queue = queues.get(entry.key());
+            queue.remove(entry);
+            if (queue.isEmpty()) {
+                queues.remove(entry.key());
+            }
+        }
+        String staffId = assignedTo.remove(requestId);
+        if (staffId != null) {
+            openByStaff.computeIfPresent(staffId, (id, open) -> open > 1 ? open - 1 : null);
+        }
+    }
+
+    // ========== ROUTING ==========
+
+    private void dispatchWaiting() {
+        boolean progress = true;
+        while (progress && !waiting.isEmpty()) {
+            progress = false;
+            List<Waiting> heads = queues.values().stream()
+                    .map(PriorityQueue::peek)
+                    .sorted(WAITING_ORDER)
+                    .toList();
+            for (Waiting head : heads) {
+                // A head nobody can take blocks only its own queue; everything behind it needs the same skill
+                Optional<DispatchRoutingStrategy.Candidate> choice = routing.choose(head.ticket(), candidates());
+                if (choice.isPresent() && assign(head, choice.get().staffId())) {
+                    progress = true;
+                }
+            }
+        }
+    }
+
+    private List<DispatchRoutingStrategy.Candidate> candidates() {
+        List<DispatchRoutingStrategy.Candidate> candidates = new ArrayList<>();
+        activeStaff.forEach((staffId, role) -> {
+            int open = openByStaff.getOrDefault(staffId, 0);
+            if (open < maxOpenPerStaff) {
+                candidates.add(new DispatchRoutingStrategy.Candidate(staffId, role, open, floorByStaff.get(staffId)));
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * Returns true when the request left the queue (assigned here, or taken elsewhere meanwhile)
+     */
+    private boolean assign(Waiting entry, String staffId) {
+        Instant now = Instant.now();
+        Integer updated;
+        try {
+            updated = transactionTemplate.execute(status ->
+                    serviceRequestRepository.assignIfPending(entry.requestId, staffId, now));
+        } catch (Exception e) {
+            // Stays queued and is tried again next round
+            log.error("Failed to assign service request {} to {}: {}", entry.requestId, staffId, e.getMessage());
+            return false;
+        }
+
+        release(entry.requestId);
+        if (updated == null || updated == 0) {
+            log.debug("Service request {} was assigned or closed elsewhere", entry.requestId);
+            return true;
+        }
+
+        assignedTo.put(entry.requestId, staffId);
+        openByStaff.merge(staffId, 1, Integer::sum);
+        if (entry.floor != null) {
+            floorByStaff.put(staffId, entry.floor);
+        }
+        assignedCounter.increment();
+        waitTimer.record(Duration.between(entry.createdAt, now));
+        log.info("Dispatched service request {} ({}, {}) to {}", entry.requestId, entry.serviceType, entry.priority, staffId);
+
+        notify(entry.requestId, request -> notificationPublisher.notifyServiceRequestAssigned(request, staffId));
+        return true;
+    }
+
+    // ========== SLA ==========
+
+    private void escalateOverdue() {
+        Instant now = Instant.now();
+        while (!slaTimers.isEmpty() && !slaTimers.peek().slaDeadline.isAfter(now)) {
+            Waiting entry = slaTimers.poll();
+            if (waiting.get(entry.requestId) != entry) {
+                continue; // assigned or re-tracked since
+            }
+
+            Integer escalated;
+            try {
+                escalated = transactionTemplate.execute(status -> serviceRequestRepository.escalateIfPending(entry.requestId, now));
+            } catch (Exception e) {
+                log.error("Failed to escalate service request {}: {}", entry.requestId, e.getMessage());
+                continue;
+            }
+            if (escalated == null || escalated != 1) {
+                // Taken, closed or escalated elsewhere since it was queued; the next resync re-tracks it if needed
+                release(entry.requestId);
+                continue;
+            }
+
+            // Re-queue as URGENT; urgent requests have no further deadline
+            PriorityQueue<Waiting> queue = queues.get(entry.key());
+            queue.remove(entry);
+            entry.priority = "URGENT";
+            entry.slaDeadline = null;
+            queue.add(entry);
+
+            escalatedCounter.increment();
+            log.warn("Service request {} ({}) waited past its SLA and was escalated to URGENT",
+                    entry.requestId, entry.serviceType);
+            notify(entry.requestId, notificationPublisher::notifyServiceRequestUrgent);
+        }
+    }
+
+    private void notify(Long requestId, Consumer<ServiceRequest> notification) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    serviceRequestRepository.findById(requestId).ifPresent(notification));
+        } catch (Exception e) {
+            log.error("Failed to send notification for service request {}: {}", requestId, e.getMessage());
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private void publishStats() {
+        waitingCount = waiting.size();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("routing", routing.name());
+        snapshot.put("maxOpenPerStaff", maxOpenPerStaff);
+        snapshot.put("activeStaff", activeStaff.size());
+        snapshot.put("waiting", waiting.size());
+        snapshot.put("assigned", assignedTo.size());
+        snapshot.put("queues", queues.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getKey().skill() + "/" + entry.getKey().serviceType()))
+                .collect(Collectors.toMap(entry -> entry.getKey().skill() + "/" + entry.getKey().serviceType(),
+                        entry -> entry.getValue().size(), (a, b) -> a, LinkedHashMap::new)));
+        snapshot.put("openByStaff", new TreeMap<>(openByStaff));
+        snapshot.put("oldestWaitingSince", waiting.values().stream()
+                .map(entry -> entry.createdAt)
+                .min(Comparator.naturalOrder())
+                .orElse(null));
+        snapshot.put("lastResyncAt", lastResyncAt > 0 ? Instant.ofEpochMilli(lastResyncAt) : null);
+        stats = snapshot;
+    }
+
+    private Duration slaFor(String priority) {
+        if (priority == null) {
+            return slaByPriority.get("MEDIUM");
+        }
+        return switch (priority.toUpperCase()) {
+            case "URGENT" -> null;
+            case "HIGH" -> slaByPriority.get("HIGH");
+            case "LOW" -> slaByPriority.get("LOW");
+            default -> slaByPriority.get("MEDIUM");
+        };
+    }
+
+    private static int rank(String priority) {
+        if (priority == null) {
+            return 2;
+        }
+        return switch (priority.toUpperCase()) {
+            case "URGENT" -> 0;
+            case "HIGH" -> 1;
+            case "LOW" -> 3;
+            default -> 2;
+        };
+    }
+
+    /**
+     * Staff role that handles a service type
+     */
+    private static StaffRole skillFor(String serviceType) {
+        return switch (serviceType == null ? "" : serviceType.toUpperCase()) {
+            case "ROOM_SERVICE", "MINIBAR", "BREAKFAST" -> StaffRole.CHEF;
+            case "HOUSEKEEPING", "LAUNDRY", "ROOM_CLEAN", "TURNDOWN", "DEEP_CLEAN" -> StaffRole.HOUSEKEEPING;
+            case "MAINTENANCE", "REPAIR", "WIFI" -> StaffRole.MAINTENANCE;
+            case "PARKING", "SECURITY" -> StaffRole.SECURITY;
+            default -> StaffRole.RECEPTIONIST;
+        };
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
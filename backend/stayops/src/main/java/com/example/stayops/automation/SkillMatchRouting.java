@@ -0,0 +1,26 @@
+package com.example.stayops.automation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Only staff whose role serves the request's service type, least busy first (the default)
+ */
+@Component
+public class SkillMatchRouting implements DispatchRoutingStrategy {
+
+    @Override
+    public String name() {
+        return "skill-match";
+    }
+
+    @Override
+    public Optional<Candidate> choose(Ticket ticket, List<Candidate> available) {
+        return available.stream()
+                .filter(candidate -> candidate.role() == ticket.skill())
+                .min(Comparator.comparingInt(Candidate::openRequests).thenComparing(Candidate::staffId));
+    }
+}
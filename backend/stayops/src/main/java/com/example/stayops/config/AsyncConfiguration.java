@@ -1,19 +1,24 @@
 package com.example.stayops.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 /**
  * Async and scheduling configuration
  * Handles both notifications and billing events asynchronously
+ *
+ * Each domain gets a BoundedAsyncExecutor: concurrency capped against the Hikari pool, and a burst
+ * that outruns it is pushed back onto the publisher (caller-runs after submit-timeout-ms) instead of
+ * being rejected. stayops.async.mode=virtual runs tasks on virtual threads where the JVM has them.
  */
 @Configuration
 @EnableAsync
@@ -21,66 +26,46 @@ import java.util.concurrent.Executor;
 @Slf4j
 public class AsyncConfiguration implements AsyncConfigurer {
 
-    /**
-     * Executor for notification processing
-     */
-    @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final MeterRegistry meterRegistry;
 
-        // Core pool size - minimum number of threads
-        executor.setCorePoolSize(5);
+    @Value("${stayops.async.mode:platform}")
+    private String mode;
 
-        // Maximum pool size - maximum number of threads
-        executor.setMaxPoolSize(10);
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
 
-        // Queue capacity - how many tasks can be queued
-        executor.setQueueCapacity(100);
+    @Value("${stayops.async.submit-timeout-ms:2000}")
+    private long submitTimeoutMs;
 
-        // Thread name prefix for easy identification in logs
-        executor.setThreadNamePrefix("notification-");
+    // 0 = derive from the connection pool size
+    @Value("${stayops.async.notification.max-concurrency:0}")
+    private int notificationMaxConcurrency;
 
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
+    @Value("${stayops.async.billing.max-concurrency:0}")
+    private int billingMaxConcurrency;
 
-        executor.initialize();
+    @Value("${stayops.async.scheduled.max-concurrency:0}")
+    private int scheduledMaxConcurrency;
 
-        log.info("Initialized notification executor with core pool size: {} and max pool size: {}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize());
+    public AsyncConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
-        return executor;
+    /**
+     * Executor for notification processing (also the default for unqualified @Async)
+     */
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor() {
+        // A third of the connection pool; request threads need the rest
+        return create("notification", notificationMaxConcurrency, connectionPoolSize / 3);
     }
 
     /**
-     * Executor for billing event processing
+     * Executor for ad-hoc billing work; domain event listeners now run on the outbox dispatcher lanes
      */
     @Bean(name = "billingEventExecutor")
     public Executor billingEventExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-
-        // Core pool size - minimum number of threads
-        executor.setCorePoolSize(5);
-
-        // Maximum pool size - maximum number of threads
-        executor.setMaxPoolSize(10);
-
-        // Queue capacity - how many tasks can be queued
-        executor.setQueueCapacity(100);
-
-        // Thread name prefix for easy identification in logs
-        executor.setThreadNamePrefix("billing-event-");
-
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
-
-        executor.initialize();
-
-        log.info("Initialized billing event executor with core pool size: {} and max pool size: {}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize());
-
-        return executor;
+        return create("billing-event", billingMaxConcurrency, connectionPoolSize / 3);
     }
 
     /**
@@ -88,28 +73,16 @@ public class AsyncConfiguration implements AsyncConfigurer {
      */
     @Bean(name = "scheduledTaskExecutor")
     public Executor scheduledTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-
-        // Core pool size - minimum number of threads
-        executor.setCorePoolSize(3);
-
-        // Maximum pool size - maximum number of threads
-        executor.setMaxPoolSize(5);
-
-        // Queue capacity - how many tasks can be queued
-        executor.setQueueCapacity(50);
-
-        // Thread name prefix for easy identification in logs
-        executor.setThreadNamePrefix("scheduled-");
-
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60);
+        return create("scheduled", scheduledMaxConcurrency, connectionPoolSize / 5);
+    }
 
-        executor.initialize();
+    private BoundedAsyncExecutor create(String name, int configured, int derived) {
+        int maxConcurrency = configured > 0 ? configured : Math.max(1, derived);
+        BoundedAsyncExecutor executor = new BoundedAsyncExecutor(name, maxConcurrency, submitTimeoutMs,
+                "virtual".equalsIgnoreCase(mode), meterRegistry);
 
-        log.info("Initialized scheduled task executor with core pool size: {} and max pool size: {}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize());
+        log.info("Initialized {} executor: {} threads, max concurrency {}, submit timeout {} ms",
+                name, executor.isVirtualThreads() ? "virtual" : "platform", maxConcurrency, submitTimeoutMs);
 
         return executor;
     }
@@ -126,4 +99,4 @@ public class AsyncConfiguration implements AsyncConfigurer {
                     method.getName(), throwable.getMessage(), throwable);
         };
     }
-}
\ No newline at end of file
+}
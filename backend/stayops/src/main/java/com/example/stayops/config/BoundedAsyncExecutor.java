@@ -0,0 +1,166 @@
+package com.example.stayops.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Async executor for one domain (notifications, billing events, scheduled tasks) that never drops work
+ *
+ * Concurrency is capped by a semaphore sized against the Hikari pool, since almost every async task
+ * needs a connection. A submitter waits up to submitTimeout for a permit; if none frees up, the task
+ * runs on the caller's thread instead of being rejected, which slows the publisher down (backpressure).
+ *
+ * Tasks run on a virtual thread each when virtual mode is requested and the runtime has them (Java 21+),
+ * otherwise on a platform pool with one thread per permit, so the pool itself never has to queue.
+ *
+ * Metrics, tagged executor=name: stayops.async.queue.depth (submitters waiting for a permit),
+ * stayops.async.active, stayops.async.permit.wait, stayops.async.caller.runs, stayops.async.rejected.
+ */
+@Slf4j
+public class BoundedAsyncExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final long submitTimeoutMs;
+    private final boolean virtualThreads;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer permitWait;
+    private final Counter callerRuns;
+    private final Counter rejected;
+
+    public BoundedAsyncExecutor(String name, int maxConcurrency, long submitTimeoutMs,
+                                boolean preferVirtualThreads, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.submitTimeoutMs = submitTimeoutMs;
+
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        if (preferVirtualThreads && virtual == null) {
+            log.warn("Virtual threads requested for executor '{}' but not available on Java {}; using platform threads",
+                    name, Runtime.version().feature());
+        }
+        this.virtualThreads = virtual != null;
+        this.delegate = virtual != null ? virtual : newPlatformPool(name, this.maxConcurrency);
+
+        Gauge.builder("stayops.async.queue.depth", permits, Semaphore::getQueueLength)
+                .tag("executor", name)
+                .description("Submitters waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("stayops.async.active", active, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Tasks currently running")
+                .register(meterRegistry);
+        this.permitWait = Timer.builder("stayops.async.permit.wait")
+                .tag("executor", name)
+                .description("Time a submitter waited for a concurrency permit")
+                .register(meterRegistry);
+        this.callerRuns = Counter.builder("stayops.async.caller.runs")
+                .tag("executor", name)
+                .description("Tasks run on the submitting thread because no permit freed up in time")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("stayops.async.rejected")
+                .tag("executor", name)
+                .description("Tasks refused because the executor was shutting down")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        boolean acquired;
+        long start = System.nanoTime();
+        try {
+            acquired = permits.tryAcquire(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        permitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            // Backpressure: the publisher pays for the work instead of the work being dropped
+            callerRuns.increment();
+            log.debug("Executor '{}' saturated for {} ms; running task on caller thread {}",
+                    name, submitTimeoutMs, Thread.currentThread().getName());
+            runTracked(task);
+            return;
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    runTracked(task);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.increment();
+            throw new TaskRejectedException("Executor '" + name + "' is shut down", e);
+        }
+    }
+
+    private void runTracked(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        delegate.shutdown();
+        if (!delegate.awaitTermination(60, TimeUnit.SECONDS)) {
+            log.warn("Executor '{}' did not finish within 60s of shutdown; {} tasks still running", name, active.get());
+            delegate.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newPlatformPool(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(false);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is Java 21 API; the build targets 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
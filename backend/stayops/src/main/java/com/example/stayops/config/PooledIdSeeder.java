@@ -0,0 +1,50 @@
+package com.example.stayops.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the id_generators rows ahead of existing ids
+ *
+ * FolioLineItem, Notification, AuditLog and HousekeepingTask used to get AUTO_INCREMENT ids and
+ * now draw pooled blocks of 50 from id_generators. Before the first insert, each segment is
+ * raised above MAX(id) of its table, so the switch never hands out an id that already exists.
+ * Runs after the EntityManagerFactory, i.e. after the schema update has created the table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PooledIdSeeder {
+
+    // Must match allocationSize on the @TableGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Segment name (= table name) of every entity on the id_generators table
+    private static final List<String> POOLED_TABLES =
+            List.of("folio_line_items", "notifications", "audit_logs", "housekeeping_tasks");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void seed() {
+        for (String table : POOLED_TABLES) {
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO id_generators (gen_name, gen_value) "
+                                + "SELECT ?, COALESCE(MAX(id), 0) + ? + 1 FROM " + table + " "
+                                + "ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value))",
+                        table, ALLOCATION_SIZE);
+            } catch (Exception e) {
+                log.error("Failed to seed pooled id generator for {}: {}", table, e.getMessage(), e);
+            }
+        }
+        log.info("Pooled id generators seeded for {}", POOLED_TABLES);
+    }
+}
@@ -2,14 +2,21 @@ package com.example.stayops.controller;
 
 import com.example.stayops.automation.*;
 import com.example.stayops.config.AutomationConfig;
+import com.example.stayops.dto.ScheduledJobStatsDTO;
 import com.example.stayops.entity.FraudAlert;
 import com.example.stayops.entity.HousekeepingTask;
+import com.example.stayops.entity.OtaInboxMessage;
+import com.example.stayops.entity.OutboxDeadLetter;
 import com.example.stayops.entity.PricingRule;
+import com.example.stayops.entity.ScheduledJobRun;
+import com.example.stayops.event.OutboxDispatcher;
 import com.example.stayops.repository.FraudAlertRepository;
 import com.example.stayops.repository.HousekeepingTaskRepository;
 import com.example.stayops.repository.PricingRuleRepository;
+import com.example.stayops.service.ReservationArchiveService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,9 +36,16 @@ public class AutomationController {
     private final DynamicPricingService pricingService;
     private final FraudDetectionService fraudService;
     private final ChannelManagerService channelService;
+    private final OtaBookingIngestionService otaIngestionService;
     private final HousekeepingTaskRepository housekeepingRepo;
     private final PricingRuleRepository pricingRuleRepo;
     private final FraudAlertRepository fraudAlertRepo;
+    private final ScheduledJobMonitor jobMonitor;
+    private final ReservationAutomationService reservationAutomationService;
+    private final ReservationArchiveService reservationArchiveService;
+    private final OutboxDispatcher outboxDispatcher;
+    private final JobOrchestrator jobOrchestrator;
+    private final NightlyAuditJob nightlyAuditJob;
 
     // ========== CONFIGURATION & STATUS ==========
 
@@ -95,9 +109,40 @@ public class AutomationController {
                 "paymentConfirmation", automationConfig.isAutoConfirmOnPayment()
         ));
 
+        status.put("scheduledJobs", jobMonitor.getSchedulerSummary());
+
         return ResponseEntity.ok(status);
     }
 
+    // ========== SCHEDULED JOB MONITORING ==========
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ScheduledJobStatsDTO>> getScheduledJobStats() {
+        return ResponseEntity.ok(jobMonitor.getJobStats());
+    }
+
+    @GetMapping("/jobs/history")
+    public ResponseEntity<List<ScheduledJobRun>> getScheduledJobHistory(
+            @RequestParam(required = false) String jobName) {
+        return ResponseEntity.ok(jobMonitor.getRecentRuns(jobName));
+    }
+
+    @GetMapping("/jobs/history/failures")
+    public ResponseEntity<List<ScheduledJobRun>> getFailedJobRuns() {
+        return ResponseEntity.ok(jobMonitor.getRecentFailures());
+    }
+
+    @GetMapping("/jobs/history/summary")
+    public ResponseEntity<List<Map<String, Object>>> getScheduledJobHistorySummary(
+            @RequestParam(defaultValue = "24") int hours) {
+        return ResponseEntity.ok(jobMonitor.getHistorySummary(hours));
+    }
+
+    @GetMapping("/jobs/pipelines")
+    public ResponseEntity<List<Map<String, Object>>> getJobPipelines() {
+        return ResponseEntity.ok(jobOrchestrator.getPipelines());
+    }
+
     // ========== HOUSEKEEPING MANAGEMENT ==========
 
     @GetMapping("/housekeeping/pending")
@@ -198,6 +243,11 @@ public class AutomationController {
         return ResponseEntity.ok(fraudService.getHighRiskAlerts());
     }
 
+    @GetMapping("/fraud/velocity")
+    public ResponseEntity<Map<String, Object>> getFraudVelocityStats() {
+        return ResponseEntity.ok(fraudService.getVelocityStats());
+    }
+
     @GetMapping("/fraud/alerts")
     public ResponseEntity<List<FraudAlert>> getAllFraudAlerts() {
         return ResponseEntity.ok(fraudAlertRepo.findAll());
@@ -224,14 +274,16 @@ public class AutomationController {
     // ========== OTA CHANNEL MANAGEMENT ==========
 
     @PostMapping("/ota/sync-availability")
-    public ResponseEntity<Map<String, String>> syncAvailabilityToOTA(
+    public ResponseEntity<Map<String, Object>> syncAvailabilityToOTA(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean full) {
 
-        channelService.syncAvailabilityToOTA(startDate, endDate);
+        int rangesSent = channelService.syncAvailabilityToOTA(startDate, endDate, full);
         return ResponseEntity.ok(Map.of(
                 "status", "success",
-                "message", "Availability synced for " + startDate + " to " + endDate
+                "message", "Availability synced for " + startDate + " to " + endDate,
+                "changedRangesSent", rangesSent
         ));
     }
 
@@ -248,10 +300,64 @@ public class AutomationController {
 
     @PostMapping("/ota/incoming-booking")
     public ResponseEntity<Map<String, Object>> processOTABooking(@RequestBody String otaPayload) {
-        var reservation = channelService.processOTABooking(otaPayload);
+        // Acknowledge as soon as the payload is stored; OtaBookingIngestionService creates the reservation
+        var message = otaIngestionService.enqueue(otaPayload);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "status", "accepted",
+                "inboxId", message.getId()
+        ));
+    }
+
+    @GetMapping("/ota/inbox/stats")
+    public ResponseEntity<Map<String, Object>> getOTAInboxStats() {
+        return ResponseEntity.ok(otaIngestionService.getInboxStats());
+    }
+
+    @PostMapping("/ota/inbox/{id}/retry")
+    public ResponseEntity<OtaInboxMessage> retryOTAInboxMessage(@PathVariable Long id) {
+        return ResponseEntity.ok(otaIngestionService.retry(id));
+    }
+
+    // ========== DOMAIN EVENT OUTBOX ==========
+
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxDispatcher.getOutboxStats());
+    }
+
+    @GetMapping("/outbox/{consumer}/dead-letters")
+    public ResponseEntity<List<OutboxDeadLetter>> getOutboxDeadLetters(
+            @PathVariable String consumer,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(outboxDispatcher.getDeadLetters(consumer, limit));
+    }
+
+    @PostMapping("/outbox/{consumer}/replay")
+    public ResponseEntity<Map<String, Object>> replayOutbox(
+            @PathVariable String consumer,
+            @RequestParam long fromEventId) {
+        try {
+            return ResponseEntity.ok(outboxDispatcher.replay(consumer, fromEventId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ========== ARCHIVE ==========
+
+    @GetMapping("/archive/stats")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(reservationArchiveService.getArchiveStats());
+    }
+
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Object>> runArchive(@RequestParam(required = false) Integer daysOld) {
+        int archived = daysOld != null
+                ? reservationAutomationService.archiveOldReservations(daysOld)
+                : reservationAutomationService.archiveOldReservations();
         return ResponseEntity.ok(Map.of(
                 "status", "success",
-                "reservationId", reservation.getReservationId()
+                "reservationsArchived", archived
         ));
     }
 
@@ -267,11 +373,7 @@ public class AutomationController {
     }
 
     @PostMapping("/jobs/nightly-audit")
-    public ResponseEntity<Map<String, String>> triggerNightlyAudit() {
-        // This would call the nightly audit job manually
-        return ResponseEntity.ok(Map.of(
-                "status", "triggered",
-                "message", "Nightly audit job started"
-        ));
+    public ResponseEntity<JobOrchestrator.PipelineRun> triggerNightlyAudit() {
+        return ResponseEntity.ok(nightlyAuditJob.runNow());
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.example.stayops.controller;
 
 import com.example.stayops.dto.CommunityMessageDTO;
 import com.example.stayops.dto.CommunityMessageRequestDTO;
+import com.example.stayops.dto.CommunityThreadDTO;
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.enums.UserType;
 import com.example.stayops.service.CommunityMessageService;
 import lombok.RequiredArgsConstructor;
@@ -64,6 +66,23 @@ public class CommunityMessageController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * Root messages, newest first, one page at a time; pass nextCursor back as cursor for the next page
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<CommunityMessageDTO>> getFeed(
+            @RequestParam(required = false) Boolean announcement,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messageService.getFeed(announcement, cursor, limit));
+    }
+
+    @GetMapping("/{messageId}/thread")
+    public ResponseEntity<CommunityThreadDTO> getThread(@PathVariable Long messageId) {
+        CommunityThreadDTO thread = messageService.getThread(messageId);
+        return ResponseEntity.ok(thread);
+    }
+
     @GetMapping("/{parentMessageId}/replies")
     public ResponseEntity<List<CommunityMessageDTO>> getReplies(@PathVariable Long parentMessageId) {
         List<CommunityMessageDTO> replies = messageService.getReplies(parentMessageId);
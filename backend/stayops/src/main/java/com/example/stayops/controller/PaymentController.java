@@ -1,13 +1,16 @@
 package com.example.stayops.controller;
 
+import com.example.stayops.automation.PaymentWebhookProcessor;
 import com.example.stayops.dto.PaymentTransactionDTO;
 import com.example.stayops.service.PaymentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -16,6 +19,7 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentWebhookProcessor webhookProcessor;
 
     @PostMapping("/initiate")
     public ResponseEntity<PaymentTransactionDTO> initiatePayment(@RequestBody PaymentTransactionDTO request) {
@@ -23,10 +27,27 @@ public class PaymentController {
     }
 
     @PostMapping("/webhook")
-    public ResponseEntity<PaymentTransactionDTO> processWebhook(
+    public ResponseEntity<Map<String, Object>> processWebhook(
             @RequestBody String payload,
             @RequestHeader("X-Signature") String signature) {
-        return ResponseEntity.ok(paymentService.processWebhook(payload, signature));
+        // Acknowledge once recorded; PaymentWebhookProcessor updates the payment
+        Map<String, Object> ack = paymentService.processWebhook(payload, signature);
+        HttpStatus status = "accepted".equals(ack.get("status")) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(ack);
+    }
+
+    @GetMapping("/webhook/inbox/stats")
+    public ResponseEntity<Map<String, Object>> getWebhookInboxStats() {
+        return ResponseEntity.ok(webhookProcessor.getInboxStats());
+    }
+
+    @PostMapping("/webhook/inbox/{id}/retry")
+    public ResponseEntity<Map<String, Object>> retryWebhook(@PathVariable Long id) {
+        var message = webhookProcessor.retry(id);
+        return ResponseEntity.ok(Map.of(
+                "inboxId", message.getId(),
+                "status", message.getStatus()
+        ));
     }
 
     @GetMapping("/idempotency/{key}")
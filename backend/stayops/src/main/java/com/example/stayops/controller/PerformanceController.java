@@ -50,21 +50,22 @@ public class PerformanceController {
         log.info("📊 Manual update requested for all departments");
 
         try {
-            performanceService.updateAllDepartmentPerformances();
+            int updated = performanceService.updateAllNow();
 
-            List<Department> departments = departmentRepository.findAll();
+            List<EnhancedPerformanceService.LeaderboardEntry> departments = performanceService.getLeaderboard();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "All department performances updated successfully");
             response.put("total_departments", departments.size());
+            response.put("updated_departments", updated);
             response.put("timestamp", java.time.Instant.now());
             response.put("departments", departments.stream()
                     .map(d -> Map.of(
-                            "id", d.getId(),
-                            "name", d.getName(),
-                            "performance", d.getPerformance() != null ? d.getPerformance() : 0,
-                            "status", d.getStatus().name()
+                            "id", d.id(),
+                            "name", d.name(),
+                            "performance", d.performance(),
+                            "status", d.status()
                     ))
                     .collect(Collectors.toList())
             );
@@ -229,30 +230,25 @@ public class PerformanceController {
     public ResponseEntity<Map<String, Object>> getPerformanceLeaderboard(
             @RequestParam(defaultValue = "10") int limit) {
 
-        List<Department> allDepartments = departmentRepository.findAll();
+        // Ranked in memory by the performance service, refreshed when scores change
+        List<EnhancedPerformanceService.LeaderboardEntry> ranking = performanceService.getLeaderboard();
 
-        List<Map<String, Object>> leaderboard = allDepartments.stream()
-                .sorted((d1, d2) -> {
-                    int perf1 = d1.getPerformance() != null ? d1.getPerformance() : 0;
-                    int perf2 = d2.getPerformance() != null ? d2.getPerformance() : 0;
-                    return Integer.compare(perf2, perf1); // Descending
-                })
+        List<Map<String, Object>> leaderboard = ranking.stream()
                 .limit(limit)
                 .map(d -> {
-                    int performance = d.getPerformance() != null ? d.getPerformance() : 0;
                     Map<String, Object> entry = new HashMap<>();
-                    entry.put("id", d.getId());
-                    entry.put("name", d.getName());
-                    entry.put("performance", performance);
-                    entry.put("rating", getPerformanceRating(performance));
-                    entry.put("status", d.getStatus().name());
+                    entry.put("id", d.id());
+                    entry.put("name", d.name());
+                    entry.put("performance", d.performance());
+                    entry.put("rating", getPerformanceRating(d.performance()));
+                    entry.put("status", d.status());
                     return entry;
                 })
                 .collect(Collectors.toList());
 
         Map<String, Object> response = new HashMap<>();
         response.put("leaderboard", leaderboard);
-        response.put("total_departments", allDepartments.size());
+        response.put("total_departments", ranking.size());
         response.put("timestamp", java.time.Instant.now());
 
         return ResponseEntity.ok(response);
@@ -266,15 +262,15 @@ public class PerformanceController {
      */
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getSystemStatus() {
-        List<Department> departments = departmentRepository.findAll();
+        List<EnhancedPerformanceService.LeaderboardEntry> departments = performanceService.getLeaderboard();
 
         long totalDepartments = departments.size();
         long departmentsWithScore = departments.stream()
-                .filter(d -> d.getPerformance() != null && d.getPerformance() > 0)
+                .filter(d -> d.performance() > 0)
                 .count();
 
         double avgPerformance = departments.stream()
-                .mapToInt(d -> d.getPerformance() != null ? d.getPerformance() : 0)
+                .mapToInt(EnhancedPerformanceService.LeaderboardEntry::performance)
                 .average()
                 .orElse(0.0);
 
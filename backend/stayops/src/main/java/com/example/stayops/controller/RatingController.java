@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ratings")
@@ -74,6 +75,24 @@ public class RatingController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Stats per month (bucket=MONTH, optional from/to as yyyy-MM) or per room type (bucket=ROOM_TYPE)
+     */
+    @GetMapping("/stats/trends")
+    public ResponseEntity<List<RatingStatsDTO>> getRatingTrends(
+            @RequestParam(defaultValue = "MONTH") String bucket,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        List<RatingStatsDTO> trends = ratingService.getRatingTrends(bucket, from, to);
+        return ResponseEntity.ok(trends);
+    }
+
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRatingStats() {
+        int ratings = ratingService.rebuildRatingAggregates();
+        return ResponseEntity.ok(Map.of("status", "Rating aggregates rebuilt", "ratings", ratings));
+    }
+
     @PutMapping("/{ratingId}/publish")
     public ResponseEntity<Void> publishRating(
             @PathVariable Long ratingId,
@@ -1,11 +1,15 @@
 package com.example.stayops.controller;
 
 import com.example.stayops.dto.*;
+import com.example.stayops.service.DailyOccupancyService;
 import com.example.stayops.service.ReservationService;
+import com.example.stayops.service.RoomBoardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +23,8 @@ import java.util.Map;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
 
     // ========== RESERVATION CRUD ==========
     @PostMapping("/create")
@@ -65,10 +71,21 @@ public class ReservationController {
     }
 
     @GetMapping("/reservations")
-    public List<Map<String, Object>> getAllRoomReservations() {
+    public List<RoomStatusDTO> getAllRoomReservations() {
         return reservationService.getAllRoomReservationStatuses();
     }
 
+    // Live room board: full snapshot, then only changed rooms, pushed as server-sent events
+    @GetMapping(value = "/room-board/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRoomBoard() {
+        return roomBoardService.subscribe();
+    }
+
+    @PostMapping("/room-board/reload")
+    public ResponseEntity<List<RoomStatusDTO>> reloadRoomBoard() {
+        return ResponseEntity.ok(roomBoardService.reload());
+    }
+
     // ========== CALENDAR & DATE-BASED QUERIES ==========
 
     @GetMapping("/calendar")
@@ -163,4 +180,23 @@ public class ReservationController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         return ResponseEntity.ok(reservationService.getOccupancyStatsForDate(date));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/occupancy/range")
+    public ResponseEntity<List<OccupancyStatsDTO>> getOccupancyForRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(reservationService.getOccupancyStatsForRange(startDate, endDate));
+    }
+
+    @PostMapping("/occupancy/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int written = dailyOccupancyService.rebuild(startDate, endDate);
+        return ResponseEntity.ok(Map.of(
+                "startDate", startDate,
+                "endDate", endDate,
+                "datesWritten", written
+        ));
+    }
+}
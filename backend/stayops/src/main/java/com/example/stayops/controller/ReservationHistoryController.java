@@ -1,12 +1,14 @@
 package com.example.stayops.controller;
 
 import com.example.stayops.dto.ReservationHistoryDTO;
+import com.example.stayops.service.ReservationArchiveService;
 import com.example.stayops.service.ReservationHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/reservation-history")
@@ -15,6 +17,7 @@ import java.util.List;
 public class ReservationHistoryController {
 
     private final ReservationHistoryService reservationHistoryService;
+    private final ReservationArchiveService reservationArchiveService;
 
     @PostMapping
     public ResponseEntity<ReservationHistoryDTO> recordHistory(@RequestBody ReservationHistoryDTO dto) {
@@ -25,4 +28,10 @@ public class ReservationHistoryController {
     public ResponseEntity<List<ReservationHistoryDTO>> getHistory(@PathVariable Long reservationId) {
         return ResponseEntity.ok(reservationHistoryService.getHistoryByReservation(reservationId));
     }
+
+    @GetMapping("/archive/{reservationId}")
+    public ResponseEntity<Map<String, Object>> getArchivedReservation(@PathVariable Long reservationId) {
+        Map<String, Object> archived = reservationArchiveService.getArchivedReservation(reservationId);
+        return archived != null ? ResponseEntity.ok(archived) : ResponseEntity.notFound().build();
+    }
 }
@@ -1,6 +1,10 @@
 package com.example.stayops.controller;
 
+import com.example.stayops.automation.ServiceRequestDispatcher;
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.dto.ServiceRequestDTO;
+import com.example.stayops.dto.ServiceRequestFilterDTO;
+import com.example.stayops.dto.ServiceRequestListRow;
 import com.example.stayops.service.ServiceRequestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/service-requests")
@@ -17,6 +22,7 @@ import java.util.List;
 public class ServiceRequestController {
 
     private final ServiceRequestService serviceRequestService;
+    private final ServiceRequestDispatcher dispatcher;
 
     // ========== CRUD OPERATIONS ==========
 
@@ -50,6 +56,43 @@ public class ServiceRequestController {
 
     // ========== FILTERING & SEARCH ==========
 
+    /**
+     * Filtered listing with keyset pagination; pass nextCursor back as cursor for the next page
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<ServiceRequestListRow>> searchServiceRequests(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long reservationId,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) String requestedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ServiceRequestFilterDTO filter = ServiceRequestFilterDTO.builder()
+                .status(status)
+                .serviceType(serviceType)
+                .priority(priority)
+                .roomId(roomId)
+                .reservationId(reservationId)
+                .assignedTo(assignedTo)
+                .requestedBy(requestedBy)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        return ResponseEntity.ok(serviceRequestService.listServiceRequests(filter, sort, cursor, limit));
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Map<String, Object>> getCounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        return ResponseEntity.ok(serviceRequestService.getServiceRequestCounts(since));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ServiceRequestDTO>> getByStatus(@PathVariable String status) {
         return ResponseEntity.ok(serviceRequestService.getServiceRequestsByStatus(status));
@@ -127,4 +170,17 @@ public class ServiceRequestController {
     public ResponseEntity<ServiceRequestDTO> markAsCompleted(@PathVariable Long id) {
         return ResponseEntity.ok(serviceRequestService.markAsCompleted(id));
     }
+
+    // ========== DISPATCH ==========
+
+    @GetMapping("/dispatch")
+    public ResponseEntity<Map<String, Object>> getDispatchStatus() {
+        return ResponseEntity.ok(dispatcher.getStats());
+    }
+
+    @PostMapping("/dispatch/resync")
+    public ResponseEntity<Map<String, String>> resyncDispatch() {
+        dispatcher.resync();
+        return ResponseEntity.ok(Map.of("status", "Dispatch resync triggered"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.stayops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommunityThreadDTO {
+    private CommunityMessageDTO root;
+    private List<CommunityMessageDTO> replies; // Oldest first
+}
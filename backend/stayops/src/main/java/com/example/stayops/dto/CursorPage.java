@@ -0,0 +1,10 @@
+package com.example.stayops.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is passed back as the cursor parameter to get
+ * the following page and is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+}
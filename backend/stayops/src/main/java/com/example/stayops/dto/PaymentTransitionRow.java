@@ -0,0 +1,12 @@
+package com.example.stayops.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Candidate for a bulk payment status transition (see ReservationTransitionRow)
+ */
+public record PaymentTransitionRow(
+        Long paymentId,
+        Long reservationId,
+        BigDecimal amount) {
+}
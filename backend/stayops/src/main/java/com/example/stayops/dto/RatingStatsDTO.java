@@ -5,11 +5,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class RatingStatsDTO {
+    private String bucket; // ALL, a month (yyyy-MM) or a room type
     private Double averageOverallRating;
     private Double averageCleanlinessRating;
     private Double averageServiceRating;
@@ -17,4 +20,5 @@ public class RatingStatsDTO {
     private Double averageValueRating;
     private Double averageLocationRating;
     private Long totalRatings;
+    private Map<String, Map<Integer, Long>> histograms; // Dimension -> stars (1-5) -> ratings
 }
\ No newline at end of file
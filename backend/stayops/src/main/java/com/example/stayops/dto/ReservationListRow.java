@@ -0,0 +1,24 @@
+package com.example.stayops.dto;
+
+import com.example.stayops.enums.ReservationStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Flat read projection for reservation list endpoints: one row per (reservation, room)
+ *
+ * Built by a single JPQL constructor query joining guest and rooms, so listing N reservations
+ * costs one query instead of walking lazy associations per reservation. roomId is null for
+ * reservations without rooms.
+ */
+public record ReservationListRow(
+        Long reservationId,
+        String guestId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        ReservationStatus status,
+        Instant createdAt,
+        Instant updatedAt,
+        Long roomId) {
+}
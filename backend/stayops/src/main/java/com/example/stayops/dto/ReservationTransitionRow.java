@@ -0,0 +1,17 @@
+package com.example.stayops.dto;
+
+import com.example.stayops.enums.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Candidate for a bulk status transition: the columns the transition, its event and the
+ * occupancy refresh need, read with one constructor query instead of loading entities
+ */
+public record ReservationTransitionRow(
+        Long reservationId,
+        String guestId,
+        ReservationStatus status,
+        LocalDate checkInDate,
+        LocalDate checkOutDate) {
+}
@@ -1,5 +1,6 @@
 package com.example.stayops.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,10 +12,13 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Empty fields are sent as explicit nulls, as the per-room maps of the room board always did
+@JsonInclude(JsonInclude.Include.ALWAYS)
 public class RoomStatusDTO {
     private Long roomId;
     private String roomNumber;
     private String roomType;
+    @JsonInclude(JsonInclude.Include.NON_NULL) // not set on room board entries, which never carried it
     private LocalDate date;
     private String status; // AVAILABLE, OCCUPIED, RESERVED, ARRIVING, DEPARTING, DIRTY, OUT_OF_SERVICE
     private Long reservationId;
@@ -0,0 +1,36 @@
+package com.example.stayops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledJobStatsDTO {
+
+    private String jobName;
+
+    // Live state
+    private Integer running;
+    private Instant lastStartedAt;
+    private String lastStatus; // SUCCESS, FAILED
+    private Long lastDurationMs;
+    private String lastError;
+
+    // Totals since application start
+    private Long totalRuns;
+    private Long failedRuns;
+    private Long overlaps;
+    private Long rowsProcessed;
+    private Long totalDurationMs;
+    private Long maxDurationMs;
+    private Long avgDurationMs;
+
+    // Share of all scheduler busy time spent in this job (0-100)
+    private Double schedulerBusyPercent;
+}
@@ -0,0 +1,27 @@
+package com.example.stayops.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Filters for the service request listing; null fields are ignored and the rest are combined with AND
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceRequestFilterDTO {
+    private String status;
+    private String serviceType;
+    private String priority;
+    private Long roomId;
+    private Long reservationId;
+    private String assignedTo;
+    private String requestedBy;
+    private Instant createdFrom;
+    private Instant createdTo;
+}
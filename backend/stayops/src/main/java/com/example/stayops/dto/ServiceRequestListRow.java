@@ -0,0 +1,26 @@
+package com.example.stayops.dto;
+
+import java.time.Instant;
+
+/**
+ * Flat read projection for the service request listing: one row per request
+ *
+ * Built by a single JPQL constructor query joining room and reservation, so a page of requests
+ * costs one query and no entity is loaded. roomId/roomNumber and reservationId are null when the
+ * request is not linked to a room or a reservation.
+ */
+public record ServiceRequestListRow(
+        Long id,
+        String serviceType,
+        String description,
+        String status,
+        String priority,
+        String requestedBy,
+        String assignedTo,
+        Long reservationId,
+        Long roomId,
+        String roomNumber,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant completedAt) {
+}
@@ -19,8 +19,11 @@ import java.time.Instant;
 @Builder
 public class AuditLog {
 
+    // Pooled ids from the id_generators table, so inserts can be JDBC-batched (IDENTITY cannot be)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "audit_log_ids")
+    @TableGenerator(name = "audit_log_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "audit_logs", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -2,6 +2,8 @@ package com.example.stayops.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,6 +18,8 @@ import java.time.Instant;
 @Builder
 @ToString(exclude = {"hotel"})
 @EqualsAndHashCode(exclude = {"hotel"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CancellationPolicy {
 
     @Id
@@ -12,7 +12,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "community_messages")
+@Table(name = "community_messages", indexes = {
+        // Replies of a message (threads, reply counts) and the root-message feed in (createdAt, id) order
+        @Index(name = "idx_community_message_parent", columnList = "parentMessageId,isActive,createdAt,id"),
+        @Index(name = "idx_community_message_sender", columnList = "senderId,createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,53 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Per-date occupancy read model maintained by DailyOccupancyService
+ * Uses the same overlap rule as ReservationRepository.findReservationsOverlapping
+ * (check-out day inclusive).
+ */
+@Entity
+@Table(name = "daily_occupancy", indexes = {
+        @Index(name = "idx_daily_occupancy_date", columnList = "occupancyDate", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyOccupancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate occupancyDate;
+
+    private Integer totalRooms;
+
+    // Distinct rooms held by CHECKED_IN reservations
+    private Integer occupiedRooms;
+
+    // Distinct rooms held by CONFIRMED reservations
+    private Integer reservedRooms;
+
+    private Integer availableRooms;
+
+    // Adults + kids of CHECKED_IN reservations
+    private Integer inHouseGuests;
+
+    private Integer arrivals;
+
+    private Integer departures;
+
+    private Integer pendingReservations;
+
+    private Integer confirmedReservations;
+
+    private Instant refreshedAt;
+}
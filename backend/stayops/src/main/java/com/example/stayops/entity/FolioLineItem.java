@@ -25,8 +25,11 @@ import java.time.LocalDate;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class FolioLineItem {
 
+    // Pooled ids from the id_generators table, so inserts can be JDBC-batched (IDENTITY cannot be)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "folio_line_item_ids")
+    @TableGenerator(name = "folio_line_item_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "folio_line_items", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -22,8 +22,11 @@ import java.time.LocalDate;
 @EqualsAndHashCode(exclude = {"room", "reservation"})
 public class HousekeepingTask {
 
+    // Pooled ids from the id_generators table, so inserts can be JDBC-batched (IDENTITY cannot be)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "housekeeping_task_ids")
+    @TableGenerator(name = "housekeeping_task_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "housekeeping_tasks", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,35 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lease on a scheduled job (or one partition of it), managed by JobLeaseService
+ *
+ * lastTick is the scheduled fire time most recently claimed, so a tick runs on one node only;
+ * lockedUntil keeps other nodes off while the holder is still running and is renewed by a heartbeat.
+ */
+@Entity
+@Table(name = "scheduled_job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @Column(length = 150)
+    private String lockName; // SimpleClassName.methodName, or ...#p<n> for a partition
+
+    @Column(length = 150)
+    private String lockedBy;
+
+    private Instant lockedAt;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    private Instant lastTick;
+}
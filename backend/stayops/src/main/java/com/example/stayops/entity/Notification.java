@@ -18,8 +18,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Notification {
 
+    // Pooled ids from the id_generators table, so inserts can be JDBC-batched (IDENTITY cannot be)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_ids")
+    @TableGenerator(name = "notification_ids", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "notifications", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
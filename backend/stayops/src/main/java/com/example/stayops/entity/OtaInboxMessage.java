@@ -0,0 +1,54 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Raw OTA booking payload accepted by the webhook, waiting for OtaBookingIngestionService
+ */
+@Entity
+@Table(name = "ota_booking_inbox", indexes = {
+        @Index(name = "idx_ota_inbox_status_id", columnList = "status,id"),
+        @Index(name = "idx_ota_inbox_external_id", columnList = "externalBookingId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OtaInboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String status = "PENDING"; // PENDING, PROCESSED, DUPLICATE, FAILED
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // Filled in once the payload has been parsed
+    @Column(length = 50)
+    private String channelCode;
+
+    @Column(length = 100)
+    private String externalBookingId;
+
+    private Long reservationId;
+
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant receivedAt;
+
+    private Instant processedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * How far one outbox consumer has got: every event up to and including lastEventId
+ * has been delivered (or dead-lettered)
+ */
+@Entity
+@Table(name = "outbox_consumer_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxConsumerOffset {
+
+    @Id
+    @Column(length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastEventId = 0L;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Outbox event a consumer gave up on after max-attempts; the consumer's offset moves past it
+ * and it can be delivered again with a replay
+ */
+@Entity
+@Table(name = "outbox_dead_letters", indexes = {
+        @Index(name = "idx_outbox_dead_letter_consumer", columnList = "consumer,eventId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(length = 100)
+    private String eventType;
+
+    @Column(length = 100)
+    private String aggregateId;
+
+    private Integer attempts;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant failedAt;
+}
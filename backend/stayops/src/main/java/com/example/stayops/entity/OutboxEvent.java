@@ -0,0 +1,43 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Domain event recorded by EventPublisher in the publisher's own transaction and
+ * delivered to consumers by OutboxDispatcher once that transaction has committed
+ */
+@Entity
+@Table(name = "domain_event_outbox", indexes = {
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregateType,aggregateId,id"),
+        @Index(name = "idx_outbox_created_at", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false, length = 100)
+    private String aggregateId;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+}
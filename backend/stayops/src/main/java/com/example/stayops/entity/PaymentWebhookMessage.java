@@ -0,0 +1,55 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Verified payment provider webhook, recorded once per provider event id and
+ * applied asynchronously by PaymentWebhookProcessor
+ */
+@Entity
+@Table(name = "payment_webhook_inbox", indexes = {
+        @Index(name = "idx_payment_webhook_event_id", columnList = "providerEventId", unique = true),
+        @Index(name = "idx_payment_webhook_status_id", columnList = "status,id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentWebhookMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String providerEventId;
+
+    @Column(length = 100)
+    private String providerTransactionId;
+
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String status = "PENDING"; // PENDING, PROCESSED, FAILED
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Builder.Default
+    private Integer attempts = 0;
+
+    // Set after a failed attempt; the message is not retried before this time
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant receivedAt;
+
+    private Instant processedAt;
+}
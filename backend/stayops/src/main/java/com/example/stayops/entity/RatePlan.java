@@ -2,6 +2,8 @@ package com.example.stayops.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,6 +19,8 @@ import java.time.LocalDate;
 @Builder
 @ToString(exclude = {"hotel"})
 @EqualsAndHashCode(exclude = {"hotel"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class RatePlan {
 
     @Id
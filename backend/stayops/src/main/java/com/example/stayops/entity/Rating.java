@@ -56,6 +56,11 @@ public class Rating {
     @Column(nullable = false)
     private Boolean isPublished = true;
 
+    // Room types this rating was last counted under in the ROOM_TYPE rating aggregates (comma-separated),
+    // so a later change subtracts from those buckets even if the reservation's rooms changed since
+    @Column(length = 255)
+    private String aggregatedRoomTypes;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
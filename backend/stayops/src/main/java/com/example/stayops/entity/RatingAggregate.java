@@ -0,0 +1,64 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Running totals of published ratings for one bucket and one rating dimension, maintained by
+ * RatingServiceImpl in the same transaction as the rating change
+ *
+ * Buckets: ALL/ALL (hotel-wide), MONTH/yyyy-MM (month the rating was created) and
+ * ROOM_TYPE/&lt;type&gt; (each distinct room type of the rated reservation, recorded on the rating
+ * when it is counted).
+ * Dimensions: OVERALL, CLEANLINESS, SERVICE, AMENITIES, VALUE, LOCATION; a rating without a value
+ * for a dimension does not count towards it.
+ */
+@Entity
+@Table(name = "rating_aggregates", indexes = {
+        @Index(name = "idx_rating_aggregate_bucket", columnList = "bucketType,bucketKey,dimension", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String bucketType;
+
+    @Column(nullable = false, length = 50)
+    private String bucketKey;
+
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    @Column(nullable = false)
+    private Long ratingCount;
+
+    @Column(nullable = false)
+    private Long ratingSum;
+
+    // Histogram: number of ratings with 1..5 stars
+    @Column(nullable = false)
+    private Long stars1;
+
+    @Column(nullable = false)
+    private Long stars2;
+
+    @Column(nullable = false)
+    private Long stars3;
+
+    @Column(nullable = false)
+    private Long stars4;
+
+    @Column(nullable = false)
+    private Long stars5;
+
+    private Instant updatedAt;
+}
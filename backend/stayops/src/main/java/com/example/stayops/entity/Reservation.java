@@ -16,6 +16,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "reservations")
+@EntityListeners(ReservationChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -75,6 +76,10 @@ public class Reservation {
     @UpdateTimestamp
     private Instant updatedAt;
 
+    // Dates as loaded from the database, so a date change also refreshes the old span's occupancy
+    private transient LocalDate loadedCheckInDate;
+    private transient LocalDate loadedCheckOutDate;
+
     // Helper methods for managing bidirectional relationships
     public void addRoom(Room room) {
         this.rooms.add(room);
@@ -0,0 +1,56 @@
+package com.example.stayops.entity;
+
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds reservation inserts, updates and deletes to the read models built from them
+ * (daily_occupancy and the live room board). Instantiated by Hibernate through Spring;
+ * the services are looked up lazily to avoid a cycle with the EntityManagerFactory.
+ */
+@Component
+public class ReservationChangeListener {
+
+    private final ObjectProvider<DailyOccupancyService> occupancyService;
+    private final ObjectProvider<RoomBoardService> roomBoardService;
+
+    public ReservationChangeListener(ObjectProvider<DailyOccupancyService> occupancyService,
+                                     ObjectProvider<RoomBoardService> roomBoardService) {
+        this.occupancyService = occupancyService;
+        this.roomBoardService = roomBoardService;
+    }
+
+    @PostLoad
+    public void remember(Reservation reservation) {
+        reservation.setLoadedCheckInDate(reservation.getCheckInDate());
+        reservation.setLoadedCheckOutDate(reservation.getCheckOutDate());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Reservation reservation) {
+        DailyOccupancyService occupancy = occupancyService.getIfAvailable();
+        if (occupancy != null) {
+            occupancy.markDirty(reservation.getCheckInDate(), reservation.getCheckOutDate());
+            if (reservation.getLoadedCheckInDate() != null
+                    && (!reservation.getLoadedCheckInDate().equals(reservation.getCheckInDate())
+                    || !reservation.getLoadedCheckOutDate().equals(reservation.getCheckOutDate()))) {
+                occupancy.markDirty(reservation.getLoadedCheckInDate(), reservation.getLoadedCheckOutDate());
+            }
+        }
+
+        RoomBoardService roomBoard = roomBoardService.getIfAvailable();
+        if (roomBoard != null && reservation.getReservationId() != null) {
+            roomBoard.reservationChanged(reservation.getReservationId());
+        }
+
+        remember(reservation);
+    }
+}
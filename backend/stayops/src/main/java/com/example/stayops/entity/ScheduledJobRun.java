@@ -0,0 +1,55 @@
+package com.example.stayops.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One execution of a @Scheduled job, written by ScheduledJobMonitor
+ */
+@Entity
+@Table(name = "scheduled_job_runs", indexes = {
+        @Index(name = "idx_job_run_name_started", columnList = "jobName,startedAt"),
+        @Index(name = "idx_job_run_started", columnList = "startedAt"),
+        @Index(name = "idx_job_run_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledJobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 150)
+    private String jobName; // SimpleClassName.methodName
+
+    @Column(nullable = false, length = 20)
+    private String status; // SUCCESS, FAILED
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMs;
+
+    @Builder.Default
+    private Long rowsProcessed = 0L;
+
+    // True when the job was already running (manual trigger or slow previous tick)
+    @Builder.Default
+    private Boolean overlapped = false;
+
+    // Jobs running on the scheduler when this one started, including itself
+    private Integer concurrentJobs;
+
+    @Column(length = 100)
+    private String threadName;
+
+    @Column(length = 1000)
+    private String errorMessage;
+}
@@ -9,7 +9,17 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "service_requests")
+// Listing filters are equality on one column plus the (createdAt, id) keyset order; each index ends in
+// that order so a filtered page is an index range read without a sort
+@Table(name = "service_requests", indexes = {
+        @Index(name = "idx_service_request_created", columnList = "createdAt,id"),
+        @Index(name = "idx_service_request_status", columnList = "status,createdAt,id"),
+        @Index(name = "idx_service_request_type", columnList = "serviceType,createdAt,id"),
+        @Index(name = "idx_service_request_priority", columnList = "priority,status,createdAt"),
+        @Index(name = "idx_service_request_room", columnList = "room_id,createdAt,id"),
+        @Index(name = "idx_service_request_assignee", columnList = "assignedTo,status,createdAt"),
+        @Index(name = "idx_service_request_requester", columnList = "requestedBy,createdAt,id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,54 @@
+package com.example.stayops.event;
+
+import com.example.stayops.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands committed outbox events to the existing @EventListener methods (billing, housekeeping,
+ * room assignment, payment automation, fraud, notifications) on the dispatcher lane thread
+ *
+ * Each listener is invoked on its own; when some fail, the retry only goes to those, so within
+ * one process a listener sees an event once (a restart mid-retry can repeat it).
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationListenerRelay implements OutboxConsumer {
+
+    public static final String NAME = "application-listeners";
+
+    private final OutboxEventMulticaster multicaster;
+
+    // Listeners that already handled an event whose other listeners are being retried
+    private final Map<Long, Set<String>> handledListeners = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(OutboxEvent envelope, Object event) {
+        Set<String> handled = handledListeners.computeIfAbsent(envelope.getId(), id -> ConcurrentHashMap.newKeySet());
+        List<Exception> failures = multicaster.multicastIsolated(event, handled);
+        if (failures.isEmpty()) {
+            handledListeners.remove(envelope.getId());
+            return;
+        }
+
+        IllegalStateException failure = new IllegalStateException(failures.size() + " listener(s) failed: "
+                + failures.get(0).getMessage(), failures.get(0));
+        failures.stream().skip(1).forEach(failure::addSuppressed);
+        throw failure;
+    }
+
+    @Override
+    public void onDeadLettered(OutboxEvent envelope) {
+        handledListeners.remove(envelope.getId());
+    }
+}
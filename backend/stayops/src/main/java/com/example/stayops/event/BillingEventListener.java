@@ -5,7 +5,6 @@ import com.example.stayops.service.BillingAutomationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -21,7 +20,6 @@ public class BillingEventListener {
     /**
      * Automatically creates folio when reservation is created
      */
-    @Async
     @EventListener
     public void handleReservationCreated(ReservationCreatedEvent event) {
         log.info("Event received: Reservation created - ID: {}", event.getReservationId());
@@ -39,7 +37,6 @@ public class BillingEventListener {
     /**
      * Updates folio when guest checks in
      */
-    @Async
     @EventListener
     public void handleCheckIn(CheckInEvent event) {
         log.info("Event received: Check-in - Reservation ID: {}", event.getReservationId());
@@ -56,7 +53,6 @@ public class BillingEventListener {
     /**
      * Generates and sends final invoice when guest checks out
      */
-    @Async
     @EventListener
     public void handleCheckOut(CheckOutEvent event) {
         log.info("Event received: Check-out - Reservation ID: {}", event.getReservationId());
@@ -74,7 +70,6 @@ public class BillingEventListener {
     /**
      * Automatically adds service charges when service request is completed
      */
-    @Async
     @EventListener
     public void handleServiceCompleted(ServiceCompletedEvent event) {
         log.info("Event received: Service completed - Reservation: {}, Service: {}",
@@ -98,7 +93,6 @@ public class BillingEventListener {
     /**
      * Handles reservation cancellation
      */
-    @Async
     @EventListener
     public void handleReservationCancelled(ReservationCancelledEvent event) {
         log.info("Event received: Reservation cancelled - ID: {}", event.getReservationId());
@@ -116,7 +110,6 @@ public class BillingEventListener {
     /**
      * Handles no-show event
      */
-    @Async
     @EventListener
     public void handleNoShow(NoShowEvent event) {
         log.info("Event received: No-show - Reservation ID: {}", event.getReservationId());
@@ -133,7 +126,6 @@ public class BillingEventListener {
     /**
      * Handles late checkout
      */
-    @Async
     @EventListener
     public void handleLateCheckout(LateCheckoutEvent event) {
         log.info("Event received: Late checkout - Reservation: {}, Hours late: {}",
@@ -155,7 +147,6 @@ public class BillingEventListener {
     /**
      * Handles early checkout
      */
-    @Async
     @EventListener
     public void handleEarlyCheckout(EarlyCheckoutEvent event) {
         log.info("Event received: Early checkout - Reservation: {}, Checkout date: {}",
@@ -177,7 +168,6 @@ public class BillingEventListener {
     /**
      * Handles payment events for real-time updates
      */
-    @Async
     @EventListener
     public void handlePaymentReceived(PaymentEvent event) {
         log.info("Event received: Payment - Reservation: {}, Amount: {}, Status: {}",
@@ -1,5 +1,9 @@
 package com.example.stayops.event;
 
+import com.example.stayops.entity.OutboxEvent;
+import com.example.stayops.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -12,13 +16,25 @@ import java.time.LocalDate;
 /**
  * Service responsible for publishing application events
  * Used to trigger automated billing workflows
+ *
+ * Domain events are appended to the outbox in the caller's transaction and delivered to the
+ * @EventListener methods by OutboxDispatcher after commit, so publishing never waits on listener
+ * work and a rolled-back change publishes nothing.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EventPublisher {
 
+    private static final String RESERVATION_AGGREGATE = "Reservation";
+
+    // Batch events span many reservations; they get their own dispatcher lane per event type
+    private static final String BATCH_AGGREGATE_PREFIX = "batch:";
+
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
 
     /**
      * ADDED: Publish general reservation event (for automation workflows)
@@ -36,8 +52,8 @@ public class EventPublisher {
                 event.getPreviousStatus(),
                 event.getNewStatus());
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("ReservationEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("ReservationEvent recorded in outbox");
     }
 
     /**
@@ -55,8 +71,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("ReservationCreatedEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("ReservationCreatedEvent recorded in outbox");
     }
 
     /**
@@ -72,8 +88,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("CheckInEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("CheckInEvent recorded in outbox");
     }
 
     /**
@@ -89,8 +105,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("CheckOutEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("CheckOutEvent recorded in outbox");
     }
 
     /**
@@ -109,8 +125,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("ServiceCompletedEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("ServiceCompletedEvent recorded in outbox");
     }
 
     /**
@@ -125,8 +141,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("ReservationCancelledEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("ReservationCancelledEvent recorded in outbox");
     }
 
     /**
@@ -141,8 +157,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("NoShowEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("NoShowEvent recorded in outbox");
     }
 
     /**
@@ -158,8 +174,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("LateCheckoutEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("LateCheckoutEvent recorded in outbox");
     }
 
     /**
@@ -176,8 +192,8 @@ public class EventPublisher {
                 .eventTime(Instant.now())
                 .build();
 
-        applicationEventPublisher.publishEvent(event);
-        log.debug("EarlyCheckoutEvent published successfully");
+        appendToOutbox(event.getReservationId(), event);
+        log.debug("EarlyCheckoutEvent recorded in outbox");
     }
 
     /**
@@ -187,7 +203,69 @@ public class EventPublisher {
         log.info("Publishing PaymentEvent for reservation: {}, status: {}",
                 paymentEvent.getReservationId(), paymentEvent.getStatus());
 
-        applicationEventPublisher.publishEvent(paymentEvent);
-        log.debug("PaymentEvent published successfully");
+        appendToOutbox(paymentEvent.getReservationId(), paymentEvent);
+        log.debug("PaymentEvent recorded in outbox");
+    }
+
+    /**
+     * Publish a bulk reservation transition; the changes all share one outbox entry
+     */
+    public void publishReservationBatch(ReservationBatchEvent event) {
+        log.info("Publishing ReservationBatchEvent type: {}, {} reservations -> {}",
+                event.getEventType(), event.getChanges().size(), event.getNewStatus());
+
+        appendToOutbox(BATCH_AGGREGATE_PREFIX + event.getEventType(), event);
+        log.debug("ReservationBatchEvent recorded in outbox");
+    }
+
+    /**
+     * Publish a bulk payment transition
+     */
+    public void publishPaymentBatch(PaymentBatchEvent event) {
+        log.info("Publishing PaymentBatchEvent type: {}, {} payments -> {}",
+                event.getEventType(), event.getChanges().size(), event.getStatus());
+
+        appendToOutbox(BATCH_AGGREGATE_PREFIX + "PAYMENT_" + event.getEventType(), event);
+        log.debug("PaymentBatchEvent recorded in outbox");
+    }
+
+    /**
+     * Publish payment webhook received event (wakes the webhook processor)
+     */
+    public void publishPaymentWebhookReceived(Long inboxId, String providerEventId, String providerTransactionId) {
+        log.debug("Publishing PaymentWebhookReceivedEvent for event: {}", providerEventId);
+
+        applicationEventPublisher.publishEvent(PaymentWebhookReceivedEvent.builder()
+                .inboxId(inboxId)
+                .providerEventId(providerEventId)
+                .providerTransactionId(providerTransactionId)
+                .eventTime(Instant.now())
+                .build());
+    }
+
+    // ========== OUTBOX ==========
+
+    /**
+     * Joins the caller's transaction when there is one; otherwise the insert commits on its own
+     */
+    private void appendToOutbox(Long reservationId, Object event) {
+        appendToOutbox(String.valueOf(reservationId), event);
+    }
+
+    private void appendToOutbox(String aggregateId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(RESERVATION_AGGREGATE)
+                .aggregateId(aggregateId)
+                .eventType(event.getClass().getSimpleName())
+                .payload(payload)
+                .build());
+        outboxDispatcher.wakeUpAfterCommit();
     }
-}
\ No newline at end of file
+}
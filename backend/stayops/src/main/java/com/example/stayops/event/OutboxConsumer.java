@@ -0,0 +1,26 @@
+package com.example.stayops.event;
+
+import com.example.stayops.entity.OutboxEvent;
+
+/**
+ * A reader of the domain event outbox with its own offset
+ *
+ * Delivery is at-least-once and in outbox order per aggregate; a consumer that throws gets the
+ * same event again on a later drain (up to stayops.outbox.max-attempts) before it is dead-lettered.
+ * Events for different aggregates may be handled concurrently on different dispatcher lanes.
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Stable name; the consumer's offset is stored under it
+     */
+    String getName();
+
+    void handle(OutboxEvent envelope, Object event) throws Exception;
+
+    /**
+     * The event ran out of attempts and the consumer's offset is moving past it
+     */
+    default void onDeadLettered(OutboxEvent envelope) {
+    }
+}
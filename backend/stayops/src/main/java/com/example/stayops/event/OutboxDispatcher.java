@@ -0,0 +1,583 @@
+package com.example.stayops.event;
+
+import com.example.stayops.automation.ScheduledJobMonitor;
+import com.example.stayops.entity.OutboxConsumerOffset;
+import com.example.stayops.entity.OutboxDeadLetter;
+import com.example.stayops.entity.OutboxEvent;
+import com.example.stayops.repository.OutboxConsumerOffsetRepository;
+import com.example.stayops.repository.OutboxDeadLetterRepository;
+import com.example.stayops.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers domain events from domain_event_outbox to every OutboxConsumer
+ *
+ * EventPublisher inserts the event in the publisher's transaction, so an event exists exactly when
+ * the change that caused it committed; nothing is lost to a crash or a full executor. A dispatcher
+ * thread reads each consumer's next batch after its offset and pins every aggregate to one
+ * single-threaded lane, so events for a reservation are handled in order while different
+ * reservations run in parallel. A failed event holds back later events for its aggregate and is
+ * retried with exponential backoff (retry-backoff-ms, doubling up to max-backoff-ms); after
+ * max-attempts it is dead-lettered and the consumer moves on.
+ *
+ * The offset only advances over a contiguous run of handled events, so delivery is at-least-once.
+ * Reading does not wait for it: a separate read cursor moves on past events that are still being
+ * retried (kept in memory as in-flight, up to max-in-flight), so only the failing aggregate waits.
+ * A hole in the id sequence (a publishing transaction still open) stops the batch until it fills
+ * or gap-grace-ms passes, which is the longest a rolled-back insert can delay later events. Ids
+ * skipped that way are kept and re-polled on every drain, and delivered late if their transaction
+ * commits; only after gap-timeout-ms is a hole taken to be a rollback and dropped. Holes in the
+ * last gap-timeout-ms before a consumer's offset are rebuilt from the table on startup.
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    /**
+     * Event types EventPublisher writes to the outbox, by stored eventType
+     */
+    static final Map<String, Class<?>> EVENT_TYPES = Map.ofEntries(
+            Map.entry(ReservationEvent.class.getSimpleName(), ReservationEvent.class),
+            Map.entry(ReservationCreatedEvent.class.getSimpleName(), ReservationCreatedEvent.class),
+            Map.entry(CheckInEvent.class.getSimpleName(), CheckInEvent.class),
+            Map.entry(CheckOutEvent.class.getSimpleName(), CheckOutEvent.class),
+            Map.entry(ServiceCompletedEvent.class.getSimpleName(), ServiceCompletedEvent.class),
+            Map.entry(ReservationCancelledEvent.class.getSimpleName(), ReservationCancelledEvent.class),
+            Map.entry(NoShowEvent.class.getSimpleName(), NoShowEvent.class),
+            Map.entry(LateCheckoutEvent.class.getSimpleName(), LateCheckoutEvent.class),
+            Map.entry(EarlyCheckoutEvent.class.getSimpleName(), EarlyCheckoutEvent.class),
+            Map.entry(PaymentEvent.class.getSimpleName(), PaymentEvent.class),
+            Map.entry(ReservationBatchEvent.class.getSimpleName(), ReservationBatchEvent.class),
+            Map.entry(PaymentBatchEvent.class.getSimpleName(), PaymentBatchEvent.class));
+
+    // Larger holes (e.g. an auto-increment jump) are not individual in-flight inserts
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxConsumerOffsetRepository offsetRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final ScheduledJobMonitor jobMonitor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final int laneCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollIntervalMs;
+    private final long gapGraceMs;
+    private final long gapTimeoutMs;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxInFlight;
+    private final int retentionDays;
+    private final boolean enabled;
+
+    private final Map<String, ConsumerState> consumers = new LinkedHashMap<>();
+    private final Map<String, Long> pendingReplays = new ConcurrentHashMap<>();
+    private final ExecutorService[] lanes;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final AtomicLong lastDrainedAt = new AtomicLong();
+    private final Counter gapsAbandonedCounter;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public OutboxDispatcher(List<OutboxConsumer> outboxConsumers,
+                            OutboxEventRepository outboxRepository,
+                            OutboxConsumerOffsetRepository offsetRepository,
+                            OutboxDeadLetterRepository deadLetterRepository,
+                            ScheduledJobMonitor jobMonitor,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${stayops.outbox.enabled:true}") boolean enabled,
+                            @Value("${stayops.outbox.workers:4}") int laneCount,
+                            @Value("${stayops.outbox.batch-size:200}") int batchSize,
+                            @Value("${stayops.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${stayops.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+                            @Value("${stayops.outbox.gap-grace-ms:10000}") long gapGraceMs,
+                            @Value("${stayops.outbox.gap-timeout-ms:900000}") long gapTimeoutMs,
+                            @Value("${stayops.outbox.retry-backoff-ms:5000}") long retryBackoffMs,
+                            @Value("${stayops.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                            @Value("${stayops.outbox.max-in-flight:2000}") int maxInFlight,
+                            @Value("${stayops.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.offsetRepository = offsetRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.jobMonitor = jobMonitor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.laneCount = Math.max(1, laneCount);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.pollIntervalMs = Math.max(50, pollIntervalMs);
+        this.gapGraceMs = Math.max(0, gapGraceMs);
+        this.gapTimeoutMs = Math.max(this.gapGraceMs, gapTimeoutMs);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+        this.maxBackoffMs = Math.max(this.retryBackoffMs, maxBackoffMs);
+        this.maxInFlight = Math.max(this.batchSize, maxInFlight);
+        this.retentionDays = Math.max(1, retentionDays);
+
+        this.lanes = new ExecutorService[this.laneCount];
+        for (int i = 0; i < this.laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("outbox-" + i + "-"));
+        }
+
+        for (OutboxConsumer consumer : outboxConsumers) {
+            consumers.put(consumer.getName(), new ConsumerState(consumer));
+        }
+        this.gapsAbandonedCounter = Counter.builder("stayops.outbox.gaps.abandoned")
+                .description("Skipped outbox ids that never appeared within gap-timeout-ms")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called by EventPublisher after an insert: wake the dispatcher once the insert is visible
+     */
+    public void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp.release();
+                }
+            });
+        } else {
+            wakeUp.release();
+        }
+    }
+
+    /**
+     * Deliver a consumer's events again starting at fromEventId (inclusive)
+     */
+    public Map<String, Object> replay(String consumerName, long fromEventId) {
+        if (!consumers.containsKey(consumerName)) {
+            throw new IllegalArgumentException("Unknown outbox consumer: " + consumerName
+                    + " (known: " + consumers.keySet() + ")");
+        }
+
+        // Applied by the dispatcher thread at the start of its next drain
+        pendingReplays.put(consumerName, Math.max(0, fromEventId - 1));
+        wakeUp.release();
+
+        Long oldestRetained = outboxRepository.findMinId();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "scheduled");
+        result.put("consumer", consumerName);
+        result.put("fromEventId", fromEventId);
+        result.put("oldestRetainedEventId", oldestRetained);
+        if (oldestRetained != null && oldestRetained > fromEventId) {
+            result.put("warning", "Events before " + oldestRetained + " were purged and cannot be replayed");
+        }
+        log.info("Outbox replay scheduled for consumer {} from event {}", consumerName, fromEventId);
+        return result;
+    }
+
+    public Map<String, Object> getOutboxStats() {
+        long maxEventId = outboxRepository.findMaxId();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxEventId", maxEventId);
+        stats.put("oldestRetainedEventId", outboxRepository.findMinId());
+        stats.put("workers", laneCount);
+        stats.put("batchSize", batchSize);
+        stats.put("lastDrainedAt", lastDrainedAt.get() > 0 ? Instant.ofEpochMilli(lastDrainedAt.get()) : null);
+
+        List<Map<String, Object>> consumerStats = new ArrayList<>();
+        for (ConsumerState state : consumers.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("consumer", state.consumer.getName());
+            entry.put("offset", state.offset);
+            entry.put("lag", Math.max(0, maxEventId - state.offset));
+            entry.put("readCursor", state.readCursor);
+            entry.put("inFlight", state.inFlight.size());
+            entry.put("retrying", state.attempts.size());
+            entry.put("openGaps", state.gaps.size());
+            entry.put("deadLetters", deadLetterRepository.countByConsumer(state.consumer.getName()));
+            consumerStats.add(entry);
+        }
+        stats.put("consumers", consumerStats);
+        return stats;
+    }
+
+    public List<OutboxDeadLetter> getDeadLetters(String consumerName, int limit) {
+        return deadLetterRepository.findByConsumerOrderByIdDesc(consumerName, PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    // ========== DISPATCHER ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Domain event outbox dispatch is disabled; events are recorded but not delivered");
+            return;
+        }
+
+        for (ConsumerState state : consumers.values()) {
+            state.offset = offsetRepository.findById(state.consumer.getName())
+                    .map(OutboxConsumerOffset::getLastEventId)
+                    .orElse(0L);
+            state.readCursor = state.offset;
+            restoreGaps(state);
+        }
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Outbox dispatcher started with {} workers for consumers {}", laneCount, consumers.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp.release();
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                int advanced = drainOnce();
+                if (advanced < batchSize) {
+                    // Caught up (or waiting on a retry): sleep until an event commits or the poll interval passes
+                    wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox dispatcher error: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * One batch for every consumer; returns the largest number of new events any consumer read
+     */
+    int drainOnce() throws InterruptedException {
+        int advanced = 0;
+        for (ConsumerState state : consumers.values()) {
+            advanced = Math.max(advanced, drainConsumer(state));
+        }
+        lastDrainedAt.set(System.currentTimeMillis());
+        return advanced;
+    }
+
+    private int drainConsumer(ConsumerState state) throws InterruptedException {
+        Long replayOffset = pendingReplays.remove(state.consumer.getName());
+        if (replayOffset != null) {
+            state.offset = replayOffset;
+            state.readCursor = replayOffset;
+            state.attempts.clear();
+            state.nextAttemptAt.clear();
+            state.inFlight.clear();
+            state.gaps.clear();
+            saveOffset(state);
+        }
+
+        deliverLateEvents(state);
+
+        // Read on from the cursor, not the offset, so events queued behind a retry keep flowing;
+        // max-in-flight bounds how far reading runs ahead of the committed offset
+        List<OutboxEvent> fresh = List.of();
+        int room = maxInFlight - state.inFlight.size();
+        if (room > 0) {
+            List<OutboxEvent> batch = outboxRepository.findByIdGreaterThanOrderByIdAsc(
+                    state.readCursor, PageRequest.of(0, Math.min(batchSize, room)));
+            fresh = untilUnsettledGap(state, batch);
+        }
+        if (fresh.isEmpty() && state.inFlight.isEmpty()) {
+            return 0;
+        }
+
+        // Unhandled events first, so they stay ahead of newer events for the same aggregate
+        List<OutboxEvent> events = new ArrayList<>(state.inFlight.values());
+        events.addAll(fresh);
+        for (OutboxEvent event : fresh) {
+            state.inFlight.put(event.getId(), event);
+        }
+        if (!fresh.isEmpty()) {
+            state.readCursor = fresh.get(fresh.size() - 1).getId();
+        }
+
+        deliver(state, events).forEach(state.inFlight::remove);
+
+        // The offset stays just below the oldest event that has not been handled yet
+        long newOffset = state.inFlight.isEmpty() ? state.readCursor : state.inFlight.firstKey() - 1;
+        if (newOffset != state.offset) {
+            state.offset = newOffset;
+            saveOffset(state);
+        }
+        return fresh.size();
+    }
+
+    /**
+     * Run events through their lanes; returns the ids that were handled (delivered or dead-lettered)
+     */
+    private Set<Long> deliver(ConsumerState state, List<OutboxEvent> events) throws InterruptedException {
+        // Group by lane, keeping outbox order inside each lane
+        Map<Integer, List<OutboxEvent>> byLane = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byLane.computeIfAbsent(laneIndex(event), i -> new ArrayList<>()).add(event);
+        }
+
+        Set<Long> handled = ConcurrentHashMap.newKeySet();
+        List<Future<?>> work = new ArrayList<>(byLane.size());
+        byLane.forEach((lane, laneEvents) -> work.add(lanes[lane].submit(() -> deliverInOrder(state, laneEvents, handled))));
+        for (Future<?> future : work) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Outbox lane failed for consumer {}: {}",
+                        state.consumer.getName(), e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * Cut the batch at the first hole in the id sequence whose following event is younger than the
+     * grace period; the missing id may belong to a transaction that has not committed yet. Holes
+     * passed over after the grace period are remembered as gaps if they could still commit
+     */
+    private List<OutboxEvent> untilUnsettledGap(ConsumerState state, List<OutboxEvent> batch) {
+        Instant now = Instant.now();
+        Instant graceCutoff = now.minusMillis(gapGraceMs);
+        Instant timeoutCutoff = now.minusMillis(gapTimeoutMs);
+        long expected = state.readCursor + 1;
+        List<OutboxEvent> ready = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            if (event.getId() != expected && event.getCreatedAt() != null) {
+                if (event.getCreatedAt().isAfter(graceCutoff)) {
+                    break;
+                }
+                if (event.getCreatedAt().isAfter(timeoutCutoff)) {
+                    trackGap(state, expected, event.getId(), now.toEpochMilli());
+                }
+            }
+            ready.add(event);
+            expected = event.getId() + 1;
+        }
+        return ready;
+    }
+
+    private void trackGap(ConsumerState state, long fromId, long toIdExclusive, long seenAt) {
+        if (toIdExclusive - fromId > MAX_TRACKED_GAP) {
+            log.warn("Outbox consumer {} skipped {} missing ids ({}..{}); too many to track, not re-polled",
+                    state.consumer.getName(), toIdExclusive - fromId, fromId, toIdExclusive - 1);
+            return;
+        }
+        for (long id = fromId; id < toIdExclusive; id++) {
+            state.gaps.putIfAbsent(id, seenAt);
+        }
+    }
+
+    /**
+     * Re-poll skipped ids: deliver the ones whose transaction has since committed and drop the
+     * ones that have stayed missing for gap-timeout-ms
+     */
+    private void deliverLateEvents(ConsumerState state) throws InterruptedException {
+        if (state.gaps.isEmpty()) {
+            return;
+        }
+        long timeoutCutoff = System.currentTimeMillis() - gapTimeoutMs;
+
+        List<OutboxEvent> late = new ArrayList<>(outboxRepository.findAllById(state.gaps.keySet()));
+        late.sort(Comparator.comparing(OutboxEvent::getId));
+        if (!late.isEmpty()) {
+            log.info("Outbox consumer {} delivering {} events that committed after later ids",
+                    state.consumer.getName(), late.size());
+            deliver(state, late).forEach(state.gaps::remove);
+        }
+
+        Set<Long> found = new HashSet<>();
+        late.forEach(event -> found.add(event.getId()));
+        state.gaps.entrySet().removeIf(gap -> {
+            if (found.contains(gap.getKey()) || gap.getValue() > timeoutCutoff) {
+                return false;
+            }
+            gapsAbandonedCounter.increment();
+            log.warn("Outbox id {} never appeared for consumer {}; treating it as rolled back",
+                    gap.getKey(), state.consumer.getName());
+            return true;
+        });
+    }
+
+    /**
+     * Holes within gap-timeout-ms below the stored offset, so a restart does not forget skipped ids
+     */
+    private void restoreGaps(ConsumerState state) {
+        List<Long> ids = outboxRepository.findIdsUpToCreatedSince(state.offset,
+                Instant.now().minusMillis(gapTimeoutMs));
+        long seenAt = System.currentTimeMillis();
+        for (int i = 1; i < ids.size(); i++) {
+            if (ids.get(i) > ids.get(i - 1) + 1) {
+                trackGap(state, ids.get(i - 1) + 1, ids.get(i), seenAt);
+            }
+        }
+        if (!state.gaps.isEmpty()) {
+            log.info("Outbox consumer {} re-polling {} skipped ids", state.consumer.getName(), state.gaps.size());
+        }
+    }
+
+    private void deliverInOrder(ConsumerState state, List<OutboxEvent> events, Set<Long> handled) {
+        Set<String> blockedAggregates = new HashSet<>();
+        for (OutboxEvent event : events) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregate)) {
+                continue; // an earlier event for this aggregate has not been handled yet
+            }
+            Long nextAttemptAt = state.nextAttemptAt.get(event.getId());
+            if (nextAttemptAt != null && nextAttemptAt > System.currentTimeMillis()) {
+                blockedAggregates.add(aggregate); // backing off; later events for the aggregate wait too
+                continue;
+            }
+            try {
+                state.consumer.handle(event, deserialize(event));
+                state.attempts.remove(event.getId());
+                state.nextAttemptAt.remove(event.getId());
+                handled.add(event.getId());
+                state.deliveredCounter.increment();
+            } catch (Exception e) {
+                int attempts = state.attempts.merge(event.getId(), 1, Integer::sum);
+                log.warn("Outbox event {} ({}) failed for consumer {} (attempt {}/{}): {}",
+                        event.getId(), event.getEventType(), state.consumer.getName(), attempts, maxAttempts, e.getMessage());
+                if (attempts >= maxAttempts) {
+                    deadLetter(state, event, attempts, e.getMessage());
+                    state.consumer.onDeadLettered(event);
+                    state.attempts.remove(event.getId());
+                    state.nextAttemptAt.remove(event.getId());
+                    handled.add(event.getId());
+                } else {
+                    state.retriedCounter.increment();
+                    state.nextAttemptAt.put(event.getId(), System.currentTimeMillis() + backoffMs(attempts));
+                    blockedAggregates.add(aggregate);
+                }
+            }
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        return Math.min(maxBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+    }
+
+    private Object deserialize(OutboxEvent event) throws Exception {
+        Class<?> type = EVENT_TYPES.get(event.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+        }
+        return objectMapper.readValue(event.getPayload(), type);
+    }
+
+    private void deadLetter(ConsumerState state, OutboxEvent event, int attempts, String error) {
+        state.deadLetteredCounter.increment();
+        log.error("Outbox event {} ({}) dead-lettered for consumer {} after {} attempts",
+                event.getId(), event.getEventType(), state.consumer.getName(), attempts);
+        deadLetterRepository.save(OutboxDeadLetter.builder()
+                .consumer(state.consumer.getName())
+                .eventId(event.getId())
+                .eventType(event.getEventType())
+                .aggregateId(event.getAggregateId())
+                .attempts(attempts)
+                .errorMessage(error != null && error.length() > 1000 ? error.substring(0, 1000) : error)
+                .build());
+    }
+
+    private void saveOffset(ConsumerState state) {
+        offsetRepository.save(OutboxConsumerOffset.builder()
+                .consumer(state.consumer.getName())
+                .lastEventId(state.offset)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    private int laneIndex(OutboxEvent event) {
+        return Math.floorMod(Objects.hash(event.getAggregateType(), event.getAggregateId()), laneCount);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== RETENTION ==========
+
+    /**
+     * Drop events every consumer has moved past once they are older than retention-days
+     */
+    @Scheduled(cron = "${stayops.outbox.cleanup-cron:0 45 3 * * *}")
+    public void purgeDeliveredEvents() {
+        if (!enabled || consumers.isEmpty()) {
+            return;
+        }
+        long minOffset = consumers.values().stream().mapToLong(state -> state.offset).min().orElse(0L);
+        int deleted = outboxRepository.deleteDeliveredBefore(minOffset,
+                Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+        jobMonitor.recordProcessed(deleted);
+        log.info("Purged {} delivered outbox events (up to id {}, older than {} days)", deleted, minOffset, retentionDays);
+    }
+
+    private final class ConsumerState {
+        private final OutboxConsumer consumer;
+        private volatile long offset;
+        // Highest id read so far; ahead of offset while events are in flight
+        private volatile long readCursor;
+        private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+        // Failed event id -> earliest next attempt (epoch millis)
+        private final Map<Long, Long> nextAttemptAt = new ConcurrentHashMap<>();
+        // Skipped id -> when it was first skipped (epoch millis)
+        private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+        // Read but not yet handled (failed and waiting, or blocked behind a failure of their aggregate)
+        private final ConcurrentSkipListMap<Long, OutboxEvent> inFlight = new ConcurrentSkipListMap<>();
+        private final Counter deliveredCounter;
+        private final Counter retriedCounter;
+        private final Counter deadLetteredCounter;
+
+        private ConsumerState(OutboxConsumer consumer) {
+            this.consumer = consumer;
+            this.deliveredCounter = Counter.builder("stayops.outbox.delivered")
+                    .tag("consumer", consumer.getName()).register(meterRegistry);
+            this.retriedCounter = Counter.builder("stayops.outbox.retried")
+                    .tag("consumer", consumer.getName()).register(meterRegistry);
+            this.deadLetteredCounter = Counter.builder("stayops.outbox.dead.lettered")
+                    .tag("consumer", consumer.getName()).register(meterRegistry);
+            Gauge.builder("stayops.outbox.offset", this, state -> state.offset)
+                    .tag("consumer", consumer.getName())
+                    .description("Last outbox event id the consumer has moved past")
+                    .register(meterRegistry);
+        }
+    }
+}
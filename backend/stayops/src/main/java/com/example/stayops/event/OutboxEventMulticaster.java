@@ -0,0 +1,54 @@
+package com.example.stayops.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The context's event multicaster, unchanged for ordinary publishEvent calls, that also lets
+ * ApplicationListenerRelay call the listeners of an outbox event one at a time, so one failing
+ * listener neither hides the event from the others nor makes them see it twice on retry
+ */
+@Component(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+public class OutboxEventMulticaster extends SimpleApplicationEventMulticaster {
+
+    /**
+     * Invoke every listener for the event except those in alreadyHandled; ids of listeners that
+     * succeed are added to alreadyHandled and the failures are returned
+     */
+    public List<Exception> multicastIsolated(Object payload, Set<String> alreadyHandled) {
+        ApplicationEvent event = new PayloadApplicationEvent<>(this, payload);
+        ResolvableType type = ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, payload.getClass());
+
+        List<Exception> failures = new ArrayList<>();
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            String listenerId = listenerId(listener);
+            if (alreadyHandled.contains(listenerId)) {
+                continue;
+            }
+            try {
+                invokeListener(listener, event);
+                alreadyHandled.add(listenerId);
+            } catch (Exception e) {
+                failures.add(new IllegalStateException(listenerId + ": " + e.getMessage(), e));
+            }
+        }
+        return failures;
+    }
+
+    private static String listenerId(ApplicationListener<?> listener) {
+        if (listener instanceof SmartApplicationListener smart && !smart.getListenerId().isEmpty()) {
+            return smart.getListenerId();
+        }
+        return listener.getClass().getName() + "@" + System.identityHashCode(listener);
+    }
+}
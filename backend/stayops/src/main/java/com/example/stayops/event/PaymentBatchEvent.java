@@ -0,0 +1,45 @@
+package com.example.stayops.event;
+
+import com.example.stayops.enums.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One status transition applied to many payments at once (e.g. pending payments timing out),
+ * published in place of one PaymentEvent per payment
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchEvent {
+    private PaymentStatus status;
+    private String eventType; // FAILED
+    private Instant eventTime;
+
+    @Builder.Default
+    private List<Change> changes = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private Long paymentId;
+        private Long reservationId;
+        private BigDecimal amount;
+    }
+
+    @JsonIgnore
+    public List<Long> getPaymentIds() {
+        return changes.stream().map(Change::getPaymentId).toList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.stayops.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A verified webhook was stored in payment_webhook_inbox and is waiting to be applied
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookReceivedEvent {
+    private Long inboxId;
+    private String providerEventId;
+    private String providerTransactionId;
+    private Instant eventTime;
+}
@@ -0,0 +1,46 @@
+package com.example.stayops.event;
+
+import com.example.stayops.enums.ReservationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One status transition applied to many reservations at once (no-shows, stale cancellations,
+ * overdue checkouts). Published by BulkStatusTransitionService in place of one ReservationEvent
+ * per reservation; listeners load whatever else they need for all ids in one query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchEvent {
+    private String eventType; // NO_SHOW, STALE_CANCELLED, AUTO_CHECKED_OUT
+    private ReservationStatus newStatus;
+    private String triggeredBy;
+    private Instant eventTime;
+
+    @Builder.Default
+    private List<Change> changes = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private Long reservationId;
+        private String guestId;
+        private ReservationStatus previousStatus;
+    }
+
+    @JsonIgnore
+    public List<Long> getReservationIds() {
+        return changes.stream().map(Change::getReservationId).toList();
+    }
+}
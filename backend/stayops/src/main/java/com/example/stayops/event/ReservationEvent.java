@@ -20,4 +20,7 @@ public class ReservationEvent {
     private String eventType; // CREATED, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED
     private Instant eventTime;
     private String triggeredBy;
+
+    // Reservation state at publish time; null on events recorded before snapshots were added
+    private ReservationSnapshot snapshot;
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.example.stayops.event;
+
+import com.example.stayops.entity.Guest;
+import com.example.stayops.entity.Reservation;
+import com.example.stayops.entity.ReservationDetails;
+import com.example.stayops.entity.Room;
+import com.example.stayops.enums.ReservationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable view of a reservation as it stood when an event was published
+ *
+ * Carried on ReservationEvent (and stored with it in the outbox) so listeners can create tasks and
+ * notifications without reloading the reservation and walking its guest and rooms. snapshotVersion
+ * is the shape of this class; listeners fall back to ReservationSnapshotLoader for older or
+ * missing snapshots.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReservationSnapshot {
+
+    public static final int CURRENT_VERSION = 1;
+
+    int snapshotVersion;
+    Long reservationId;
+    ReservationStatus status;
+    LocalDate checkInDate;
+    LocalDate checkOutDate;
+    String guestId;
+    String guestName;
+    String guestEmail;
+    List<RoomRef> rooms;
+    Integer adults;
+    Integer kids;
+    Instant capturedAt;
+
+    @Value
+    @Builder
+    @Jacksonized
+    public static class RoomRef {
+        Long roomId;
+        String roomNumber;
+    }
+
+    public boolean hasRooms() {
+        return rooms != null && !rooms.isEmpty();
+    }
+
+    @JsonIgnore
+    public boolean isCurrent() {
+        return snapshotVersion >= CURRENT_VERSION;
+    }
+
+    /**
+     * Reads the guest, rooms and details, so call it inside the publishing transaction
+     */
+    public static ReservationSnapshot of(Reservation reservation) {
+        Guest guest = reservation.getGuest();
+        ReservationDetails details = reservation.getReservationDetails();
+        List<RoomRef> rooms = reservation.getRooms() == null ? List.of() : reservation.getRooms().stream()
+                .sorted(Comparator.comparing(Room::getId))
+                .map(room -> RoomRef.builder().roomId(room.getId()).roomNumber(room.getRoomNumber()).build())
+                .toList();
+
+        return ReservationSnapshot.builder()
+                .snapshotVersion(CURRENT_VERSION)
+                .reservationId(reservation.getReservationId())
+                .status(reservation.getStatus())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .guestId(guest != null ? guest.getGuestId() : null)
+                .guestName(guest != null ? guest.getFirstName() + " " + guest.getLastName() : null)
+                .guestEmail(guest != null ? guest.getEmail() : null)
+                .rooms(rooms)
+                .adults(details != null ? details.getAdults() : null)
+                .kids(details != null ? details.getKids() : null)
+                .capturedAt(Instant.now())
+                .build();
+    }
+}
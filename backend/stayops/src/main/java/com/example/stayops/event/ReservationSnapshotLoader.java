@@ -0,0 +1,48 @@
+package com.example.stayops.event;
+
+import com.example.stayops.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The snapshot a listener should work from: the one carried by the event when it is present and
+ * of the current version, otherwise a single fetch of the reservation with its guest, rooms and
+ * details (events recorded before snapshots existed, or replayed from an older outbox)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSnapshotLoader {
+
+    private final ReservationRepository reservationRepository;
+
+    public Optional<ReservationSnapshot> resolve(ReservationEvent event) {
+        ReservationSnapshot snapshot = event.getSnapshot();
+        if (snapshot != null && snapshot.isCurrent()) {
+            return Optional.of(snapshot);
+        }
+
+        log.debug("Event for reservation {} has no current snapshot; loading it", event.getReservationId());
+        return reservationRepository.findWithGuestRoomsAndDetailsById(event.getReservationId())
+                .map(ReservationSnapshot::of);
+    }
+
+    /**
+     * Snapshots for every reservation of a batch event, in one fetch; missing ids are left out
+     */
+    public Map<Long, ReservationSnapshot> resolveAll(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ReservationSnapshot> snapshots = new HashMap<>();
+        reservationRepository.findWithGuestRoomsAndDetailsByIdIn(reservationIds)
+                .forEach(reservation -> snapshots.put(reservation.getReservationId(), ReservationSnapshot.of(reservation)));
+        return snapshots;
+    }
+}
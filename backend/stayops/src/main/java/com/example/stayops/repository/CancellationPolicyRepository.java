@@ -1,7 +1,10 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +12,7 @@ import java.util.Optional;
 
 @Repository
 public interface CancellationPolicyRepository extends JpaRepository<CancellationPolicy, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<CancellationPolicy> findByPolicyCode(String policyCode);
     List<CancellationPolicy> findByHotelIdAndIsActive(Long hotelId, Boolean isActive);
 }
\ No newline at end of file
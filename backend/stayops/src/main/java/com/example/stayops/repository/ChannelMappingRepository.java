@@ -2,8 +2,11 @@ package com.example.stayops.repository;
 
 import com.example.stayops.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,10 @@ public interface ChannelMappingRepository extends JpaRepository<ChannelMapping,
     Optional<ChannelMapping> findByExternalBookingId(String externalBookingId);
     Optional<ChannelMapping> findByReservationReservationId(Long reservationId);
     List<ChannelMapping> findByChannelCode(String channelCode);
+
+    @Query("SELECT c.externalBookingId FROM ChannelMapping c WHERE c.externalBookingId IN :ids")
+    List<String> findExistingExternalBookingIds(@Param("ids") Collection<String> externalBookingIds);
+
+    @Query("SELECT c.externalBookingId FROM ChannelMapping c")
+    List<String> findAllExternalBookingIds();
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.CommunityMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,4 +26,39 @@ public interface CommunityMessageRepository extends JpaRepository<CommunityMessa
     List<CommunityMessage> findMainMessages();
 
     List<CommunityMessage> findBySenderIdOrderByCreatedAtDesc(Long senderId);
-}
\ No newline at end of file
+
+    /**
+     * Reply counts for the given messages in one grouped query: [parentMessageId, count]
+     * Messages without replies have no row
+     */
+    @Query("SELECT m.parentMessageId, COUNT(m) FROM CommunityMessage m " +
+            "WHERE m.parentMessageId IN :ids GROUP BY m.parentMessageId")
+    List<Object[]> countRepliesByParentIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Attachment URLs of the given messages in one query: [messageId, attachmentUrl]
+     */
+    @Query("SELECT m.id, a FROM CommunityMessage m JOIN m.attachments a WHERE m.id IN :ids")
+    List<Object[]> findAttachmentsByMessageIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * A message and its direct replies, oldest first (the root is the earliest)
+     */
+    @Query("SELECT m FROM CommunityMessage m WHERE m.id = :rootId OR m.parentMessageId = :rootId " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    List<CommunityMessage> findThread(@Param("rootId") Long rootId);
+
+    /**
+     * Active root messages, newest first, after the (afterCreatedAt, afterId) keyset position;
+     * a null position starts from the top and a null announcement flag returns both kinds
+     */
+    @Query("SELECT m FROM CommunityMessage m WHERE m.parentMessageId IS NULL AND m.isActive = true " +
+            "AND (:announcement IS NULL OR m.isAnnouncement = :announcement) " +
+            "AND (:afterCreatedAt IS NULL OR m.createdAt < :afterCreatedAt " +
+            "OR (m.createdAt = :afterCreatedAt AND m.id < :afterId)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<CommunityMessage> findFeedPage(@Param("announcement") Boolean announcement,
+                                        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.DailyOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyOccupancyRepository extends JpaRepository<DailyOccupancy, Long> {
+
+    Optional<DailyOccupancy> findByOccupancyDate(LocalDate occupancyDate);
+
+    List<DailyOccupancy> findByOccupancyDateBetweenOrderByOccupancyDateAsc(LocalDate start, LocalDate end);
+}
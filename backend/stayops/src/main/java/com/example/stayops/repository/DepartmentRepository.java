@@ -20,4 +20,13 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     // Fetch all departments with staff eagerly
     @Query("SELECT DISTINCT d FROM Department d LEFT JOIN FETCH d.staff")
     List<Department> findAllWithStaff();
+
+    /**
+     * Staff headcount per department, without loading the staff collections:
+     * [departmentId, totalStaff, activeStaff]
+     */
+    @Query("SELECT d.id, COUNT(s), " +
+            "COALESCE(SUM(CASE WHEN s.status = com.example.stayops.enums.StaffStatus.ACTIVE THEN 1 ELSE 0 END), 0) " +
+            "FROM Department d LEFT JOIN d.staff s GROUP BY d.id")
+    List<Object[]> findStaffCounts();
 }
\ No newline at end of file
@@ -29,4 +29,21 @@ public interface HousekeepingTaskRepository extends JpaRepository<HousekeepingTa
     @Query("SELECT h FROM HousekeepingTask h WHERE h.status IN ('PENDING', 'IN_PROGRESS') " +
             "AND h.priority = 'URGENT' ORDER BY h.scheduledDate ASC")
     List<HousekeepingTask> findUrgentTasks();
-}
\ No newline at end of file
+
+    /**
+     * Open tasks per room due on or before the date: [roomId, taskType]
+     */
+    @Query("SELECT h.room.id, h.taskType FROM HousekeepingTask h WHERE h.status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND h.room IS NOT NULL AND h.scheduledDate <= :date")
+    List<Object[]> findOpenTaskTypesByRoom(@Param("date") LocalDate date);
+
+    /**
+     * Housekeeping throughput per department of the assigned staff member, for tasks scheduled
+     * in the date range: [departmentId, completed, scheduled]
+     */
+    @Query("SELECT st.department.id, SUM(CASE WHEN h.status = 'COMPLETED' THEN 1 ELSE 0 END), COUNT(h) " +
+            "FROM HousekeepingTask h JOIN Staff st ON st.staffId = h.assignedTo " +
+            "WHERE h.status <> 'CANCELLED' AND h.scheduledDate BETWEEN :from AND :to " +
+            "GROUP BY st.department.id")
+    List<Object[]> findDepartmentThroughput(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
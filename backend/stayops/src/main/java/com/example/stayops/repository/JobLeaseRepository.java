@@ -0,0 +1,33 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take the lease for a tick nobody has claimed yet, provided the previous holder is done or expired
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lockedBy = :owner, l.lockedAt = :now, l.lockedUntil = :until, l.lastTick = :tick " +
+            "WHERE l.lockName = :name AND l.lockedUntil <= :now AND (l.lastTick IS NULL OR l.lastTick < :tick)")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("tick") Instant tick,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_job_leases (lock_name, locked_by, locked_at, locked_until, last_tick) " +
+            "VALUES (:name, :owner, :now, :until, :tick)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("tick") Instant tick,
+               @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lockedUntil = :until WHERE l.lockName = :name AND l.lockedBy = :owner")
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+}
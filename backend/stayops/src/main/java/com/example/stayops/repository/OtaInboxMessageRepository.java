@@ -0,0 +1,25 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.OtaInboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OtaInboxMessageRepository extends JpaRepository<OtaInboxMessage, Long> {
+
+    /**
+     * Oldest first, so bookings are applied in the order the channel sent them
+     */
+    List<OtaInboxMessage> findByStatusOrderByIdAsc(String status, Pageable pageable);
+
+    List<OtaInboxMessage> findByExternalBookingId(String externalBookingId);
+
+    long countByStatus(String status);
+
+    @Query("SELECT m.status, COUNT(m) FROM OtaInboxMessage m GROUP BY m.status")
+    List<Object[]> countGroupedByStatus();
+}
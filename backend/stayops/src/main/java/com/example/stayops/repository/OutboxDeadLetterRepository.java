@@ -0,0 +1,16 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.OutboxDeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+
+    long countByConsumer(String consumer);
+
+    List<OutboxDeadLetter> findByConsumerOrderByIdDesc(String consumer, Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The next batch after a consumer's offset, in commit-id order
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long lastEventId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    Long findMaxId();
+
+    @Query("SELECT MIN(e.id) FROM OutboxEvent e")
+    Long findMinId();
+
+    /**
+     * Recent ids at or below an offset, for finding holes a consumer skipped before a restart
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id <= :maxId AND e.createdAt >= :since ORDER BY e.id")
+    List<Long> findIdsUpToCreatedSince(@Param("maxId") Long maxId, @Param("since") Instant since);
+
+    /**
+     * Retention: only events every consumer has already moved past
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :maxId AND e.createdAt < :cutoff")
+    int deleteDeliveredBefore(@Param("maxId") Long maxId, @Param("cutoff") Instant cutoff);
+}
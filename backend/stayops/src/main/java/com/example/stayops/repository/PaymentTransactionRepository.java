@@ -1,13 +1,17 @@
 package com.example.stayops.repository;
 
+import com.example.stayops.dto.PaymentTransitionRow;
 import com.example.stayops.entity.PaymentTransaction;
 import com.example.stayops.enums.PaymentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,11 +28,29 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
 
     List<PaymentTransaction> findByStatus(PaymentStatus status);
 
-    // Find pending payments older than threshold (for timeout handling)
-    @Query("SELECT p FROM PaymentTransaction p " +
-            "WHERE p.status = 'PENDING' " +
-            "AND p.createdAt < :threshold")
-    List<PaymentTransaction> findPendingPaymentsOlderThan(@Param("threshold") Instant threshold);
+    // Pending payments older than threshold as rows (for timeout handling through BulkStatusTransitionService)
+    @Query("SELECT new com.example.stayops.dto.PaymentTransitionRow(p.id, r.reservationId, p.amount) " +
+            "FROM PaymentTransaction p LEFT JOIN p.reservation r " +
+            "WHERE p.status = :status AND p.createdAt < :threshold ORDER BY p.id")
+    List<PaymentTransitionRow> findTransitionRowsByStatusAndCreatedAtBefore(@Param("status") PaymentStatus status,
+                                                                           @Param("threshold") Instant threshold);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PaymentTransaction p SET p.status = :toStatus, p.failureReason = :failureReason, p.updatedAt = :now " +
+            "WHERE p.id IN :ids AND p.status = :fromStatus")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+                         @Param("fromStatus") PaymentStatus fromStatus,
+                         @Param("toStatus") PaymentStatus toStatus,
+                         @Param("failureReason") String failureReason,
+                         @Param("now") Instant now);
+
+    @Query("SELECT p.id FROM PaymentTransaction p WHERE p.id IN :ids AND p.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") PaymentStatus status);
+
+    // Payments with what fraud checks read (reservation, guest) for a batch of payment events
+    @EntityGraph(attributePaths = {"reservation", "reservation.guest"})
+    @Query("SELECT p FROM PaymentTransaction p WHERE p.id IN :ids")
+    List<PaymentTransaction> findWithReservationAndGuestByIdIn(@Param("ids") Collection<Long> ids);
 
     // Find refunds for a specific transaction
     List<PaymentTransaction> findByRefundOfTransaction_Id(Long transactionId);
@@ -39,4 +61,10 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
             "AND p.status IN ('AUTHORIZED', 'CAPTURED') " +
             "AND (p.isRefund IS NULL OR p.isRefund = false)")
     List<PaymentTransaction> findSuccessfulPaymentsForReservation(@Param("reservationId") Long reservationId);
-}
\ No newline at end of file
+
+    // Payment signals for warming the fraud velocity counters: createdAt, email, cardToken, status, firstName, lastName, id
+    @Query("SELECT p.createdAt, g.email, p.cardToken, p.status, g.firstName, g.lastName, p.id " +
+            "FROM PaymentTransaction p JOIN p.reservation r JOIN r.guest g " +
+            "WHERE p.createdAt >= :since")
+    List<Object[]> findFraudSignalsSince(@Param("since") Instant since);
+}
@@ -0,0 +1,36 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.PaymentWebhookMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentWebhookMessageRepository extends JpaRepository<PaymentWebhookMessage, Long> {
+
+    Optional<PaymentWebhookMessage> findByProviderEventId(String providerEventId);
+
+    boolean existsByProviderEventId(String providerEventId);
+
+    /**
+     * Pending messages that are due, oldest first. A message waiting behind an earlier event for
+     * the same transaction that is still backing off is not due either, so events stay in order.
+     */
+    @Query("SELECT m FROM PaymentWebhookMessage m WHERE m.status = 'PENDING' " +
+            "AND (m.nextAttemptAt IS NULL OR m.nextAttemptAt <= :now) " +
+            "AND NOT EXISTS (SELECT e.id FROM PaymentWebhookMessage e WHERE e.status = 'PENDING' " +
+            "AND e.providerTransactionId = m.providerTransactionId AND e.id < m.id AND e.nextAttemptAt > :now) " +
+            "ORDER BY m.id ASC")
+    List<PaymentWebhookMessage> findDue(@Param("now") Instant now, Pageable pageable);
+
+    long countByStatus(String status);
+
+    @Query("SELECT m.status, COUNT(m) FROM PaymentWebhookMessage m GROUP BY m.status")
+    List<Object[]> countGroupedByStatus();
+}
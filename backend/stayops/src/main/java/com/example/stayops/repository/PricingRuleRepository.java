@@ -1,7 +1,10 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.PricingRule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -10,10 +13,12 @@ import java.util.List;
 @Repository
 public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PricingRule> findByIsActiveTrueOrderByPriorityAsc();
 
     List<PricingRule> findByRuleTypeAndIsActive(String ruleType, Boolean isActive);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM PricingRule p WHERE p.isActive = true ORDER BY p.priority ASC, p.id ASC")
     List<PricingRule> findActiveRulesInOrder();
 }
\ No newline at end of file
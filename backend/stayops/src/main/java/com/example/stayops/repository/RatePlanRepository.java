@@ -1,7 +1,10 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.RatePlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +16,7 @@ import java.util.Optional;
 @Repository
 public interface RatePlanRepository extends JpaRepository<RatePlan, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<RatePlan> findByRatePlanCode(String ratePlanCode);
 
     List<RatePlan> findByHotelIdAndIsActive(Long hotelId, Boolean isActive);
@@ -0,0 +1,51 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.RatingAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, Long> {
+
+    List<RatingAggregate> findByBucketTypeAndBucketKey(String bucketType, String bucketKey);
+
+    List<RatingAggregate> findByBucketTypeOrderByBucketKey(String bucketType);
+
+    // Month keys are yyyy-MM, so a string range is a month range
+    List<RatingAggregate> findByBucketTypeAndBucketKeyBetweenOrderByBucketKey(String bucketType, String fromKey,
+                                                                              String toKey);
+
+    /**
+     * Lock the hotel-wide rows; every rating change updates them first, so holding these keeps
+     * concurrent increments out while the aggregates are rebuilt
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM RatingAggregate a WHERE a.bucketType = 'ALL'")
+    List<RatingAggregate> lockHotelWideRows();
+
+    /**
+     * Add deltas to one bucket/dimension row, creating it on first use; atomic per row, so
+     * concurrent rating changes cannot lose each other's increments
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (bucket_type, bucket_key, dimension, rating_count, rating_sum, " +
+            "stars1, stars2, stars3, stars4, stars5, updated_at) " +
+            "VALUES (:bucketType, :bucketKey, :dimension, :count, :sum, :s1, :s2, :s3, :s4, :s5, :now) " +
+            "ON DUPLICATE KEY UPDATE rating_count = rating_count + VALUES(rating_count), " +
+            "rating_sum = rating_sum + VALUES(rating_sum), " +
+            "stars1 = stars1 + VALUES(stars1), stars2 = stars2 + VALUES(stars2), stars3 = stars3 + VALUES(stars3), " +
+            "stars4 = stars4 + VALUES(stars4), stars5 = stars5 + VALUES(stars5), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int addDeltas(@Param("bucketType") String bucketType, @Param("bucketKey") String bucketKey,
+                  @Param("dimension") String dimension, @Param("count") long count, @Param("sum") long sum,
+                  @Param("s1") long s1, @Param("s2") long s2, @Param("s3") long s3, @Param("s4") long s4,
+                  @Param("s5") long s5, @Param("now") Instant now);
+}
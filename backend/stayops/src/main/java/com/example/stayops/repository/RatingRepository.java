@@ -39,4 +39,9 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     Long getTotalPublishedRatings();
 
     boolean existsByReservationReservationId(Long reservationId);
+
+    // Published ratings with the rooms of their reservation, for rebuilding the rating aggregates
+    @Query("SELECT DISTINCT r FROM Rating r JOIN FETCH r.reservation res LEFT JOIN FETCH res.rooms " +
+            "WHERE r.isPublished = true")
+    List<Rating> findPublishedWithRooms();
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.example.stayops.repository;
 
+import com.example.stayops.dto.ReservationListRow;
+import com.example.stayops.dto.ReservationTransitionRow;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,11 +25,65 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     Optional<Reservation> findByReservationId(Long reservationId);
 
+    /**
+     * One query for everything a ReservationSnapshot reads
+     */
+    @EntityGraph(attributePaths = {"guest", "rooms", "reservationDetails"})
+    @Query("SELECT r FROM Reservation r WHERE r.reservationId = :reservationId")
+    Optional<Reservation> findWithGuestRoomsAndDetailsById(@Param("reservationId") Long reservationId);
+
+    @EntityGraph(attributePaths = {"guest", "rooms", "reservationDetails"})
+    @Query("SELECT r FROM Reservation r WHERE r.reservationId IN :reservationIds")
+    List<Reservation> findWithGuestRoomsAndDetailsByIdIn(@Param("reservationIds") Collection<Long> reservationIds);
+
     /**
      * Find all reservations by status
      */
     List<Reservation> findByStatus(ReservationStatus status);
 
+    // ==================== LIST PROJECTIONS ====================
+    // One row per (reservation, room); see ReservationListRow
+
+    String LIST_ROW_SELECT = "SELECT new com.example.stayops.dto.ReservationListRow("
+            + "r.reservationId, g.guestId, r.checkInDate, r.checkOutDate, r.status, r.createdAt, r.updatedAt, rm.id) "
+            + "FROM Reservation r LEFT JOIN r.guest g LEFT JOIN r.rooms rm ";
+
+    @Query(LIST_ROW_SELECT + "ORDER BY r.reservationId")
+    List<ReservationListRow> findAllListRows();
+
+    @Query(LIST_ROW_SELECT + "WHERE r.checkInDate <= :end AND r.checkOutDate >= :start ORDER BY r.reservationId")
+    List<ReservationListRow> findListRowsOverlapping(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query(LIST_ROW_SELECT + "WHERE r.checkInDate = :date ORDER BY r.reservationId")
+    List<ReservationListRow> findListRowsByCheckInDate(@Param("date") LocalDate date);
+
+    @Query(LIST_ROW_SELECT + "WHERE r.checkOutDate = :date ORDER BY r.reservationId")
+    List<ReservationListRow> findListRowsByCheckOutDate(@Param("date") LocalDate date);
+
+    @Query(LIST_ROW_SELECT + "WHERE g.guestId = :guestId ORDER BY r.checkInDate DESC, r.reservationId")
+    List<ReservationListRow> findListRowsByGuestId(@Param("guestId") String guestId);
+
+    /**
+     * Reservation search; null filters are ignored
+     */
+    @Query(LIST_ROW_SELECT
+            + "WHERE (:guestId IS NULL OR g.guestId = :guestId) "
+            + "AND (:status IS NULL OR r.status = :status) "
+            + "AND (:checkInFrom IS NULL OR r.checkInDate >= :checkInFrom) "
+            + "AND (:checkOutTo IS NULL OR r.checkOutDate <= :checkOutTo) "
+            + "ORDER BY r.reservationId")
+    List<ReservationListRow> searchListRows(@Param("guestId") String guestId,
+                                            @Param("status") ReservationStatus status,
+                                            @Param("checkInFrom") LocalDate checkInFrom,
+                                            @Param("checkOutTo") LocalDate checkOutTo);
+
+    /**
+     * Overlapping reservations with rooms and guest fetched in the same query (room status views)
+     */
+    @EntityGraph(attributePaths = {"rooms", "guest", "reservationDetails"})
+    @Query("SELECT DISTINCT r FROM Reservation r WHERE r.checkInDate <= :end AND r.checkOutDate >= :start")
+    List<Reservation> findOverlappingWithRoomsAndGuest(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
     // ==================== DATE OVERLAP QUERIES ====================
 
     /**
@@ -32,6 +91,8 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      * A reservation overlaps if its checkout is after or on the start date
      * AND its checkin is before or on the end date
      */
+    // Details are the inverse side of a one-to-one and cannot stay lazy; fetch them in the same query
+    @EntityGraph(attributePaths = {"reservationDetails"})
     @Query("SELECT r FROM Reservation r WHERE r.checkInDate <= :end AND r.checkOutDate >= :start")
     List<Reservation> findReservationsOverlapping(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
@@ -71,6 +132,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.checkOutDate = :date")
     List<Reservation> findByCheckOutDate(@Param("date") LocalDate date);
 
+    /**
+     * Every reservation whose stay touches the date: arrivals, departures and stay-overs
+     * Used in: NightlyAuditJob as the night run's shared working set
+     */
+    @EntityGraph(attributePaths = {"guest", "rooms", "reservationDetails"})
+    @Query("SELECT r FROM Reservation r WHERE r.checkInDate <= :date AND r.checkOutDate >= :date")
+    List<Reservation> findStayingOn(@Param("date") LocalDate date);
+
     // ==================== GUEST QUERIES ====================
 
     /**
@@ -91,6 +160,18 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("date") LocalDate date,
             @Param("date") LocalDate dateAgain);
 
+    /**
+     * One partition of the daily charge run: checked-in reservations with id % partitions == partition
+     */
+    @Query("SELECT r FROM Reservation r WHERE r.status = :status " +
+            "AND r.checkInDate <= :date AND r.checkOutDate > :date " +
+            "AND MOD(r.reservationId, :partitions) = :partition")
+    List<Reservation> findInHouseForDateInPartition(
+            @Param("status") ReservationStatus status,
+            @Param("date") LocalDate date,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
+
     /**
      * Find no-show candidates (confirmed reservations past check-in date)
      */
@@ -133,44 +214,18 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             LocalDate endDate
     );
 
-    /**
-     * Find reservations by multiple statuses and check-out date before a specific date
-     * Used in: ReservationAutomationService.autoCheckoutOverdueReservations()
-     *         ReservationAutomationService.archiveOldReservations()
-     */
-    List<Reservation> findByStatusInAndCheckOutDateBefore(
-            List<ReservationStatus> statuses,
-            LocalDate beforeDate
-    );
-
     /**
      * Find reservations by status and specific check-in date
      * Used in: ReservationAutomationService.autoUpdateArrivingGuests()
      *         ReservationAutomationService.sendArrivalReminders()
+     * The automation finders fetch what ReservationSnapshot reads, since every row they return publishes an event
      */
+    @EntityGraph(attributePaths = {"guest", "rooms", "reservationDetails"})
     List<Reservation> findByStatusAndCheckInDate(
             ReservationStatus status,
             LocalDate checkInDate
     );
 
-    /**
-     * Find reservations by status and check-in date before a specific date
-     * Used in: ReservationCleanupJobs.autoMarkNoShows()
-     */
-    List<Reservation> findByStatusAndCheckInDateBefore(
-            ReservationStatus status,
-            LocalDate beforeDate
-    );
-
-    /**
-     * Find reservations by status and creation timestamp before a specific instant
-     * Used in: ReservationCleanupJobs.autoReleaseStaleReservations()
-     */
-    List<Reservation> findByStatusAndCreatedAtBefore(
-            ReservationStatus status,
-            Instant beforeInstant
-    );
-
     /**
      * OPTIONAL: More efficient query with JOIN FETCH to avoid N+1 queries
      * Use this if you need to access guest information in the results
@@ -212,4 +267,102 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByStatusWithoutRooms(
             @Param("status") ReservationStatus status
     );
+
+    /**
+     * Booking timestamps per guest email, used to warm the fraud velocity counters: createdAt, email, reservationId
+     */
+    @Query("SELECT r.createdAt, g.email, r.reservationId FROM Reservation r JOIN r.guest g " +
+            "WHERE r.createdAt >= :since")
+    List<Object[]> findBookingSignalsSince(@Param("since") Instant since);
+
+    /**
+     * One row per reservation/room pair overlapping the range, for the daily_occupancy read model:
+     * reservationId, checkInDate, checkOutDate, status, roomId (nullable), adults, kids
+     */
+    @Query("SELECT r.reservationId, r.checkInDate, r.checkOutDate, r.status, rm.id, d.adults, d.kids " +
+            "FROM Reservation r LEFT JOIN r.rooms rm LEFT JOIN r.reservationDetails d " +
+            "WHERE r.checkInDate <= :end AND r.checkOutDate >= :start")
+    List<Object[]> findOccupancySpans(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Room board stays for a date, one row per room/reservation:
+     * [roomId, reservationId, status, checkInDate, checkOutDate, guestId, firstName, lastName]
+     */
+    @Query("SELECT rm.id, r.reservationId, r.status, r.checkInDate, r.checkOutDate, g.guestId, g.firstName, g.lastName " +
+            "FROM Reservation r JOIN r.rooms rm LEFT JOIN r.guest g " +
+            "WHERE r.checkInDate <= :date AND r.checkOutDate >= :date AND r.status IN :statuses " +
+            "ORDER BY r.reservationId")
+    List<Object[]> findRoomBoardStays(@Param("date") LocalDate date,
+                                      @Param("statuses") Collection<ReservationStatus> statuses);
+
+    /**
+     * Same as findRoomBoardStays, limited to the given rooms
+     */
+    @Query("SELECT rm.id, r.reservationId, r.status, r.checkInDate, r.checkOutDate, g.guestId, g.firstName, g.lastName " +
+            "FROM Reservation r JOIN r.rooms rm LEFT JOIN r.guest g " +
+            "WHERE r.checkInDate <= :date AND r.checkOutDate >= :date AND r.status IN :statuses " +
+            "AND rm.id IN :roomIds ORDER BY r.reservationId")
+    List<Object[]> findRoomBoardStaysForRooms(@Param("date") LocalDate date,
+                                              @Param("statuses") Collection<ReservationStatus> statuses,
+                                              @Param("roomIds") Collection<Long> roomIds);
+
+    @Query("SELECT rm.id FROM Reservation r JOIN r.rooms rm WHERE r.reservationId IN :reservationIds")
+    List<Long> findRoomIdsByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
+
+    /**
+     * Arrivals on a date that have no room yet, with their details (party size) fetched
+     */
+    @Query("SELECT DISTINCT r FROM Reservation r LEFT JOIN FETCH r.reservationDetails " +
+            "WHERE r.checkInDate = :date AND r.status IN :statuses AND r.rooms IS EMPTY " +
+            "ORDER BY r.reservationId")
+    List<Reservation> findUnassignedArrivals(@Param("date") LocalDate date,
+                                             @Param("statuses") Collection<ReservationStatus> statuses);
+
+    // ==================== BULK TRANSITIONS ====================
+    // Candidates are read as ReservationTransitionRow; BulkStatusTransitionService applies the change
+    // with one UPDATE per chunk of ids, bypassing the persistence context and entity callbacks
+
+    String TRANSITION_ROW_SELECT = "SELECT new com.example.stayops.dto.ReservationTransitionRow("
+            + "r.reservationId, g.guestId, r.status, r.checkInDate, r.checkOutDate) "
+            + "FROM Reservation r LEFT JOIN r.guest g ";
+
+    /**
+     * Used in: ReservationCleanupJobs.autoMarkNoShows()
+     */
+    @Query(TRANSITION_ROW_SELECT + "WHERE r.status = :status AND r.checkInDate < :beforeDate ORDER BY r.reservationId")
+    List<ReservationTransitionRow> findTransitionRowsByStatusAndCheckInDateBefore(
+            @Param("status") ReservationStatus status, @Param("beforeDate") LocalDate beforeDate);
+
+    /**
+     * Used in: ReservationCleanupJobs.autoReleaseStaleReservations()
+     */
+    @Query(TRANSITION_ROW_SELECT + "WHERE r.status = :status AND r.createdAt < :before ORDER BY r.reservationId")
+    List<ReservationTransitionRow> findTransitionRowsByStatusAndCreatedAtBefore(
+            @Param("status") ReservationStatus status, @Param("before") Instant before);
+
+    /**
+     * Used in: ReservationAutomationService.autoCheckoutOverdueReservations()
+     */
+    @Query(TRANSITION_ROW_SELECT + "WHERE r.status IN :statuses AND r.checkOutDate < :beforeDate ORDER BY r.reservationId")
+    List<ReservationTransitionRow> findTransitionRowsByStatusInAndCheckOutDateBefore(
+            @Param("statuses") Collection<ReservationStatus> statuses, @Param("beforeDate") LocalDate beforeDate);
+
+    /**
+     * Moves the listed reservations that are still in one of the expected statuses; returns rows changed
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = :toStatus, r.updatedAt = :now " +
+            "WHERE r.reservationId IN :reservationIds AND r.status IN :fromStatuses")
+    int bulkUpdateStatus(@Param("reservationIds") Collection<Long> reservationIds,
+                         @Param("fromStatuses") Collection<ReservationStatus> fromStatuses,
+                         @Param("toStatus") ReservationStatus toStatus,
+                         @Param("now") Instant now);
+
+    @Query("SELECT r.reservationId FROM Reservation r WHERE r.reservationId IN :reservationIds AND r.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("reservationIds") Collection<Long> reservationIds,
+                                      @Param("status") ReservationStatus status);
+
+    @Modifying
+    @Query(value = "DELETE FROM room_reservations WHERE reservation_id IN (:reservationIds)", nativeQuery = true)
+    int deleteRoomLinks(@Param("reservationIds") Collection<Long> reservationIds);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.Room;
+import com.example.stayops.enums.ReservationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +21,22 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     @Query("SELECT r FROM Room r WHERE r.availabilityStatus = 'AVAILABLE' ORDER BY r.floorNumber, r.roomNumber")
     List<Room> findAvailableRoomsOrdered();
-}
\ No newline at end of file
+
+    /**
+     * Every room with the stays that overlap [start, end], one row per room/stay:
+     * [roomId, roomType, checkInDate, checkOutDate]. Rooms without a stay come back
+     * once with null dates, so the caller gets the inventory and the bookings in one query.
+     */
+    @Query("SELECT rm.id, rm.type, r.checkInDate, r.checkOutDate FROM Room rm " +
+            "LEFT JOIN rm.reservations r ON r.checkInDate <= :end AND r.checkOutDate >= :start " +
+            "AND r.status NOT IN :excludedStatuses")
+    List<Object[]> findRoomOccupancySpans(@Param("start") LocalDate start,
+                                          @Param("end") LocalDate end,
+                                          @Param("excludedStatuses") Collection<ReservationStatus> excludedStatuses);
+
+    /**
+     * Room board inventory: [roomId, roomNumber, roomType]
+     */
+    @Query("SELECT rm.id, rm.roomNumber, rm.type FROM Room rm")
+    List<Object[]> findRoomBoardRooms();
+}
@@ -0,0 +1,39 @@
+package com.example.stayops.repository;
+
+import com.example.stayops.entity.ScheduledJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ScheduledJobRunRepository extends JpaRepository<ScheduledJobRun, Long> {
+
+    List<ScheduledJobRun> findTop50ByOrderByStartedAtDesc();
+
+    List<ScheduledJobRun> findTop50ByJobNameOrderByStartedAtDesc(String jobName);
+
+    List<ScheduledJobRun> findTop50ByStatusOrderByStartedAtDesc(String status);
+
+    /**
+     * Per-job totals since a point in time:
+     * [jobName, runs, failures, totalDurationMs, maxDurationMs, rowsProcessed, overlaps]
+     */
+    @Query("SELECT r.jobName, COUNT(r), " +
+            "SUM(CASE WHEN r.status = 'FAILED' THEN 1 ELSE 0 END), " +
+            "SUM(r.durationMs), MAX(r.durationMs), SUM(r.rowsProcessed), " +
+            "SUM(CASE WHEN r.overlapped = true THEN 1 ELSE 0 END) " +
+            "FROM ScheduledJobRun r WHERE r.startedAt >= :since " +
+            "GROUP BY r.jobName ORDER BY SUM(r.durationMs) DESC")
+    List<Object[]> summarizeSince(@Param("since") Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScheduledJobRun r WHERE r.startedAt < :cutoff")
+    int deleteByStartedAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,7 +1,11 @@
 package com.example.stayops.repository;
 
+import com.example.stayops.dto.ServiceRequestListRow;
 import com.example.stayops.entity.ServiceRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,46 +16,176 @@ import java.util.List;
 @Repository
 public interface ServiceRequestRepository extends JpaRepository<ServiceRequest, Long> {
 
+    String LIST_ROW_SELECT = "SELECT new com.example.stayops.dto.ServiceRequestListRow("
+            + "s.id, s.serviceType, s.description, s.status, s.priority, s.requestedBy, s.assignedTo, "
+            + "res.reservationId, rm.id, rm.roomNumber, s.createdAt, s.updatedAt, s.completedAt) "
+            + "FROM ServiceRequest s LEFT JOIN s.room rm LEFT JOIN s.reservation res ";
+
+    String LIST_FILTERS = "WHERE (:status IS NULL OR s.status = :status) "
+            + "AND (:serviceType IS NULL OR s.serviceType = :serviceType) "
+            + "AND (:priority IS NULL OR s.priority = :priority) "
+            + "AND (:roomId IS NULL OR rm.id = :roomId) "
+            + "AND (:reservationId IS NULL OR res.reservationId = :reservationId) "
+            + "AND (:assignedTo IS NULL OR s.assignedTo = :assignedTo) "
+            + "AND (:requestedBy IS NULL OR s.requestedBy = :requestedBy) "
+            + "AND (:createdFrom IS NULL OR s.createdAt >= :createdFrom) "
+            + "AND (:createdTo IS NULL OR s.createdAt < :createdTo) ";
+
+    // List reads map the room number into every DTO; fetch the room with the request instead of one SELECT per row
+    @Override
+    @EntityGraph(attributePaths = {"room"})
+    List<ServiceRequest> findAll();
+
     // Find by status
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByStatus(String status);
 
     // Find by service type
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByServiceType(String serviceType);
 
     // Find by priority
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByPriority(String priority);
 
     // Find by reservation
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByReservationReservationId(Long reservationId);
 
     // Find by room
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByRoomId(Long roomId);
 
     // Find by assigned staff
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByAssignedTo(String assignedTo);
 
     // Find by guest/requestedBy
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByRequestedBy(String guestId);
 
     // Find pending requests
+    @EntityGraph(attributePaths = {"room"})
     @Query("SELECT s FROM ServiceRequest s WHERE s.status = 'PENDING' ORDER BY s.createdAt ASC")
     List<ServiceRequest> findPendingRequests();
 
     // Find urgent requests
+    @EntityGraph(attributePaths = {"room"})
     @Query("SELECT s FROM ServiceRequest s WHERE s.priority = 'URGENT' AND s.status != 'COMPLETED' ORDER BY s.createdAt ASC")
     List<ServiceRequest> findUrgentRequests();
 
     // Find requests by status and priority
+    @EntityGraph(attributePaths = {"room"})
     List<ServiceRequest> findByStatusAndPriority(String status, String priority);
 
     // Find requests created within date range
+    @EntityGraph(attributePaths = {"room"})
     @Query("SELECT s FROM ServiceRequest s WHERE s.createdAt BETWEEN :startDate AND :endDate")
     List<ServiceRequest> findByDateRange(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
     // Find incomplete requests (not completed or cancelled)
+    @EntityGraph(attributePaths = {"room"})
     @Query("SELECT s FROM ServiceRequest s WHERE s.status NOT IN ('COMPLETED', 'CANCELLED')")
     List<ServiceRequest> findIncompleteRequests();
 
     // Count by status
     Long countByStatus(String status);
+
+    // ========== LISTING ==========
+
+    /**
+     * Filtered listing, newest first, starting after the (afterCreatedAt, afterId) keyset position;
+     * null filters are ignored and a null position starts from the top
+     */
+    @Query(LIST_ROW_SELECT + LIST_FILTERS
+            + "AND (:afterCreatedAt IS NULL OR s.createdAt < :afterCreatedAt "
+            + "OR (s.createdAt = :afterCreatedAt AND s.id < :afterId)) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<ServiceRequestListRow> findListRowsNewestFirst(@Param("status") String status,
+                                                        @Param("serviceType") String serviceType,
+                                                        @Param("priority") String priority,
+                                                        @Param("roomId") Long roomId,
+                                                        @Param("reservationId") Long reservationId,
+                                                        @Param("assignedTo") String assignedTo,
+                                                        @Param("requestedBy") String requestedBy,
+                                                        @Param("createdFrom") Instant createdFrom,
+                                                        @Param("createdTo") Instant createdTo,
+                                                        @Param("afterCreatedAt") Instant afterCreatedAt,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
+
+    /**
+     * Same as findListRowsNewestFirst, oldest first (queue order)
+     */
+    @Query(LIST_ROW_SELECT + LIST_FILTERS
+            + "AND (:afterCreatedAt IS NULL OR s.createdAt > :afterCreatedAt "
+            + "OR (s.createdAt = :afterCreatedAt AND s.id > :afterId)) "
+            + "ORDER BY s.createdAt ASC, s.id ASC")
+    List<ServiceRequestListRow> findListRowsOldestFirst(@Param("status") String status,
+                                                        @Param("serviceType") String serviceType,
+                                                        @Param("priority") String priority,
+                                                        @Param("roomId") Long roomId,
+                                                        @Param("reservationId") Long reservationId,
+                                                        @Param("assignedTo") String assignedTo,
+                                                        @Param("requestedBy") String requestedBy,
+                                                        @Param("createdFrom") Instant createdFrom,
+                                                        @Param("createdTo") Instant createdTo,
+                                                        @Param("afterCreatedAt") Instant afterCreatedAt,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
+
+    // ========== COUNTS ==========
+
+    /**
+     * Requests per status, created since the given instant (all when null): [status, count]
+     */
+    @Query("SELECT s.status, COUNT(s) FROM ServiceRequest s "
+            + "WHERE (:since IS NULL OR s.createdAt >= :since) GROUP BY s.status")
+    List<Object[]> countGroupedByStatus(@Param("since") Instant since);
+
+    /**
+     * Open (not completed or cancelled) requests per priority: [priority, count]
+     */
+    @Query("SELECT s.priority, COUNT(s) FROM ServiceRequest s "
+            + "WHERE s.status NOT IN ('COMPLETED', 'CANCELLED') GROUP BY s.priority")
+    List<Object[]> countOpenGroupedByPriority();
+
+    /**
+     * Requests per service type and status, created since the given instant (all when null):
+     * [serviceType, status, count]
+     */
+    @Query("SELECT s.serviceType, s.status, COUNT(s) FROM ServiceRequest s "
+            + "WHERE (:since IS NULL OR s.createdAt >= :since) GROUP BY s.serviceType, s.status")
+    List<Object[]> countGroupedByServiceTypeAndStatus(@Param("since") Instant since);
+
+    /**
+     * Service-request KPIs per department of the assigned staff member, for requests created since
+     * the given instant: [departmentId, completed, open, avgCompletionSeconds]
+     */
+    @Query("SELECT st.department.id, " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN s.status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END), " +
+            "AVG(CASE WHEN s.status = 'COMPLETED' AND s.completedAt IS NOT NULL " +
+            "THEN (s.completedAt - s.createdAt) BY SECOND END) " +
+            "FROM ServiceRequest s JOIN Staff st ON st.staffId = s.assignedTo " +
+            "WHERE s.createdAt >= :since GROUP BY st.department.id")
+    List<Object[]> findDepartmentKpisSince(@Param("since") Instant since);
+
+    // ========== DISPATCH ==========
+
+    /**
+     * Assign a request only if it is still waiting: 0 means it was taken, assigned or closed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE ServiceRequest s SET s.assignedTo = :staffId, s.status = 'IN_PROGRESS', s.updatedAt = :now " +
+            "WHERE s.id = :id AND s.status = 'PENDING' AND s.assignedTo IS NULL")
+    int assignIfPending(@Param("id") Long id, @Param("staffId") String staffId, @Param("now") Instant now);
+
+    /**
+     * Escalate a request only if it is still waiting and not already URGENT: 0 means there was nothing to escalate
+     */
+    @Modifying
+    @Query("UPDATE ServiceRequest s SET s.priority = 'URGENT', s.updatedAt = :now " +
+            "WHERE s.id = :id AND s.status = 'PENDING' AND s.assignedTo IS NULL AND s.priority <> 'URGENT'")
+    int escalateIfPending(@Param("id") Long id, @Param("now") Instant now);
 }
\ No newline at end of file
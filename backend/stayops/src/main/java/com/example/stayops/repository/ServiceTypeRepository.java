@@ -1,7 +1,10 @@
 package com.example.stayops.repository;
 
 import com.example.stayops.entity.ServiceType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,6 +12,7 @@ import java.util.Optional;
 @Repository
 public interface ServiceTypeRepository extends JpaRepository<ServiceType, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ServiceType> findByCode(String code);
 
     boolean existsByCode(String code);
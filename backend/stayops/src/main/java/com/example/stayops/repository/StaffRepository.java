@@ -2,8 +2,17 @@ package com.example.stayops.repository;
 
 import com.example.stayops.entity.Staff;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface StaffRepository extends JpaRepository<Staff, String> {
+
+    /**
+     * Staff who can take work: [staffId, role]
+     */
+    @Query("SELECT s.staffId, s.role FROM Staff s WHERE s.status = com.example.stayops.enums.StaffStatus.ACTIVE")
+    List<Object[]> findActiveStaffRoles();
 }
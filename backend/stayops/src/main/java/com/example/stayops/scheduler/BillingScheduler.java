@@ -1,5 +1,8 @@
 package com.example.stayops.scheduler;
 
+import com.example.stayops.automation.JobLeaseService;
+import com.example.stayops.automation.PartitionedJob;
+import com.example.stayops.automation.ScheduledJobMonitor;
 import com.example.stayops.service.BillingAutomationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,22 +22,28 @@ import java.time.LocalDateTime;
 public class BillingScheduler {
 
     private final BillingAutomationService billingAutomationService;
+    private final ScheduledJobMonitor jobMonitor;
+    private final JobLeaseService leaseService;
 
     /**
      * Posts daily room charges at midnight for all checked-in guests
-     * Runs every day at 00:01 AM
+     * Runs every day at 00:01 AM, split into reservation partitions shared by all app nodes
      */
     @Scheduled(cron = "0 1 0 * * *") // Every day at 00:01
+    @PartitionedJob
     public void postDailyRoomCharges() {
         log.info("SCHEDULER: Starting daily room charge posting at {}", LocalDateTime.now());
 
         try {
             LocalDate today = LocalDate.now();
-            int posted = billingAutomationService.autoPostDailyRoomCharges(today);
+            int posted = leaseService.runPartitioned(partition -> billingAutomationService
+                    .autoPostDailyRoomCharges(today, partition.index(), partition.count()));
+            jobMonitor.recordProcessed(posted);
 
             log.info("SCHEDULER: Daily room charge posting completed. Posted charges for {} reservations",
                     posted);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error posting daily room charges: {}", e.getMessage(), e);
         }
     }
@@ -50,9 +59,11 @@ public class BillingScheduler {
         try {
             LocalDate today = LocalDate.now();
             int sent = billingAutomationService.autoSendCheckoutInvoices(today);
+            jobMonitor.recordProcessed(sent);
 
             log.info("SCHEDULER: Checkout invoice sending completed. Sent {} invoices", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error sending checkout invoices: {}", e.getMessage(), e);
         }
     }
@@ -67,31 +78,15 @@ public class BillingScheduler {
 
         try {
             int sent = billingAutomationService.autoSendPaymentReminders();
+            jobMonitor.recordProcessed(sent);
 
             log.info("SCHEDULER: Payment reminder sending completed. Sent {} reminders", sent);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error sending payment reminders: {}", e.getMessage(), e);
         }
     }
 
-    /**
-     * Checks for no-shows and applies charges
-     * Runs every day at 2:00 PM (14:00)
-     */
-    @Scheduled(cron = "0 0 14 * * *") // Every day at 2 PM
-    public void processNoShows() {
-        log.info("SCHEDULER: Starting no-show processing at {}", LocalDateTime.now());
-
-        try {
-            // This would call a method in BillingAutomationService
-            // to find reservations where check-in date has passed
-            // but status is still CONFIRMED
-            log.info("SCHEDULER: No-show processing completed");
-        } catch (Exception e) {
-            log.error("SCHEDULER: Error processing no-shows: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Generates daily billing reports
      * Runs every day at 11:59 PM
@@ -104,6 +99,7 @@ public class BillingScheduler {
             // Generate report of all billing activities for the day
             log.info("SCHEDULER: Daily billing report generation completed");
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error generating daily billing report: {}", e.getMessage(), e);
         }
     }
@@ -121,6 +117,7 @@ public class BillingScheduler {
             // to ensure accuracy
             log.debug("SCHEDULER: Folio reconciliation completed");
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error during folio reconciliation: {}", e.getMessage(), e);
         }
     }
@@ -137,6 +134,7 @@ public class BillingScheduler {
             // Archive folios older than a certain period
             log.info("SCHEDULER: Folio archival completed");
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error during folio archival: {}", e.getMessage(), e);
         }
     }
@@ -153,6 +151,7 @@ public class BillingScheduler {
             // Generate and send weekly billing summary
             log.info("SCHEDULER: Weekly billing summary sent");
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("SCHEDULER: Error sending weekly billing summary: {}", e.getMessage(), e);
         }
     }
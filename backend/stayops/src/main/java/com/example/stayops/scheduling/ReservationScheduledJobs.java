@@ -1,5 +1,6 @@
 package com.example.stayops.scheduling;
 
+import com.example.stayops.automation.ScheduledJobMonitor;
 import com.example.stayops.service.PaymentService;
 import com.example.stayops.service.ReservationHoldService;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ public class ReservationScheduledJobs {
 
     private final ReservationHoldService holdService;
     private final PaymentService paymentService;
+    private final ScheduledJobMonitor jobMonitor;
 
     /**
      * Process expired holds every 5 minutes
@@ -26,8 +28,10 @@ public class ReservationScheduledJobs {
         log.info("Running scheduled job: Process expired holds");
         try {
             int processed = holdService.processExpiredHolds();
+            jobMonitor.recordProcessed(processed);
             log.info("Processed {} expired holds", processed);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error processing expired holds", e);
         }
     }
@@ -40,23 +44,11 @@ public class ReservationScheduledJobs {
         log.info("Running scheduled job: Process timeout payments");
         try {
             int processed = paymentService.processTimeoutPayments(30); // 30 minute timeout
+            jobMonitor.recordProcessed(processed);
             log.info("Processed {} timeout payments", processed);
         } catch (Exception e) {
+            jobMonitor.recordFailure(e);
             log.error("Error processing timeout payments", e);
         }
     }
-
-    /**
-     * Send arrival reminders - runs at 9 AM daily
-     */
-    @Scheduled(cron = "0 0 9 * * *") // 9 AM daily
-    public void sendArrivalReminders() {
-        log.info("Running scheduled job: Send arrival reminders");
-        try {
-            // TODO: Implement reminder sending for arrivals in next 24-48 hours
-            log.info("Arrival reminders sent");
-        } catch (Exception e) {
-            log.error("Error sending arrival reminders", e);
-        }
-    }
 }
\ No newline at end of file
@@ -101,11 +101,19 @@ public class BillingAutomationService {
      */
     @Transactional
     public int autoPostDailyRoomCharges(LocalDate date) {
-        log.info("AUTO: Posting daily room charges for date: {}", date);
+        return autoPostDailyRoomCharges(date, 0, 1);
+    }
+
+    /**
+     * Posts daily room charges for one partition (reservation id % partitions == partition),
+     * so the nightly run can be shared between app nodes
+     */
+    @Transactional
+    public int autoPostDailyRoomCharges(LocalDate date, int partition, int partitions) {
+        log.info("AUTO: Posting daily room charges for date: {} (partition {}/{})", date, partition, partitions);
 
         List<Reservation> checkedInReservations = reservationRepository
-                .findByStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThan(
-                        ReservationStatus.CHECKED_IN, date, date);
+                .findInHouseForDateInPartition(ReservationStatus.CHECKED_IN, date, partition, partitions);
 
         int posted = 0;
         for (Reservation reservation : checkedInReservations) {
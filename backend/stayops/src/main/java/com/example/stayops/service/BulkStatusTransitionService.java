@@ -0,0 +1,34 @@
+package com.example.stayops.service;
+
+import com.example.stayops.dto.PaymentTransitionRow;
+import com.example.stayops.dto.ReservationTransitionRow;
+import com.example.stayops.enums.PaymentStatus;
+import com.example.stayops.enums.ReservationStatus;
+import lombok.Builder;
+
+import java.util.List;
+
+public interface BulkStatusTransitionService {
+
+    /**
+     * What to do to every candidate reservation; auditAction null writes no audit log rows
+     */
+    @Builder
+    record ReservationTransition(ReservationStatus toStatus, boolean releaseRooms, String eventType,
+                                 String triggeredBy, String auditAction, String auditDescription) {
+    }
+
+    /**
+     * Move the candidates that are still in the status they were read with to transition.toStatus,
+     * with one UPDATE (and one room_reservations DELETE when releasing rooms) per chunk of ids,
+     * and publish one ReservationBatchEvent per chunk; returns the number of reservations moved
+     */
+    int transitionReservations(List<ReservationTransitionRow> candidates, ReservationTransition transition);
+
+    /**
+     * Move the candidate payments still in fromStatus to toStatus in the same way, publishing
+     * PaymentBatchEvents; returns the number of payments moved
+     */
+    int transitionPayments(List<PaymentTransitionRow> candidates, PaymentStatus fromStatus, PaymentStatus toStatus,
+                           String failureReason, String eventType);
+}
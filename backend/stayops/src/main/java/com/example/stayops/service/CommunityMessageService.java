@@ -2,6 +2,8 @@ package com.example.stayops.service;
 
 import com.example.stayops.dto.CommunityMessageDTO;
 import com.example.stayops.dto.CommunityMessageRequestDTO;
+import com.example.stayops.dto.CommunityThreadDTO;
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.enums.UserType;
 
 import java.util.List;
@@ -16,4 +18,6 @@ public interface CommunityMessageService {
     List<CommunityMessageDTO> getReplies(Long parentMessageId);
     List<CommunityMessageDTO> getAnnouncements();
     List<CommunityMessageDTO> getUserMessages(Long senderId);
+    CommunityThreadDTO getThread(Long messageId);
+    CursorPage<CommunityMessageDTO> getFeed(Boolean announcement, String cursor, Integer limit);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.stayops.service;
+
+import com.example.stayops.entity.DailyOccupancy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyOccupancyService {
+
+    /**
+     * Occupancy snapshot for one date (computed on the fly if it has not been materialized yet)
+     */
+    DailyOccupancy getOccupancy(LocalDate date);
+
+    /**
+     * Occupancy snapshots for every date in the range, inclusive, ordered by date
+     */
+    List<DailyOccupancy> getOccupancyRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Schedule the dates in the range for refresh (after the current transaction commits)
+     */
+    void markDirty(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recompute and store the range; returns the number of dates written
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Rebuild the configured window around today (days-back .. horizon-days); returns the number of dates written
+     */
+    int backfill();
+}
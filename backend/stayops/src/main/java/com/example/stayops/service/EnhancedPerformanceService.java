@@ -1,79 +1,68 @@
 package com.example.stayops.service;
 
+import com.example.stayops.automation.ScheduledJobMonitor;
 import com.example.stayops.entity.Department;
 import com.example.stayops.repository.DepartmentRepository;
+import com.example.stayops.repository.HousekeepingTaskRepository;
+import com.example.stayops.repository.ServiceRequestRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
 
 /**
  * ENHANCED DEPARTMENT PERFORMANCE TRACKING SERVICE
  * ================================================
  *
- * MATHEMATICAL CALCULATION LOGIC:
- * --------------------------------
- *
- * The performance score (0-100) uses a TIME-BASED DYNAMIC CALCULATION:
+ * The performance score (0-100) is computed from operational KPIs over a trailing window
+ * (stayops.performance.window-days), attributed to a department through the staff member a
+ * service request or housekeeping task is assigned to.
  *
  * FORMULA:
- * Performance = Base_Score × Time_Multiplier × Status_Factor × Efficiency_Ratio + Trend_Adjustment
+ * Performance = Smooth(100 × Weighted_KPIs × Status_Factor)
  *
  * WHERE:
  *
- * 1. BASE SCORE (50 points)
- *    - Starting baseline for all departments
- *    - Ensures departments don't start at 0
+ * 1. SERVICE REQUESTS (weight 0.4)
+ *    - Completion rate: completed / (completed + still open)
+ *    - Speed: target_minutes / average completion minutes, capped at 1
+ *    - Score: average of the two
+ *
+ * 2. HOUSEKEEPING THROUGHPUT (weight 0.4)
+ *    - Formula: tasks completed / tasks scheduled in the window (cancelled tasks excluded)
  *
- * 2. TIME MULTIPLIER (Sine Wave Oscillation)
- *    - Formula: 1 + 0.3 × sin(2π × (hour_of_day / 24))
- *    - Range: 0.7 to 1.3
- *    - Logic: Simulates natural performance cycles throughout the day
- *      * Peak hours (10 AM - 2 PM): Higher multiplier (1.2-1.3)
- *      * Off-peak hours (2 AM - 6 AM): Lower multiplier (0.7-0.8)
- *    - Why: Reflects real-world operational patterns
+ * 3. STAFFING (weight 0.2)
+ *    - Formula: Active_Staff / Total_Staff
+ *    - No staff: 0.4 (default efficiency)
  *
- * 3. HOURLY MOMENTUM (Cosine Wave)
- *    - Formula: 5 × cos(2π × (minute_of_hour / 60))
- *    - Range: -5 to +5 points
- *    - Logic: Creates micro-fluctuations within each hour
- *    - Why: Adds realistic variability to performance tracking
+ *    A KPI with no activity in the window drops out and the remaining weights are rescaled,
+ *    so a department without housekeeping work is not scored as if it had failed all of it.
  *
  * 4. STATUS FACTOR
  *    - ACTIVE: 1.0× (100% performance potential)
  *    - MAINTENANCE: 0.65× (reduced operations)
  *    - INACTIVE: 0.25× (minimal activity)
- *    - Why: Department status directly impacts performance capability
- *
- * 5. EFFICIENCY RATIO
- *    - Formula: (Active_Staff / Total_Staff) × 100
- *    - Range: 0% to 100%
- *    - Logic: More active staff = higher performance
- *    - Special cases:
- *      * No staff: 40% (default efficiency)
- *      * All inactive: 20% (minimal operations)
- *
- * 6. TREND ADJUSTMENT (Time-Based Growth/Decay)
- *    - Formula: ±10 × sin(2π × (day_of_month / 30))
- *    - Logic: Simulates monthly performance cycles
- *      * Early month: Positive trend (ramp up)
- *      * Mid month: Peak performance
- *      * Late month: Slight decline (fatigue)
  *
- * 7. SMOOTHING ALGORITHM (Prevents Drastic Changes)
+ * 5. SMOOTHING ALGORITHM (Prevents Drastic Changes)
  *    - Formula: New_Score = (Previous_Score × 0.65) + (Calculated_Score × 0.35)
- *    - Why: Ensures gradual, realistic transitions
- *    - Prevents: Score jumping from 30 to 80 instantly
  *
  * FINAL CLAMPING: Ensures score stays within 0-100 range
  *
+ * COST: every update cycle runs three GROUP BY queries (staff counts, service-request KPIs,
+ * housekeeping throughput) plus one load of the departments, whatever the number of departments
+ * or staff; the changed scores are flushed as one JDBC batch. The leaderboard is a ranking kept
+ * in memory, replaced after each committed update and rebuilt on the next read when departments
+ * change.
+ *
  * UPDATE FREQUENCY: Every 30 minutes (configurable via cron)
  */
 
@@ -83,15 +72,38 @@ import java.util.List;
 public class EnhancedPerformanceService {
 
     private final DepartmentRepository departmentRepository;
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final HousekeepingTaskRepository housekeepingTaskRepository;
+    private final ScheduledJobMonitor jobMonitor;
+
+    @Value("${stayops.performance.window-days:7}")
+    private int windowDays;
+
+    @Value("${stayops.performance.service-target-minutes:60}")
+    private double serviceTargetMinutes;
 
-    // Mathematical constants for time-based calculations
-    private static final double TWO_PI = 2.0 * Math.PI;
-    private static final double BASE_SCORE = 50.0;
-    private static final double TIME_AMPLITUDE = 0.3;
-    private static final double MOMENTUM_AMPLITUDE = 5.0;
-    private static final double TREND_AMPLITUDE = 10.0;
+    private static final double SERVICE_WEIGHT = 0.4;
+    private static final double HOUSEKEEPING_WEIGHT = 0.4;
+    private static final double STAFFING_WEIGHT = 0.2;
+    private static final double EMPTY_DEPARTMENT_EFFICIENCY = 0.4;
     private static final double SMOOTHING_FACTOR = 0.65; // 65% previous, 35% new
 
+    // Ranked by performance; null until first read or after departments changed
+    private volatile List<LeaderboardEntry> leaderboard;
+
+    /**
+     * Operational figures of one department over the scoring window
+     */
+    public record DepartmentKpis(long totalStaff, long activeStaff,
+                                 long requestsCompleted, long requestsOpen, Double avgCompletionMinutes,
+                                 long tasksCompleted, long tasksScheduled) {
+
+        static final DepartmentKpis NONE = new DepartmentKpis(0, 0, 0, 0, null, 0, 0);
+    }
+
+    public record LeaderboardEntry(Long id, String name, int performance, String status) {
+    }
+
     /**
      * SCHEDULED TASK: Updates all department performance scores every 30 minutes
      * Cron Expression: "0 0/30 * * * *" means "At minute 0 and 30 of every hour"
@@ -100,21 +112,29 @@ public class EnhancedPerformanceService {
     @Transactional
     public void updateAllDepartmentPerformances() {
         log.info("🔄 Starting scheduled performance update cycle...");
+        jobMonitor.recordProcessed(updateAllNow());
+    }
 
+    /**
+     * Recalculate every department's score outside the schedule (manual trigger)
+     *
+     * Not @Scheduled, so it always runs: the job lease only applies to the cron method above.
+     *
+     * @return number of departments updated
+     */
+    @Transactional
+    public int updateAllNow() {
+        Map<Long, DepartmentKpis> kpis = loadKpis();
         List<Department> departments = departmentRepository.findAll();
         int updatedCount = 0;
 
         for (Department department : departments) {
             try {
-                int newScore = calculatePerformanceScore(department);
+                int previousScore = department.getPerformance() != null ? department.getPerformance() : 0;
+                int newScore = calculatePerformanceScore(department, kpis.getOrDefault(department.getId(), DepartmentKpis.NONE));
                 department.setPerformance(newScore);
-                department.setUpdatedAt(Instant.from(LocalDateTime.now()));
-                departmentRepository.save(department);
 
-                log.info("📊 Updated {} - Performance: {} → {}",
-                        department.getName(),
-                        department.getPerformance(),
-                        newScore);
+                log.debug("📊 Updated {} - Performance: {} → {}", department.getName(), previousScore, newScore);
 
                 updatedCount++;
             } catch (Exception e) {
@@ -123,47 +143,48 @@ public class EnhancedPerformanceService {
             }
         }
 
+        // Changed scores go out as one batch of UPDATEs when the transaction flushes
+        publishLeaderboardAfterCommit(rank(departments));
+
         log.info("✅ Performance update complete! Updated {} departments", updatedCount);
+        return updatedCount;
     }
 
     /**
-     * Calculate performance score using time-based mathematical formula
+     * Calculate performance score from the department's KPIs
      */
-    public int calculatePerformanceScore(Department department) {
-        LocalDateTime now = LocalDateTime.now();
+    public int calculatePerformanceScore(Department department, DepartmentKpis kpis) {
+        double weighted = 0;
+        double weights = 0;
+
+        // 1. SERVICE REQUESTS
+        Double serviceScore = serviceScore(kpis);
+        if (serviceScore != null) {
+            weighted += SERVICE_WEIGHT * serviceScore;
+            weights += SERVICE_WEIGHT;
+        }
 
-        // 1. TIME MULTIPLIER (Daily Cycle - Sine Wave)
-        double hourOfDay = now.getHour() + (now.getMinute() / 60.0);
-        double timeMultiplier = 1.0 + TIME_AMPLITUDE * Math.sin(TWO_PI * (hourOfDay / 24.0));
+        // 2. HOUSEKEEPING THROUGHPUT
+        Double housekeepingScore = housekeepingScore(kpis);
+        if (housekeepingScore != null) {
+            weighted += HOUSEKEEPING_WEIGHT * housekeepingScore;
+            weights += HOUSEKEEPING_WEIGHT;
+        }
 
-        // 2. HOURLY MOMENTUM (Micro-fluctuations - Cosine Wave)
-        double minuteOfHour = now.getMinute();
-        double hourlyMomentum = MOMENTUM_AMPLITUDE * Math.cos(TWO_PI * (minuteOfHour / 60.0));
+        // 3. STAFFING
+        weighted += STAFFING_WEIGHT * staffingScore(kpis);
+        weights += STAFFING_WEIGHT;
 
-        // 3. STATUS FACTOR
+        // 4. STATUS FACTOR
         double statusFactor = getStatusMultiplier(department.getStatus().name());
 
-        // 4. EFFICIENCY RATIO (Staff Utilization)
-        double efficiencyRatio = calculateEfficiencyRatio(department);
-
-        // 5. TREND ADJUSTMENT (Monthly Cycle)
-        int dayOfMonth = now.getDayOfMonth();
-        double trendAdjustment = TREND_AMPLITUDE * Math.sin(TWO_PI * (dayOfMonth / 30.0));
-
-        // 6. AGE FACTOR (How long department has existed)
-        double ageFactor = calculateAgeFactor(LocalDateTime.from(department.getCreatedAt()), now);
-
-        // CALCULATE RAW SCORE
-        double rawScore = (BASE_SCORE * timeMultiplier * statusFactor * (efficiencyRatio / 100.0))
-                + hourlyMomentum
-                + trendAdjustment
-                + ageFactor;
+        double rawScore = 100.0 * (weighted / weights) * statusFactor;
 
-        // 7. APPLY SMOOTHING (Prevent drastic changes)
+        // 5. APPLY SMOOTHING (Prevent drastic changes)
         double previousScore = department.getPerformance() != null ? department.getPerformance() : 50.0;
         double smoothedScore = (previousScore * SMOOTHING_FACTOR) + (rawScore * (1.0 - SMOOTHING_FACTOR));
 
-        // 8. CLAMP TO 0-100 RANGE
+        // 6. CLAMP TO 0-100 RANGE
         int finalScore = (int) Math.round(Math.max(0, Math.min(100, smoothedScore)));
 
         log.debug("Performance Calculation for {}: Raw={}, Smoothed={}, Final={}",
@@ -172,31 +193,31 @@ public class EnhancedPerformanceService {
         return finalScore;
     }
 
-    /**
-     * Calculate staff efficiency ratio
-     */
-    private double calculateEfficiencyRatio(Department department) {
-        if (department.getStaff() == null || department.getStaff().isEmpty()) {
-            return 40.0; // Default efficiency for empty departments
+    private Double serviceScore(DepartmentKpis kpis) {
+        long handled = kpis.requestsCompleted() + kpis.requestsOpen();
+        if (handled == 0) {
+            return null;
         }
-
-        long totalStaff = department.getStaff().size();
-        long activeStaff = department.getStaff().stream()
-                .filter(staff -> "ACTIVE".equals(staff.getStatus().name()))
-                .count();
-
-        if (totalStaff == 0) {
-            return 40.0;
+        double completionRate = (double) kpis.requestsCompleted() / handled;
+        if (kpis.avgCompletionMinutes() == null) {
+            return completionRate;
         }
+        double speed = Math.min(1.0, serviceTargetMinutes / Math.max(1.0, kpis.avgCompletionMinutes()));
+        return (completionRate + speed) / 2.0;
+    }
 
-        double ratio = (activeStaff * 100.0) / totalStaff;
-
-        // Boost ratio slightly if all staff are active
-        if (activeStaff == totalStaff && totalStaff > 0) {
-            ratio = Math.min(100.0, ratio * 1.1);
+    private Double housekeepingScore(DepartmentKpis kpis) {
+        if (kpis.tasksScheduled() == 0) {
+            return null;
         }
+        return (double) kpis.tasksCompleted() / kpis.tasksScheduled();
+    }
 
-        return ratio;
+    private double staffingScore(DepartmentKpis kpis) {
+        if (kpis.totalStaff() == 0) {
+            return EMPTY_DEPARTMENT_EFFICIENCY;
+        }
+        return (double) kpis.activeStaff() / kpis.totalStaff();
     }
 
     /**
@@ -211,25 +232,54 @@ public class EnhancedPerformanceService {
         };
     }
 
+    // ========== KPI QUERIES ==========
+
     /**
-     * Calculate age factor (departments improve over time initially)
+     * KPIs of every department with one GROUP BY query per source
      */
-    private double calculateAgeFactor(LocalDateTime createdAt, LocalDateTime now) {
-        if (createdAt == null) {
-            return 0.0;
+    public Map<Long, DepartmentKpis> loadKpis() {
+        Instant since = Instant.now().minus(Duration.ofDays(windowDays));
+        LocalDate today = LocalDate.now();
+
+        Map<Long, long[]> staff = new HashMap<>();
+        for (Object[] row : departmentRepository.findStaffCounts()) {
+            staff.put((Long) row[0], new long[]{count(row[1]), count(row[2])});
         }
 
-        Duration age = Duration.between(createdAt, now);
-        double daysOld = age.toDays();
+        Map<Long, Object[]> requests = new HashMap<>();
+        for (Object[] row : serviceRequestRepository.findDepartmentKpisSince(since)) {
+            requests.put((Long) row[0], row);
+        }
+
+        Map<Long, long[]> tasks = new HashMap<>();
+        for (Object[] row : housekeepingTaskRepository.findDepartmentThroughput(today.minusDays(windowDays), today)) {
+            tasks.put((Long) row[0], new long[]{count(row[1]), count(row[2])});
+        }
 
-        // Logarithmic growth: New departments grow quickly, then plateau
-        // Formula: 10 × ln(days + 1) / ln(365)
-        // Result: 0 to +10 points over first year
-        if (daysOld < 365) {
-            return 10.0 * (Math.log(daysOld + 1) / Math.log(365));
+        Set<Long> departmentIds = new HashSet<>(staff.keySet());
+        departmentIds.addAll(requests.keySet());
+        departmentIds.addAll(tasks.keySet());
+
+        Map<Long, DepartmentKpis> kpis = new HashMap<>();
+        for (Long departmentId : departmentIds) {
+            long[] staffCounts = staff.getOrDefault(departmentId, new long[2]);
+            Object[] requestRow = requests.get(departmentId);
+            long[] taskCounts = tasks.getOrDefault(departmentId, new long[2]);
+            Double avgCompletionMinutes = requestRow != null && requestRow[3] != null
+                    ? ((Number) requestRow[3]).doubleValue() / 60.0 : null;
+
+            kpis.put(departmentId, new DepartmentKpis(
+                    staffCounts[0], staffCounts[1],
+                    requestRow != null ? count(requestRow[1]) : 0,
+                    requestRow != null ? count(requestRow[2]) : 0,
+                    avgCompletionMinutes,
+                    taskCounts[0], taskCounts[1]));
         }
+        return kpis;
+    }
 
-        return 10.0; // Mature departments get full age bonus
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
     }
 
     /**
@@ -240,13 +290,64 @@ public class EnhancedPerformanceService {
         Department department = departmentRepository.findById(departmentId)
                 .orElseThrow(() -> new RuntimeException("Department not found: " + departmentId));
 
-        int newScore = calculatePerformanceScore(department);
+        int newScore = calculatePerformanceScore(department, loadKpis().getOrDefault(departmentId, DepartmentKpis.NONE));
         department.setPerformance(newScore);
-        department.setUpdatedAt(Instant.from(LocalDateTime.now()));
+        invalidateLeaderboard();
 
         return departmentRepository.save(department);
     }
 
+    // ========== LEADERBOARD ==========
+
+    /**
+     * Departments ranked by performance, served from memory
+     */
+    public List<LeaderboardEntry> getLeaderboard() {
+        List<LeaderboardEntry> ranking = leaderboard;
+        if (ranking == null) {
+            ranking = rank(departmentRepository.findAll());
+            leaderboard = ranking;
+        }
+        return ranking;
+    }
+
+    /**
+     * Drop the ranking after departments were created, edited or removed; the next read rebuilds it
+     */
+    public void invalidateLeaderboard() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    leaderboard = null;
+                }
+            });
+        }
+        leaderboard = null;
+    }
+
+    private void publishLeaderboardAfterCommit(List<LeaderboardEntry> ranking) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    leaderboard = status == STATUS_COMMITTED ? ranking : null;
+                }
+            });
+        } else {
+            leaderboard = ranking;
+        }
+    }
+
+    private static List<LeaderboardEntry> rank(List<Department> departments) {
+        return departments.stream()
+                .map(d -> new LeaderboardEntry(d.getId(), d.getName(),
+                        d.getPerformance() != null ? d.getPerformance() : 0, d.getStatus().name()))
+                .sorted(Comparator.comparingInt(LeaderboardEntry::performance).reversed()
+                        .thenComparing(LeaderboardEntry::name))
+                .toList();
+    }
+
     /**
      * Get performance analysis text
      */
@@ -263,25 +364,32 @@ public class EnhancedPerformanceService {
      * Get real-time performance factors for debugging
      */
     public String getPerformanceFactors(Department department) {
-        LocalDateTime now = LocalDateTime.now();
-        double hourOfDay = now.getHour() + (now.getMinute() / 60.0);
+        DepartmentKpis kpis = loadKpis().getOrDefault(department.getId(), DepartmentKpis.NONE);
+        int performance = department.getPerformance() != null ? department.getPerformance() : 0;
 
         return String.format("""
-            Performance Factors for %s:
-            - Time Multiplier: %.2f (Hour: %.2f)
+            Performance Factors for %s (last %d days):
+            - Service Requests: %d completed, %d open, avg completion %s min (target %.0f)
+            - Housekeeping: %d of %d tasks completed
+            - Staffing: %d of %d staff active
             - Status Factor: %.2f (%s)
-            - Efficiency: %.1f%%
             - Current Score: %d
             - Trend: %s
             """,
                 department.getName(),
-                1.0 + TIME_AMPLITUDE * Math.sin(TWO_PI * (hourOfDay / 24.0)),
-                hourOfDay,
+                windowDays,
+                kpis.requestsCompleted(),
+                kpis.requestsOpen(),
+                kpis.avgCompletionMinutes() != null ? String.format("%.1f", kpis.avgCompletionMinutes()) : "n/a",
+                serviceTargetMinutes,
+                kpis.tasksCompleted(),
+                kpis.tasksScheduled(),
+                kpis.activeStaff(),
+                kpis.totalStaff(),
                 getStatusMultiplier(department.getStatus().name()),
                 department.getStatus(),
-                calculateEfficiencyRatio(department),
-                department.getPerformance(),
-                department.getPerformance() >= 60 ? "↗️ Upward" : "↘️ Needs Improvement"
+                performance,
+                performance >= 60 ? "↗️ Upward" : "↘️ Needs Improvement"
         );
     }
-}
\ No newline at end of file
+}
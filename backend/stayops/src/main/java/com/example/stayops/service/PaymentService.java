@@ -4,6 +4,7 @@ import com.example.stayops.dto.PaymentTransactionDTO;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface PaymentService {
 
@@ -13,9 +14,15 @@ public interface PaymentService {
     PaymentTransactionDTO initiatePayment(PaymentTransactionDTO request);
 
     /**
-     * Process payment webhook (from payment provider)
+     * Verify and record a payment webhook (from payment provider) for asynchronous processing.
+     * Returns status "accepted" or "duplicate", the provider event id and the inbox id.
      */
-    PaymentTransactionDTO processWebhook(String webhookPayload, String signature);
+    Map<String, Object> processWebhook(String webhookPayload, String signature);
+
+    /**
+     * Apply a recorded webhook to its payment (called by PaymentWebhookProcessor)
+     */
+    void applyWebhookEvent(Long inboxId);
 
     /**
      * Get payment by idempotency key (prevents duplicates)
@@ -16,4 +16,6 @@ public interface RatingService {
     List<RatingDTO> getAllPublishedRatings();
     RatingStatsDTO getRatingStats();
     void publishRating(Long ratingId, Boolean isPublished);
+    List<RatingStatsDTO> getRatingTrends(String bucketType, String from, String to);
+    int rebuildRatingAggregates();
 }
\ No newline at end of file
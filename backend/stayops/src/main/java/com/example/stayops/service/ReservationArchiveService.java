@@ -0,0 +1,30 @@
+package com.example.stayops.service;
+
+import com.example.stayops.dto.ReservationHistoryDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReservationArchiveService {
+
+    /**
+     * Move CANCELLED / CHECKED_OUT reservations whose check-out is more than daysOld days ago,
+     * with their dependent rows, into the archive tables; returns the number of reservations moved
+     */
+    int archiveClosedReservations(int daysOld);
+
+    /**
+     * Archived reservation with its details, rooms, history, folios and payments, or null
+     */
+    Map<String, Object> getArchivedReservation(Long reservationId);
+
+    /**
+     * Status history of an archived reservation (empty if it is not archived)
+     */
+    List<ReservationHistoryDTO> getArchivedHistory(Long reservationId);
+
+    /**
+     * Row counts of the archive tables and the last run's figures
+     */
+    Map<String, Object> getArchiveStats();
+}
@@ -21,7 +21,7 @@ public interface ReservationService {
     List<ReservationResponseDTO> getReservationsInDateRange(LocalDate startDate, LocalDate endDate);
 
     // Room Status
-    List<Map<String, Object>> getAllRoomReservationStatuses();
+    List<RoomStatusDTO> getAllRoomReservationStatuses();
     List<RoomStatusDTO> getRoomStatusForDate(LocalDate date);
     Map<Long, List<RoomStatusDTO>> getRoomStatusForDateRange(LocalDate startDate, LocalDate endDate);
 
@@ -44,4 +44,5 @@ public interface ReservationService {
     // Occupancy
     OccupancyStatsDTO getCurrentOccupancyStats();
     OccupancyStatsDTO getOccupancyStatsForDate(LocalDate date);
+    List<OccupancyStatsDTO> getOccupancyStatsForRange(LocalDate startDate, LocalDate endDate);
 }
\ No newline at end of file
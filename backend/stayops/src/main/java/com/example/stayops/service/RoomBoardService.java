@@ -0,0 +1,36 @@
+package com.example.stayops.service;
+
+import com.example.stayops.dto.RoomStatusDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RoomBoardService {
+
+    /**
+     * Today's board: every room with its current stay (CONFIRMED or CHECKED_IN), ordered by room number
+     */
+    List<RoomStatusDTO> getBoard();
+
+    /**
+     * Discard the in-memory board and load it again (e.g. after rooms were added)
+     */
+    List<RoomStatusDTO> reload();
+
+    /**
+     * Subscribe to the board: a "snapshot" event with the full board, then "delta" events
+     * carrying only the rooms that changed
+     */
+    SseEmitter subscribe();
+
+    /**
+     * A reservation was inserted, updated or deleted; its rooms are refreshed after commit
+     */
+    void reservationChanged(Long reservationId);
+
+    /**
+     * Many reservations changed at once (bulk status transitions); their rooms are refreshed together after commit
+     */
+    void reservationsChanged(Collection<Long> reservationIds);
+}
@@ -1,9 +1,13 @@
 package com.example.stayops.service;
 
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.dto.ServiceRequestDTO;
+import com.example.stayops.dto.ServiceRequestFilterDTO;
+import com.example.stayops.dto.ServiceRequestListRow;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 public interface ServiceRequestService {
 
@@ -101,4 +105,21 @@ public interface ServiceRequestService {
      * Get incomplete service requests
      */
     List<ServiceRequestDTO> getIncompleteRequests();
-}
\ No newline at end of file
+
+    /**
+     * Filtered, keyset-paginated listing
+     *
+     * @param sort   "newest" (default) or "oldest"
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit  page size, capped at the configured maximum
+     */
+    CursorPage<ServiceRequestListRow> listServiceRequests(ServiceRequestFilterDTO filter, String sort,
+                                                          String cursor, Integer limit);
+
+    /**
+     * Dashboard counts: total and by status, open by priority, and by service type and status
+     *
+     * @param since only count requests created from this instant; null counts all
+     */
+    Map<String, Object> getServiceRequestCounts(Instant since);
+}
@@ -0,0 +1,183 @@
+package com.example.stayops.service.impl;
+
+import com.example.stayops.dto.PaymentTransitionRow;
+import com.example.stayops.dto.ReservationTransitionRow;
+import com.example.stayops.entity.AuditLog;
+import com.example.stayops.enums.PaymentStatus;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.event.EventPublisher;
+import com.example.stayops.event.PaymentBatchEvent;
+import com.example.stayops.event.ReservationBatchEvent;
+import com.example.stayops.repository.AuditLogRepository;
+import com.example.stayops.repository.PaymentTransactionRepository;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.BulkStatusTransitionService;
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Set-based status transitions for the automation jobs
+ *
+ * Candidates come in as projection rows, so no entities are loaded or dirty-checked. Each chunk
+ * of ids is moved with one UPDATE guarded by the status the row was read with (a reservation that
+ * changed in the meantime is left alone), its room links are dropped with one DELETE, and one
+ * batch event is published for the chunk. Bulk statements bypass entity callbacks, so the
+ * occupancy read model and the room board are told about the changed reservations here.
+ *
+ * Chunks are stayops.bulk.chunk-size ids: that bounds the IN lists and keeps a batch event's
+ * outbox payload small.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkStatusTransitionServiceImpl implements BulkStatusTransitionService {
+
+    private final ReservationRepository reservationRepository;
+    private final PaymentTransactionRepository paymentRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final EventPublisher eventPublisher;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
+
+    @Value("${stayops.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    // ========== RESERVATIONS ==========
+
+    @Override
+    @Transactional
+    public int transitionReservations(List<ReservationTransitionRow> candidates, ReservationTransition transition) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        int moved = 0;
+        for (List<ReservationTransitionRow> chunk : chunks(candidates)) {
+            moved += transitionChunk(chunk, transition);
+        }
+
+        log.info("Bulk transition {}: {} of {} reservations moved to {}",
+                transition.eventType(), moved, candidates.size(), transition.toStatus());
+        return moved;
+    }
+
+    private int transitionChunk(List<ReservationTransitionRow> chunk, ReservationTransition transition) {
+        Instant now = Instant.now();
+        List<Long> ids = chunk.stream().map(ReservationTransitionRow::reservationId).toList();
+        Set<ReservationStatus> fromStatuses = EnumSet.noneOf(ReservationStatus.class);
+        chunk.forEach(row -> fromStatuses.add(row.status()));
+
+        int updated = reservationRepository.bulkUpdateStatus(ids, fromStatuses, transition.toStatus(), now);
+
+        List<ReservationTransitionRow> applied = chunk;
+        if (updated != chunk.size()) {
+            // Some rows changed status after they were read; keep only the ones this update moved
+            Set<Long> moved = new HashSet<>(reservationRepository.findIdsByIdInAndStatus(ids, transition.toStatus()));
+            applied = chunk.stream().filter(row -> moved.contains(row.reservationId())).toList();
+            log.warn("Bulk transition {}: {} of {} reservations changed concurrently and were skipped",
+                    transition.eventType(), chunk.size() - applied.size(), chunk.size());
+        }
+        if (applied.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> appliedIds = applied.stream().map(ReservationTransitionRow::reservationId).toList();
+        if (transition.releaseRooms()) {
+            reservationRepository.deleteRoomLinks(appliedIds);
+        }
+
+        if (transition.auditAction() != null) {
+            auditLogRepository.saveAll(applied.stream()
+                    .map(row -> AuditLog.builder()
+                            .entityType("RESERVATION")
+                            .entityId(row.reservationId().toString())
+                            .action(transition.auditAction())
+                            .actorType("SYSTEM")
+                            .actorId("AUTOMATION")
+                            .description(transition.auditDescription())
+                            .timestamp(now)
+                            .build())
+                    .toList());
+        }
+
+        applied.forEach(row -> dailyOccupancyService.markDirty(row.checkInDate(), row.checkOutDate()));
+        roomBoardService.reservationsChanged(appliedIds);
+
+        eventPublisher.publishReservationBatch(ReservationBatchEvent.builder()
+                .eventType(transition.eventType())
+                .newStatus(transition.toStatus())
+                .triggeredBy(transition.triggeredBy())
+                .eventTime(now)
+                .changes(applied.stream()
+                        .map(row -> ReservationBatchEvent.Change.builder()
+                                .reservationId(row.reservationId())
+                                .guestId(row.guestId())
+                                .previousStatus(row.status())
+                                .build())
+                        .toList())
+                .build());
+
+        log.debug("Bulk transition {} moved reservations {}", transition.eventType(), appliedIds);
+        return applied.size();
+    }
+
+    // ========== PAYMENTS ==========
+
+    @Override
+    @Transactional
+    public int transitionPayments(List<PaymentTransitionRow> candidates, PaymentStatus fromStatus,
+                                  PaymentStatus toStatus, String failureReason, String eventType) {
+        int moved = 0;
+        for (List<PaymentTransitionRow> chunk : chunks(candidates)) {
+            Instant now = Instant.now();
+            List<Long> ids = chunk.stream().map(PaymentTransitionRow::paymentId).toList();
+
+            int updated = paymentRepository.bulkUpdateStatus(ids, fromStatus, toStatus, failureReason, now);
+
+            List<PaymentTransitionRow> applied = chunk;
+            if (updated != chunk.size()) {
+                Set<Long> changed = new HashSet<>(paymentRepository.findIdsByIdInAndStatus(ids, toStatus));
+                applied = chunk.stream().filter(row -> changed.contains(row.paymentId())).toList();
+            }
+            if (applied.isEmpty()) {
+                continue;
+            }
+
+            eventPublisher.publishPaymentBatch(PaymentBatchEvent.builder()
+                    .status(toStatus)
+                    .eventType(eventType)
+                    .eventTime(now)
+                    .changes(applied.stream()
+                            .map(row -> PaymentBatchEvent.Change.builder()
+                                    .paymentId(row.paymentId())
+                                    .reservationId(row.reservationId())
+                                    .amount(row.amount())
+                                    .build())
+                            .toList())
+                    .build());
+            moved += applied.size();
+        }
+
+        if (!candidates.isEmpty()) {
+            log.info("Bulk transition: {} of {} payments moved {} -> {}", moved, candidates.size(), fromStatus, toStatus);
+        }
+        return moved;
+    }
+
+    private <T> List<List<T>> chunks(List<T> rows) {
+        int size = Math.max(1, chunkSize);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += size) {
+            chunks.add(rows.subList(from, Math.min(rows.size(), from + size)));
+        }
+        return chunks;
+    }
+}
@@ -2,17 +2,22 @@ package com.example.stayops.service.impl;
 
 import com.example.stayops.dto.CommunityMessageDTO;
 import com.example.stayops.dto.CommunityMessageRequestDTO;
+import com.example.stayops.dto.CommunityThreadDTO;
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.entity.CommunityMessage;
 import com.example.stayops.enums.UserType;
 import com.example.stayops.exception.ResourceNotFoundException;
 import com.example.stayops.repository.CommunityMessageRepository;
 import com.example.stayops.service.CommunityMessageService;
+import com.example.stayops.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,12 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
 
     private final CommunityMessageRepository messageRepository;
 
+    @Value("${stayops.listing.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${stayops.listing.max-page-size:200}")
+    private int maxPageSize;
+
     @Override
     @Transactional
     public CommunityMessageDTO createMessage(CommunityMessageRequestDTO requestDTO, Long senderId,
@@ -37,7 +48,7 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
                 .build();
 
         CommunityMessage saved = messageRepository.save(message);
-        return mapToDTO(saved);
+        return mapToDTO(saved, saved.getAttachments(), 0);
     }
 
     @Override
@@ -55,7 +66,7 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
         message.setAttachments(requestDTO.getAttachments());
 
         CommunityMessage updated = messageRepository.save(message);
-        return mapToDTO(updated);
+        return toDTOs(List.of(updated)).get(0);
     }
 
     @Override
@@ -73,55 +84,113 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommunityMessageDTO getMessage(Long messageId) {
         CommunityMessage message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + messageId));
-        return mapToDTO(message);
+        return toDTOs(List.of(message)).get(0);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommunityMessageDTO> getAllMessages() {
-        return messageRepository.findByIsActiveOrderByCreatedAtDesc(true)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(messageRepository.findByIsActiveOrderByCreatedAtDesc(true));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommunityMessageDTO> getMainMessages() {
-        return messageRepository.findMainMessages()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(messageRepository.findMainMessages());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommunityMessageDTO> getReplies(Long parentMessageId) {
-        return messageRepository.findByParentMessageIdOrderByCreatedAtAsc(parentMessageId)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(messageRepository.findByParentMessageIdOrderByCreatedAtAsc(parentMessageId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommunityMessageDTO> getAnnouncements() {
-        return messageRepository.findByIsAnnouncementAndIsActiveOrderByCreatedAtDesc(true, true)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(messageRepository.findByIsAnnouncementAndIsActiveOrderByCreatedAtDesc(true, true));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommunityMessageDTO> getUserMessages(Long senderId) {
-        return messageRepository.findBySenderIdOrderByCreatedAtDesc(senderId)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toDTOs(messageRepository.findBySenderIdOrderByCreatedAtDesc(senderId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommunityThreadDTO getThread(Long messageId) {
+        List<CommunityMessageDTO> messages = toDTOs(messageRepository.findThread(messageId));
+        CommunityMessageDTO root = messages.stream()
+                .filter(message -> message.getId().equals(messageId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + messageId));
+
+        List<CommunityMessageDTO> replies = messages.stream()
+                .filter(message -> !message.getId().equals(messageId))
+                .toList();
+        return CommunityThreadDTO.builder()
+                .root(root)
+                .replies(replies)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommunityMessageDTO> getFeed(Boolean announcement, String cursor, Integer limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit != null ? limit : defaultPageSize, 1), maxPageSize);
+
+        // One row past the page tells whether there is a next page without a COUNT
+        List<CommunityMessage> rows = messageRepository.findFeedPage(announcement,
+                after != null ? after.localCreatedAt() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CommunityMessage> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            CommunityMessage last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(toDTOs(page), nextCursor, hasMore);
     }
 
-    private CommunityMessageDTO mapToDTO(CommunityMessage message) {
-        Integer replyCount = messageRepository.findByParentMessageIdOrderByCreatedAtAsc(message.getId()).size();
+    /**
+     * Map a list of messages with two extra queries in total: reply counts grouped by parent and
+     * attachments by message, instead of loading each message's replies and attachments on their own
+     */
+    private List<CommunityMessageDTO> toDTOs(List<CommunityMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = messages.stream().map(CommunityMessage::getId).toList();
+
+        Map<Long, Integer> replyCounts = new HashMap<>();
+        for (Object[] row : messageRepository.countRepliesByParentIds(ids)) {
+            replyCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Map<Long, List<String>> attachments = new HashMap<>();
+        for (Object[] row : messageRepository.findAttachmentsByMessageIds(ids)) {
+            attachments.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        List<CommunityMessageDTO> dtos = new ArrayList<>(messages.size());
+        for (CommunityMessage message : messages) {
+            dtos.add(mapToDTO(message,
+                    attachments.getOrDefault(message.getId(), new ArrayList<>()),
+                    replyCounts.getOrDefault(message.getId(), 0)));
+        }
+        return dtos;
+    }
 
+    private CommunityMessageDTO mapToDTO(CommunityMessage message, List<String> attachments, int replyCount) {
         return CommunityMessageDTO.builder()
                 .id(message.getId())
                 .senderId(message.getSenderId())
@@ -129,7 +198,7 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
                 .senderType(message.getSenderType())
                 .message(message.getMessage())
                 .subject(message.getSubject())
-                .attachments(message.getAttachments())
+                .attachments(attachments)
                 .parentMessageId(message.getParentMessageId())
                 .isAnnouncement(message.getIsAnnouncement())
                 .isActive(message.getIsActive())
@@ -138,4 +207,4 @@ public class CommunityMessageServiceImpl implements CommunityMessageService {
                 .replyCount(replyCount)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,366 @@
+package com.example.stayops.service.impl;
+
+import com.example.stayops.entity.DailyOccupancy;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.exception.ValidationException;
+import com.example.stayops.repository.DailyOccupancyRepository;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.service.DailyOccupancyService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the daily_occupancy read model
+ *
+ * Reservation inserts/updates/deletes (via ReservationChangeListener) mark their date span
+ * dirty; after commit the dirty dates are recomputed on a single background thread with one
+ * span query per contiguous run of dates. The night run (NightlyAuditJob) rebuilds the window
+ * around today through backfill(), which also picks up room count changes and bulk updates
+ * that bypass entity callbacks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyOccupancyServiceImpl implements DailyOccupancyService {
+
+    private final DailyOccupancyRepository occupancyRepository;
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${stayops.occupancy.refresh-delay-ms:2000}")
+    private long refreshDelayMs;
+
+    @Value("${stayops.occupancy.backfill.days-back:30}")
+    private int backfillDaysBack;
+
+    @Value("${stayops.occupancy.backfill.horizon-days:365}")
+    private int backfillHorizonDays;
+
+    @Value("${stayops.occupancy.max-range-days:731}")
+    private int maxRangeDays;
+
+    private static final int CHUNK_DAYS = 92;
+
+    // All writes to daily_occupancy go through this thread, so refreshes never race each other
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("occupancy-refresh-"));
+    private final ConcurrentSkipListSet<LocalDate> dirtyDates = new ConcurrentSkipListSet<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdown();
+    }
+
+    // ========== READS ==========
+
+    @Override
+    public DailyOccupancy getOccupancy(LocalDate date) {
+        return occupancyRepository.findByOccupancyDate(date).orElseGet(() -> {
+            enqueue(date, date);
+            return computeRange(date, date).get(date);
+        });
+    }
+
+    @Override
+    public List<DailyOccupancy> getOccupancyRange(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+
+        List<DailyOccupancy> stored = occupancyRepository
+                .findByOccupancyDateBetweenOrderByOccupancyDateAsc(startDate, endDate);
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (stored.size() == days) {
+            return stored;
+        }
+
+        // Fill the gaps from one span query and have them materialized in the background
+        Map<LocalDate, DailyOccupancy> byDate = stored.stream()
+                .collect(Collectors.toMap(DailyOccupancy::getOccupancyDate, Function.identity()));
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            if (!byDate.containsKey(d)) {
+                firstMissing = firstMissing == null ? d : firstMissing;
+                lastMissing = d;
+            }
+        }
+        Map<LocalDate, DailyOccupancy> computed = computeRange(firstMissing, lastMissing);
+        enqueue(firstMissing, lastMissing);
+
+        List<DailyOccupancy> result = new ArrayList<>(days);
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            result.add(byDate.containsKey(d) ? byDate.get(d) : computed.get(d));
+        }
+        return result;
+    }
+
+    // ========== INCREMENTAL REFRESH ==========
+
+    @Override
+    public void markDirty(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(startDate, endDate);
+                }
+            });
+        } else {
+            enqueue(startDate, endDate);
+        }
+    }
+
+    private void enqueue(LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate.isAfter(endDate) ? endDate : startDate;
+        LocalDate to = startDate.isAfter(endDate) ? startDate : endDate;
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            to = from.plusDays(maxRangeDays - 1L);
+        }
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            dirtyDates.add(d);
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::flushDirty, refreshDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushDirty() {
+        flushScheduled.set(false);
+
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate next;
+        while ((next = dirtyDates.pollFirst()) != null) {
+            dates.add(next);
+        }
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        // Contiguous runs => one span query each
+        LocalDate runStart = dates.get(0);
+        LocalDate runEnd = runStart;
+        for (int i = 1; i <= dates.size(); i++) {
+            LocalDate d = i < dates.size() ? dates.get(i) : null;
+            if (d != null && d.equals(runEnd.plusDays(1))) {
+                runEnd = d;
+                continue;
+            }
+            try {
+                writeRange(runStart, runEnd);
+            } catch (Exception e) {
+                // The nightly backfill repairs anything missed here
+                log.error("Failed to refresh daily occupancy {} - {}: {}", runStart, runEnd, e.getMessage(), e);
+            }
+            if (d != null) {
+                runStart = d;
+                runEnd = d;
+            }
+        }
+    }
+
+    // ========== BACKFILL ==========
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        try {
+            return refresher.submit(() -> writeRange(startDate, endDate)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Occupancy rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Occupancy rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public int backfill() {
+        LocalDate today = LocalDate.now();
+        int written = rebuild(today.minusDays(backfillDaysBack), today.plusDays(backfillHorizonDays));
+        log.info("Daily occupancy backfill wrote {} dates", written);
+        return written;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (occupancyRepository.count() > 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        refresher.submit(() -> {
+            try {
+                int written = writeRange(today.minusDays(backfillDaysBack), today.plusDays(backfillHorizonDays));
+                log.info("Initial daily occupancy backfill wrote {} dates", written);
+            } catch (Exception e) {
+                log.error("Initial daily occupancy backfill failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    // ========== COMPUTATION ==========
+
+    private int writeRange(LocalDate startDate, LocalDate endDate) {
+        int written = 0;
+        for (LocalDate chunkStart = startDate; !chunkStart.isAfter(endDate); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(CHUNK_DAYS - 1L);
+            LocalDate from = chunkStart;
+            LocalDate to = chunkEnd.isAfter(endDate) ? endDate : chunkEnd;
+            Integer count = transactionTemplate.execute(status -> upsertRange(from, to));
+            written += count != null ? count : 0;
+        }
+        return written;
+    }
+
+    private int upsertRange(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, DailyOccupancy> computed = computeRange(startDate, endDate);
+        Map<LocalDate, DailyOccupancy> existing = occupancyRepository
+                .findByOccupancyDateBetweenOrderByOccupancyDateAsc(startDate, endDate).stream()
+                .collect(Collectors.toMap(DailyOccupancy::getOccupancyDate, Function.identity()));
+
+        List<DailyOccupancy> rows = new ArrayList<>(computed.size());
+        for (DailyOccupancy fresh : computed.values()) {
+            DailyOccupancy row = existing.get(fresh.getOccupancyDate());
+            if (row != null) {
+                fresh.setId(row.getId());
+            }
+            rows.add(fresh);
+        }
+        occupancyRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Build unsaved snapshots for every date in the range from a single span query
+     */
+    private Map<LocalDate, DailyOccupancy> computeRange(LocalDate startDate, LocalDate endDate) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int totalRooms = (int) roomRepository.count();
+
+        List<Set<Long>> occupied = new ArrayList<>(days);
+        List<Set<Long>> reserved = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            occupied.add(new HashSet<>());
+            reserved.add(new HashSet<>());
+        }
+        int[] guests = new int[days];
+        int[] arrivals = new int[days];
+        int[] departures = new int[days];
+        int[] pending = new int[days];
+        int[] confirmed = new int[days];
+
+        Set<Long> countedReservations = new HashSet<>();
+        for (Object[] row : reservationRepository.findOccupancySpans(startDate, endDate)) {
+            Long reservationId = (Long) row[0];
+            LocalDate checkIn = (LocalDate) row[1];
+            LocalDate checkOut = (LocalDate) row[2];
+            ReservationStatus status = (ReservationStatus) row[3];
+            Long roomId = (Long) row[4];
+
+            int from = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, checkIn));
+            int to = (int) Math.min(days - 1, ChronoUnit.DAYS.between(startDate, checkOut));
+
+            if (roomId != null && status == ReservationStatus.CHECKED_IN) {
+                for (int i = from; i <= to; i++) {
+                    occupied.get(i).add(roomId);
+                }
+            } else if (roomId != null && status == ReservationStatus.CONFIRMED) {
+                for (int i = from; i <= to; i++) {
+                    reserved.get(i).add(roomId);
+                }
+            }
+
+            // Per-reservation counts, once regardless of how many rooms it holds
+            if (!countedReservations.add(reservationId)) {
+                continue;
+            }
+            int partySize = (row[5] != null ? (Integer) row[5] : 0) + (row[6] != null ? (Integer) row[6] : 0);
+            for (int i = from; i <= to; i++) {
+                if (status == ReservationStatus.CHECKED_IN) {
+                    guests[i] += partySize;
+                } else if (status == ReservationStatus.PENDING) {
+                    pending[i]++;
+                } else if (status == ReservationStatus.CONFIRMED) {
+                    confirmed[i]++;
+                }
+            }
+            if (!checkIn.isBefore(startDate) && !checkIn.isAfter(endDate)) {
+                arrivals[(int) ChronoUnit.DAYS.between(startDate, checkIn)]++;
+            }
+            if (!checkOut.isBefore(startDate) && !checkOut.isAfter(endDate)) {
+                departures[(int) ChronoUnit.DAYS.between(startDate, checkOut)]++;
+            }
+        }
+
+        Instant now = Instant.now();
+        Map<LocalDate, DailyOccupancy> result = new LinkedHashMap<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate date = startDate.plusDays(i);
+            int occupiedRooms = occupied.get(i).size();
+            int reservedRooms = reserved.get(i).size();
+            result.put(date, DailyOccupancy.builder()
+                    .occupancyDate(date)
+                    .totalRooms(totalRooms)
+                    .occupiedRooms(occupiedRooms)
+                    .reservedRooms(reservedRooms)
+                    .availableRooms(totalRooms - occupiedRooms - reservedRooms)
+                    .inHouseGuests(guests[i])
+                    .arrivals(arrivals[i])
+                    .departures(departures[i])
+                    .pendingReservations(pending[i])
+                    .confirmedReservations(confirmed[i])
+                    .refreshedAt(now)
+                    .build());
+        }
+        return result;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new ValidationException("Start and end dates are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new ValidationException("Date range must not exceed " + maxRangeDays + " days");
+        }
+    }
+}
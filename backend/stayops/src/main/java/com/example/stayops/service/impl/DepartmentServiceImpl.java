@@ -10,6 +10,7 @@ import com.example.stayops.enums.StaffStatus;
 import com.example.stayops.repository.DepartmentRepository;
 import com.example.stayops.repository.HotelRepository;
 import com.example.stayops.service.DepartmentService;
+import com.example.stayops.service.EnhancedPerformanceService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final HotelRepository hotelRepository;
+    private final EnhancedPerformanceService performanceService;
 
     @Override
     @Transactional
@@ -59,6 +61,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             Department savedDepartment = departmentRepository.save(department);
             departmentRepository.flush();
+            performanceService.invalidateLeaderboard();
 
             log.info("Department created successfully with id: {}", savedDepartment.getId());
 
@@ -111,6 +114,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             Department updatedDepartment = departmentRepository.save(department);
             departmentRepository.flush();
+            performanceService.invalidateLeaderboard();
 
             log.info("Department updated successfully: {}", updatedDepartment.getId());
 
@@ -138,6 +142,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
             departmentRepository.deleteById(id);
             departmentRepository.flush();
+            performanceService.invalidateLeaderboard();
 
             log.info("Department deleted successfully: {}", id);
 
@@ -1,20 +1,26 @@
 package com.example.stayops.service.impl;
 
 import com.example.stayops.dto.PaymentTransactionDTO;
+import com.example.stayops.dto.PaymentTransitionRow;
 import com.example.stayops.entity.PaymentTransaction;
+import com.example.stayops.entity.PaymentWebhookMessage;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.enums.PaymentStatus;
 import com.example.stayops.enums.ReservationStatus;
 import com.example.stayops.event.EventPublisher;
 import com.example.stayops.event.PaymentEvent;
 import com.example.stayops.repository.PaymentTransactionRepository;
+import com.example.stayops.repository.PaymentWebhookMessageRepository;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.BulkStatusTransitionService;
 import com.example.stayops.service.PaymentService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +28,15 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,7 +48,27 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentTransactionRepository paymentRepository;
     private final ReservationRepository reservationRepository;
     private final EventPublisher eventPublisher;
+    private final PaymentWebhookMessageRepository webhookRepository;
     private final ObjectMapper objectMapper;
+    private final BulkStatusTransitionService bulkTransitions;
+
+    @Value("${webhook.payment.secret:your-webhook-secret}")
+    private String webhookSecret;
+
+    @Value("${webhook.signature.algorithm:HmacSHA256}")
+    private String webhookAlgorithm;
+
+    // Mac is not thread-safe; one initialised instance per request thread
+    private final ThreadLocal<Mac> webhookMac = ThreadLocal.withInitial(this::newWebhookMac);
+
+    // Recently seen provider event ids, so retry storms are answered without a query
+    private static final int RECENT_WEBHOOK_EVENTS = 10_000;
+    private final Map<String, Boolean> recentWebhookEvents = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_WEBHOOK_EVENTS;
+        }
+    };
 
     @Override
     @Transactional
@@ -84,104 +115,198 @@ public class PaymentServiceImpl implements PaymentService {
         return mapToDTO(saved);
     }
 
-    @Override
-    @Transactional
-    public PaymentTransactionDTO processWebhook(String webhookPayload, String signature) {
-        log.info("Processing payment webhook");
+    // ========== WEBHOOK INBOX ==========
 
-        // Validate webhook signature
+    /**
+     * Verify and record a provider webhook, acknowledging it without touching the payment.
+     * PaymentWebhookProcessor applies it later via applyWebhookEvent, in order per
+     * providerTransactionId. Retries of an already recorded event are answered as duplicates.
+     */
+    @Override
+    public Map<String, Object> processWebhook(String webhookPayload, String signature) {
         if (!validateWebhookSignature(webhookPayload, signature)) {
             log.error("Invalid webhook signature");
             throw new SecurityException("Invalid webhook signature");
         }
 
+        JsonNode payloadNode;
         try {
-            // Parse webhook payload
-            JsonNode payloadNode = objectMapper.readTree(webhookPayload);
-
-            String transactionId = payloadNode.path("transaction_id").asText();
-            String status = payloadNode.path("status").asText();
-            String failureReason = payloadNode.path("failure_reason").asText(null);
-
-            PaymentTransaction payment = paymentRepository
-                    .findByProviderTransactionId(transactionId)
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "Payment not found: " + transactionId));
-
-            PaymentStatus oldStatus = payment.getStatus();
-
-            // Update payment status based on webhook
-            switch (status.toLowerCase()) {
-                case "succeeded":
-                case "captured":
-                    payment.setStatus(PaymentStatus.CAPTURED);
-                    payment.setProcessedAt(Instant.now());
-                    payment.setProcessedBy("WEBHOOK");
-                    break;
-                case "authorized":
-                    payment.setStatus(PaymentStatus.AUTHORIZED);
-                    break;
-                case "failed":
-                    payment.setStatus(PaymentStatus.FAILED);
-                    payment.setFailureReason(failureReason);
-                    break;
-                case "refunded":
-                    payment.setStatus(PaymentStatus.REFUNDED);
-                    break;
-                default:
-                    log.warn("Unknown payment status: {}", status);
-                    payment.setStatus(PaymentStatus.PENDING);
-            }
+            payloadNode = objectMapper.readTree(webhookPayload);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed webhook payload", e);
+        }
+
+        String eventId = resolveProviderEventId(payloadNode, webhookPayload);
+        String transactionId = payloadNode.path("transaction_id").asText(null);
+
+        if (isRecentWebhookEvent(eventId) || webhookRepository.existsByProviderEventId(eventId)) {
+            rememberWebhookEvent(eventId);
+            log.debug("Duplicate payment webhook ignored: {}", eventId);
+            return webhookAck("duplicate", eventId, null);
+        }
 
-            payment.setWebhookPayload(webhookPayload);
-            PaymentTransaction saved = paymentRepository.save(payment);
-
-            // Publish payment event for other automations
-            String eventType = saved.getStatus() == PaymentStatus.CAPTURED ? "SUCCESS" :
-                    saved.getStatus() == PaymentStatus.FAILED ? "FAILED" :
-                            saved.getStatus() == PaymentStatus.AUTHORIZED ? "AUTHORIZED" : "UPDATED";
-
-            eventPublisher.publishPaymentEvent(PaymentEvent.builder()
-                    .paymentId(saved.getId())
-                    .reservationId(saved.getReservation().getReservationId())
-                    .status(saved.getStatus())
-                    .amount(saved.getAmount())
-                    .eventType(eventType)
-                    .eventTime(Instant.now())
-                    .providerTransactionId(saved.getProviderTransactionId())
+        PaymentWebhookMessage message;
+        try {
+            message = webhookRepository.save(PaymentWebhookMessage.builder()
+                    .providerEventId(eventId)
+                    .providerTransactionId(transactionId)
+                    .payload(webhookPayload)
                     .build());
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent delivery of the same event won the insert
+            rememberWebhookEvent(eventId);
+            return webhookAck("duplicate", eventId, null);
+        }
 
-            log.info("Payment webhook processed: {} -> {} for transaction {}",
-                    oldStatus, saved.getStatus(), transactionId);
+        rememberWebhookEvent(eventId);
+        eventPublisher.publishPaymentWebhookReceived(message.getId(), eventId, transactionId);
 
-            return mapToDTO(saved);
+        log.info("Payment webhook {} accepted for transaction {}", eventId, transactionId);
+        return webhookAck("accepted", eventId, message.getId());
+    }
 
+    @Override
+    @Transactional
+    public void applyWebhookEvent(Long inboxId) {
+        PaymentWebhookMessage message = webhookRepository.findById(inboxId)
+                .orElseThrow(() -> new EntityNotFoundException("Webhook message not found: " + inboxId));
+        if (!"PENDING".equals(message.getStatus())) {
+            return;
+        }
+
+        JsonNode payloadNode;
+        try {
+            payloadNode = objectMapper.readTree(message.getPayload());
         } catch (Exception e) {
-            log.error("Error processing webhook: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to process webhook", e);
+            throw new IllegalArgumentException("Malformed webhook payload", e);
+        }
+
+        String transactionId = payloadNode.path("transaction_id").asText();
+        String status = payloadNode.path("status").asText();
+        String failureReason = payloadNode.path("failure_reason").asText(null);
+
+        PaymentTransaction payment = paymentRepository
+                .findByProviderTransactionId(transactionId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Payment not found: " + transactionId));
+
+        PaymentStatus oldStatus = payment.getStatus();
+
+        // Update payment status based on webhook
+        switch (status.toLowerCase()) {
+            case "succeeded":
+            case "captured":
+                payment.setStatus(PaymentStatus.CAPTURED);
+                payment.setProcessedAt(Instant.now());
+                payment.setProcessedBy("WEBHOOK");
+                break;
+            case "authorized":
+                payment.setStatus(PaymentStatus.AUTHORIZED);
+                break;
+            case "failed":
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setFailureReason(failureReason);
+                break;
+            case "refunded":
+                payment.setStatus(PaymentStatus.REFUNDED);
+                break;
+            default:
+                log.warn("Unknown payment status: {}", status);
+                payment.setStatus(PaymentStatus.PENDING);
         }
+
+        payment.setWebhookPayload(message.getPayload());
+        PaymentTransaction saved = paymentRepository.save(payment);
+
+        message.setStatus("PROCESSED");
+        message.setProcessedAt(Instant.now());
+        webhookRepository.save(message);
+
+        // Publish payment event for other automations
+        String eventType = saved.getStatus() == PaymentStatus.CAPTURED ? "SUCCESS" :
+                saved.getStatus() == PaymentStatus.FAILED ? "FAILED" :
+                        saved.getStatus() == PaymentStatus.AUTHORIZED ? "AUTHORIZED" : "UPDATED";
+
+        eventPublisher.publishPaymentEvent(PaymentEvent.builder()
+                .paymentId(saved.getId())
+                .reservationId(saved.getReservation().getReservationId())
+                .status(saved.getStatus())
+                .amount(saved.getAmount())
+                .eventType(eventType)
+                .eventTime(Instant.now())
+                .providerTransactionId(saved.getProviderTransactionId())
+                .build());
+
+        log.info("Payment webhook {} applied: {} -> {} for transaction {}",
+                message.getProviderEventId(), oldStatus, saved.getStatus(), transactionId);
     }
 
     private boolean validateWebhookSignature(String payload, String signature) {
+        if (payload == null || signature == null) {
+            return false;
+        }
         try {
-            // Use a webhook secret from configuration
-            String webhookSecret = "your-webhook-secret"; // TODO: Move to config
-
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                    webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(secretKeySpec);
-
+            Mac mac = webhookMac.get();
             byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String calculatedSignature = Base64.getEncoder().encodeToString(hash);
+            byte[] calculatedSignature = Base64.getEncoder().encode(hash);
 
-            return calculatedSignature.equals(signature);
+            return MessageDigest.isEqual(calculatedSignature, signature.getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) {
             log.error("Error validating webhook signature: {}", e.getMessage());
             return false;
         }
     }
 
+    private Mac newWebhookMac() {
+        try {
+            Mac mac = Mac.getInstance(webhookAlgorithm);
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), webhookAlgorithm));
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot initialise webhook " + webhookAlgorithm, e);
+        }
+    }
+
+    /**
+     * Provider event id from the payload; identical bodies hash to the same id when absent
+     */
+    private String resolveProviderEventId(JsonNode payloadNode, String payload) {
+        String eventId = payloadNode.path("event_id").asText(null);
+        if (eventId == null || eventId.isBlank()) {
+            eventId = payloadNode.path("id").asText(null);
+        }
+        if (eventId != null && !eventId.isBlank()) {
+            return eventId.length() > 128 ? eventId.substring(0, 128) : eventId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(payload.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private boolean isRecentWebhookEvent(String eventId) {
+        synchronized (recentWebhookEvents) {
+            return recentWebhookEvents.containsKey(eventId);
+        }
+    }
+
+    private void rememberWebhookEvent(String eventId) {
+        synchronized (recentWebhookEvents) {
+            recentWebhookEvents.put(eventId, Boolean.TRUE);
+        }
+    }
+
+    private Map<String, Object> webhookAck(String status, String eventId, Long inboxId) {
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("status", status);
+        ack.put("eventId", eventId);
+        ack.put("inboxId", inboxId);
+        return ack;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaymentTransactionDTO getByIdempotencyKey(String idempotencyKey) {
@@ -259,28 +384,15 @@ public class PaymentServiceImpl implements PaymentService {
         log.info("Processing timeout payments (timeout: {} minutes)", timeoutMinutes);
 
         Instant threshold = Instant.now().minus(Duration.ofMinutes(timeoutMinutes));
-        List<PaymentTransaction> timedOutPayments = paymentRepository.findPendingPaymentsOlderThan(threshold);
-
-        for (PaymentTransaction payment : timedOutPayments) {
-            payment.setStatus(PaymentStatus.TIMEOUT);
-            payment.setFailureReason("Payment timed out after " + timeoutMinutes + " minutes");
-
-            eventPublisher.publishPaymentEvent(PaymentEvent.builder()
-                    .paymentId(payment.getId())
-                    .reservationId(payment.getReservation().getReservationId())
-                    .status(PaymentStatus.TIMEOUT)
-                    .amount(payment.getAmount())
-                    .eventType("FAILED")
-                    .eventTime(Instant.now())
-                    .build());
-
-            log.info("Payment {} timed out", payment.getId());
-        }
+        List<PaymentTransitionRow> timedOutPayments =
+                paymentRepository.findTransitionRowsByStatusAndCreatedAtBefore(PaymentStatus.PENDING, threshold);
 
-        paymentRepository.saveAll(timedOutPayments);
+        // One UPDATE per chunk and one batched FAILED event instead of a save and an event per payment
+        int timedOut = bulkTransitions.transitionPayments(timedOutPayments, PaymentStatus.PENDING, PaymentStatus.TIMEOUT,
+                "Payment timed out after " + timeoutMinutes + " minutes", "FAILED");
 
-        log.info("Processed {} timeout payments", timedOutPayments.size());
-        return timedOutPayments.size();
+        log.info("Processed {} timeout payments", timedOut);
+        return timedOut;
     }
 
     @Override
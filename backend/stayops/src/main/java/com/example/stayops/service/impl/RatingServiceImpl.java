@@ -5,26 +5,66 @@ import com.example.stayops.dto.RatingRequestDTO;
 import com.example.stayops.dto.RatingStatsDTO;
 import com.example.stayops.entity.Guest;
 import com.example.stayops.entity.Rating;
+import com.example.stayops.entity.RatingAggregate;
 import com.example.stayops.entity.Reservation;
+import com.example.stayops.entity.Room;
 import com.example.stayops.exception.ResourceNotFoundException;
 import com.example.stayops.repository.GuestRepository;
+import com.example.stayops.repository.RatingAggregateRepository;
 import com.example.stayops.repository.RatingRepository;
 import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.service.RatingService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Ratings, with stats served from RatingAggregate running totals instead of AVG scans over the
+ * ratings table. Every change that alters what a published rating contributes (create, update,
+ * delete, publish/unpublish) applies the difference to the aggregates in the same transaction.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RatingServiceImpl implements RatingService {
 
+    public static final String BUCKET_ALL = "ALL";
+    public static final String BUCKET_MONTH = "MONTH";
+    public static final String BUCKET_ROOM_TYPE = "ROOM_TYPE";
+
+    private static final Map<String, Function<Rating, Integer>> DIMENSIONS = new LinkedHashMap<>();
+
+    static {
+        DIMENSIONS.put("OVERALL", Rating::getOverallRating);
+        DIMENSIONS.put("CLEANLINESS", Rating::getCleanlinessRating);
+        DIMENSIONS.put("SERVICE", Rating::getServiceRating);
+        DIMENSIONS.put("AMENITIES", Rating::getAmenitiesRating);
+        DIMENSIONS.put("VALUE", Rating::getValueRating);
+        DIMENSIONS.put("LOCATION", Rating::getLocationRating);
+    }
+
     private final RatingRepository ratingRepository;
     private final GuestRepository guestRepository;
     private final ReservationRepository reservationRepository;
+    private final RatingAggregateRepository aggregateRepository;
+
+    /**
+     * What one rating adds to the aggregates: its buckets and its value per dimension
+     */
+    private record Contribution(String month, Set<String> roomTypes, Map<String, Integer> values) {
+    }
+
+    private record AggregateKey(String bucketType, String bucketKey, String dimension) {
+    }
 
     @Override
     @Transactional
@@ -54,8 +94,10 @@ public class RatingServiceImpl implements RatingService {
                 .isVerified(true)
                 .isPublished(true)
                 .build();
+        recordRoomTypes(rating);
 
         Rating saved = ratingRepository.save(rating);
+        applyToAggregates(null, contributionOf(saved));
         return mapToDTO(saved);
     }
 
@@ -68,6 +110,8 @@ public class RatingServiceImpl implements RatingService {
         if (!rating.getGuest().getGuestId().equals(guestId)) {
             throw new RuntimeException("Unauthorized to update this rating");
         }
+        Contribution before = contributionOf(rating);
+        recordRoomTypes(rating);
 
         rating.setOverallRating(requestDTO.getOverallRating());
         rating.setCleanlinessRating(requestDTO.getCleanlinessRating());
@@ -80,6 +124,7 @@ public class RatingServiceImpl implements RatingService {
         rating.setImprovements(requestDTO.getImprovements());
 
         Rating updated = ratingRepository.save(rating);
+        applyToAggregates(before, contributionOf(updated));
         return mapToDTO(updated);
     }
 
@@ -93,6 +138,7 @@ public class RatingServiceImpl implements RatingService {
             throw new RuntimeException("Unauthorized to delete this rating");
         }
 
+        applyToAggregates(contributionOf(rating), null);
         ratingRepository.delete(rating);
     }
 
@@ -127,15 +173,32 @@ public class RatingServiceImpl implements RatingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RatingStatsDTO getRatingStats() {
-        return RatingStatsDTO.builder()
-                .averageOverallRating(ratingRepository.getAverageOverallRating())
-                .averageCleanlinessRating(ratingRepository.getAverageCleanlinessRating())
-                .averageServiceRating(ratingRepository.getAverageServiceRating())
-                .averageAmenitiesRating(ratingRepository.getAverageAmenitiesRating())
-                .averageValueRating(ratingRepository.getAverageValueRating())
-                .totalRatings(ratingRepository.getTotalPublishedRatings())
-                .build();
+        return toStats(BUCKET_ALL, aggregateRepository.findByBucketTypeAndBucketKey(BUCKET_ALL, BUCKET_ALL));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RatingStatsDTO> getRatingTrends(String bucketType, String from, String to) {
+        List<RatingAggregate> rows;
+        if (BUCKET_MONTH.equalsIgnoreCase(bucketType)) {
+            rows = from == null && to == null
+                    ? aggregateRepository.findByBucketTypeOrderByBucketKey(BUCKET_MONTH)
+                    : aggregateRepository.findByBucketTypeAndBucketKeyBetweenOrderByBucketKey(BUCKET_MONTH,
+                    from != null ? YearMonth.parse(from).toString() : "0000-01",
+                    to != null ? YearMonth.parse(to).toString() : "9999-12");
+        } else if (BUCKET_ROOM_TYPE.equalsIgnoreCase(bucketType)) {
+            rows = aggregateRepository.findByBucketTypeOrderByBucketKey(BUCKET_ROOM_TYPE);
+        } else {
+            throw new IllegalArgumentException("Unsupported bucket: " + bucketType + " (expected MONTH or ROOM_TYPE)");
+        }
+
+        Map<String, List<RatingAggregate>> byBucket = rows.stream()
+                .collect(Collectors.groupingBy(RatingAggregate::getBucketKey, LinkedHashMap::new, Collectors.toList()));
+        List<RatingStatsDTO> trends = new ArrayList<>();
+        byBucket.forEach((bucket, bucketRows) -> trends.add(toStats(bucket, bucketRows)));
+        return trends;
     }
 
     @Override
@@ -143,8 +206,171 @@ public class RatingServiceImpl implements RatingService {
     public void publishRating(Long ratingId, Boolean isPublished) {
         Rating rating = ratingRepository.findById(ratingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Rating not found with id: " + ratingId));
+        Contribution before = contributionOf(rating);
+        recordRoomTypes(rating);
         rating.setIsPublished(isPublished);
         ratingRepository.save(rating);
+        applyToAggregates(before, contributionOf(rating));
+    }
+
+    // ========== AGGREGATES ==========
+
+    /**
+     * Fill the aggregates from existing ratings on first start (the table is new or was cleared)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeRatingAggregates() {
+        try {
+            if (aggregateRepository.count() == 0) {
+                rebuildRatingAggregates();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize rating aggregates: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute every aggregate from the published ratings; returns the number of ratings counted
+     */
+    @Override
+    @Transactional
+    public int rebuildRatingAggregates() {
+        // Taken before reading the ratings: changes that already touched the aggregates commit
+        // first and are counted below, later ones wait and apply their deltas on top
+        aggregateRepository.lockHotelWideRows();
+
+        List<Rating> published = ratingRepository.findPublishedWithRooms();
+        Map<AggregateKey, long[]> deltas = new LinkedHashMap<>();
+        for (Rating rating : published) {
+            recordRoomTypes(rating);
+            accumulate(deltas, contributionOf(rating), 1);
+        }
+        aggregateRepository.deleteAllInBatch();
+        flush(deltas);
+        log.info("Rebuilt rating aggregates from {} published ratings ({} rows)", published.size(), deltas.size());
+        return published.size();
+    }
+
+    /**
+     * Null when the rating is not published, so it contributes nothing. Room types come from what
+     * was recorded on the rating, not the reservation's current rooms, so a before/after pair
+     * always removes exactly what was added
+     */
+    private Contribution contributionOf(Rating rating) {
+        if (!Boolean.TRUE.equals(rating.getIsPublished())) {
+            return null;
+        }
+        Map<String, Integer> values = new LinkedHashMap<>();
+        DIMENSIONS.forEach((dimension, value) -> values.put(dimension, value.apply(rating)));
+
+        // Ratings counted before room types were recorded fall back to the current rooms
+        Set<String> roomTypes = rating.getAggregatedRoomTypes() == null
+                ? currentRoomTypes(rating)
+                : Arrays.stream(rating.getAggregatedRoomTypes().split(","))
+                        .filter(type -> !type.isEmpty())
+                        .collect(Collectors.toCollection(TreeSet::new));
+        return new Contribution(YearMonth.from(rating.getCreatedAt()).toString(), roomTypes, values);
+    }
+
+    /**
+     * Re-read the reservation's room types onto the rating; call before computing the "after" contribution
+     */
+    private void recordRoomTypes(Rating rating) {
+        rating.setAggregatedRoomTypes(String.join(",", currentRoomTypes(rating)));
+    }
+
+    private Set<String> currentRoomTypes(Rating rating) {
+        Set<String> roomTypes = new TreeSet<>();
+        if (rating.getReservation() != null && rating.getReservation().getRooms() != null) {
+            rating.getReservation().getRooms().stream()
+                    .map(Room::getType)
+                    .filter(Objects::nonNull)
+                    .forEach(roomTypes::add);
+        }
+        return roomTypes;
+    }
+
+    /**
+     * Apply the difference between what a rating contributed before and after a change; only the
+     * bucket/dimension rows whose totals actually move are written
+     */
+    private void applyToAggregates(Contribution before, Contribution after) {
+        Map<AggregateKey, long[]> deltas = new LinkedHashMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        flush(deltas);
+    }
+
+    // Delta layout: [count, sum, stars1 .. stars5]
+    private static void accumulate(Map<AggregateKey, long[]> deltas, Contribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        List<String[]> buckets = new ArrayList<>();
+        buckets.add(new String[]{BUCKET_ALL, BUCKET_ALL});
+        buckets.add(new String[]{BUCKET_MONTH, contribution.month()});
+        contribution.roomTypes().forEach(type -> buckets.add(new String[]{BUCKET_ROOM_TYPE, type}));
+
+        for (String[] bucket : buckets) {
+            contribution.values().forEach((dimension, value) -> {
+                if (value == null) {
+                    return;
+                }
+                long[] delta = deltas.computeIfAbsent(new AggregateKey(bucket[0], bucket[1], dimension),
+                        key -> new long[7]);
+                delta[0] += sign;
+                delta[1] += (long) sign * value;
+                if (value >= 1 && value <= 5) {
+                    delta[1 + value] += sign;
+                }
+            });
+        }
+    }
+
+    private void flush(Map<AggregateKey, long[]> deltas) {
+        Instant now = Instant.now();
+        deltas.forEach((key, d) -> {
+            if (Arrays.stream(d).anyMatch(v -> v != 0)) {
+                aggregateRepository.addDeltas(key.bucketType(), key.bucketKey(), key.dimension(),
+                        d[0], d[1], d[2], d[3], d[4], d[5], d[6], now);
+            }
+        });
+    }
+
+    private RatingStatsDTO toStats(String bucket, List<RatingAggregate> rows) {
+        Map<String, RatingAggregate> byDimension = new HashMap<>();
+        rows.forEach(row -> byDimension.put(row.getDimension(), row));
+
+        Map<String, Map<Integer, Long>> histograms = new LinkedHashMap<>();
+        for (String dimension : DIMENSIONS.keySet()) {
+            RatingAggregate row = byDimension.get(dimension);
+            Map<Integer, Long> histogram = new LinkedHashMap<>();
+            histogram.put(1, row != null ? row.getStars1() : 0L);
+            histogram.put(2, row != null ? row.getStars2() : 0L);
+            histogram.put(3, row != null ? row.getStars3() : 0L);
+            histogram.put(4, row != null ? row.getStars4() : 0L);
+            histogram.put(5, row != null ? row.getStars5() : 0L);
+            histograms.put(dimension, histogram);
+        }
+
+        RatingAggregate overall = byDimension.get("OVERALL");
+        return RatingStatsDTO.builder()
+                .bucket(bucket)
+                .averageOverallRating(average(overall))
+                .averageCleanlinessRating(average(byDimension.get("CLEANLINESS")))
+                .averageServiceRating(average(byDimension.get("SERVICE")))
+                .averageAmenitiesRating(average(byDimension.get("AMENITIES")))
+                .averageValueRating(average(byDimension.get("VALUE")))
+                .averageLocationRating(average(byDimension.get("LOCATION")))
+                .totalRatings(overall != null ? overall.getRatingCount() : 0L)
+                .histograms(histograms)
+                .build();
+    }
+
+    // Null when nothing was rated, like AVG over no rows
+    private static Double average(RatingAggregate row) {
+        return row != null && row.getRatingCount() > 0 ? (double) row.getRatingSum() / row.getRatingCount() : null;
     }
 
     private RatingDTO mapToDTO(Rating rating) {
@@ -0,0 +1,344 @@
+package com.example.stayops.service.impl;
+
+import com.example.stayops.dto.ReservationHistoryDTO;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.service.ReservationArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves closed reservations out of the hot tables
+ *
+ * Each batch copies the reservations and everything that only exists for them (details, room
+ * links, history, rate snapshot, channel mapping, folios with line items, payments) into
+ * "*_archive" tables, then deletes the originals in the same transaction. Housekeeping tasks, holds and service requests stay and are unlinked; reservations
+ * that still have ratings, complaints or fraud alerts are left in place.
+ *
+ * The archive tables are created on startup from the hot tables' columns (CREATE TABLE ... AS
+ * SELECT, which MySQL and H2 both accept) with one index on the lookup key. They carry no foreign
+ * keys, so they never slow down writes to the hot tables. Startup fails if they cannot be prepared.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationArchiveServiceImpl implements ReservationArchiveService {
+
+    private static final String ARCHIVE_SUFFIX = "_archive";
+    private static final String BATCH_ROWS = "reservation_id IN (:ids)";
+
+    // Hot table -> rows belonging to a batch of reservation ids, copied in this order
+    private static final Map<String, String> ARCHIVED_TABLES = new LinkedHashMap<>();
+    static {
+        ARCHIVED_TABLES.put("reservations", BATCH_ROWS);
+        ARCHIVED_TABLES.put("reservation_details", BATCH_ROWS);
+        ARCHIVED_TABLES.put("room_reservations", BATCH_ROWS);
+        ARCHIVED_TABLES.put("reservation_history", BATCH_ROWS);
+        ARCHIVED_TABLES.put("rate_snapshots", BATCH_ROWS);
+        ARCHIVED_TABLES.put("channel_mappings", BATCH_ROWS);
+        ARCHIVED_TABLES.put("guest_folios", BATCH_ROWS);
+        ARCHIVED_TABLES.put("folio_line_items",
+                "folio_id IN (SELECT f.id FROM guest_folios f WHERE f.reservation_id IN (:ids))");
+        ARCHIVED_TABLES.put("payment_transactions", BATCH_ROWS);
+    }
+
+    // Children before parents
+    private static final List<String> DELETE_ORDER = List.of(
+            "folio_line_items", "guest_folios", "payment_transactions", "channel_mappings",
+            "rate_snapshots", "reservation_history", "room_reservations", "reservation_details",
+            "reservations");
+
+    // Operational rows that outlive the stay: kept, but no longer linked to the reservation
+    private static final List<String> DETACHED_TABLES =
+            List.of("housekeeping_tasks", "reservation_holds", "service_requests");
+
+    private static final String ELIGIBLE_SQL = """
+            SELECT r.reservation_id FROM reservations r
+            WHERE r.status IN (:statuses)
+              AND r.check_out_date < :cutoff
+              AND r.reservation_id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM ratings x WHERE x.reservation_id = r.reservation_id)
+              AND NOT EXISTS (SELECT 1 FROM complaints x WHERE x.reservation_id = r.reservation_id)
+              AND NOT EXISTS (SELECT 1 FROM fraud_alerts x WHERE x.reservation_id = r.reservation_id)
+              AND NOT EXISTS (
+                  SELECT 1 FROM payment_transactions p
+                  JOIN payment_transactions refund ON refund.refund_of_transaction_id = p.id
+                  WHERE p.reservation_id = r.reservation_id
+                    AND (refund.reservation_id IS NULL OR refund.reservation_id <> r.reservation_id))
+            ORDER BY r.reservation_id
+            LIMIT :limit
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${stayops.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stayops.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    // Archived stays must end before the window the occupancy backfill recomputes
+    @Value("${stayops.occupancy.backfill.days-back:30}")
+    private int occupancyDaysBack;
+
+    // Hot table -> column list shared with its archive table
+    private final Map<String, String> columnLists = new ConcurrentHashMap<>();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    // ========== SETUP ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureArchiveTables() {
+        prepareArchiveTables();
+    }
+
+    private synchronized void prepareArchiveTables() {
+        if (!columnLists.isEmpty()) {
+            return;
+        }
+        for (String table : ARCHIVED_TABLES.keySet()) {
+            String archive = table + ARCHIVE_SUFFIX;
+            if (!tableExists(archive)) {
+                String key = "folio_line_items".equals(table) ? "folio_id" : "reservation_id";
+                jdbcTemplate.execute("CREATE TABLE " + archive + " AS SELECT * FROM " + table + " WHERE 1 = 0");
+                jdbcTemplate.execute("CREATE INDEX idx_" + archive + "_" + key + " ON " + archive + " (" + key + ")");
+            }
+
+            List<String> hotColumns = columnsOf(table);
+            Set<String> archiveColumns = new HashSet<>(columnsOf(archive));
+            for (String column : hotColumns) {
+                if (!archiveColumns.contains(column)) {
+                    // Columns added to the hot table after the archive was created are dropped on copy
+                    log.warn("Column {}.{} is missing from {}; it will not be archived", table, column, archive);
+                }
+            }
+            columnLists.put(table, hotColumns.stream()
+                    .filter(archiveColumns::contains)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        if (!columnsOf("reservations" + ARCHIVE_SUFFIX).contains("archived_at")) {
+            jdbcTemplate.execute("ALTER TABLE reservations" + ARCHIVE_SUFFIX + " ADD COLUMN archived_at DATETIME(6) NULL");
+        }
+        log.info("Reservation archive tables ready: {}", ARCHIVED_TABLES.keySet());
+    }
+
+    private boolean tableExists(String table) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = SCHEMA() AND table_name = ?",
+                Long.class, table);
+        return count != null && count > 0;
+    }
+
+    private List<String> columnsOf(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns "
+                        + "WHERE table_schema = SCHEMA() AND table_name = ? ORDER BY ordinal_position",
+                String.class, table);
+    }
+
+    // ========== ARCHIVING ==========
+
+    @Override
+    public int archiveClosedReservations(int daysOld) {
+        prepareArchiveTables();
+
+        int effectiveDays = Math.max(daysOld, occupancyDaysBack);
+        LocalDate cutoff = LocalDate.now().minusDays(effectiveDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.currentTimeMillis();
+
+        Map<String, Long> reclaimed = new LinkedHashMap<>();
+        int archived = 0;
+        int batches = 0;
+        long afterId = 0;
+        String error = null;
+
+        while (batches < maxBatchesPerRun) {
+            List<Long> ids = namedJdbcTemplate.queryForList(ELIGIBLE_SQL, new MapSqlParameterSource()
+                    .addValue("statuses", List.of(ReservationStatus.CANCELLED.name(), ReservationStatus.CHECKED_OUT.name()))
+                    .addValue("cutoff", cutoff)
+                    .addValue("afterId", afterId)
+                    .addValue("limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+
+            try {
+                Map<String, Integer> deleted = transactionTemplate.execute(status -> archiveBatch(ids));
+                deleted.forEach((table, rows) -> {
+                    reclaimed.merge(table, rows.longValue(), Long::sum);
+                    Counter.builder("stayops.archive.rows")
+                            .description("Rows moved from hot tables into the reservation archive")
+                            .tag("table", table)
+                            .register(meterRegistry)
+                            .increment(rows);
+                });
+                archived += ids.size();
+                batches++;
+            } catch (Exception e) {
+                // The batch rolled back as a whole; later runs retry it
+                error = e.getMessage();
+                log.error("Archive batch after reservation {} failed: {}", ids.get(0), e.getMessage(), e);
+                break;
+            }
+        }
+
+        long elapsed = sample.stop(Timer.builder("stayops.archive.duration")
+                .description("Reservation archive run time")
+                .register(meterRegistry));
+        meterRegistry.counter("stayops.archive.reservations").increment(archived);
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", Instant.now());
+        run.put("cutoff", cutoff);
+        run.put("reservationsArchived", archived);
+        run.put("batches", batches);
+        run.put("rowsReclaimed", reclaimed);
+        run.put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        run.put("error", error);
+        lastRun = run;
+
+        log.info("Archived {} reservations (check-out before {}) in {} batches, {} ms; rows reclaimed: {}",
+                archived, cutoff, batches, System.currentTimeMillis() - started, reclaimed);
+        return archived;
+    }
+
+    private Map<String, Integer> archiveBatch(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.from(Instant.now()));
+
+        // 1. Copy
+        for (Map.Entry<String, String> entry : ARCHIVED_TABLES.entrySet()) {
+            String table = entry.getKey();
+            String columns = columnLists.get(table);
+            String sql = "reservations".equals(table)
+                    ? "INSERT INTO " + table + ARCHIVE_SUFFIX + " (" + columns + ", archived_at) SELECT "
+                            + columns + ", :archivedAt FROM " + table + " WHERE " + entry.getValue()
+                    : "INSERT INTO " + table + ARCHIVE_SUFFIX + " (" + columns + ") SELECT "
+                            + columns + " FROM " + table + " WHERE " + entry.getValue();
+            namedJdbcTemplate.update(sql, params);
+        }
+
+        // 2. Unlink rows that stay behind
+        for (String table : DETACHED_TABLES) {
+            namedJdbcTemplate.update("UPDATE " + table + " SET reservation_id = NULL WHERE " + BATCH_ROWS, params);
+        }
+        namedJdbcTemplate.update(
+                "UPDATE payment_transactions SET refund_of_transaction_id = NULL WHERE " + BATCH_ROWS, params);
+
+        // 3. Delete
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        for (String table : DELETE_ORDER) {
+            deleted.put(table, namedJdbcTemplate.update(
+                    "DELETE FROM " + table + " WHERE " + ARCHIVED_TABLES.get(table), params));
+        }
+        return deleted;
+    }
+
+    // ========== READ-THROUGH ==========
+
+    @Override
+    public Map<String, Object> getArchivedReservation(Long reservationId) {
+        prepareArchiveTables();
+
+        List<Map<String, Object>> reservation = jdbcTemplate.queryForList(
+                "SELECT * FROM reservations_archive WHERE reservation_id = ?", reservationId);
+        if (reservation.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>(reservation.get(0));
+        result.put("details", jdbcTemplate.queryForList(
+                "SELECT * FROM reservation_details_archive WHERE reservation_id = ?", reservationId)
+                .stream().findFirst().orElse(null));
+        result.put("rooms", jdbcTemplate.queryForList(
+                "SELECT rr.room_id, rm.room_number, rm.type FROM room_reservations_archive rr "
+                        + "LEFT JOIN rooms rm ON rm.id = rr.room_id WHERE rr.reservation_id = ?", reservationId));
+        result.put("history", getArchivedHistory(reservationId));
+        result.put("rateSnapshot", jdbcTemplate.queryForList(
+                "SELECT * FROM rate_snapshots_archive WHERE reservation_id = ?", reservationId)
+                .stream().findFirst().orElse(null));
+        result.put("channelMapping", jdbcTemplate.queryForList(
+                "SELECT * FROM channel_mappings_archive WHERE reservation_id = ?", reservationId)
+                .stream().findFirst().orElse(null));
+
+        List<Map<String, Object>> folios = new ArrayList<>();
+        for (Map<String, Object> folio : jdbcTemplate.queryForList(
+                "SELECT * FROM guest_folios_archive WHERE reservation_id = ?", reservationId)) {
+            Map<String, Object> withItems = new LinkedHashMap<>(folio);
+            withItems.put("lineItems", jdbcTemplate.queryForList(
+                    "SELECT * FROM folio_line_items_archive WHERE folio_id = ? ORDER BY id", folio.get("id")));
+            folios.add(withItems);
+        }
+        result.put("folios", folios);
+        result.put("payments", jdbcTemplate.queryForList(
+                "SELECT * FROM payment_transactions_archive WHERE reservation_id = ? ORDER BY id", reservationId));
+        return result;
+    }
+
+    @Override
+    public List<ReservationHistoryDTO> getArchivedHistory(Long reservationId) {
+        prepareArchiveTables();
+        return jdbcTemplate.query(
+                "SELECT history_id, previous_status, new_status, changed_by, notes, changed_at "
+                        + "FROM reservation_history_archive WHERE reservation_id = ? ORDER BY history_id",
+                (rs, rowNum) -> {
+                    Timestamp changedAt = rs.getTimestamp("changed_at");
+                    String previous = rs.getString("previous_status");
+                    String next = rs.getString("new_status");
+                    return ReservationHistoryDTO.builder()
+                            .historyId(rs.getLong("history_id"))
+                            .reservationId(reservationId)
+                            .previousStatus(previous != null ? ReservationStatus.valueOf(previous) : null)
+                            .newStatus(next != null ? ReservationStatus.valueOf(next) : null)
+                            .changedBy(rs.getString("changed_by"))
+                            .notes(rs.getString("notes"))
+                            .changedAt(changedAt != null ? changedAt.toInstant() : null)
+                            .build();
+                },
+                reservationId);
+    }
+
+    @Override
+    public Map<String, Object> getArchiveStats() {
+        prepareArchiveTables();
+
+        Map<String, Object> tables = new LinkedHashMap<>();
+        for (String table : ARCHIVED_TABLES.keySet()) {
+            tables.put(table + ARCHIVE_SUFFIX,
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + ARCHIVE_SUFFIX, Long.class));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("archiveTables", tables);
+        stats.put("batchSize", batchSize);
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+}
@@ -5,6 +5,7 @@ import com.example.stayops.entity.Reservation;
 import com.example.stayops.entity.ReservationHistory;
 import com.example.stayops.repository.ReservationHistoryRepository;
 import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.service.ReservationArchiveService;
 import com.example.stayops.service.ReservationHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ public class ReservationHistoryServiceImpl implements ReservationHistoryService
 
     private final ReservationHistoryRepository historyRepository;
     private final ReservationRepository reservationRepository;
+    private final ReservationArchiveService archiveService;
 
     @Override
     public ReservationHistoryDTO recordHistory(ReservationHistoryDTO dto) {
@@ -37,8 +39,10 @@ public class ReservationHistoryServiceImpl implements ReservationHistoryService
 
     @Override
     public List<ReservationHistoryDTO> getHistoryByReservation(Long reservationId) {
-        return historyRepository.findByReservation_ReservationId(reservationId)
+        List<ReservationHistoryDTO> history = historyRepository.findByReservation_ReservationId(reservationId)
                 .stream().map(this::toDTO).collect(Collectors.toList());
+        // Closed reservations may have been moved to the archive tables
+        return history.isEmpty() ? archiveService.getArchivedHistory(reservationId) : history;
     }
 
     private ReservationHistoryDTO toDTO(ReservationHistory entity) {
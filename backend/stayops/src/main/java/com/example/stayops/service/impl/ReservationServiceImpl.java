@@ -1,6 +1,8 @@
 package com.example.stayops.service.impl;
 
+import com.example.stayops.automation.FraudVelocityTracker;
 import com.example.stayops.dto.*;
+import com.example.stayops.entity.DailyOccupancy;
 import com.example.stayops.entity.Guest;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.entity.ReservationDetails;
@@ -14,7 +16,9 @@ import com.example.stayops.repository.ReservationDetailsRepository;
 import com.example.stayops.repository.ReservationHistoryRepository;
 import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.service.DailyOccupancyService;
 import com.example.stayops.service.ReservationService;
+import com.example.stayops.service.RoomBoardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -36,6 +40,9 @@ public class ReservationServiceImpl implements ReservationService {
     private final RoomRepository roomRepository;
     private final ReservationDetailsRepository reservationDetailsRepository;
     private final ReservationHistoryRepository reservationHistoryRepository;
+    private final FraudVelocityTracker fraudVelocityTracker;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
 
     // ==================== CRUD OPERATIONS ====================
 
@@ -82,6 +89,9 @@ public class ReservationServiceImpl implements ReservationService {
         // Add history entry
         addHistoryEntry(savedReservation, "Reservation created", null, savedReservation.getStatus());
 
+        fraudVelocityTracker.recordBooking(savedReservation.getReservationId(), guest.getEmail(),
+                savedReservation.getCreatedAt());
+
         log.info("Reservation created successfully with ID: {}", savedReservation.getReservationId());
         return mapToResponseDTO(savedReservation);
     }
@@ -118,6 +128,9 @@ public class ReservationServiceImpl implements ReservationService {
 
         // Save updated reservation
         Reservation updatedReservation = reservationRepository.save(reservation);
+        // A rooms-only edit fires no entity callback; refresh the read models explicitly
+        dailyOccupancyService.markDirty(updatedReservation.getCheckInDate(), updatedReservation.getCheckOutDate());
+        roomBoardService.reservationChanged(updatedReservation.getReservationId());
 
         // Update reservation details
         updateReservationDetails(updatedReservation, requestDTO);
@@ -154,10 +167,7 @@ public class ReservationServiceImpl implements ReservationService {
     public List<ReservationResponseDTO> getAllReservations() {
         log.info("Fetching all reservations");
 
-        List<Reservation> reservations = reservationRepository.findAll();
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.findAllListRows());
     }
 
     // ==================== CALENDAR & DATE-BASED ====================
@@ -229,9 +239,8 @@ public class ReservationServiceImpl implements ReservationService {
     public List<ReservationDayDetailDTO> getReservationsForDate(LocalDate date) {
         log.info("Fetching reservations for date: {}", date);
 
-        List<Reservation> reservations = reservationRepository.findReservationsOverlapping(date, date);
-        return reservations.stream()
-                .map(this::mapToDayDetailDTO)
+        return toResponseDTOs(reservationRepository.findListRowsOverlapping(date, date)).stream()
+                .map(this::toDayDetailDTO)
                 .collect(Collectors.toList());
     }
 
@@ -241,71 +250,15 @@ public class ReservationServiceImpl implements ReservationService {
 
         validateDates(startDate, endDate);
 
-        List<Reservation> reservations = reservationRepository.findReservationsOverlapping(startDate, endDate);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.findListRowsOverlapping(startDate, endDate));
     }
 
     // ==================== ROOM STATUS & AVAILABILITY ====================
 
     @Override
-    public List<Map<String, Object>> getAllRoomReservationStatuses() {
+    public List<RoomStatusDTO> getAllRoomReservationStatuses() {
         log.info("Fetching all room reservation statuses");
-
-        LocalDate today = LocalDate.now();
-        List<Room> allRooms = roomRepository.findAll();
-        List<Reservation> todayReservations = reservationRepository.findReservationsOverlapping(today, today);
-
-        List<Map<String, Object>> statusList = new ArrayList<>();
-
-        for (Room room : allRooms) {
-            Map<String, Object> roomStatus = new HashMap<>();
-            roomStatus.put("roomId", room.getId());
-            roomStatus.put("roomNumber", room.getRoomNumber());
-            roomStatus.put("roomType", room.getType() != null ? room.getType() : "UNKNOWN");
-
-            // Find if room has a reservation for today
-            Optional<Reservation> activeReservation = todayReservations.stream()
-                    .filter(r -> r.getRooms() != null && r.getRooms().stream()
-                            .anyMatch(rm -> rm.getId().equals(room.getId())))
-                    .filter(r -> r.getStatus() == ReservationStatus.CONFIRMED ||
-                            r.getStatus() == ReservationStatus.CHECKED_IN)
-                    .findFirst();
-
-            if (activeReservation.isPresent()) {
-                Reservation reservation = activeReservation.get();
-                roomStatus.put("status", "OCCUPIED");
-                roomStatus.put("reservationId", reservation.getReservationId());
-                roomStatus.put("reservationStatus", reservation.getStatus().name());
-
-                Guest guest = reservation.getGuest();
-                if (guest != null) {
-                    roomStatus.put("guestId", guest.getGuestId());
-                    String firstName = guest.getFirstName() != null ? guest.getFirstName() : "";
-                    String lastName = guest.getLastName() != null ? guest.getLastName() : "";
-                    roomStatus.put("guestName", (firstName + " " + lastName).trim());
-                } else {
-                    roomStatus.put("guestId", null);
-                    roomStatus.put("guestName", "Unknown Guest");
-                }
-
-                roomStatus.put("checkInDate", reservation.getCheckInDate());
-                roomStatus.put("checkOutDate", reservation.getCheckOutDate());
-            } else {
-                roomStatus.put("status", "AVAILABLE");
-                roomStatus.put("reservationId", null);
-                roomStatus.put("reservationStatus", null);
-                roomStatus.put("guestId", null);
-                roomStatus.put("guestName", null);
-                roomStatus.put("checkInDate", null);
-                roomStatus.put("checkOutDate", null);
-            }
-
-            statusList.add(roomStatus);
-        }
-
-        return statusList;
+        return roomBoardService.getBoard();
     }
 
     @Override
@@ -315,8 +268,8 @@ public class ReservationServiceImpl implements ReservationService {
         // Get all rooms
         List<Room> allRooms = roomRepository.findAll();
 
-        // Get all reservations for the date
-        List<Reservation> reservations = reservationRepository.findReservationsOverlapping(date, date);
+        // Get all reservations for the date, with rooms and guest in the same query
+        List<Reservation> reservations = reservationRepository.findOverlappingWithRoomsAndGuest(date, date);
 
         // Build status for each room
         return allRooms.stream()
@@ -335,11 +288,17 @@ public class ReservationServiceImpl implements ReservationService {
         // Get all rooms
         List<Room> allRooms = roomRepository.findAll();
 
+        // One query for the whole range, with rooms and guest fetched
+        List<Reservation> rangeReservations = reservationRepository.findOverlappingWithRoomsAndGuest(startDate, endDate);
+
         // Iterate through each date in the range
         LocalDate currentDate = startDate;
         while (!currentDate.isAfter(endDate)) {
-            // Get reservations for this date
-            List<Reservation> reservations = reservationRepository.findReservationsOverlapping(currentDate, currentDate);
+            // Reservations for this date (same inclusive overlap as findReservationsOverlapping)
+            LocalDate day = currentDate;
+            List<Reservation> reservations = rangeReservations.stream()
+                    .filter(r -> !r.getCheckInDate().isAfter(day) && !r.getCheckOutDate().isBefore(day))
+                    .toList();
 
             // Build status for each room on this date
             for (Room room : allRooms) {
@@ -361,81 +320,36 @@ public class ReservationServiceImpl implements ReservationService {
     public List<ReservationResponseDTO> getArrivalsForDate(LocalDate date) {
         log.info("Fetching arrivals for date: {}", date);
 
-        List<Reservation> reservations = reservationRepository.findByCheckInDate(date);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.findListRowsByCheckInDate(date));
     }
 
     @Override
     public List<ReservationResponseDTO> getDeparturesForDate(LocalDate date) {
         log.info("Fetching departures for date: {}", date);
 
-        List<Reservation> reservations = reservationRepository.findByCheckOutDate(date);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.findListRowsByCheckOutDate(date));
     }
 
     @Override
     public DailyOperationsSummaryDTO getDailyOperationsSummary(LocalDate date) {
         log.info("Fetching daily operations summary for date: {}", date);
 
-        // Get all rooms
-        List<Room> allRooms = roomRepository.findAll();
-        int totalRooms = allRooms.size();
-
-        // Get reservations for the date
-        List<Reservation> reservations = reservationRepository.findReservationsOverlapping(date, date);
-
-        // Get arrivals and departures
-        List<Reservation> arrivals = reservationRepository.findByCheckInDate(date);
-        List<Reservation> departures = reservationRepository.findByCheckOutDate(date);
-
-        // Count occupied rooms and guests
-        Set<Long> occupiedRoomIds = new HashSet<>();
-        int inHouseGuests = 0;
-        int pendingCount = 0;
-        int confirmedCount = 0;
-
-        for (Reservation reservation : reservations) {
-            if (reservation.getStatus() == ReservationStatus.CHECKED_IN) {
-                if (reservation.getRooms() != null) {
-                    for (Room room : reservation.getRooms()) {
-                        occupiedRoomIds.add(room.getId());
-                    }
-                }
-                // Count guests
-                if (reservation.getReservationDetails() != null) {
-                    ReservationDetails details = reservation.getReservationDetails();
-                    inHouseGuests += (details.getAdults() != null ? details.getAdults() : 0) +
-                            (details.getKids() != null ? details.getKids() : 0);
-                }
-            }
-
-            // Count by status
-            if (reservation.getStatus() == ReservationStatus.PENDING) {
-                pendingCount++;
-            } else if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
-                confirmedCount++;
-            }
-        }
-
-        int occupiedRooms = occupiedRoomIds.size();
-        int availableRooms = totalRooms - occupiedRooms;
+        DailyOccupancy occupancy = dailyOccupancyService.getOccupancy(date);
+        int totalRooms = occupancy.getTotalRooms();
+        int occupiedRooms = occupancy.getOccupiedRooms();
         double occupancyRate = totalRooms > 0 ? (double) occupiedRooms / totalRooms * 100 : 0.0;
 
         return DailyOperationsSummaryDTO.builder()
                 .date(date)
                 .totalRooms(totalRooms)
                 .occupiedRooms(occupiedRooms)
-                .availableRooms(availableRooms)
-                .expectedArrivals(arrivals.size())
-                .expectedDepartures(departures.size())
-                .inHouseGuests(inHouseGuests)
+                .availableRooms(totalRooms - occupiedRooms)
+                .expectedArrivals(occupancy.getArrivals())
+                .expectedDepartures(occupancy.getDepartures())
+                .inHouseGuests(occupancy.getInHouseGuests())
                 .occupancyRate(Math.round(occupancyRate * 100.0) / 100.0)
-                .pendingReservations(pendingCount)
-                .confirmedReservations(confirmedCount)
+                .pendingReservations(occupancy.getPendingReservations())
+                .confirmedReservations(occupancy.getConfirmedReservations())
                 .build();
     }
 
@@ -555,10 +469,7 @@ public class ReservationServiceImpl implements ReservationService {
     public List<ReservationResponseDTO> getReservationsByGuestId(String guestId) {
         log.info("Fetching reservations for guest: {}", guestId);
 
-        List<Reservation> reservations = reservationRepository.findByGuestGuestId(guestId);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.findListRowsByGuestId(guestId));
     }
 
     @Override
@@ -567,17 +478,18 @@ public class ReservationServiceImpl implements ReservationService {
         log.info("Searching reservations with filters - guestId: {}, status: {}, checkIn: {}, checkOut: {}",
                 guestId, status, checkInDate, checkOutDate);
 
-        List<Reservation> reservations = reservationRepository.findAll();
+        ReservationStatus statusFilter = null;
+        if (status != null && !status.trim().isEmpty()) {
+            try {
+                statusFilter = ReservationStatus.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return new ArrayList<>(); // no reservation can have an unknown status
+            }
+        }
 
-        return reservations.stream()
-                .filter(r -> guestId == null || guestId.trim().isEmpty() ||
-                        (r.getGuest() != null && r.getGuest().getGuestId().equals(guestId)))
-                .filter(r -> status == null || status.trim().isEmpty() ||
-                        r.getStatus().name().equalsIgnoreCase(status))
-                .filter(r -> checkInDate == null || !r.getCheckInDate().isBefore(checkInDate))
-                .filter(r -> checkOutDate == null || !r.getCheckOutDate().isAfter(checkOutDate))
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservationRepository.searchListRows(
+                guestId == null || guestId.trim().isEmpty() ? null : guestId,
+                statusFilter, checkInDate, checkOutDate));
     }
 
     // ==================== OCCUPANCY ====================
@@ -591,14 +503,22 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     public OccupancyStatsDTO getOccupancyStatsForDate(LocalDate date) {
         log.info("Fetching occupancy stats for date: {}", date);
+        return mapToOccupancyStats(dailyOccupancyService.getOccupancy(date));
+    }
 
-        // Get all rooms
-        List<Room> allRooms = roomRepository.findAll();
-        int totalRooms = allRooms.size();
+    @Override
+    public List<OccupancyStatsDTO> getOccupancyStatsForRange(LocalDate startDate, LocalDate endDate) {
+        log.info("Fetching occupancy stats from {} to {}", startDate, endDate);
+        return dailyOccupancyService.getOccupancyRange(startDate, endDate).stream()
+                .map(this::mapToOccupancyStats)
+                .collect(Collectors.toList());
+    }
 
+    private OccupancyStatsDTO mapToOccupancyStats(DailyOccupancy occupancy) {
+        int totalRooms = occupancy.getTotalRooms();
         if (totalRooms == 0) {
             OccupancyStatsDTO stats = new OccupancyStatsDTO();
-            stats.setDate(date);
+            stats.setDate(occupancy.getOccupancyDate());
             stats.setTotalRooms(0);
             stats.setOccupiedRooms(0);
             stats.setAvailableRooms(0);
@@ -608,49 +528,16 @@ public class ReservationServiceImpl implements ReservationService {
             return stats;
         }
 
-        // Get reservations for the date
-        List<Reservation> reservations = reservationRepository.findReservationsOverlapping(date, date);
-
-        // Count occupied rooms (only confirmed and checked-in reservations)
-        Set<Long> occupiedRoomIds = new HashSet<>();
-        Set<Long> reservedRoomIds = new HashSet<>();
-        int totalGuests = 0;
-
-        for (Reservation reservation : reservations) {
-            if (reservation.getStatus() == ReservationStatus.CHECKED_IN) {
-                if (reservation.getRooms() != null) {
-                    for (Room room : reservation.getRooms()) {
-                        occupiedRoomIds.add(room.getId());
-                    }
-                }
-                // Count guests
-                if (reservation.getReservationDetails() != null) {
-                    ReservationDetails details = reservation.getReservationDetails();
-                    totalGuests += (details.getAdults() != null ? details.getAdults() : 0) +
-                            (details.getKids() != null ? details.getKids() : 0);
-                }
-            } else if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
-                if (reservation.getRooms() != null) {
-                    for (Room room : reservation.getRooms()) {
-                        reservedRoomIds.add(room.getId());
-                    }
-                }
-            }
-        }
-
-        int occupiedRooms = occupiedRoomIds.size();
-        int reservedRooms = reservedRoomIds.size();
-        int availableRooms = totalRooms - occupiedRooms - reservedRooms;
-        double occupancyRate = (double) occupiedRooms / totalRooms * 100;
+        double occupancyRate = (double) occupancy.getOccupiedRooms() / totalRooms * 100;
 
         OccupancyStatsDTO stats = new OccupancyStatsDTO();
-        stats.setDate(date);
+        stats.setDate(occupancy.getOccupancyDate());
         stats.setTotalRooms(totalRooms);
-        stats.setOccupiedRooms(occupiedRooms);
-        stats.setAvailableRooms(availableRooms);
-        stats.setReservedRooms(reservedRooms);
+        stats.setOccupiedRooms(occupancy.getOccupiedRooms());
+        stats.setAvailableRooms(occupancy.getAvailableRooms());
+        stats.setReservedRooms(occupancy.getReservedRooms());
         stats.setOccupancyRate(Math.round(occupancyRate * 100.0) / 100.0);
-        stats.setTotalGuests(totalGuests);
+        stats.setTotalGuests(occupancy.getInHouseGuests());
 
         return stats;
     }
@@ -918,32 +805,37 @@ public class ReservationServiceImpl implements ReservationService {
         return dto;
     }
 
-    private ReservationDayDetailDTO mapToDayDetailDTO(Reservation reservation) {
-        ReservationDayDetailDTO dto = new ReservationDayDetailDTO();
-        dto.setReservationId(reservation.getReservationId());
-
-        // Set guestId
-        Guest guest = reservation.getGuest();
-        if (guest != null) {
-            dto.setGuestId(guest.getGuestId());
-        } else {
-            dto.setGuestId(null);
-        }
-
-        // Convert Set<Room> to Set<Long> for roomIds
-        if (reservation.getRooms() != null && !reservation.getRooms().isEmpty()) {
-            Set<Long> roomIds = reservation.getRooms().stream()
-                    .map(Room::getId)
-                    .collect(Collectors.toSet());
-            dto.setRoomIds(roomIds);
-        } else {
-            dto.setRoomIds(new HashSet<>());
+    /**
+     * Fold (reservation, room) projection rows into response DTOs, keeping query order
+     */
+    private List<ReservationResponseDTO> toResponseDTOs(List<ReservationListRow> rows) {
+        Map<Long, ReservationResponseDTO> byId = new LinkedHashMap<>();
+        for (ReservationListRow row : rows) {
+            ReservationResponseDTO dto = byId.computeIfAbsent(row.reservationId(), id -> ReservationResponseDTO.builder()
+                    .reservationId(id)
+                    .guestId(row.guestId())
+                    .roomIds(new HashSet<>())
+                    .checkInDate(row.checkInDate())
+                    .checkOutDate(row.checkOutDate())
+                    .status(row.status())
+                    .createdAt(row.createdAt())
+                    .updatedAt(row.updatedAt())
+                    .build());
+            if (row.roomId() != null) {
+                dto.getRoomIds().add(row.roomId());
+            }
         }
+        return new ArrayList<>(byId.values());
+    }
 
-        dto.setCheckInDate(reservation.getCheckInDate());
-        dto.setCheckOutDate(reservation.getCheckOutDate());
-        dto.setStatus(reservation.getStatus());
-
-        return dto;
+    private ReservationDayDetailDTO toDayDetailDTO(ReservationResponseDTO reservation) {
+        return ReservationDayDetailDTO.builder()
+                .reservationId(reservation.getReservationId())
+                .guestId(reservation.getGuestId())
+                .roomIds(reservation.getRoomIds())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .status(reservation.getStatus())
+                .build();
     }
-}
\ No newline at end of file
+}
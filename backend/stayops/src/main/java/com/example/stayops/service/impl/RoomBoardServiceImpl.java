@@ -0,0 +1,287 @@
+package com.example.stayops.service.impl;
+
+import com.example.stayops.dto.RoomStatusDTO;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.service.RoomBoardService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Live room board: roomId -> today's stay
+ *
+ * Loaded with one room query and one stay query (hash-joined on roomId), then kept current by
+ * ReservationChangeListener: after a reservation commits, only its rooms are re-read and the
+ * entries that actually changed are pushed to SSE subscribers as a "delta" event. The board is
+ * reloaded when the date rolls over.
+ *
+ * All board writes happen on the pusher thread: a reload builds a new map aside and swaps the
+ * reference, so readers never see a half-loaded board and a reload cannot interleave with a delta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomBoardServiceImpl implements RoomBoardService {
+
+    private static final List<ReservationStatus> BOARD_STATUSES =
+            List.of(ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN);
+
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+
+    @Value("${stayops.room-board.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Value("${stayops.room-board.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    // Board updates and SSE sends run on this thread, so deltas go out in commit order
+    private final ScheduledExecutorService pusher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("room-board-"));
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile Map<Long, RoomStatusDTO> board = new ConcurrentHashMap<>();
+    private volatile LocalDate boardDate;
+
+    @PostConstruct
+    void init() {
+        pusher.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pusher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    // ========== READS ==========
+
+    @Override
+    public List<RoomStatusDTO> getBoard() {
+        if (!LocalDate.now().equals(boardDate)) {
+            onPusher(() -> {
+                if (!LocalDate.now().equals(boardDate)) {
+                    reloadAndBroadcast();
+                }
+                return null;
+            });
+        }
+        return sorted(board.values());
+    }
+
+    @Override
+    public List<RoomStatusDTO> reload() {
+        return onPusher(this::reloadAndBroadcast);
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        // Snapshot and registration on the pusher thread, so no delta falls between the two
+        onPusher(() -> {
+            if (!LocalDate.now().equals(boardDate)) {
+                reloadAndBroadcast();
+            }
+            try {
+                emitter.send(SseEmitter.event().name("snapshot").data(sorted(board.values())));
+                subscribers.add(emitter);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return null;
+        });
+        return emitter;
+    }
+
+    // ========== INCREMENTAL UPDATES ==========
+
+    @Override
+    public void reservationChanged(Long reservationId) {
+        reservationsChanged(List.of(reservationId));
+    }
+
+    @Override
+    public void reservationsChanged(Collection<Long> reservationIds) {
+        Set<Long> ids = new HashSet<>(reservationIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pusher.execute(() -> applyReservationChanges(ids));
+                }
+            });
+        } else {
+            pusher.execute(() -> applyReservationChanges(ids));
+        }
+    }
+
+    private void applyReservationChanges(Set<Long> reservationIds) {
+        try {
+            if (!LocalDate.now().equals(boardDate)) {
+                reloadAndBroadcast();
+                return;
+            }
+
+            Map<Long, RoomStatusDTO> board = this.board;
+
+            // Rooms the reservations hold now, plus rooms the board still shows them in
+            Set<Long> roomIds = new HashSet<>(reservationRepository.findRoomIdsByReservationIds(reservationIds));
+            board.values().stream()
+                    .filter(entry -> reservationIds.contains(entry.getReservationId()))
+                    .forEach(entry -> roomIds.add(entry.getRoomId()));
+            roomIds.retainAll(board.keySet());
+            if (roomIds.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Object[]> stays = firstStayPerRoom(
+                    reservationRepository.findRoomBoardStaysForRooms(boardDate, BOARD_STATUSES, roomIds));
+
+            List<RoomStatusDTO> changed = new ArrayList<>();
+            for (Long roomId : roomIds) {
+                RoomStatusDTO current = board.get(roomId);
+                RoomStatusDTO updated = toEntry(roomId, current.getRoomNumber(), current.getRoomType(),
+                        stays.get(roomId));
+                if (!updated.equals(current)) {
+                    board.put(roomId, updated);
+                    changed.add(updated);
+                }
+            }
+            if (!changed.isEmpty()) {
+                broadcast("delta", changed);
+            }
+        } catch (Exception e) {
+            log.error("Failed to update room board for reservations {}: {}", reservationIds, e.getMessage(), e);
+        }
+    }
+
+    // ========== LOADING ==========
+
+    /**
+     * Pusher thread only: loads today's board into a new map, swaps it in and sends it as a snapshot
+     */
+    private List<RoomStatusDTO> reloadAndBroadcast() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Object[]> stays = firstStayPerRoom(reservationRepository.findRoomBoardStays(today, BOARD_STATUSES));
+
+        Map<Long, RoomStatusDTO> fresh = new ConcurrentHashMap<>();
+        for (Object[] room : roomRepository.findRoomBoardRooms()) {
+            Long roomId = (Long) room[0];
+            fresh.put(roomId, toEntry(roomId, (String) room[1], (String) room[2], stays.get(roomId)));
+        }
+
+        board = fresh;
+        boardDate = today;
+        log.info("Room board loaded for {} with {} rooms", today, fresh.size());
+
+        List<RoomStatusDTO> snapshot = sorted(fresh.values());
+        broadcast("snapshot", snapshot);
+        return snapshot;
+    }
+
+    private <T> T onPusher(Callable<T> task) {
+        try {
+            return pusher.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the room board", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException re ? re : new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Rows arrive ordered by reservation id; the first stay wins, as in the old per-room scan
+     */
+    private Map<Long, Object[]> firstStayPerRoom(List<Object[]> rows) {
+        Map<Long, Object[]> stays = new HashMap<>();
+        for (Object[] row : rows) {
+            stays.putIfAbsent((Long) row[0], row);
+        }
+        return stays;
+    }
+
+    private RoomStatusDTO toEntry(Long roomId, String roomNumber, String roomType, Object[] stay) {
+        RoomStatusDTO.RoomStatusDTOBuilder entry = RoomStatusDTO.builder()
+                .roomId(roomId)
+                .roomNumber(roomNumber)
+                .roomType(roomType != null ? roomType : "UNKNOWN");
+
+        if (stay == null) {
+            return entry.status("AVAILABLE").build();
+        }
+
+        String guestId = (String) stay[5];
+        String guestName = guestId == null ? "Unknown Guest"
+                : ((stay[6] != null ? stay[6] : "") + " " + (stay[7] != null ? stay[7] : "")).trim();
+
+        return entry.status("OCCUPIED")
+                .reservationId((Long) stay[1])
+                .reservationStatus(((ReservationStatus) stay[2]).name())
+                .checkInDate((LocalDate) stay[3])
+                .checkOutDate((LocalDate) stay[4])
+                .guestId(guestId)
+                .guestName(guestName)
+                .build();
+    }
+
+    // ========== PUSH ==========
+
+    private void broadcast(String eventName, Object payload) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload));
+            } catch (Exception e) {
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            if (boardDate != null && !LocalDate.now().equals(boardDate)) {
+                reloadAndBroadcast();
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Room board reload failed: {}", e.getMessage(), e);
+        }
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (Exception e) {
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private List<RoomStatusDTO> sorted(Collection<RoomStatusDTO> entries) {
+        List<RoomStatusDTO> list = new ArrayList<>(entries);
+        list.sort(Comparator.comparing(RoomStatusDTO::getRoomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return list;
+    }
+}
@@ -6,6 +6,8 @@ import com.example.stayops.entity.Reservation;
 import com.example.stayops.entity.Room;
 import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.service.DailyOccupancyService;
+import com.example.stayops.service.RoomBoardService;
 import com.example.stayops.service.RoomViewerService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +24,8 @@ public class RoomViewerServiceImpl implements RoomViewerService {
 
     private final RoomRepository roomRepository;
     private final ReservationRepository reservationRepository;
+    private final DailyOccupancyService dailyOccupancyService;
+    private final RoomBoardService roomBoardService;
 
     @Override
     @Transactional(readOnly = true)
@@ -55,6 +59,9 @@ public class RoomViewerServiceImpl implements RoomViewerService {
         reservation.getRooms().add(room);
         reservation.setUpdatedAt(Instant.now());
         reservationRepository.save(reservation);
+        // Adding a room is a collection change; notify the read models rather than rely on the entity callback
+        dailyOccupancyService.markDirty(reservation.getCheckInDate(), reservation.getCheckOutDate());
+        roomBoardService.reservationChanged(reservation.getReservationId());
 
         room.setAvailabilityStatus("RESERVED");
         roomRepository.save(room);
@@ -1,6 +1,9 @@
 package com.example.stayops.service.impl;
 
+import com.example.stayops.dto.CursorPage;
 import com.example.stayops.dto.ServiceRequestDTO;
+import com.example.stayops.dto.ServiceRequestFilterDTO;
+import com.example.stayops.dto.ServiceRequestListRow;
 import com.example.stayops.entity.ServiceRequest;
 import com.example.stayops.entity.Reservation;
 import com.example.stayops.entity.Room;
@@ -9,14 +12,22 @@ import com.example.stayops.repository.ReservationRepository;
 import com.example.stayops.repository.RoomRepository;
 import com.example.stayops.service.ServiceRequestService;
 import com.example.stayops.service.BillingService;
+import com.example.stayops.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import com.example.stayops.automation.NotificationPublisher;
+import com.example.stayops.automation.ServiceRequestDispatcher;
 
 @Slf4j
 @Service
@@ -28,6 +39,13 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
     private final RoomRepository roomRepository;
     private final NotificationPublisher notificationPublisher;
     private final BillingService billingService;
+    private final ServiceRequestDispatcher dispatcher;
+
+    @Value("${stayops.listing.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${stayops.listing.max-page-size:200}")
+    private int maxPageSize;
 
     @Override
     @Transactional
@@ -61,6 +79,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
 
         ServiceRequest saved = serviceRequestRepository.save(serviceRequest);
         log.info("Service request created successfully with ID: {}", saved.getId());
+        dispatcher.track(saved);
 
         notificationPublisher.notifyServiceRequestCreated(saved);
 
@@ -115,6 +134,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         ServiceRequest updated = serviceRequestRepository.save(serviceRequest);
+        dispatcher.track(updated);
         return mapToDTO(updated);
     }
 
@@ -123,6 +143,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
     public void deleteServiceRequest(Long id) {
         log.info("Deleting service request: {}", id);
         serviceRequestRepository.deleteById(id);
+        dispatcher.forget(id);
     }
 
     @Override
@@ -209,6 +230,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         serviceRequest.setStatus("IN_PROGRESS");
 
         ServiceRequest updated = serviceRequestRepository.save(serviceRequest);
+        dispatcher.track(updated);
 
         String staffName = serviceRequest.getAssignedTo() != null ?
                 serviceRequest.getAssignedTo() : "Staff";
@@ -247,6 +269,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         ServiceRequest updated = serviceRequestRepository.save(serviceRequest);
+        dispatcher.track(updated);
         return mapToDTO(updated);
     }
 
@@ -277,6 +300,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         ServiceRequest updated = serviceRequestRepository.save(serviceRequest);
+        dispatcher.track(updated);
 
         notificationPublisher.notifyServiceRequestCompleted(updated);
 
@@ -299,6 +323,76 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
                 .collect(Collectors.toList());
     }
 
+    // ========== LISTING & COUNTS ==========
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ServiceRequestListRow> listServiceRequests(ServiceRequestFilterDTO filter, String sort,
+                                                                 String cursor, Integer limit) {
+        ServiceRequestFilterDTO f = filter != null ? filter : new ServiceRequestFilterDTO();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit != null ? limit : defaultPageSize, 1), maxPageSize);
+
+        // One row past the page tells whether there is a next page without a COUNT
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        Instant afterCreatedAt = after != null ? after.createdAt() : null;
+        Long afterId = after != null ? after.id() : null;
+
+        List<ServiceRequestListRow> rows;
+        if (sort == null || sort.isBlank() || "newest".equalsIgnoreCase(sort)) {
+            rows = serviceRequestRepository.findListRowsNewestFirst(f.getStatus(), f.getServiceType(),
+                    f.getPriority(), f.getRoomId(), f.getReservationId(), f.getAssignedTo(), f.getRequestedBy(),
+                    f.getCreatedFrom(), f.getCreatedTo(), afterCreatedAt, afterId, page);
+        } else if ("oldest".equalsIgnoreCase(sort)) {
+            rows = serviceRequestRepository.findListRowsOldestFirst(f.getStatus(), f.getServiceType(),
+                    f.getPriority(), f.getRoomId(), f.getReservationId(), f.getAssignedTo(), f.getRequestedBy(),
+                    f.getCreatedFrom(), f.getCreatedTo(), afterCreatedAt, afterId, page);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (expected newest or oldest)");
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ServiceRequestListRow> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ServiceRequestListRow last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+        return new CursorPage<>(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getServiceRequestCounts(Instant since) {
+        Map<String, Long> byStatus = new TreeMap<>();
+        long total = 0;
+        for (Object[] row : serviceRequestRepository.countGroupedByStatus(since)) {
+            long count = ((Number) row[1]).longValue();
+            byStatus.put((String) row[0], count);
+            total += count;
+        }
+
+        Map<String, Long> openByPriority = new TreeMap<>();
+        for (Object[] row : serviceRequestRepository.countOpenGroupedByPriority()) {
+            String priority = row[0] != null ? (String) row[0] : "NONE";
+            openByPriority.merge(priority, ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        Map<String, Map<String, Long>> byServiceType = new TreeMap<>();
+        for (Object[] row : serviceRequestRepository.countGroupedByServiceTypeAndStatus(since)) {
+            byServiceType.computeIfAbsent((String) row[0], type -> new TreeMap<>())
+                    .put((String) row[1], ((Number) row[2]).longValue());
+        }
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("since", since);
+        counts.put("total", total);
+        counts.put("byStatus", byStatus);
+        counts.put("openByPriority", openByPriority);
+        counts.put("byServiceType", byServiceType);
+        return counts;
+    }
+
     private ServiceRequestDTO mapToDTO(ServiceRequest entity) {
         return ServiceRequestDTO.builder()
                 .id(entity.getId())
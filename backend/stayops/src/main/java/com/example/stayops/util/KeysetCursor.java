@@ -0,0 +1,52 @@
+package com.example.stayops.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (createdAt, id): the last row of the previous page
+ *
+ * Sent to clients as an opaque URL-safe token so the next page is read with
+ * "createdAt < :createdAt OR (createdAt = :createdAt AND id < :id)" from the index instead of an
+ * OFFSET that scans every skipped row.
+ */
+public record KeysetCursor(Instant createdAt, long id) {
+
+    /**
+     * Cursor for tables that store creation time as LocalDateTime; the UTC offset only serves the
+     * round trip through the token and is undone by localCreatedAt()
+     */
+    public static KeysetCursor of(LocalDateTime createdAt, long id) {
+        return new KeysetCursor(createdAt.toInstant(ZoneOffset.UTC), id);
+    }
+
+    public LocalDateTime localCreatedAt() {
+        return LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a blank token (first page)
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
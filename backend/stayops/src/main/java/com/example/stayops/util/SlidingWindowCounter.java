@@ -0,0 +1,114 @@
+package com.example.stayops.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyed event counter over a sliding time window
+ *
+ * Each key owns a ring of time buckets (window / bucketCount wide). Counting sums the
+ * buckets still inside the window, so memory per key is fixed and nothing is ever rescanned.
+ * The number of keys is capped: once full, idle keys are dropped first, then the
+ * least recently touched ones.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int maxKeys;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowCounter(Duration window, int bucketCount, int maxKeys) {
+        this.bucketCount = Math.max(1, bucketCount);
+        this.bucketMillis = Math.max(1, window.toMillis() / this.bucketCount);
+        this.maxKeys = Math.max(16, maxKeys);
+    }
+
+    public void increment(String key, long timestampMillis) {
+        if (key == null) {
+            return;
+        }
+        if (!windows.containsKey(key) && windows.size() >= maxKeys) {
+            evict(timestampMillis);
+        }
+        windows.computeIfAbsent(key, k -> new Window(bucketCount)).add(timestampMillis / bucketMillis);
+    }
+
+    /**
+     * Events for the key within the window ending at nowMillis
+     */
+    public long count(String key, long nowMillis) {
+        if (key == null) {
+            return 0;
+        }
+        Window window = windows.get(key);
+        return window == null ? 0 : window.sum(nowMillis / bucketMillis);
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    public void clear() {
+        windows.clear();
+    }
+
+    private synchronized void evict(long nowMillis) {
+        if (windows.size() < maxKeys) {
+            return;
+        }
+        long oldestLiveEpoch = nowMillis / bucketMillis - bucketCount + 1;
+        windows.values().removeIf(w -> w.lastEpoch < oldestLiveEpoch);
+
+        // Still full of live keys: drop the least recently touched 10%
+        int target = maxKeys - maxKeys / 10;
+        if (windows.size() >= target) {
+            windows.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastEpoch))
+                    .limit(windows.size() - target + 1L)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(windows::remove);
+        }
+    }
+
+    private static final class Window {
+        private final long[] counts;
+        private final long[] epochs;
+        private volatile long lastEpoch = Long.MIN_VALUE;
+
+        private Window(int bucketCount) {
+            this.counts = new long[bucketCount];
+            this.epochs = new long[bucketCount];
+            java.util.Arrays.fill(epochs, Long.MIN_VALUE);
+        }
+
+        private synchronized void add(long epoch) {
+            int slot = (int) Math.floorMod(epoch, (long) counts.length);
+            if (epochs[slot] > epoch) {
+                return; // older than the window this slot now covers
+            }
+            if (epochs[slot] != epoch) {
+                epochs[slot] = epoch;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+            if (epoch > lastEpoch) {
+                lastEpoch = epoch;
+            }
+        }
+
+        private synchronized long sum(long nowEpoch) {
+            long oldest = nowEpoch - counts.length + 1;
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (epochs[i] >= oldest && epochs[i] <= nowEpoch) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stayops.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct values seen per key over a sliding time window (e.g. cardholder names per card)
+ *
+ * Each key keeps at most maxValuesPerKey values with their last-seen time, so memory is
+ * bounded per key; the number of keys is capped the same way as SlidingWindowCounter.
+ * Counts saturate at maxValuesPerKey, which only needs to exceed the alert threshold.
+ */
+public class SlidingWindowDistinctCounter {
+
+    private final long windowMillis;
+    private final int maxValuesPerKey;
+    private final int maxKeys;
+    private final Map<String, Values> valuesByKey = new ConcurrentHashMap<>();
+
+    public SlidingWindowDistinctCounter(Duration window, int maxValuesPerKey, int maxKeys) {
+        this.windowMillis = window.toMillis();
+        this.maxValuesPerKey = Math.max(2, maxValuesPerKey);
+        this.maxKeys = Math.max(16, maxKeys);
+    }
+
+    public void add(String key, String value, long timestampMillis) {
+        if (key == null || value == null) {
+            return;
+        }
+        if (!valuesByKey.containsKey(key) && valuesByKey.size() >= maxKeys) {
+            evict(timestampMillis);
+        }
+        valuesByKey.computeIfAbsent(key, k -> new Values(maxValuesPerKey)).add(value, timestampMillis);
+    }
+
+    public int countDistinct(String key, long nowMillis) {
+        if (key == null) {
+            return 0;
+        }
+        Values values = valuesByKey.get(key);
+        return values == null ? 0 : values.countSince(nowMillis - windowMillis);
+    }
+
+    public int size() {
+        return valuesByKey.size();
+    }
+
+    public void clear() {
+        valuesByKey.clear();
+    }
+
+    private synchronized void evict(long nowMillis) {
+        if (valuesByKey.size() < maxKeys) {
+            return;
+        }
+        long cutoff = nowMillis - windowMillis;
+        valuesByKey.values().removeIf(v -> v.lastSeen < cutoff);
+
+        int target = maxKeys - maxKeys / 10;
+        if (valuesByKey.size() >= target) {
+            valuesByKey.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastSeen))
+                    .limit(valuesByKey.size() - target + 1L)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(valuesByKey::remove);
+        }
+    }
+
+    private static final class Values {
+        private final LinkedHashMap<String, Long> seenAt;
+        private volatile long lastSeen;
+
+        private Values(int capacity) {
+            // Access-ordered, so the value seen longest ago is evicted first
+            this.seenAt = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized void add(String value, long timestampMillis) {
+            seenAt.merge(value, timestampMillis, Math::max);
+            if (timestampMillis > lastSeen) {
+                lastSeen = timestampMillis;
+            }
+        }
+
+        private synchronized int countSince(long cutoffMillis) {
+            int count = 0;
+            for (Long seen : seenAt.values()) {
+                if (seen >= cutoffMillis) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.stayops.api;
+
+import com.example.stayops.support.QueryBudgetDataSeeder;
+import com.example.stayops.support.QueryBudgetDataSeeder.Fixture;
+import com.example.stayops.support.QueryCountingConfig;
+import com.example.stayops.support.QueryRecorder;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Per-endpoint query budgets and latency envelopes for the read-heavy REST API
+ *
+ * Each endpoint is called once to warm caches, then measured: the statements issued on the request
+ * thread must stay within the query budget, and the median of a few calls within the latency envelope.
+ * A budget failure reports every normalized statement with its repeat count, so an N+1 shows up as the
+ * one SELECT that ran hundreds of times.
+ *
+ * Runs on H2 in MySQL mode against QueryBudgetDataSeeder's volumes. Latency envelopes are generous on
+ * purpose and scale with -Dstayops.budget.latency-factor=N on slow machines.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("querybudget")
+@Import(QueryCountingConfig.class)
+class ApiQueryBudgetTest {
+
+    private static final int LATENCY_SAMPLES = 3;
+
+    private static final double LATENCY_FACTOR =
+            Double.parseDouble(System.getProperty("stayops.budget.latency-factor", "1.0"));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    @Autowired
+    private QueryBudgetDataSeeder seeder;
+
+    /**
+     * One endpoint under budget; the path is resolved against the seeded fixture
+     */
+    private record Budget(String name, Function<Fixture, String> path, int maxQueries, long maxMillis) {
+    }
+
+    private static List<Budget> budgets() {
+        return List.of(
+                // ========== Reservations ==========
+                new Budget("reservations/getAll", f -> "/api/reservations/getAll", 3, 1500),
+                new Budget("reservations/get/{id}", f -> "/api/reservations/get/" + f.reservationId(), 4, 300),
+                new Budget("reservations/arrivals", f -> "/api/reservations/arrivals?date=" + f.today(), 3, 300),
+                new Budget("reservations/departures", f -> "/api/reservations/departures?date=" + f.today(), 3, 300),
+                new Budget("reservations/date-range",
+                        f -> "/api/reservations/date-range?startDate=" + f.today() + "&endDate=" + f.today().plusDays(7), 3, 500),
+                new Budget("reservations/day", f -> "/api/reservations/day?date=" + f.today(), 3, 500),
+                new Budget("reservations/guest/{id}", f -> "/api/reservations/guest/" + f.guestId(), 3, 300),
+                new Budget("reservations/search", f -> "/api/reservations/search?status=CONFIRMED", 3, 500),
+                new Budget("reservations/room-status", f -> "/api/reservations/room-status?date=" + f.today(), 3, 500),
+                new Budget("reservations/calendar",
+                        f -> "/api/reservations/calendar?year=" + f.today().getYear() + "&month=" + f.today().getMonthValue(), 3, 1500),
+                new Budget("reservations/daily-summary", f -> "/api/reservations/daily-summary?date=" + f.today(), 3, 500),
+                new Budget("reservations/occupancy/current", f -> "/api/reservations/occupancy/current", 3, 300),
+
+                // ========== Billing ==========
+                new Budget("billing/folios/reservation/{id}",
+                        f -> "/api/billing/folios/reservation/" + f.folioReservationId(), 5, 300),
+                new Budget("billing/folios/{folioNumber}", f -> "/api/billing/folios/" + f.folioNumber(), 5, 300),
+
+                // ========== Rooms ==========
+                new Budget("rooms/getAll", f -> "/api/rooms/getAll", 3, 500),
+                new Budget("rooms/get/{id}", f -> "/api/rooms/get/" + f.roomId(), 3, 300),
+                new Budget("rooms/get/available", f -> "/api/rooms/get/available", 3, 500),
+                new Budget("rooms/type/{type}", f -> "/api/rooms/type/DELUXE", 3, 300),
+
+                // ========== Service requests ==========
+                new Budget("service-requests/all", f -> "/api/service-requests/all", 3, 1000),
+                new Budget("service-requests/status/{status}", f -> "/api/service-requests/status/PENDING", 3, 500),
+                new Budget("service-requests/reservation/{id}",
+                        f -> "/api/service-requests/reservation/" + f.reservationId(), 3, 300),
+                new Budget("service-requests/pending", f -> "/api/service-requests/pending", 3, 500),
+                new Budget("service-requests/urgent", f -> "/api/service-requests/urgent", 3, 500),
+                new Budget("service-requests/search", f -> "/api/service-requests/search?status=PENDING&limit=20", 1, 300),
+                new Budget("service-requests/counts", f -> "/api/service-requests/counts", 3, 300),
+
+                // ========== Community ==========
+                new Budget("community-messages/main", f -> "/api/community-messages/main", 3, 500),
+                new Budget("community-messages/announcements", f -> "/api/community-messages/announcements", 3, 300),
+                new Budget("community-messages/feed", f -> "/api/community-messages/feed?limit=20", 3, 300),
+                new Budget("community-messages/{id}/thread",
+                        f -> "/api/community-messages/" + f.communityMessageId() + "/thread", 3, 300),
+
+                // ========== Ratings ==========
+                new Budget("ratings/stats", f -> "/api/ratings/stats", 1, 300),
+                new Budget("ratings/stats/trends", f -> "/api/ratings/stats/trends?bucket=ROOM_TYPE", 1, 300),
+
+                // ========== Guests ==========
+                new Budget("guests/getAll", f -> "/api/v1/guests/getAll", 3, 1000),
+                new Budget("guests/{id}", f -> "/api/v1/guests/" + f.guestId(), 3, 300)
+        );
+    }
+
+    @TestFactory
+    Stream<DynamicTest> endpointsStayWithinBudget() {
+        Fixture fixture = seeder.seed();
+        return budgets().stream().map(budget -> DynamicTest.dynamicTest(budget.name(),
+                () -> assertWithinBudget(budget, budget.path().apply(fixture))));
+    }
+
+    private void assertWithinBudget(Budget budget, String path) throws Exception {
+        // Warm-up: class loading, L2 cache and the live room map must not count against the endpoint
+        call(path);
+
+        queryRecorder.start();
+        List<String> statements;
+        try {
+            call(path);
+        } finally {
+            statements = queryRecorder.stop();
+        }
+
+        long[] samples = new long[LATENCY_SAMPLES];
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            long start = System.nanoTime();
+            call(path);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        long medianMillis = samples[LATENCY_SAMPLES / 2];
+        long envelopeMillis = Math.round(budget.maxMillis() * LATENCY_FACTOR);
+
+        System.out.printf("%-40s %4d queries (budget %d), %5d ms median (envelope %d)%n",
+                budget.name(), statements.size(), budget.maxQueries(), medianMillis, envelopeMillis);
+
+        assertThat(statements.size())
+                .withFailMessage(() -> report(budget, path, statements))
+                .isLessThanOrEqualTo(budget.maxQueries());
+        assertThat(medianMillis)
+                .withFailMessage("%s took %d ms (median of %d), envelope is %d ms",
+                        path, medianMillis, LATENCY_SAMPLES, envelopeMillis)
+                .isLessThanOrEqualTo(envelopeMillis);
+    }
+
+    private void call(String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path)).andReturn();
+        int status = result.getResponse().getStatus();
+        assertThat(status).withFailMessage("GET %s returned %d: %s",
+                path, status, result.getResponse().getContentAsString()).isLessThan(400);
+    }
+
+    private static String report(Budget budget, String path, List<String> statements) {
+        Map<String, Long> counts = statements.stream()
+                .collect(Collectors.groupingBy(sql -> sql, LinkedHashMap::new, Collectors.counting()));
+
+        StringBuilder report = new StringBuilder()
+                .append("GET ").append(path).append(" issued ").append(statements.size())
+                .append(" statements, budget is ").append(budget.maxQueries()).append('\n');
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> report
+                        .append(entry.getValue() > 1 ? "  MULTIPLIED x" : "  x")
+                        .append(entry.getValue()).append("  ")
+                        .append(entry.getKey()).append('\n'));
+        return report.toString();
+    }
+}
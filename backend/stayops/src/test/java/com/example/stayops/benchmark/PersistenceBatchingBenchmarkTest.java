@@ -0,0 +1,152 @@
+package com.example.stayops.benchmark;
+
+import com.example.stayops.entity.AuditLog;
+import com.example.stayops.entity.PricingRule;
+import com.example.stayops.repository.AuditLogRepository;
+import com.example.stayops.repository.PricingRuleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after numbers for pooled ids, JDBC batching and the second-level cache
+ *
+ * Runs against the configured database, inside transactions that are rolled back.
+ * Opt-in: mvn test -Dtest=PersistenceBatchingBenchmarkTest -Dstayops.benchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "stayops.benchmark", matches = "true")
+class PersistenceBatchingBenchmarkTest {
+
+    private static final int ROWS = 2000;
+    private static final int LOOKUPS = 2000;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void auditLogInserts_identityVersusPooledBatch() {
+        Statistics statistics = statistics();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Baseline: what IDENTITY forces - one INSERT round trip per row to read back the key
+        long identityNanos = tx.execute(status -> {
+            status.setRollbackOnly();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                int n = i;
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "INSERT INTO audit_logs (entity_type, entity_id, action, actor_type, timestamp) "
+                                    + "VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                    ps.setString(1, "BENCHMARK");
+                    ps.setString(2, String.valueOf(n));
+                    ps.setString(3, "IDENTITY");
+                    ps.setString(4, "SYSTEM");
+                    ps.setTimestamp(5, Timestamp.from(Instant.now()));
+                    return ps;
+                }, new GeneratedKeyHolder());
+            }
+            return System.nanoTime() - start;
+        });
+
+        // Pooled ids: saveAll + flush goes out as JDBC batches of hibernate.jdbc.batch_size
+        statistics.clear();
+        long pooledNanos = tx.execute(status -> {
+            status.setRollbackOnly();
+            List<AuditLog> logs = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                logs.add(AuditLog.builder()
+                        .entityType("BENCHMARK")
+                        .entityId(String.valueOf(i))
+                        .action("POOLED")
+                        .actorType("SYSTEM")
+                        .build());
+            }
+            long start = System.nanoTime();
+            auditLogRepository.saveAll(logs);
+            entityManager.flush();
+            return System.nanoTime() - start;
+        });
+        long statements = statistics.getPrepareStatementCount();
+
+        System.out.printf("audit_logs x%d: IDENTITY-style %d ms, pooled+batched %d ms (%.1fx), %d statements prepared%n",
+                ROWS, identityNanos / 1_000_000, pooledNanos / 1_000_000,
+                (double) identityNanos / Math.max(1, pooledNanos), statements);
+
+        // One id block per 50 rows plus one batched INSERT statement, instead of one statement per row
+        assertThat(statements).isLessThan(ROWS / 2);
+    }
+
+    @Test
+    void pricingRuleLookups_secondLevelCache() {
+        Statistics statistics = statistics();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Long ruleId = tx.execute(status -> pricingRuleRepository.save(PricingRule.builder()
+                .ruleName("Benchmark rule")
+                .ruleType("BENCHMARK")
+                .isActive(false)
+                .priority(999)
+                .priceMultiplier(BigDecimal.ONE)
+                .build()).getId());
+
+        try {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                // New transaction (and persistence context) per lookup, as in request handling
+                tx.execute(status -> pricingRuleRepository.findById(ruleId).orElseThrow());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("PricingRule findById x%d: %d ms, L2 hits %d, misses %d, entities loaded from DB %d%n",
+                    LOOKUPS, elapsed / 1_000_000, statistics.getSecondLevelCacheHitCount(),
+                    statistics.getSecondLevelCacheMissCount(), statistics.getEntityLoadCount());
+
+            assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(1);
+        } finally {
+            tx.executeWithoutResult(status -> pricingRuleRepository.deleteById(ruleId));
+        }
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+}
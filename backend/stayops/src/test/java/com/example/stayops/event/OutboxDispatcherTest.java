@@ -0,0 +1,129 @@
+package com.example.stayops.event;
+
+import com.example.stayops.automation.ScheduledJobMonitor;
+import com.example.stayops.entity.OutboxEvent;
+import com.example.stayops.repository.OutboxConsumerOffsetRepository;
+import com.example.stayops.repository.OutboxDeadLetterRepository;
+import com.example.stayops.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    private final List<OutboxEvent> table = new ArrayList<>();
+    private final List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OutboxEventRepository outboxRepository = mock(OutboxEventRepository.class);
+        when(outboxRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+            long after = call.getArgument(0);
+            Pageable page = call.getArgument(1);
+            return table.stream()
+                    .filter(event -> event.getId() > after)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(outboxRepository.findMaxId()).thenAnswer(call -> (long) table.size());
+
+        OutboxConsumer consumer = new OutboxConsumer() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void handle(OutboxEvent envelope, Object event) {
+                if ("broken".equals(envelope.getAggregateId())) {
+                    throw new IllegalStateException("handler is down");
+                }
+                delivered.add(envelope.getId());
+            }
+        };
+
+        dispatcher = new OutboxDispatcher(List.of(consumer), outboxRepository,
+                mock(OutboxConsumerOffsetRepository.class), mock(OutboxDeadLetterRepository.class),
+                mock(ScheduledJobMonitor.class), new ObjectMapper(), new SimpleMeterRegistry(),
+                true, 2, BATCH_SIZE, 8, 1000, 10000, 900000, 60000, 300000, 2000, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void failingAggregateDoesNotHoldUpOthersBeyondOneBatch() throws Exception {
+        // Event 1 and 2 belong to an aggregate whose handler keeps failing; 3 batches' worth follow for others
+        addEvent(1, "broken");
+        addEvent(2, "broken");
+        for (long id = 3; id <= 2 + 3 * BATCH_SIZE; id++) {
+            addEvent(id, "reservation-" + id);
+        }
+
+        for (int drain = 0; drain < 5; drain++) {
+            dispatcher.drainOnce();
+        }
+
+        List<Long> others = new ArrayList<>();
+        for (long id = 3; id <= 2 + 3 * BATCH_SIZE; id++) {
+            others.add(id);
+        }
+        assertThat(delivered).containsExactlyInAnyOrderElementsOf(others);
+
+        // The committed offset stays below the failing event; its later event waits behind it
+        Map<String, Object> stats = consumerStats();
+        assertThat(stats.get("offset")).isEqualTo(0L);
+        assertThat(stats.get("readCursor")).isEqualTo((long) (2 + 3 * BATCH_SIZE));
+        assertThat(stats.get("inFlight")).isEqualTo(2);
+        assertThat(stats.get("retrying")).isEqualTo(1);
+    }
+
+    @Test
+    void offsetFollowsReadCursorWhenNothingFails() throws Exception {
+        for (long id = 1; id <= 25; id++) {
+            addEvent(id, "reservation-" + id);
+        }
+
+        for (int drain = 0; drain < 3; drain++) {
+            dispatcher.drainOnce();
+        }
+
+        assertThat(delivered).hasSize(25);
+        assertThat(consumerStats().get("offset")).isEqualTo(25L);
+        assertThat(consumerStats().get("inFlight")).isEqualTo(0);
+    }
+
+    private void addEvent(long id, String aggregateId) {
+        table.add(OutboxEvent.builder()
+                .id(id)
+                .aggregateType("Reservation")
+                .aggregateId(aggregateId)
+                .eventType(ReservationEvent.class.getSimpleName())
+                .payload("{}")
+                .createdAt(Instant.now().minusSeconds(60))
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> consumerStats() {
+        List<Map<String, Object>> consumers = (List<Map<String, Object>>) dispatcher.getOutboxStats().get("consumers");
+        return consumers.get(0);
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.stayops.load;
+
+import com.example.stayops.entity.GuestFolio;
+import com.example.stayops.entity.Guest;
+import com.example.stayops.entity.Reservation;
+import com.example.stayops.entity.Room;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.repository.GuestFolioRepository;
+import com.example.stayops.repository.GuestRepository;
+import com.example.stayops.repository.ReservationRepository;
+import com.example.stayops.repository.RoomRepository;
+import com.example.stayops.support.QueryBudgetDataSeeder;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a scripted hotel day against one node and reports what it sustains
+ *
+ * Boots the application on an embedded H2 database seeded by QueryBudgetDataSeeder, then fires
+ * an open-loop mix of front-desk, booking-engine and tablet traffic at fixed rates for a fixed
+ * duration: bookings, holds, check-ins, service requests, folio postings, notification polling
+ * and front-desk reads. Reports throughput and p50/p95/p99 per endpoint plus Hikari
+ * connection-acquire times. Runs offline on a single box.
+ *
+ * Opt-in: mvn test -Dtest=HotelDayLoadTest -Dstayops.loadtest=true
+ *   -Dstayops.load.duration-seconds=60  -Dstayops.load.clients=200
+ *   -Dstayops.load.rate.<step>=<requests per second>, steps as in {@link #STEPS}
+ *   -Dstayops.load.rate-scale=0.5  (multiplies every step's rate, for finding the knee)
+ *
+ * Clients are platform threads from a fixed pool, one in-flight request each; the project
+ * targets Java 17, so {@link #clientExecutor} is the single place to switch to
+ * Executors.newVirtualThreadPerTaskExecutor() once the baseline moves to 21.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"querybudget", "loadtest"})
+@Import(QueryBudgetDataSeeder.class)
+@EnabledIfSystemProperty(named = "stayops.loadtest", matches = "true")
+class HotelDayLoadTest {
+
+    // Step name -> default requests per second
+    private static final Map<String, Double> STEPS = new LinkedHashMap<>();
+
+    static {
+        STEPS.put("booking", 5.0);
+        STEPS.put("hold", 5.0);
+        STEPS.put("check-in", 2.0);
+        STEPS.put("service-request", 5.0);
+        STEPS.put("folio-posting", 10.0);
+        STEPS.put("notification-poll", 50.0);
+        STEPS.put("front-desk-read", 20.0);
+    }
+
+    private static final int DURATION_SECONDS = Integer.getInteger("stayops.load.duration-seconds", 60);
+    private static final int CLIENTS = Integer.getInteger("stayops.load.clients", 200);
+    private static final double RATE_SCALE = Double.parseDouble(System.getProperty("stayops.load.rate-scale", "1.0"));
+    private static final double MAX_SERVER_ERROR_RATE =
+            Double.parseDouble(System.getProperty("stayops.load.max-server-error-rate", "0.01"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private QueryBudgetDataSeeder seeder;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private GuestFolioRepository folioRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Working set drawn from the seeded hotel
+    private List<String> guestIds;
+    private List<Long> roomIds;
+    private List<Long> reservationIds;
+    private List<Long> folioIds;
+    private final Queue<Long> arrivals = new ConcurrentLinkedQueue<>();
+    private LocalDate today;
+
+    @Test
+    void replayHotelDay() throws Exception {
+        seeder.seed();
+        loadWorkingSet();
+
+        ExecutorService clients = clientExecutor();
+        ScheduledExecutorService pacer = Executors.newScheduledThreadPool(STEPS.size());
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        AtomicInteger maxPending = new AtomicInteger();
+        AtomicLong shed = new AtomicLong();
+        Semaphore inFlight = new Semaphore(CLIENTS * 4);
+
+        Map<String, Supplier<HttpRequest>> script = script();
+        long started = System.nanoTime();
+        STEPS.forEach((step, defaultRate) -> {
+            double rate = RATE_SCALE
+                    * Double.parseDouble(System.getProperty("stayops.load.rate." + step, defaultRate.toString()));
+            if (rate <= 0) {
+                return;
+            }
+            long periodNanos = (long) (1_000_000_000L / rate);
+            Supplier<HttpRequest> request = script.get(step);
+            pacer.scheduleAtFixedRate(() -> {
+                long scheduledAt = System.nanoTime();
+                if (!inFlight.tryAcquire()) {
+                    // Node is hopelessly behind; count it instead of queueing without bound
+                    shed.incrementAndGet();
+                    return;
+                }
+                clients.execute(() -> {
+                    try {
+                        send(step, request, scheduledAt);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        });
+        pacer.scheduleAtFixedRate(() -> maxPending.accumulateAndGet(
+                hikari.getHikariPoolMXBean().getThreadsAwaitingConnection(), Math::max), 0, 100, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(DURATION_SECONDS));
+        pacer.shutdownNow();
+        clients.shutdown();
+        clients.awaitTermination(30, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.println();
+        System.out.printf("Hotel day: %.0f s, %d clients, rate scale %.2f, %d requests (%.1f req/s), %d shed%n",
+                seconds, CLIENTS, RATE_SCALE, recorder.totalRequests(), recorder.totalRequests() / seconds, shed.get());
+        System.out.print(recorder.report(seconds));
+        System.out.println(hikariReport(hikari, maxPending.get()));
+
+        assertThat((double) recorder.totalServerErrors())
+                .withFailMessage("%d of %d requests failed with 5xx or I/O errors",
+                        recorder.totalServerErrors(), recorder.totalRequests())
+                .isLessThanOrEqualTo(MAX_SERVER_ERROR_RATE * Math.max(1, recorder.totalRequests()));
+    }
+
+    private ExecutorService clientExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(CLIENTS, runnable -> {
+            Thread thread = new Thread(runnable, "load-client-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void send(String step, Supplier<HttpRequest> request, long scheduledAt) {
+        HttpRequest httpRequest = request.get();
+        if (httpRequest == null) {
+            return;  // e.g. no arrivals left to check in
+        }
+        String endpoint = step + " " + httpRequest.method();
+        try {
+            HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+            recorder.record(endpoint, System.nanoTime() - scheduledAt, response.statusCode());
+        } catch (Exception e) {
+            recorder.recordFailure(endpoint, System.nanoTime() - scheduledAt);
+        }
+    }
+
+    // ========== Script ==========
+
+    private Map<String, Supplier<HttpRequest>> script() {
+        Map<String, Supplier<HttpRequest>> script = new HashMap<>();
+
+        // Booking engine: future stays, so most succeed and the rest hit real availability conflicts
+        script.put("booking", () -> {
+            LocalDate checkIn = today.plusDays(30 + random().nextInt(335));
+            return post("/api/reservations/create", String.format(
+                    "{\"guestId\":\"%s\",\"roomIds\":[%d],\"checkInDate\":\"%s\",\"checkOutDate\":\"%s\",\"adults\":2,\"kids\":0}",
+                    pick(guestIds), pick(roomIds), checkIn, checkIn.plusDays(1 + random().nextInt(4))));
+        });
+        script.put("hold", () -> {
+            LocalDate checkIn = today.plusDays(30 + random().nextInt(335));
+            return post("/api/holds/create", String.format(
+                    "{\"guestId\":\"%s\",\"roomIds\":[%d],\"checkInDate\":\"%s\",\"checkOutDate\":\"%s\",\"ttlMinutes\":15}",
+                    pick(guestIds), pick(roomIds), checkIn, checkIn.plusDays(2)));
+        });
+
+        // Front desk
+        script.put("check-in", () -> {
+            Long reservationId = arrivals.poll();
+            return reservationId == null ? null : post("/api/reservations/" + reservationId + "/check-in", "");
+        });
+        script.put("folio-posting", () -> post(String.format(
+                "/api/billing/folios/%d/charges?itemType=SERVICE&description=Minibar&amount=%d&quantity=1&department=F%%26B",
+                pick(folioIds), 500 + random().nextInt(5000)), ""));
+        script.put("front-desk-read", () -> switch (random().nextInt(3)) {
+            case 0 -> get("/api/reservations/arrivals?date=" + today);
+            case 1 -> get("/api/reservations/room-status?date=" + today);
+            default -> get("/api/service-requests/pending");
+        });
+
+        // Guest tablets and staff devices
+        script.put("service-request", () -> post("/api/service-requests/create", String.format(
+                "{\"serviceType\":\"HOUSEKEEPING\",\"description\":\"Extra towels\",\"priority\":\"MEDIUM\",\"reservationId\":%d,\"roomId\":%d}",
+                pick(reservationIds), pick(roomIds))));
+        script.put("notification-poll", () ->
+                get("/api/notifications/user/" + (1 + random().nextInt(50)) + "/unread-count?userType=STAFF"));
+        return script;
+    }
+
+    private void loadWorkingSet() {
+        today = LocalDate.now();
+        guestIds = guestRepository.findAll().stream().map(Guest::getGuestId).collect(Collectors.toList());
+        roomIds = roomRepository.findAll().stream().map(Room::getId).collect(Collectors.toList());
+        List<Reservation> reservations = reservationRepository.findAll();
+        reservationIds = reservations.stream().map(Reservation::getReservationId).collect(Collectors.toList());
+        reservations.stream()
+                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMED || r.getStatus() == ReservationStatus.PENDING)
+                .filter(r -> !r.getCheckInDate().isAfter(today))
+                .map(Reservation::getReservationId)
+                .forEach(arrivals::add);
+        folioIds = folioRepository.findAll().stream().map(GuestFolio::getId).collect(Collectors.toList());
+    }
+
+    private String hikariReport(HikariDataSource hikari, int maxPending) {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire == null) {
+            return String.format("Hikari pool %d: acquire timer unavailable, max threads awaiting a connection %d",
+                    hikari.getMaximumPoolSize(), maxPending);
+        }
+        return String.format("Hikari pool %d: %d acquisitions, mean wait %.2f ms, max wait %.2f ms, "
+                        + "total wait %.0f ms, max threads awaiting a connection %d",
+                hikari.getMaximumPoolSize(), acquire.count(), acquire.mean(TimeUnit.MILLISECONDS),
+                acquire.max(TimeUnit.MILLISECONDS), acquire.totalTime(TimeUnit.MILLISECONDS), maxPending);
+    }
+
+    // ========== HTTP helpers ==========
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(random().nextInt(values.size()));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.stayops.load;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint latency samples and outcome counts for one load run
+ *
+ * Latency is measured from the moment a request was scheduled, not when a client picked it up,
+ * so time spent waiting for a free client shows up in the percentiles (no coordinated omission).
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).record(latencyNanos, status);
+    }
+
+    public void recordFailure(String endpoint, long latencyNanos) {
+        record(endpoint, latencyNanos, -1);
+    }
+
+    public long totalRequests() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.requests.get()).sum();
+    }
+
+    public long totalServerErrors() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.serverErrors.get()).sum();
+    }
+
+    public String report(double seconds) {
+        StringBuilder report = new StringBuilder(String.format(
+                "%-28s %8s %8s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx/io", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        new TreeMap<>(endpoints).forEach((name, endpoint) -> {
+            long[] samples = endpoint.sortedSamples();
+            report.append(String.format("%-28s %8d %8.1f %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    name, endpoint.requests.get(), endpoint.requests.get() / seconds,
+                    endpoint.clientErrors.get(), endpoint.serverErrors.get(),
+                    millis(percentile(samples, 0.50)), millis(percentile(samples, 0.95)),
+                    millis(percentile(samples, 0.99)), millis(samples.length > 0 ? samples[samples.length - 1] : 0)));
+        });
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private long[] samples = new long[1024];
+        private int size;
+
+        void record(long latencyNanos, int status) {
+            requests.incrementAndGet();
+            if (status < 0 || status >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (status >= 400) {
+                clientErrors.incrementAndGet();
+            }
+            synchronized (this) {
+                if (size == samples.length) {
+                    samples = Arrays.copyOf(samples, size * 2);
+                }
+                samples[size++] = latencyNanos;
+            }
+        }
+
+        synchronized long[] sortedSamples() {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
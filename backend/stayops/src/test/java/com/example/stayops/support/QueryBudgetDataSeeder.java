@@ -0,0 +1,226 @@
+package com.example.stayops.support;
+
+import com.example.stayops.entity.*;
+import com.example.stayops.enums.FolioStatus;
+import com.example.stayops.enums.ReservationStatus;
+import com.example.stayops.enums.UserType;
+import com.example.stayops.repository.*;
+import com.example.stayops.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Seeds one hotel's worth of data for the query-budget tests
+ *
+ * Volumes are large enough that a per-row lazy load shows up as tens or hundreds of extra
+ * statements, so N+1 regressions cannot hide under a budget meant for a constant query count.
+ */
+public class QueryBudgetDataSeeder {
+
+    public static final int ROOMS = 60;
+    public static final int GUESTS = 200;
+    public static final int RESERVATIONS = 600;
+    public static final int FOLIOS = 120;
+    public static final int LINE_ITEMS_PER_FOLIO = 8;
+    public static final int SERVICE_REQUESTS = 300;
+    public static final int COMMUNITY_THREADS = 100;
+    public static final int REPLIES_PER_THREAD = 4;
+    public static final int RATINGS = 150;
+
+    private static final String[] ROOM_TYPES = {"SINGLE", "DOUBLE", "DELUXE", "SUITE"};
+    private static final ReservationStatus[] STATUSES = {
+            ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT,
+            ReservationStatus.PENDING, ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED};
+    private static final String[] REQUEST_STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private GuestRepository guestRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private GuestFolioRepository folioRepository;
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+    @Autowired
+    private CommunityMessageRepository communityMessageRepository;
+    @Autowired
+    private RatingRepository ratingRepository;
+    @Autowired
+    private RatingService ratingService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Fixture fixture;
+
+    /**
+     * Ids the tests address; seeded once per application context
+     */
+    public record Fixture(LocalDate today, long hotelId, Long roomId, String guestId,
+                          Long reservationId, String folioNumber, Long folioReservationId,
+                          Long communityMessageId) {
+    }
+
+    public synchronized Fixture seed() {
+        if (fixture == null) {
+            fixture = new TransactionTemplate(transactionManager).execute(status -> seedAll());
+        }
+        return fixture;
+    }
+
+    private Fixture seedAll() {
+        LocalDate today = LocalDate.now();
+        Random random = new Random(42);
+
+        Hotel hotel = hotelRepository.save(Hotel.builder()
+                .name("Budget Test Hotel")
+                .phone("+94112345678")
+                .email("budget@stayops.test")
+                .build());
+
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(Room.builder()
+                    .roomNumber(String.valueOf(100 * (i / 20 + 1) + i % 20))
+                    .type(ROOM_TYPES[i % ROOM_TYPES.length])
+                    .capacity(1 + i % 4)
+                    .pricePerNight(10000.0 + 2500 * (i % 4))
+                    .availabilityStatus(i % 10 == 9 ? "MAINTENANCE" : "AVAILABLE")
+                    .floorNumber(String.valueOf(i / 20 + 1))
+                    .hotel(hotel)
+                    .build());
+        }
+        rooms = roomRepository.saveAll(rooms);
+
+        List<Guest> guests = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            guests.add(Guest.builder()
+                    .guestId(String.format("G%05d", i))
+                    .firstName("Guest" + i)
+                    .lastName("Budget")
+                    .email("guest" + i + "@stayops.test")
+                    .phone("+9477" + String.format("%07d", i))
+                    .nationality("LK")
+                    .build());
+        }
+        guests = guestRepository.saveAll(guests);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(60) - 30);
+            Reservation reservation = Reservation.builder()
+                    .guest(guests.get(i % GUESTS))
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(1 + random.nextInt(6)))
+                    .status(STATUSES[i % STATUSES.length])
+                    .build();
+            reservation.getRooms().add(rooms.get(random.nextInt(ROOMS)));
+            if (i % 5 == 0) {
+                reservation.getRooms().add(rooms.get(random.nextInt(ROOMS)));
+            }
+            reservation.setReservationDetails(ReservationDetails.builder()
+                    .reservation(reservation)
+                    .adults(1 + i % 3)
+                    .kids(i % 2)
+                    .build());
+            reservations.add(reservation);
+        }
+        // Guarantee arrivals and departures today
+        reservations.get(0).setCheckInDate(today);
+        reservations.get(0).setCheckOutDate(today.plusDays(3));
+        reservations.get(1).setCheckInDate(today.minusDays(2));
+        reservations.get(1).setCheckOutDate(today);
+        reservations = reservationRepository.saveAll(reservations);
+
+        List<GuestFolio> folios = new ArrayList<>();
+        for (int i = 0; i < FOLIOS; i++) {
+            GuestFolio folio = GuestFolio.builder()
+                    .folioNumber(String.format("F-BUDGET-%05d", i))
+                    .reservation(reservations.get(i))
+                    .status(FolioStatus.OPEN)
+                    .currency("LKR")
+                    .build();
+            for (int j = 0; j < LINE_ITEMS_PER_FOLIO; j++) {
+                folio.addLineItem(FolioLineItem.builder()
+                        .transactionDate(today.minusDays(j))
+                        .itemType(j % 4 == 3 ? "PAYMENT" : "ROOM_CHARGE")
+                        .description("Line " + j)
+                        .amount(j % 4 == 3 ? new BigDecimal("-5000.00") : new BigDecimal("12500.00"))
+                        .quantity(1)
+                        .build());
+            }
+            folios.add(folio);
+        }
+        folios = folioRepository.saveAll(folios);
+
+        List<ServiceRequest> requests = new ArrayList<>();
+        for (int i = 0; i < SERVICE_REQUESTS; i++) {
+            Reservation reservation = reservations.get(i % RESERVATIONS);
+            requests.add(ServiceRequest.builder()
+                    .serviceType(i % 2 == 0 ? "HOUSEKEEPING" : "ROOM_SERVICE")
+                    .description("Request " + i)
+                    .status(REQUEST_STATUSES[i % REQUEST_STATUSES.length])
+                    .priority(PRIORITIES[i % PRIORITIES.length])
+                    .requestedBy(reservation.getGuest().getGuestId())
+                    .reservation(reservation)
+                    .room(reservation.getRooms().iterator().next())
+                    .build());
+        }
+        serviceRequestRepository.saveAll(requests);
+
+        List<CommunityMessage> threads = new ArrayList<>();
+        for (int i = 0; i < COMMUNITY_THREADS; i++) {
+            threads.add(communityMessage(i, "Thread " + i, null, i % 10 == 0));
+        }
+        threads = communityMessageRepository.saveAll(threads);
+        List<CommunityMessage> replies = new ArrayList<>();
+        for (CommunityMessage thread : threads) {
+            for (int j = 0; j < REPLIES_PER_THREAD; j++) {
+                replies.add(communityMessage(j, "Reply " + j, thread.getId(), false));
+            }
+        }
+        communityMessageRepository.saveAll(replies);
+
+        List<Rating> ratings = new ArrayList<>();
+        for (int i = 0; i < RATINGS; i++) {
+            Reservation reservation = reservations.get(i);
+            ratings.add(Rating.builder()
+                    .guest(reservation.getGuest())
+                    .reservation(reservation)
+                    .overallRating(1 + random.nextInt(5))
+                    .cleanlinessRating(1 + random.nextInt(5))
+                    .serviceRating(1 + random.nextInt(5))
+                    .isVerified(true)
+                    .isPublished(i % 10 != 0)
+                    .build());
+        }
+        ratingRepository.saveAll(ratings);
+        ratingService.rebuildRatingAggregates();
+
+        return new Fixture(today, hotel.getId(), rooms.get(0).getId(), guests.get(0).getGuestId(),
+                reservations.get(0).getReservationId(), folios.get(0).getFolioNumber(),
+                folios.get(0).getReservation().getReservationId(), threads.get(0).getId());
+    }
+
+    private static CommunityMessage communityMessage(int i, String text, Long parentId, boolean announcement) {
+        return CommunityMessage.builder()
+                .senderId((long) i % GUESTS)
+                .senderName("Guest" + i % GUESTS)
+                .senderType(UserType.GUEST)
+                .message(text)
+                .attachments(new ArrayList<>(List.of("https://cdn.stayops.test/" + i + ".jpg")))
+                .parentMessageId(parentId)
+                .isAnnouncement(announcement)
+                .isActive(true)
+                .build();
+    }
+}
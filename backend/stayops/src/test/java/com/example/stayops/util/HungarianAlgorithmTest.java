@@ -0,0 +1,135 @@
+package com.example.stayops.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HungarianAlgorithmTest {
+
+    // Same magnitudes RoomAssignmentService uses for taken rooms and "leave unassigned" columns
+    private static final double FORBIDDEN = 1e9;
+    private static final double UNASSIGNED = 1e6;
+
+    @Test
+    void solvesSquareMatrixWithKnownOptimum() {
+        double[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0, 2);
+        assertThat(total(cost, assignment)).isEqualTo(5);
+    }
+
+    @Test
+    void handlesNegativeCosts() {
+        // Callers pass negated scores
+        double[][] cost = {
+                {-5, -3},
+                {-4, -1}
+        };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0);
+        assertThat(total(cost, assignment)).isEqualTo(-7);
+    }
+
+    @Test
+    void assignsEveryRowToADistinctColumnWhenRectangular() {
+        double[][] cost = {
+                {5, 9, 1, 7},
+                {2, 8, 3, 6}
+        };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(2, 0);
+    }
+
+    @Test
+    void avoidsForbiddenCells() {
+        // Row 1 can only use column 0, so row 0 has to give it up for its second choice
+        double[][] cost = {
+                {1, 2, UNASSIGNED, UNASSIGNED},
+                {1, FORBIDDEN, UNASSIGNED, UNASSIGNED}
+        };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0);
+    }
+
+    @Test
+    void leavesRowUnassignedWhenOnlyForbiddenColumnsRemain() {
+        double[][] cost = {
+                {-10, UNASSIGNED, UNASSIGNED},
+                {FORBIDDEN, UNASSIGNED, UNASSIGNED}
+        };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment[0]).isEqualTo(0);
+        assertThat(assignment[1]).isIn(1, 2);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomMatrices() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int rows = 1 + random.nextInt(5);
+            int columns = rows + random.nextInt(3);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(10) == 0 ? FORBIDDEN : random.nextInt(200) - 100;
+                }
+            }
+
+            int[] assignment = HungarianAlgorithm.solve(cost);
+
+            assertThat(assignment).doesNotHaveDuplicates();
+            assertThat(total(cost, assignment)).isEqualTo(bruteForceMinimum(cost, 0, new boolean[columns]));
+        }
+    }
+
+    @Test
+    void returnsEmptyAssignmentForEmptyMatrix() {
+        assertThat(HungarianAlgorithm.solve(new double[0][0])).isEmpty();
+    }
+
+    @Test
+    void rejectsMoreRowsThanColumns() {
+        assertThatThrownBy(() -> HungarianAlgorithm.solve(new double[3][2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double total(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            total += cost[i][assignment[i]];
+        }
+        return total;
+    }
+
+    private static double bruteForceMinimum(double[][] cost, int row, boolean[] usedColumns) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < usedColumns.length; j++) {
+            if (!usedColumns[j]) {
+                usedColumns[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForceMinimum(cost, row + 1, usedColumns));
+                usedColumns[j] = false;
+            }
+        }
+        return best;
+    }
+}